@@ -1,28 +1,43 @@
 package vimification;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import vimification.common.core.Config;
 import vimification.common.core.LogsCenter;
+import vimification.common.core.StorageFormat;
 import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
 import vimification.common.util.JsonUtil;
 import vimification.common.util.StringUtil;
-import vimification.internal.Logic;
 import vimification.internal.LogicManager;
+import vimification.model.ColumnarTaskList;
 import vimification.model.CommandStack;
 import vimification.model.MacroMap;
 import vimification.model.TaskList;
 import vimification.model.UserPrefs;
+import vimification.storage.BinaryTaskListStorage;
+import vimification.storage.IndexedTaskListStorage;
+import vimification.storage.JournaledTaskListStorage;
 import vimification.storage.JsonMacroMapStorage;
 import vimification.storage.JsonTaskListStorage;
 import vimification.storage.JsonUserPrefsStorage;
+import vimification.storage.SegmentedTaskListStorage;
+import vimification.storage.SharedTaskListStorage;
 import vimification.storage.Storage;
 import vimification.storage.StorageManager;
+import vimification.storage.TaskListStorage;
 import vimification.storage.UserPrefsStorage;
+import vimification.storage.WatchedTaskListStorage;
+import vimification.storage.WriteBehindStorage;
 import vimification.ui.Ui;
 import vimification.ui.UiManager;
 
@@ -34,39 +49,129 @@ public class MainApp extends Application {
     private static final Logger LOGGER = LogsCenter.getLogger(MainApp.class);
 
     private Ui ui;
+    private Storage storage;
+    private LogicManager logic;
+    private Runnable taskListLoader = null;
+    private WatchedTaskListStorage watchedTaskListStorage = null;
+    private SharedTaskListStorage sharedTaskListStorage = null;
+    private IndexedTaskListStorage indexedTaskListStorage = null;
 
     @Override
     public void init() throws Exception {
         LOGGER.info("========== [ Initializing Vimification ] ==========");
         super.init();
 
+        long startTime = System.nanoTime();
         AppParameters appParameters = AppParameters.parse(getParameters());
-        Config config = initConfig(appParameters.getConfigPath());
+        Config config = logDuration("config", () -> initConfig(appParameters.getConfigPath()));
 
         UserPrefsStorage userPrefsStorage = new JsonUserPrefsStorage(config.getUserPrefsFilePath());
-        UserPrefs userPrefs = initUserPrefs(userPrefsStorage);
-        Storage storage = new StorageManager(
-                new JsonTaskListStorage(userPrefs.getTaskListFilePath()),
+        UserPrefs userPrefs = logDuration("user prefs", () -> initUserPrefs(userPrefsStorage));
+        Storage initStorage = new StorageManager(
+                logDuration("task list storage", () -> initTaskListStorage(userPrefs, config)),
                 new JsonMacroMapStorage(userPrefs.getMacroMapFilePath()),
-                userPrefsStorage);
+                userPrefsStorage,
+                config.isSyncOnSave());
+        if (config.isWriteBehindEnabled() && sharedTaskListStorage != null) {
+            // Other processes must see each save, and have their modifications merged right away
+            LOGGER.info("Write-behind is disabled, since the task list is shared");
+        } else if (config.isWriteBehindEnabled()) {
+            initStorage = new WriteBehindStorage(initStorage);
+        }
+        storage = initStorage;
 
-        Logic logic = new LogicManager(
-                initTaskList(storage),
-                initMacroMap(storage),
-                initCommandStack(),
-                storage);
+        // Converting a lazily loaded task list would load every task
+        boolean isColumnar = userPrefs.isTaskListColumnarEnabled()
+                && !userPrefs.isTaskListLazyLoadingEnabled();
+        if (isColumnar) {
+            LOGGER.info("Using columnar task list");
+        }
+        if (config.isProgressiveLoadingEnabled()) {
+            // The task list is loaded once the window is shown
+            TaskList taskList = createTaskList(isColumnar);
+            logic = new LogicManager(
+                    taskList,
+                    logDuration("macro map", () -> initMacroMap(storage)),
+                    initCommandStack(),
+                    storage);
+            logic.setLoadingTaskList(true);
+            taskListLoader = () -> loadTaskListInBatches(taskList);
+        } else {
+            // The task list and the macro map are independent, so they are loaded at the same time
+            CompletableFuture<TaskList> taskListFuture = CompletableFuture.supplyAsync(() ->
+                    logDuration("task list", () -> initTaskList(storage, isColumnar)));
+            MacroMap macroMap = logDuration("macro map", () -> initMacroMap(storage));
+            logic = new LogicManager(
+                    taskListFuture.join(),
+                    macroMap,
+                    initCommandStack(),
+                    storage);
+        }
         ui = new UiManager(logic);
         initLogging(config);
+        LOGGER.info("Initialized in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Runs one phase of the initialization, and logs how long it took.
+     */
+    private static <T> T logDuration(String phase, Supplier<T> supplier) {
+        long startTime = System.nanoTime();
+        T result = supplier.get();
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        LOGGER.info("Initialized " + phase + " in " + elapsedMillis + " ms");
+        return result;
     }
 
     @Override
     public void start(Stage primaryStage) throws Exception {
         ui.start(primaryStage);
+        if (taskListLoader != null) {
+            Thread loader = new Thread(taskListLoader, "task-list-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+        if (watchedTaskListStorage != null) {
+            try {
+                watchedTaskListStorage.startWatching(tasks ->
+                        Platform.runLater(() -> logic.reloadTaskList(tasks)));
+            } catch (IOException ex) {
+                LOGGER.warning("Failed to watch the task list: " + StringUtil.getDetails(ex));
+            }
+        }
+        if (sharedTaskListStorage != null) {
+            try {
+                sharedTaskListStorage.startPolling(tasks ->
+                        Platform.runLater(() -> logic.reloadTaskList(tasks)));
+            } catch (IOException ex) {
+                LOGGER.warning("Failed to poll the task list: " + StringUtil.getDetails(ex));
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        LOGGER.info("========== [ Stopping Vimification ] ==========");
+        if (watchedTaskListStorage != null) {
+            watchedTaskListStorage.stopWatching();
+        }
+        if (sharedTaskListStorage != null) {
+            sharedTaskListStorage.stopPolling();
+        }
+        try {
+            storage.flush();
+        } catch (IOException ex) {
+            LOGGER.severe("Failed to save data before exiting: " + StringUtil.getDetails(ex));
+        }
+        if (indexedTaskListStorage != null) {
+            indexedTaskListStorage.flushIndex();
+        }
     }
 
     /**
      * Returns a {@code Config} using the file at {@code configFilePath}, or a new {@code Config}
-     * with default configuration if {@code configFilePath} is null.
+     * with default configuration if {@code configFilePath} is null. The file is only written if it
+     * could not be read.
      */
     private Config initConfig(Path configFilePath) {
         Path configFilePathUsed;
@@ -78,16 +183,20 @@ public class MainApp extends Application {
         }
         LOGGER.info("Using config file: " + configFilePathUsed);
         Config config;
+        boolean shouldSave = false;
         try {
             config = JsonUtil.readJsonFile(configFilePathUsed, Config.class);
         } catch (IOException e) {
             LOGGER.warning("Problem while reading config from file...");
             config = new Config();
+            shouldSave = true;
         }
-        try {
-            JsonUtil.saveJsonFile(config, configFilePathUsed);
-        } catch (IOException ex) {
-            LOGGER.warning("Failed to save config: " + StringUtil.getDetails(ex));
+        if (shouldSave) {
+            try {
+                JsonUtil.saveJsonFile(config, configFilePathUsed);
+            } catch (IOException ex) {
+                LOGGER.warning("Failed to save config: " + StringUtil.getDetails(ex));
+            }
         }
         return config;
     }
@@ -95,62 +204,241 @@ public class MainApp extends Application {
     /**
      * Returns a {@code UserPrefs} using the file at {@code storage}'s user prefs file path, or a
      * new {@code UserPrefs} with default configuration if errors occur when reading from the file.
+     * The file is only written if it could not be read.
      */
     private UserPrefs initUserPrefs(UserPrefsStorage storage) {
         UserPrefs userPrefs;
+        boolean shouldSave = false;
         try {
             userPrefs = storage.readUserPrefs();
         } catch (IOException ex) {
             LOGGER.warning("Problem while reading user prefs from file...");
             userPrefs = new UserPrefs();
+            shouldSave = true;
         }
-        try {
-            storage.saveUserPrefs(userPrefs);
-        } catch (IOException ex) {
-            LOGGER.warning("Failed to save user prefs: " + StringUtil.getDetails(ex));
+        if (shouldSave) {
+            try {
+                storage.saveUserPrefs(userPrefs);
+            } catch (IOException ex) {
+                LOGGER.warning("Failed to save user prefs: " + StringUtil.getDetails(ex));
+            }
         }
         return userPrefs;
     }
 
+    /**
+     * Returns the {@code TaskListStorage} selected by {@code userPrefs}.
+     */
+    private TaskListStorage initTaskListStorage(UserPrefs userPrefs, Config config) {
+        Path taskListFilePath = userPrefs.getTaskListFilePath();
+        TaskListStorage taskListStorage;
+        if (BinaryTaskListStorage.isBinaryFile(taskListFilePath)) {
+            LOGGER.info("Using binary format for task list");
+            // Journals and shared access compare every persisted task with the saved ones, which
+            // defeats lazy loading
+            boolean isLazy = userPrefs.isTaskListLazyLoadingEnabled()
+                    && BinaryTaskListStorage.isLazyLoadingSupported()
+                    && !userPrefs.isTaskListJournalEnabled()
+                    && !userPrefs.isTaskListSharedAccessEnabled();
+            if (userPrefs.isTaskListLazyLoadingEnabled() && !isLazy) {
+                LOGGER.info("Lazy loading of task list is disabled");
+            }
+            taskListStorage =
+                    new BinaryTaskListStorage(taskListFilePath, config.isSyncOnSave(), isLazy);
+            String fileName = taskListFilePath.getFileName().toString();
+            convertJsonTaskList(taskListStorage, taskListFilePath.resolveSibling(
+                    fileName.substring(0, fileName.lastIndexOf('.')) + ".json"));
+        } else if (userPrefs.isTaskListSegmentsEnabled()) {
+            LOGGER.info("Using segments for task list");
+            String fileName = taskListFilePath.getFileName().toString();
+            int extensionStart = fileName.lastIndexOf('.');
+            String baseName = extensionStart < 0 ? fileName : fileName.substring(0, extensionStart);
+            Path directory = taskListFilePath.resolveSibling(baseName + ".segments");
+            taskListStorage = new SegmentedTaskListStorage(directory, config.isSyncOnSave(),
+                    userPrefs.getTaskListStorageFormat(),
+                    SegmentedTaskListStorage.DEFAULT_SEGMENT_SIZE);
+            convertJsonTaskList(taskListStorage, taskListFilePath);
+        } else if (userPrefs.getTaskListStorageFormat() == StorageFormat.COMPRESSED) {
+            LOGGER.info("Using compressed format for task list");
+            // The compressed file is put next to the uncompressed one, e.g. tasklist.json.gz
+            String fileName = taskListFilePath.getFileName().toString();
+            String extension = StorageFormat.COMPRESSED_FILE_EXTENSION;
+            Path compressedFilePath = fileName.endsWith(extension)
+                    ? taskListFilePath
+                    : taskListFilePath.resolveSibling(fileName + extension);
+            String compressedFileName = compressedFilePath.getFileName().toString();
+            taskListStorage = new JsonTaskListStorage(
+                    compressedFilePath, config.isSyncOnSave(), StorageFormat.COMPRESSED);
+            convertJsonTaskList(taskListStorage, compressedFilePath.resolveSibling(
+                    compressedFileName.substring(0,
+                            compressedFileName.length() - extension.length())));
+        } else {
+            taskListStorage = new JsonTaskListStorage(taskListFilePath, config.isSyncOnSave(),
+                    userPrefs.getTaskListStorageFormat());
+        }
+        boolean isShared = userPrefs.isTaskListSharedAccessEnabled();
+        if (userPrefs.isTaskListJournalEnabled()) {
+            LOGGER.info("Using journal for task list");
+            // Other processes must never see a checkpoint in progress
+            taskListStorage = new JournaledTaskListStorage(taskListStorage, config.isSyncOnSave(),
+                    config.getJournalCheckpointRecords(), config.getJournalCheckpointBytes(),
+                    !isShared);
+        }
+        if (isShared) {
+            LOGGER.info("Sharing task list with other processes");
+            sharedTaskListStorage =
+                    new SharedTaskListStorage(taskListStorage, config.isSyncOnSave());
+            taskListStorage = sharedTaskListStorage;
+        }
+        // Checking an index requires every task, which defeats lazy loading
+        if (userPrefs.isTaskListIndexEnabled() && !userPrefs.isTaskListLazyLoadingEnabled()) {
+            LOGGER.info("Using index for task list");
+            indexedTaskListStorage = new IndexedTaskListStorage(taskListStorage);
+            taskListStorage = indexedTaskListStorage;
+        }
+        if (userPrefs.isTaskListWatchEnabled()) {
+            watchedTaskListStorage = new WatchedTaskListStorage(taskListStorage);
+            taskListStorage = watchedTaskListStorage;
+        }
+        return taskListStorage;
+    }
+
+    /**
+     * Converts the task list in the JSON file at {@code jsonFilePath} to the format of
+     * {@code taskListStorage}, if its data file does not exist yet. The JSON file is kept as it is.
+     */
+    private void convertJsonTaskList(TaskListStorage taskListStorage, Path jsonFilePath) {
+        Path filePath = taskListStorage.getTaskListFilePath();
+        if (FileUtil.isFileExists(filePath) || !FileUtil.isFileExists(jsonFilePath)) {
+            return;
+        }
+        LOGGER.info("Converting task list from " + jsonFilePath + " to " + filePath);
+        try {
+            taskListStorage.saveTaskList(new JsonTaskListStorage(jsonFilePath).readTaskList());
+        } catch (DataConversionException | IOException ex) {
+            LOGGER.warning("Failed to convert task list: " + StringUtil.getDetails(ex));
+        }
+    }
+
     /**
      * Returns a {@code TaskList} using the file at {@code storage}'s task list file path, or a new
-     * {@code TaskList} with default configuration if errors occur when reading from the file.
+     * {@code TaskList} with default configuration if errors occur when reading from the file. The
+     * file is only written if it could not be read. The tasks are stored in a
+     * {@link ColumnarTaskList} if {@code isColumnar} is true.
+     */
+    private TaskList initTaskList(Storage storage, boolean isColumnar) {
+        try {
+            TaskList taskList = storage.readTaskList();
+            if (isColumnar) {
+                return TaskList.wrap(new ColumnarTaskList(taskList.getLogicSource()));
+            }
+            return taskList;
+        } catch (DataConversionException | IOException ex) {
+            TaskList taskList = createTaskList(isColumnar);
+            replaceUnreadableTaskList(storage, taskList, ex);
+            return taskList;
+        }
+    }
+
+    /**
+     * Returns a new, empty {@code TaskList}, which stores its tasks in a
+     * {@link ColumnarTaskList} if {@code isColumnar} is true.
+     */
+    private static TaskList createTaskList(boolean isColumnar) {
+        return isColumnar ? TaskList.wrap(new ColumnarTaskList()) : new TaskList();
+    }
+
+    /**
+     * Reads the task list in the background, and appends each batch of tasks to {@code taskList}
+     * on the JavaFX application thread, so that the task list is displayed while it is loading.
+     * Commands that modify the task list are rejected by {@code logic} until it is fully loaded.
      */
-    private TaskList initTaskList(Storage storage) {
-        TaskList taskList;
+    private void loadTaskListInBatches(TaskList taskList) {
+        long startTime = System.nanoTime();
+        Exception failure = null;
         try {
-            taskList = storage.readTaskList();
-        } catch (DataConversionException ex) {
+            storage.readTaskList(batch -> Platform.runLater(() -> taskList.addAll(batch)));
+        } catch (DataConversionException | IOException ex) {
+            failure = ex;
+        }
+        Exception readFailure = failure;
+        Platform.runLater(() -> {
+            if (readFailure != null) {
+                replaceUnreadableTaskList(storage, taskList, readFailure);
+            }
+            logic.setLoadingTaskList(false);
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            LOGGER.info("Loaded " + taskList.size() + " tasks in " + elapsedMillis + " ms");
+        });
+    }
+
+    /**
+     * Handles a task list that could not be read, by clearing {@code taskList} and saving it in
+     * place of the unreadable one. The unreadable file is backed up first, whatever the failure,
+     * and nothing is saved if it cannot be backed up.
+     */
+    private void replaceUnreadableTaskList(Storage storage, TaskList taskList, Exception ex) {
+        if (ex instanceof DataConversionException) {
             LOGGER.warning("Task list is in invalid format: " + StringUtil.getDetails(ex));
-            taskList = new TaskList();
-        } catch (IOException ex) {
-            LOGGER.warning("Problem while reading task list from the file...");
-            taskList = new TaskList();
+        } else {
+            LOGGER.warning("Problem while reading task list from the file: "
+                    + StringUtil.getDetails(ex));
+        }
+        // Some tasks may already have been loaded
+        taskList.clear();
+        if (!backupInvalidFile(storage.getTaskListFilePath())) {
+            LOGGER.warning("Task list is not saved, so that the unreadable file is kept");
+            return;
         }
         try {
             storage.saveTaskList(taskList);
+        } catch (IOException saveEx) {
+            LOGGER.warning("Failed to save task list: " + StringUtil.getDetails(saveEx));
+        }
+    }
+
+    /**
+     * Moves a data file that cannot be read out of the way, so that it is not overwritten by the
+     * next save.
+     *
+     * @return true if the file has been moved, or does not exist, otherwise false
+     */
+    private boolean backupInvalidFile(Path filePath) {
+        if (!Files.exists(filePath)) {
+            return true;
+        }
+        Path backupPath = filePath.resolveSibling(filePath.getFileName() + ".invalid");
+        try {
+            Files.move(filePath, backupPath, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.warning("Invalid data file has been moved to: " + backupPath);
+            return true;
         } catch (IOException ex) {
-            LOGGER.warning("Failed to save task list: " + StringUtil.getDetails(ex));
+            LOGGER.warning("Failed to back up invalid data file: " + StringUtil.getDetails(ex));
+            return false;
         }
-        return taskList;
     }
 
     /**
      * Returns a {@code MacroMap} using the file at {@code storage}'s macro map file path, or a new
-     * {@code MacroMap} with default configuration if errors occur when reading from the file.
+     * {@code MacroMap} with default configuration if errors occur when reading from the file. The
+     * file is only written if it could not be read.
      */
     private MacroMap initMacroMap(Storage storage) {
         MacroMap macroMap;
+        boolean shouldSave = false;
         try {
             macroMap = storage.readMacroMap();
         } catch (IOException ex) {
             LOGGER.warning("Problem while reading macro map from file...");
             macroMap = new MacroMap();
+            shouldSave = true;
         }
-        try {
-            storage.saveMacroMap(macroMap);
-        } catch (IOException ex) {
-            LOGGER.warning("Failed to save macro map: " + StringUtil.getDetails(ex));
+        if (shouldSave) {
+            try {
+                storage.saveMacroMap(macroMap);
+            } catch (IOException ex) {
+                LOGGER.warning("Failed to save macro map: " + StringUtil.getDetails(ex));
+            }
         }
         return macroMap;
     }
@@ -14,6 +14,11 @@ public class Config {
     // Config values customizable through config file
     private Level logLevel = Level.INFO;
     private Path userPrefsFilePath = Path.of(".vimification", "preferences.json");
+    private boolean writeBehindEnabled = false;
+    private boolean syncOnSave = false;
+    private int journalCheckpointRecords = 1000;
+    private long journalCheckpointBytes = 1024 * 1024;
+    private boolean progressiveLoadingEnabled = false;
 
     public Level getLogLevel() {
         return logLevel;
@@ -31,6 +36,46 @@ public class Config {
         this.userPrefsFilePath = userPrefsFilePath;
     }
 
+    public boolean isWriteBehindEnabled() {
+        return writeBehindEnabled;
+    }
+
+    public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+        this.writeBehindEnabled = writeBehindEnabled;
+    }
+
+    public boolean isSyncOnSave() {
+        return syncOnSave;
+    }
+
+    public void setSyncOnSave(boolean syncOnSave) {
+        this.syncOnSave = syncOnSave;
+    }
+
+    public int getJournalCheckpointRecords() {
+        return journalCheckpointRecords;
+    }
+
+    public void setJournalCheckpointRecords(int journalCheckpointRecords) {
+        this.journalCheckpointRecords = journalCheckpointRecords;
+    }
+
+    public long getJournalCheckpointBytes() {
+        return journalCheckpointBytes;
+    }
+
+    public void setJournalCheckpointBytes(long journalCheckpointBytes) {
+        this.journalCheckpointBytes = journalCheckpointBytes;
+    }
+
+    public boolean isProgressiveLoadingEnabled() {
+        return progressiveLoadingEnabled;
+    }
+
+    public void setProgressiveLoadingEnabled(boolean progressiveLoadingEnabled) {
+        this.progressiveLoadingEnabled = progressiveLoadingEnabled;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -41,16 +86,26 @@ public class Config {
         }
         Config otherConfig = (Config) other;
         return Objects.equals(logLevel, otherConfig.logLevel)
-                && Objects.equals(userPrefsFilePath, otherConfig.userPrefsFilePath);
+                && Objects.equals(userPrefsFilePath, otherConfig.userPrefsFilePath)
+                && writeBehindEnabled == otherConfig.writeBehindEnabled
+                && syncOnSave == otherConfig.syncOnSave
+                && journalCheckpointRecords == otherConfig.journalCheckpointRecords
+                && journalCheckpointBytes == otherConfig.journalCheckpointBytes
+                && progressiveLoadingEnabled == otherConfig.progressiveLoadingEnabled;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(logLevel, userPrefsFilePath);
+        return Objects.hash(logLevel, userPrefsFilePath, writeBehindEnabled, syncOnSave,
+                journalCheckpointRecords, journalCheckpointBytes, progressiveLoadingEnabled);
     }
 
     @Override
     public String toString() {
-        return "Config [logLevel=" + logLevel + ", userPrefsFilePath=" + userPrefsFilePath + "]";
+        return "Config [logLevel=" + logLevel + ", userPrefsFilePath=" + userPrefsFilePath
+                + ", writeBehindEnabled=" + writeBehindEnabled + ", syncOnSave=" + syncOnSave
+                + ", journalCheckpointRecords=" + journalCheckpointRecords
+                + ", journalCheckpointBytes=" + journalCheckpointBytes
+                + ", progressiveLoadingEnabled=" + progressiveLoadingEnabled + "]";
     }
 }
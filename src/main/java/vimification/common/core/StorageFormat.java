@@ -0,0 +1,27 @@
+package vimification.common.core;
+
+/**
+ * Represents the different formats used to write the JSON data files.
+ */
+public enum StorageFormat {
+
+    /**
+     * Indented JSON, which is easy to read and edit by hand.
+     */
+    PRETTY,
+
+    /**
+     * JSON without any whitespace.
+     */
+    COMPACT,
+
+    /**
+     * JSON without any whitespace, compressed with GZIP.
+     */
+    COMPRESSED;
+
+    /**
+     * The extension of the files using the {@link #COMPRESSED} format.
+     */
+    public static final String COMPRESSED_FILE_EXTENSION = ".gz";
+}
@@ -13,4 +13,23 @@ public class DataConversionException extends Exception {
     public DataConversionException(Exception cause) {
         super(cause);
     }
+
+    /**
+     * Creates an instance with the specified message.
+     *
+     * @param message the description of the error
+     */
+    public DataConversionException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates an instance with the specified message and cause.
+     *
+     * @param message the description of the error
+     * @param cause the original cause of this exception
+     */
+    public DataConversionException(String message, Exception cause) {
+        super(message, cause);
+    }
 }
@@ -1,9 +1,18 @@
 package vimification.common.util;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Writes and reads files
@@ -11,6 +20,7 @@ import java.nio.file.Path;
 public class FileUtil {
 
     private static final String CHARSET = "UTF-8";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
 
     public static boolean isFileExists(Path path) {
         return Files.exists(path) && Files.isRegularFile(path);
@@ -47,6 +57,18 @@ public class FileUtil {
         Files.createFile(path);
     }
 
+    /**
+     * Creates the missing parent directories of a file.
+     *
+     * @throws IOException if the directories cannot be created.
+     */
+    public static void createParentDirectoriesIfMissing(Path path) throws IOException {
+        Path parentPath = path.getParent();
+        if (parentPath != null) {
+            Files.createDirectories(parentPath);
+        }
+    }
+
     /**
      * Reads the content of a file as string.
      *
@@ -58,12 +80,162 @@ public class FileUtil {
     }
 
     /**
-     * Writes given string to a file. A new file will be created if it does not exist yet.
+     * Writes given string to a file. A new file will be created if it does not exist yet. The new
+     * content is not forced to the disk.
      *
      * @param path path to the file
      * @param content the content to be written into the file
+     * @see #writeToFile(Path, String, boolean)
      */
     public static void writeToFile(Path path, String content) throws IOException {
-        Files.write(path, content.getBytes(CHARSET));
+        writeToFile(path, content, false);
+    }
+
+    /**
+     * Writes given string to a file. A new file will be created if it does not exist yet.
+     *
+     * @param path path to the file
+     * @param content the content to be written into the file
+     * @param shouldSync whether the new content should be forced to the disk
+     * @see #writeToFile(Path, ContentWriter, boolean)
+     */
+    public static void writeToFile(Path path, String content, boolean shouldSync)
+            throws IOException {
+        byte[] bytes = content.getBytes(CHARSET);
+        writeToFile(path, output -> output.write(bytes), shouldSync);
+    }
+
+    /**
+     * Writes the content produced by the given writer to a file. A new file will be created if it
+     * does not exist yet.
+     * <p>
+     * The content is written to a temporary file next to the target file, which then atomically
+     * replaces the target file. Hence, the target file always contains either the old content or
+     * the new content, even if the application crashes in the middle of the write.
+     *
+     * @param path path to the file
+     * @param writer writes the content into a buffered stream of the temporary file
+     * @param shouldSync whether the new content should be forced to the disk before replacing the
+     *        target file, which protects it against a crash of the operating system as well
+     */
+    public static void writeToFile(Path path, ContentWriter writer, boolean shouldSync)
+            throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + TEMP_FILE_EXTENSION);
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                // The stream is not closed here, since that would close the channel too early
+                OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel));
+                writer.writeTo(output);
+                output.flush();
+                if (shouldSync) {
+                    channel.force(true);
+                }
+            }
+            replaceFile(tempPath, path);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+        if (shouldSync) {
+            syncDirectory(path.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Appends given string to a file. A new file will be created if it does not exist yet.
+     *
+     * @param path path to the file
+     * @param content the content to be appended to the file
+     * @param shouldSync whether the new content should be forced to the disk
+     */
+    public static void appendToFile(Path path, String content, boolean shouldSync)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(CHARSET));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (shouldSync) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Moves a file, replacing the target file if it exists. The target file always contains either
+     * its old content or the content of the source file, even if the application crashes in the
+     * middle of the move.
+     *
+     * @param source path to the file to be moved
+     * @param target path to the file to be replaced
+     * @param shouldSync whether the move should be forced to the disk
+     */
+    public static void moveFile(Path source, Path target, boolean shouldSync) throws IOException {
+        replaceFile(source, target);
+        if (shouldSync) {
+            syncDirectory(target.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Replaces the target file with the source file, atomically if the file system supports it.
+     */
+    private static void replaceFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target,
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the entries of a directory to the disk, so that a renamed file survives a crash of the
+     * operating system. This is not supported on every platform, and is skipped if it fails.
+     */
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // Not supported on this platform
+        }
+    }
+
+    /**
+     * Returns a string that identifies the current version of a file, or null if the file does not
+     * exist.
+     * <p>
+     * The fingerprint is made from the file key (if supported by the file system), the size and the
+     * last modified time of the file. Replacing the file, or writing to it, changes the fingerprint.
+     *
+     * @param path path to the file
+     * @return the fingerprint of the file, or null if the file does not exist
+     */
+    public static String getFingerprint(Path path) throws IOException {
+        if (!isFileExists(path)) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return attributes.fileKey() + ":" + attributes.size() + ":"
+                + attributes.lastModifiedTime();
+    }
+
+    /**
+     * Writes the content of a file into a stream.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        /**
+         * Writes the content into the specified stream. The stream should not be closed.
+         *
+         * @param output the stream to write to
+         * @throws IOException if there was an error during writing to the stream
+         */
+        void writeTo(OutputStream output) throws IOException;
     }
 }
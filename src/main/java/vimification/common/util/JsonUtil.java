@@ -3,15 +3,20 @@ package vimification.common.util;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.logging.Level;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
@@ -39,9 +44,10 @@ public class JsonUtil {
      * @return The JSON string representation of the instance
      * @throws JsonProcessingException if the object cannot be converted to JSON
      */
-    static <T> void serializeObjectToJsonFile(Path filePath, T object) throws IOException {
-        FileUtil.createIfMissing(filePath);
-        FileUtil.writeToFile(filePath, toJsonString(object));
+    static <T> void serializeObjectToJsonFile(Path filePath, T object, boolean shouldSync)
+            throws IOException {
+        FileUtil.createParentDirectoriesIfMissing(filePath);
+        FileUtil.writeToFile(filePath, toJsonString(object), shouldSync);
     }
 
     /**
@@ -78,11 +84,83 @@ public class JsonUtil {
      * @throws IOException if there was an error during writing to the file
      */
     public static <T> void saveJsonFile(T object, Path filePath) throws IOException {
+        saveJsonFile(object, filePath, false);
+    }
+
+    /**
+     * Saves the Json object to the specified file. Overwrites existing file if it exists, creates a
+     * new file if it doesn't. The file is replaced atomically, see
+     * {@link FileUtil#writeToFile(Path, String, boolean)}.
+     *
+     * @param object cannot be null
+     * @param filePath cannot be null
+     * @param shouldSync whether the file should be forced to the disk
+     * @throws IOException if there was an error during writing to the file
+     */
+    public static <T> void saveJsonFile(T object, Path filePath, boolean shouldSync)
+            throws IOException {
         requireNonNull(object);
         requireNonNull(filePath);
-        serializeObjectToJsonFile(filePath, object);
+        serializeObjectToJsonFile(filePath, object, shouldSync);
+    }
+
+    /**
+     * Creates a parser that reads JSON tokens from the given stream one at a time. Values can be
+     * read from the parser with {@link JsonParser#readValueAs(Class)}. Closing the parser closes
+     * the stream.
+     *
+     * @param input the stream to read from
+     * @return a new parser
+     * @throws IOException if the parser cannot be created
+     */
+    public static JsonParser createParser(InputStream input) throws IOException {
+        return OBJECT_MAPPER.getFactory().createParser(input);
     }
 
+    /**
+     * Creates a reader of instances of the given class, which reads them from a parser created by
+     * {@link #createParser(InputStream)}. Attributes can be passed to the deserializers with
+     * {@link ObjectReader#withAttribute(Object, Object)}.
+     *
+     * @param instanceClass the class of the instances to read
+     * @return a new reader
+     */
+    public static ObjectReader createReader(Class<?> instanceClass) {
+        return OBJECT_MAPPER.readerFor(instanceClass);
+    }
+
+    /**
+     * Creates a generator that writes pretty-printed JSON tokens to the given stream, in the same
+     * format as {@link #toJsonString(Object)}. Values can be written to the generator with
+     * {@link JsonGenerator#writeObject(Object)}. Closing the generator flushes, but does not close
+     * the stream.
+     *
+     * @param output the stream to write to
+     * @return a new generator
+     * @throws IOException if the generator cannot be created
+     */
+    public static JsonGenerator createGenerator(OutputStream output) throws IOException {
+        return createGenerator(output, true);
+    }
+
+    /**
+     * Creates a generator that writes JSON tokens to the given stream, either pretty-printed like
+     * {@link #toJsonString(Object)}, or without any whitespace like
+     * {@link #toCompactJsonString(Object)}. Closing the generator flushes, but does not close the
+     * stream.
+     *
+     * @param output the stream to write to
+     * @param isPretty whether the JSON should be pretty-printed
+     * @return a new generator
+     * @throws IOException if the generator cannot be created
+     */
+    public static JsonGenerator createGenerator(OutputStream output, boolean isPretty)
+            throws IOException {
+        JsonGenerator generator = OBJECT_MAPPER.getFactory()
+                .createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return isPretty ? generator.useDefaultPrettyPrinter() : generator;
+    }
 
     /**
      * Converts a given string representation of a JSON data to instance of a class
@@ -105,6 +183,18 @@ public class JsonUtil {
         return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(instance);
     }
 
+    /**
+     * Converts a given instance of a class into its JSON data string representation, without any
+     * whitespace. The result always fits on a single line.
+     *
+     * @param <T> The generic type to create an instance of
+     * @param instance The T object to be converted into the JSON string
+     * @return JSON data representation of the given class instance, in string
+     */
+    public static <T> String toCompactJsonString(T instance) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsString(instance);
+    }
+
     /**
      * Contains methods that retrieve logging level from serialized string.
      */
@@ -1,6 +1,7 @@
 package vimification.internal;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.logging.Logger;
 
 import vimification.common.core.LogsCenter;
@@ -8,14 +9,18 @@ import vimification.common.util.StringUtil;
 import vimification.internal.command.Command;
 import vimification.internal.command.CommandResult;
 import vimification.internal.command.logic.LogicCommand;
+import vimification.internal.command.logic.SyncCommand;
 import vimification.internal.command.macro.MacroCommand;
+import vimification.internal.command.ui.QuitCommand;
 import vimification.internal.command.ui.UiCommand;
 import vimification.internal.parser.ParserException;
 import vimification.internal.parser.VimificationParser;
 import vimification.model.CommandStack;
 import vimification.model.MacroMap;
 import vimification.model.TaskList;
+import vimification.model.TaskListDiff;
 import vimification.model.UiTaskList;
+import vimification.model.task.Task;
 import vimification.storage.Storage;
 import vimification.ui.MainScreen;
 
@@ -26,6 +31,8 @@ public class LogicManager implements Logic {
 
     private static final String FILE_OPS_ERROR_MESSAGE = "Could not save data to file";
     private static final String LIST_OPS_ERROR_MESSAGE = "Invalid operation";
+    private static final String LOADING_ERROR_MESSAGE =
+            "The task list is still loading, please try again in a moment";
     private static final Logger LOGGER = LogsCenter.getLogger(LogicManager.class);
 
     private TaskList taskList;
@@ -33,6 +40,9 @@ public class LogicManager implements Logic {
     private CommandStack commandStack;
     private MainScreen mainScreen;
     private Storage storage;
+    private volatile boolean isLoadingTaskList = false;
+    // The latest reload received while the task list was loading, applied once it is loaded
+    private List<Task> pendingReload = null;
 
     private final VimificationParser vimificationParser;
 
@@ -58,12 +68,35 @@ public class LogicManager implements Logic {
         CommandResult result = null;
         try {
             Command command = vimificationParser.parse(commandText);
-            if (command instanceof LogicCommand) {
+            if (command instanceof LogicCommand && isLoadingTaskList) {
+                // Modifying a partially loaded task list would save it without the other tasks
+                result = new CommandResult(LOADING_ERROR_MESSAGE, false);
+            } else if (command instanceof LogicCommand) {
                 LogicCommand logicCommand = (LogicCommand) command;
-                result = logicCommand.execute(taskList, commandStack);
+                if (logicCommand instanceof SyncCommand) {
+                    // The sync point is kept next to the data file of the task list
+                    SyncCommand syncCommand = (SyncCommand) logicCommand;
+                    syncCommand.setSync(storage.getTaskListSync(syncCommand.getDirectory()));
+                }
+                // The views are updated once, however many tasks the command modifies
+                taskList.beginTransaction();
+                try {
+                    result = logicCommand.execute(taskList, commandStack);
+                } finally {
+                    taskList.commitTransaction();
+                }
                 storage.saveTaskList(taskList);
+                if (logicCommand instanceof SyncCommand) {
+                    // The sync point must only be recorded once the synced task list is on the disk
+                    storage.flush();
+                    ((SyncCommand) logicCommand).commit();
+                }
             } else if (command instanceof UiCommand) {
                 UiCommand uiCommand = (UiCommand) command;
+                if (uiCommand instanceof QuitCommand) {
+                    // Makes sure that all data is on the disk, before closing the application
+                    storage.flush();
+                }
                 result = uiCommand.execute(mainScreen);
             } else if (command instanceof MacroCommand) {
                 MacroCommand macroCommand = (MacroCommand) command;
@@ -92,4 +125,52 @@ public class LogicManager implements Logic {
     public void setMainScreen(MainScreen mainScreen) {
         this.mainScreen = mainScreen;
     }
+
+    /**
+     * Sets whether the task list is still being loaded. While it is, commands that modify the
+     * task list are rejected, and reloads are deferred until it is loaded.
+     *
+     * @param isLoadingTaskList whether the task list is still being loaded
+     */
+    public void setLoadingTaskList(boolean isLoadingTaskList) {
+        this.isLoadingTaskList = isLoadingTaskList;
+        if (!isLoadingTaskList && pendingReload != null) {
+            List<Task> tasks = pendingReload;
+            pendingReload = null;
+            reloadTaskList(tasks);
+        }
+    }
+
+    /**
+     * Replaces the content of the task list with the specified tasks, which have been read again
+     * after the data file was modified by another program. Only the tasks that differ are
+     * replaced, so the displayed list is updated in place. The previous commands cannot be undone
+     * anymore, since they refer to the previous content of the task list.
+     * <p>
+     * If the task list is still being loaded, only the latest reload is kept, and applied once
+     * the task list is loaded.
+     *
+     * @param tasks the tasks read from the modified data file
+     */
+    public void reloadTaskList(List<Task> tasks) {
+        if (isLoadingTaskList) {
+            // The tasks loaded afterwards would be added again to the reloaded task list
+            pendingReload = tasks;
+            return;
+        }
+        TaskListDiff diff = TaskListDiff.between(taskList.getLogicSource(), tasks);
+        if (diff.isEmpty()) {
+            return;
+        }
+        diff.applyTo(taskList);
+        commandStack.clear();
+        LOGGER.info("Reloaded the task list, replaced " + diff.getRemovedCount()
+                + " tasks with " + diff.getAddedTasks().size() + " tasks");
+        try {
+            // Supersedes any save of the previous content that is still pending
+            storage.saveTaskList(taskList);
+        } catch (IOException ex) {
+            LOGGER.warning("Failed to save the reloaded task list: " + StringUtil.getDetails(ex));
+        }
+    }
 }
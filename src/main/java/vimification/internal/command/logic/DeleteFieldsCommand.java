@@ -42,12 +42,14 @@ public class DeleteFieldsCommand extends DeleteCommand {
     public CommandResult execute(LogicTaskList taskList, CommandStack commandStack) {
         actualIndex = taskList.getLogicSourceIndex(targetIndex.getZeroBased());
         Task oldTask = taskList.get(actualIndex);
-        Task newTask = oldTask.clone();
+        Task newTask = oldTask;
         this.oldTask = oldTask;
         if (request.shouldDeleteDeadline()) {
-            newTask.deleteDeadline();
+            newTask = newTask.withDeadlineDeleted();
+        }
+        for (String label : request.getDeletedLabels()) {
+            newTask = newTask.withLabelRemoved(label);
         }
-        request.getDeletedLabels().forEach(newTask::removeLabel);
         taskList.set(actualIndex, newTask);
         commandStack.push(this);
         return new CommandResult(
@@ -4,6 +4,7 @@ import java.util.Objects;
 
 import vimification.common.core.Index;
 import vimification.internal.command.CommandResult;
+import vimification.internal.parser.Pair;
 import vimification.model.CommandStack;
 import vimification.model.LogicTaskList;
 import vimification.model.task.Task;
@@ -42,24 +43,23 @@ public class EditCommand extends UndoableLogicCommand {
     public CommandResult execute(LogicTaskList taskList, CommandStack commandStack) {
         actualIndex = taskList.getLogicSourceIndex(targetIndex.getZeroBased());
         Task oldTask = taskList.get(actualIndex);
-        Task newTask = oldTask.clone();
+        Task newTask = oldTask;
         this.oldTask = oldTask;
         if (request.getEditedTitle() != null) {
-            newTask.setTitle(request.getEditedTitle());
+            newTask = newTask.withTitle(request.getEditedTitle());
         }
         if (request.getEditedDeadline() != null) {
-            newTask.editDeadline(request.getEditedDeadline());
+            newTask = newTask.withDeadlineEdited(request.getEditedDeadline());
         }
         if (request.getEditedPriority() != null) {
-            newTask.setPriority(request.getEditedPriority());
+            newTask = newTask.withPriority(request.getEditedPriority());
         }
         if (request.getEditedStatus() != null) {
-            newTask.setStatus(request.getEditedStatus());
+            newTask = newTask.withStatus(request.getEditedStatus());
+        }
+        for (Pair<String, String> pair : request.getEditedLabels()) {
+            newTask = newTask.withLabelRemoved(pair.getFirst()).withLabelAdded(pair.getSecond());
         }
-        request.getEditedLabels().forEach(pair -> {
-            newTask.removeLabel(pair.getFirst());
-            newTask.addLabel(pair.getSecond());
-        });
         taskList.set(actualIndex, newTask);
         commandStack.push(this);
         return new CommandResult(
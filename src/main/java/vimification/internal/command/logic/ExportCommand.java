@@ -0,0 +1,78 @@
+package vimification.internal.command.logic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import vimification.common.util.FileUtil;
+import vimification.internal.command.CommandResult;
+import vimification.model.CommandStack;
+import vimification.model.LogicTaskList;
+import vimification.model.task.Task;
+import vimification.storage.TaskFileFormat;
+import vimification.storage.TaskFileWriter;
+
+/**
+ * Writes all tasks in the list to a NDJSON or CSV file, which can be imported with
+ * {@link ImportCommand}.
+ * <p>
+ * This command does not modify the list, and cannot be undone.
+ */
+public class ExportCommand extends LogicCommand {
+
+    public static final String COMMAND_WORD = "export";
+    public static final String SUCCESS_MESSAGE_FORMAT = "%d tasks have been exported to %s.";
+    public static final String WRITE_ERROR_MESSAGE_FORMAT = "Could not export to %s: %s";
+
+    private final Path filePath;
+
+    /**
+     * Creates an {@code ExportCommand} to export the tasks to the specified file.
+     *
+     * @param filePath path to the file
+     */
+    public ExportCommand(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandResult execute(LogicTaskList taskList, CommandStack commandStack) {
+        Optional<TaskFileFormat> format = TaskFileFormat.fromPath(filePath);
+        if (format.isEmpty()) {
+            return new CommandResult(ImportCommand.UNSUPPORTED_FORMAT_MESSAGE, false);
+        }
+        List<Task> tasks = taskList.getLogicSource();
+        try {
+            FileUtil.createParentDirectoriesIfMissing(filePath);
+            FileUtil.writeToFile(filePath, output -> {
+                TaskFileWriter writer = new TaskFileWriter(output, format.get());
+                for (Task task : tasks) {
+                    writer.write(task);
+                }
+                writer.flush();
+            }, false);
+        } catch (IOException ex) {
+            return new CommandResult(
+                    String.format(WRITE_ERROR_MESSAGE_FORMAT, filePath, ex.getMessage()), false);
+        }
+        return new CommandResult(String.format(SUCCESS_MESSAGE_FORMAT, tasks.size(), filePath),
+                false);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ExportCommand)) {
+            return false;
+        }
+        ExportCommand otherCommand = (ExportCommand) other;
+        return Objects.equals(filePath, otherCommand.filePath);
+    }
+}
@@ -0,0 +1,133 @@
+package vimification.internal.command.logic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.internal.command.CommandResult;
+import vimification.model.CommandStack;
+import vimification.model.LogicTaskList;
+import vimification.model.task.Task;
+import vimification.storage.TaskFileFormat;
+import vimification.storage.TaskFileReader;
+
+/**
+ * Adds all tasks from a NDJSON or CSV file to the end of the list.
+ * <p>
+ * The tasks are added in batches, each of them as a single modification of the list. Invalid
+ * records are skipped and reported. The whole import is undone as a single command.
+ */
+public class ImportCommand extends UndoableLogicCommand {
+
+    public static final String COMMAND_WORD = "import";
+    public static final String SUCCESS_MESSAGE_FORMAT = "%d tasks have been imported.";
+    public static final String SKIPPED_MESSAGE_FORMAT = " %d invalid records have been skipped: %s";
+    public static final String UNSUPPORTED_FORMAT_MESSAGE =
+            "Unsupported file format. Please use a .ndjson, .jsonl or .csv file.";
+    public static final String READ_ERROR_MESSAGE_FORMAT =
+            "Could not import from %s, no task has been imported: %s";
+    public static final String UNDO_MESSAGE =
+            "The command has been undone. The imported tasks have been deleted.";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 3;
+
+    private final Path filePath;
+
+    private int importedCount = 0;
+
+    /**
+     * Creates an {@code ImportCommand} to import the tasks in the specified file.
+     *
+     * @param filePath path to the file
+     */
+    public ImportCommand(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandResult execute(LogicTaskList taskList, CommandStack commandStack) {
+        Optional<TaskFileFormat> format = TaskFileFormat.fromPath(filePath);
+        if (format.isEmpty()) {
+            return new CommandResult(UNSUPPORTED_FORMAT_MESSAGE, false);
+        }
+        List<String> errors = new ArrayList<>();
+        int skippedCount = 0;
+        try (TaskFileReader reader = new TaskFileReader(filePath, format.get())) {
+            List<Task> batch = new ArrayList<>();
+            while (true) {
+                Task task;
+                try {
+                    task = reader.read();
+                } catch (DataConversionException ex) {
+                    skippedCount++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("line " + reader.getLineNumber() + " (" + ex.getMessage() + ")");
+                    }
+                    continue;
+                }
+                if (task == null) {
+                    break;
+                }
+                // Imported tasks are new tasks, even if they were exported from this task list
+                batch.add(task.withNewId());
+                if (batch.size() == BATCH_SIZE) {
+                    addBatch(taskList, batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            addBatch(taskList, batch);
+        } catch (DataConversionException | IOException ex) {
+            // Removes the tasks imported before the failure
+            taskList.removeRange(taskList.size() - importedCount, taskList.size());
+            importedCount = 0;
+            return new CommandResult(
+                    String.format(READ_ERROR_MESSAGE_FORMAT, filePath, ex.getMessage()), false);
+        }
+        if (importedCount > 0) {
+            commandStack.push(this);
+        }
+        String message = String.format(SUCCESS_MESSAGE_FORMAT, importedCount);
+        if (skippedCount > 0) {
+            message += String.format(SKIPPED_MESSAGE_FORMAT, skippedCount,
+                    String.join(", ", errors) + (skippedCount > errors.size() ? ", ..." : ""));
+        }
+        return new CommandResult(message, true);
+    }
+
+    private void addBatch(LogicTaskList taskList, List<Task> batch) {
+        if (!batch.isEmpty()) {
+            taskList.addAll(batch);
+            importedCount += batch.size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandResult undo(LogicTaskList taskList) {
+        taskList.removeRange(taskList.size() - importedCount, taskList.size());
+        return new CommandResult(UNDO_MESSAGE, true);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ImportCommand)) {
+            return false;
+        }
+        ImportCommand otherCommand = (ImportCommand) other;
+        return importedCount == otherCommand.importedCount
+                && Objects.equals(filePath, otherCommand.filePath);
+    }
+}
@@ -43,12 +43,14 @@ public class InsertCommand extends UndoableLogicCommand {
     public CommandResult execute(LogicTaskList taskList, CommandStack commandStack) {
         actualIndex = taskList.getLogicSourceIndex(targetIndex.getZeroBased());
         Task oldTask = taskList.get(actualIndex);
-        Task newTask = oldTask.clone();
+        Task newTask = oldTask;
         this.oldTask = oldTask;
         if (request.getInsertedDeadline() != null) {
-            newTask.insertDeadline(request.getInsertedDeadline());
+            newTask = newTask.withDeadlineInserted(request.getInsertedDeadline());
+        }
+        for (String label : request.getInsertedLabels()) {
+            newTask = newTask.withLabelAdded(label);
         }
-        request.getInsertedLabels().forEach(newTask::addLabel);
         taskList.set(actualIndex, newTask);
         commandStack.push(this);
         return new CommandResult(
@@ -0,0 +1,117 @@
+package vimification.internal.command.logic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.internal.command.CommandResult;
+import vimification.model.CommandStack;
+import vimification.model.LogicTaskList;
+import vimification.storage.TaskListSync;
+
+/**
+ * Synchronizes the task list with a sync directory, which can be shared with other computers, see
+ * {@link TaskListSync}. Only the tasks modified since the previous sync are exchanged.
+ * <p>
+ * The sync is created by the storage, see {@link #setSync(TaskListSync)}, and the sync point is
+ * only recorded by {@link #commit()}, once the synced task list has been saved.
+ * This command cannot be undone, and the previous commands cannot be undone anymore if the task
+ * list has been modified by the sync.
+ */
+public class SyncCommand extends LogicCommand {
+
+    public static final String COMMAND_WORD = "sync";
+    public static final String SUCCESS_MESSAGE_FORMAT =
+            "Synced with %s: %d tasks received, %d tasks sent.";
+    public static final String CONFLICT_MESSAGE_FORMAT =
+            " %d tasks were modified on both sides, their conflicting fields kept the local values.";
+    public static final String ERROR_MESSAGE_FORMAT =
+            "Could not sync with %s, the task list has not been modified: %s";
+
+    private final Path directory;
+
+    private TaskListSync sync = null;
+    private boolean isExecuted = false;
+    private boolean isSynced = false;
+
+    /**
+     * Creates a {@code SyncCommand} to synchronize the task list with the specified directory.
+     *
+     * @param directory path to the sync directory
+     */
+    public SyncCommand(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the sync used to synchronize the task list, which must be done before this command is
+     * executed. The sync is created by the storage, since the sync point is kept next to the data
+     * file of the task list.
+     *
+     * @param sync the sync with the directory of this command
+     */
+    public void setSync(TaskListSync sync) {
+        this.sync = sync;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandResult execute(LogicTaskList taskList, CommandStack commandStack) {
+        if (isExecuted) {
+            throw new IllegalStateException(ALREADY_EXECUTED_MESSAGE);
+        }
+        if (sync == null) {
+            throw new IllegalStateException("The sync has not been set");
+        }
+        isExecuted = true;
+        TaskListSync.Result result;
+        try {
+            result = sync.sync(taskList);
+        } catch (DataConversionException | IOException ex) {
+            return new CommandResult(
+                    String.format(ERROR_MESSAGE_FORMAT, directory, ex.getMessage()), false);
+        }
+        isSynced = true;
+        if (result.getReceivedCount() > 0) {
+            // The previous commands refer to the content of the task list before the sync
+            commandStack.clear();
+        }
+        String message = String.format(SUCCESS_MESSAGE_FORMAT, directory,
+                result.getReceivedCount(), result.getSentCount());
+        if (result.getConflictCount() > 0) {
+            message += String.format(CONFLICT_MESSAGE_FORMAT, result.getConflictCount());
+        }
+        return new CommandResult(message, true);
+    }
+
+    /**
+     * Records the sync point of this command. Must only be called once the synced task list is on
+     * the disk. Does nothing if the sync failed.
+     *
+     * @throws IOException if the sync point cannot be recorded
+     */
+    public void commit() throws IOException {
+        if (isSynced) {
+            sync.commit();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SyncCommand)) {
+            return false;
+        }
+        SyncCommand otherCommand = (SyncCommand) other;
+        return Objects.equals(directory, otherCommand.directory);
+    }
+}
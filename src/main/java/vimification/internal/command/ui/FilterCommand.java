@@ -1,12 +1,18 @@
 package vimification.internal.command.ui;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import vimification.internal.command.CommandException;
 import vimification.internal.command.CommandResult;
+import vimification.model.TaskListIndex;
+import vimification.model.task.LabelDictionary;
 import vimification.model.task.Task;
 import vimification.ui.MainScreen;
 
@@ -34,40 +40,100 @@ public class FilterCommand extends UiCommand {
     @Override
     public CommandResult execute(MainScreen mainScreen) {
         List<Predicate<Task>> predicates = new ArrayList<>();
+        // The query that selects the tasks matching each predicate from the index, or null if the
+        // predicate cannot be answered by the index
+        List<Function<TaskListIndex, BitSet>> queries = new ArrayList<>();
         if (request.getSearchedKeyword() != null) {
             predicates.add(task -> task.containsKeyword(request.getSearchedKeyword()));
+            queries.add(null);
         }
         if (request.getSearchedPriority() != null) {
             predicates.add(task -> task.hasPriority(request.getSearchedPriority()));
+            queries.add(index -> index.getTasksWithPriority(request.getSearchedPriority()));
         }
         if (request.getSearchedStatus() != null) {
             predicates.add(task -> task.hasStatus(request.getSearchedStatus()));
+            queries.add(index -> index.getTasksWithStatus(request.getSearchedStatus()));
         }
-        if (request.getSearchedDeadlineBefore() != null) {
-            predicates.add(task -> task.deadlineIsBefore(request.getSearchedDeadlineBefore()));
+        LocalDateTime before = request.getSearchedDeadlineBefore();
+        LocalDateTime after = request.getSearchedDeadlineAfter();
+        if (before != null && after != null && request.getMode() == FilterRequest.Mode.AND) {
+            // Looking up both bounds together only goes through the deadlines between them
+            predicates.add(task -> task.deadlineIsBefore(before) && task.deadlineIsAfter(after));
+            queries.add(index -> index.getTasksWithDeadlineBetween(after, before));
+        } else {
+            if (before != null) {
+                predicates.add(task -> task.deadlineIsBefore(before));
+                queries.add(index -> index.getTasksWithDeadlineBetween(null, before));
+            }
+            if (after != null) {
+                predicates.add(task -> task.deadlineIsAfter(after));
+                queries.add(index -> index.getTasksWithDeadlineBetween(after, null));
+            }
         }
-        if (request.getSearchedDeadlineAfter() != null) {
-            predicates.add(task -> task.deadlineIsAfter(request.getSearchedDeadlineAfter()));
-        }
-        request.getSearchedLabels()
-                .forEach(label -> predicates.add(task -> task.containsLabel(label)));
+        request.getSearchedLabels().forEach(label -> {
+            // Looking up the label does not add it to the dictionary. A label without an id is
+            // looked up again for each task, so that it still matches tasks added later
+            int labelId = LabelDictionary.findId(label);
+            predicates.add(labelId == LabelDictionary.NO_ID
+                    ? task -> task.containsLabel(label)
+                    : task -> task.containsLabelId(labelId));
+            queries.add(index -> index.getTasksWithLabel(label));
+        });
+        mainScreen.getTaskListPanel().searchForTask(combine(predicates),
+                combineQueries(queries));
+        return new CommandResult(SUCCESS_MESSAGE, true);
+    }
 
-        Predicate<Task> predicate = null;
+    /**
+     * Combines the predicates as specified by the mode of the request.
+     */
+    private Predicate<Task> combine(List<Predicate<Task>> predicates) {
         switch (request.getMode()) {
         case DEFAULT:
-            predicate = predicates.get(0);
-            break;
+            return predicates.get(0);
         case AND:
-            predicate = predicates.stream().reduce(Predicate::and).orElse(ignore -> true);
-            break;
+            return predicates.stream().reduce(Predicate::and).orElse(ignore -> true);
         case OR:
-            predicate = predicates.stream().reduce(Predicate::or).orElse(ignore -> false);
-            break;
+            return predicates.stream().reduce(Predicate::or).orElse(ignore -> false);
         default:
             throw new CommandException("Should not reach here!");
         }
-        mainScreen.getTaskListPanel().searchForTask(predicate);
-        return new CommandResult(SUCCESS_MESSAGE, true);
+    }
+
+    /**
+     * Combines the queries in the same way as the predicates are combined, into a query that
+     * selects every task that may match the combined predicate. The conditions that cannot be
+     * answered by the index are then only tested on the selected tasks. Returns null if every task
+     * has to be tested.
+     */
+    private Function<TaskListIndex, BitSet> combineQueries(
+            List<Function<TaskListIndex, BitSet>> queries) {
+        if (request.getMode() == FilterRequest.Mode.DEFAULT) {
+            return queries.get(0);
+        }
+        boolean isUnion = request.getMode() == FilterRequest.Mode.OR;
+        if (isUnion && queries.contains(null)) {
+            return null;
+        }
+        List<Function<TaskListIndex, BitSet>> indexedQueries = queries.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (indexedQueries.isEmpty()) {
+            return null;
+        }
+        return index -> {
+            BitSet positions = indexedQueries.get(0).apply(index);
+            for (Function<TaskListIndex, BitSet> query : indexedQueries.subList(1,
+                    indexedQueries.size())) {
+                if (isUnion) {
+                    positions.or(query.apply(index));
+                } else {
+                    positions.and(query.apply(index));
+                }
+            }
+            return positions;
+        };
     }
 
     @Override
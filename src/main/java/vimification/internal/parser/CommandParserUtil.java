@@ -1,5 +1,6 @@
 package vimification.internal.parser;
 
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -160,6 +161,8 @@ public class CommandParserUtil {
             INT_PARSER.optionalMap(Priority::fromInt);
     public static final ApplicativeParser<LocalDateTime> DEADLINE_PARSER =
             DATE_TIME_PARSER;
+    public static final ApplicativeParser<Path> FILE_PATH_PARSER =
+            STRING_PARSER.optionalMap(CommandParserUtil::parsePath);
 
     public static final ApplicativeParser<Index> ONE_BASED_INDEX_PARSER =
             INT_PARSER.map(Index::fromOneBased);
@@ -277,4 +280,15 @@ public class CommandParserUtil {
     public static Optional<Integer> parseInt(String input) {
         return optionallyParse(() -> Integer.parseInt(input));
     }
+
+    /**
+     * Converts an input string to a {@code Path}. If the conversion fails, an empty
+     * {@code Optional} is returned.
+     *
+     * @param input the input string
+     * @return an {@code Optional} instance holding conversion result
+     */
+    public static Optional<Path> parsePath(String input) {
+        return optionallyParse(() -> Path.of(input));
+    }
 }
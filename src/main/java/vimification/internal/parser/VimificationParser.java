@@ -10,7 +10,10 @@ import vimification.internal.command.ui.UiCommand;
 import vimification.internal.parser.logic.AddCommandParser;
 import vimification.internal.parser.logic.DeleteCommandParser;
 import vimification.internal.parser.logic.EditCommandParser;
+import vimification.internal.parser.logic.ExportCommandParser;
+import vimification.internal.parser.logic.ImportCommandParser;
 import vimification.internal.parser.logic.InsertCommandParser;
+import vimification.internal.parser.logic.SyncCommandParser;
 import vimification.internal.parser.logic.UndoCommandParser;
 import vimification.internal.parser.macro.MacroCommandParser;
 import vimification.internal.parser.ui.FilterCommandParser;
@@ -38,7 +41,10 @@ public class VimificationParser {
                     .or(DeleteCommandParser.getInstance())
                     .or(InsertCommandParser.getInstance())
                     .or(EditCommandParser.getInstance())
-                    .or(UndoCommandParser.getInstance());
+                    .or(UndoCommandParser.getInstance())
+                    .or(ImportCommandParser.getInstance())
+                    .or(ExportCommandParser.getInstance())
+                    .or(SyncCommandParser.getInstance());
 
     private static final CommandParser<UiCommand> UI_COMMAND_PARSER =
             FilterCommandParser.getInstance()
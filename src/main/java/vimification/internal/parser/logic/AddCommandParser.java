@@ -1,5 +1,7 @@
 package vimification.internal.parser.logic;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import vimification.internal.command.logic.AddCommand;
 import vimification.internal.parser.ApplicativeParser;
 import vimification.internal.parser.ArgumentCounter;
@@ -29,7 +31,8 @@ public class AddCommandParser implements CommandParser<AddCommand> {
     private AddCommandParser() {}
 
     private static ApplicativeParser<AddCommand> parseArguments(String title) {
-        Task task = new Task(title);
+        // Each flag replaces the task with an edited copy
+        AtomicReference<Task> task = new AtomicReference<>(new Task(title));
         ArgumentCounter counter = new ArgumentCounter(
                 Pair.of(CommandParserUtil.LABEL_FLAG, Integer.MAX_VALUE),
                 Pair.of(CommandParserUtil.PRIORITY_FLAG, 1),
@@ -40,23 +43,26 @@ public class AddCommandParser implements CommandParser<AddCommand> {
                         .consume(counter::add)
                         .takeNext(ApplicativeParser.skipWhitespaces1())
                         .takeNext(CommandParserUtil.LABEL_PARSER)
-                        .consume(task::addLabel),
+                        .consume(label ->
+                                task.updateAndGet(current -> current.withLabelAdded(label))),
                 CommandParserUtil.PRIORITY_FLAG_PARSER
                         .consume(counter::add)
                         .takeNext(ApplicativeParser.skipWhitespaces1())
                         .takeNext(CommandParserUtil.PRIORITY_PARSER)
-                        .consume(task::setPriority),
+                        .consume(priority ->
+                                task.updateAndGet(current -> current.withPriority(priority))),
                 CommandParserUtil.DEADLINE_FLAG_PARSER
                         .consume(counter::add)
                         .takeNext(ApplicativeParser.skipWhitespaces1())
                         .takeNext(CommandParserUtil.DEADLINE_PARSER)
-                        .consume(task::setDeadline));
+                        .consume(deadline ->
+                                task.updateAndGet(current -> current.withDeadline(deadline))));
 
         return ApplicativeParser
                 .skipWhitespaces1()
                 .takeNext(flagParser.sepBy1(ApplicativeParser.skipWhitespaces1()))
                 .optional()
-                .constMap(new AddCommand(task));
+                .map(ignore -> new AddCommand(task.get()));
     }
 
     public static AddCommandParser getInstance() {
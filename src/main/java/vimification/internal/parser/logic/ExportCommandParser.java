@@ -0,0 +1,36 @@
+package vimification.internal.parser.logic;
+
+import vimification.internal.command.logic.ExportCommand;
+import vimification.internal.parser.ApplicativeParser;
+import vimification.internal.parser.CommandParser;
+import vimification.internal.parser.CommandParserUtil;
+
+/**
+ * The parser that can parses and creates new {@link ExportCommand}.
+ */
+public class ExportCommandParser implements CommandParser<ExportCommand> {
+
+    private static final ApplicativeParser<ExportCommand> COMMAND_PARSER =
+            CommandParserUtil.FILE_PATH_PARSER
+                    .map(ExportCommand::new)
+                    .dropNext(CommandParserUtil.END_OF_COMMAND_PARSER);
+
+    private static final ApplicativeParser<ApplicativeParser<ExportCommand>> INTERNAL_PARSER =
+            ApplicativeParser
+                    .string("export")
+                    .takeNext(ApplicativeParser.skipWhitespaces1())
+                    .constMap(COMMAND_PARSER);
+
+    private static final ExportCommandParser INSTANCE = new ExportCommandParser();
+
+    private ExportCommandParser() {}
+
+    public static ExportCommandParser getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public ApplicativeParser<ApplicativeParser<ExportCommand>> getInternalParser() {
+        return INTERNAL_PARSER;
+    }
+}
@@ -0,0 +1,36 @@
+package vimification.internal.parser.logic;
+
+import vimification.internal.command.logic.ImportCommand;
+import vimification.internal.parser.ApplicativeParser;
+import vimification.internal.parser.CommandParser;
+import vimification.internal.parser.CommandParserUtil;
+
+/**
+ * The parser that can parses and creates new {@link ImportCommand}.
+ */
+public class ImportCommandParser implements CommandParser<ImportCommand> {
+
+    private static final ApplicativeParser<ImportCommand> COMMAND_PARSER =
+            CommandParserUtil.FILE_PATH_PARSER
+                    .map(ImportCommand::new)
+                    .dropNext(CommandParserUtil.END_OF_COMMAND_PARSER);
+
+    private static final ApplicativeParser<ApplicativeParser<ImportCommand>> INTERNAL_PARSER =
+            ApplicativeParser
+                    .string("import")
+                    .takeNext(ApplicativeParser.skipWhitespaces1())
+                    .constMap(COMMAND_PARSER);
+
+    private static final ImportCommandParser INSTANCE = new ImportCommandParser();
+
+    private ImportCommandParser() {}
+
+    public static ImportCommandParser getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public ApplicativeParser<ApplicativeParser<ImportCommand>> getInternalParser() {
+        return INTERNAL_PARSER;
+    }
+}
@@ -0,0 +1,36 @@
+package vimification.internal.parser.logic;
+
+import vimification.internal.command.logic.SyncCommand;
+import vimification.internal.parser.ApplicativeParser;
+import vimification.internal.parser.CommandParser;
+import vimification.internal.parser.CommandParserUtil;
+
+/**
+ * The parser that can parses and creates new {@link SyncCommand}.
+ */
+public class SyncCommandParser implements CommandParser<SyncCommand> {
+
+    private static final ApplicativeParser<SyncCommand> COMMAND_PARSER =
+            CommandParserUtil.FILE_PATH_PARSER
+                    .map(SyncCommand::new)
+                    .dropNext(CommandParserUtil.END_OF_COMMAND_PARSER);
+
+    private static final ApplicativeParser<ApplicativeParser<SyncCommand>> INTERNAL_PARSER =
+            ApplicativeParser
+                    .string("sync")
+                    .takeNext(ApplicativeParser.skipWhitespaces1())
+                    .constMap(COMMAND_PARSER);
+
+    private static final SyncCommandParser INSTANCE = new SyncCommandParser();
+
+    private SyncCommandParser() {}
+
+    public static SyncCommandParser getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public ApplicativeParser<ApplicativeParser<SyncCommand>> getInternalParser() {
+        return INTERNAL_PARSER;
+    }
+}
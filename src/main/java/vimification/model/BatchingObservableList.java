@@ -0,0 +1,98 @@
+package vimification.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.ModifiableObservableListBase;
+
+/**
+ * An observable view of a list, which can group several modifications into a single change.
+ * <p>
+ * Like the list returned by {@code FXCollections.observableList}, each modification fires its own
+ * change. Between {@link #beginBatch()} and {@link #endBatch()}, the modifications are collected
+ * instead, and fired as a single change once the outermost batch ends. Listeners, such as the
+ * filtered and sorted views of the UI, then update themselves once for the whole batch.
+ *
+ * @param <E> type of the elements
+ */
+class BatchingObservableList<E> extends ModifiableObservableListBase<E> {
+
+    private final List<E> backingList;
+    private int batchDepth = 0;
+
+    /**
+     * Creates a new observable view of the specified list. The list must not be modified by
+     * anything else afterwards.
+     *
+     * @param backingList the list that stores the elements
+     */
+    BatchingObservableList(List<E> backingList) {
+        this.backingList = backingList;
+    }
+
+    /**
+     * Starts collecting the modifications of this list, until the matching call to
+     * {@link #endBatch()}. Batches can be nested.
+     */
+    void beginBatch() {
+        batchDepth++;
+        beginChange();
+    }
+
+    /**
+     * Ends the current batch. If it is the outermost batch, the modifications made since it began
+     * are fired as a single change.
+     *
+     * @throws IllegalStateException if there is no batch to end
+     */
+    void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("No batch to end");
+        }
+        batchDepth--;
+        endChange();
+    }
+
+    @Override
+    public E get(int index) {
+        return backingList.get(index);
+    }
+
+    @Override
+    public int size() {
+        return backingList.size();
+    }
+
+    @Override
+    protected void doAdd(int index, E element) {
+        backingList.add(index, element);
+    }
+
+    @Override
+    protected E doSet(int index, E element) {
+        return backingList.set(index, element);
+    }
+
+    @Override
+    protected E doRemove(int index) {
+        return backingList.remove(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The elements are removed from the backing list at once, instead of one by one.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        List<E> removed = backingList.subList(fromIndex, toIndex);
+        beginChange();
+        nextRemove(fromIndex, new ArrayList<>(removed));
+        removed.clear();
+        modCount++;
+        endChange();
+    }
+}
@@ -0,0 +1,417 @@
+package vimification.model;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import vimification.model.task.LabelDictionary;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+/**
+ * A list of tasks stored column by column in arrays of primitives, instead of as one object graph
+ * per task. It uses much less memory than a list of {@code Task} objects for very large task
+ * lists.
+ * <p>
+ * Each field of the tasks has its own array: the ids as two {@code long} arrays, the titles, the
+ * deadlines as seconds since the epoch, the statuses and the priorities as bytes, and the labels
+ * as bit masks of their ids in {@link LabelDictionary}. Label ids that do not fit in the mask are
+ * stored separately, which is only needed with more than 64 distinct labels.
+ * <p>
+ * A {@code Task} is created when an element is accessed. It is kept through a weak reference, so
+ * that accessing the same element again returns the same {@code Task} as long as it is used
+ * elsewhere.
+ * <p>
+ * This list is also an index of its own tasks, which answers queries by scanning the arrays
+ * instead of creating the tasks, see {@link TaskList#getIndex()}.
+ * <p>
+ * Copies share the arrays until either list is modified, so a copy can be read by another thread.
+ * A single instance is not thread-safe.
+ */
+public class ColumnarTaskList extends AbstractList<Task>
+        implements CopyableTaskList, TaskListIndex, RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+    private static final int MASK_LABEL_COUNT = Long.SIZE;
+    private static final int MIN_FLYWEIGHTS_PER_SWEEP = 1024;
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private int size = 0;
+    private long[] mostSigIds;
+    private long[] leastSigIds;
+    private String[] titles;
+    private long[] deadlineSeconds;
+    // Null until a deadline with a fraction of a second is stored
+    private int[] deadlineNanos = null;
+    private byte[] statuses;
+    private byte[] priorities;
+    private long[] labelMasks;
+    // Null until a label id that does not fit in the masks is stored
+    private int[][] otherLabelIds = null;
+    // Set when the arrays are shared with a copy, so they must be copied before being modified
+    private boolean isShared = false;
+
+    // Null until an element is first accessed, never shared with a copy
+    private WeakReference<Task>[] flyweights = null;
+    private int flyweightsSinceSweep = 0;
+
+    /**
+     * Creates a new, empty list.
+     */
+    public ColumnarTaskList() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new list containing the specified tasks.
+     *
+     * @param tasks the initial content of this list
+     */
+    public ColumnarTaskList(Collection<? extends Task> tasks) {
+        allocate(Math.max(tasks.size(), DEFAULT_CAPACITY));
+        for (Task task : tasks) {
+            writeRow(size++, Objects.requireNonNull(task));
+        }
+    }
+
+    private ColumnarTaskList(ColumnarTaskList other) {
+        size = other.size;
+        mostSigIds = other.mostSigIds;
+        leastSigIds = other.leastSigIds;
+        titles = other.titles;
+        deadlineSeconds = other.deadlineSeconds;
+        deadlineNanos = other.deadlineNanos;
+        statuses = other.statuses;
+        priorities = other.priorities;
+        labelMasks = other.labelMasks;
+        otherLabelIds = other.otherLabelIds;
+        isShared = true;
+        other.isShared = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ColumnarTaskList copy() {
+        return new ColumnarTaskList(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        if (flyweights == null) {
+            flyweights = newFlyweights(mostSigIds.length);
+        }
+        Task task = flyweights[index] == null ? null : flyweights[index].get();
+        if (task == null) {
+            task = readRow(index);
+            flyweights[index] = new WeakReference<>(task);
+            if (++flyweightsSinceSweep > Math.max(size, MIN_FLYWEIGHTS_PER_SWEEP)) {
+                sweepFlyweights();
+            }
+        }
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Objects.requireNonNull(task);
+        Task oldTask = get(index);
+        ensureCapacity(size);
+        writeRow(index, task);
+        flyweights[index] = new WeakReference<>(task);
+        return oldTask;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.requireNonNull(task);
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        moveRows(index, index + 1, size - index);
+        writeRow(index, task);
+        if (flyweights != null) {
+            flyweights[index] = new WeakReference<>(task);
+        }
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task oldTask = get(index);
+        removeRange(index, index + 1);
+        return oldTask;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        ensureCapacity(size);
+        moveRows(toIndex, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        // Releases the objects that are no longer in this list
+        Arrays.fill(titles, newSize, size, null);
+        if (otherLabelIds != null) {
+            Arrays.fill(otherLabelIds, newSize, size, null);
+        }
+        if (flyweights != null) {
+            Arrays.fill(flyweights, newSize, size, null);
+        }
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The label masks are scanned, without creating any task.
+     */
+    @Override
+    public BitSet getTasksWithLabel(String label) {
+        BitSet positions = new BitSet();
+        int labelId = LabelDictionary.findId(label);
+        if (labelId == LabelDictionary.NO_ID) {
+            return positions;
+        }
+        if (labelId < MASK_LABEL_COUNT) {
+            long bit = 1L << labelId;
+            for (int i = 0; i < size; i++) {
+                if ((labelMasks[i] & bit) != 0) {
+                    positions.set(i);
+                }
+            }
+        } else if (otherLabelIds != null) {
+            for (int i = 0; i < size; i++) {
+                if (otherLabelIds[i] != null && contains(otherLabelIds[i], labelId)) {
+                    positions.set(i);
+                }
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public BitSet getTasksWithStatus(Status status) {
+        return findOrdinal(statuses, status.ordinal());
+    }
+
+    @Override
+    public BitSet getTasksWithPriority(Priority priority) {
+        return findOrdinal(priorities, priority.ordinal());
+    }
+
+    @Override
+    public BitSet getTasksWithDeadlineBetween(LocalDateTime after, LocalDateTime before) {
+        BitSet positions = new BitSet();
+        // The bounds are converted once, and compared to the seconds first
+        long afterSeconds = after == null ? NO_DEADLINE : after.toEpochSecond(ZoneOffset.UTC);
+        long beforeSeconds = before == null ? Long.MAX_VALUE : before.toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < size; i++) {
+            long seconds = deadlineSeconds[i];
+            if (seconds == NO_DEADLINE || seconds < afterSeconds || seconds > beforeSeconds) {
+                continue;
+            }
+            if ((after == null || seconds > afterSeconds || getNanos(i) > after.getNano())
+                    && (before == null || seconds < beforeSeconds
+                            || getNanos(i) < before.getNano())) {
+                positions.set(i);
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public int[] getTasksByDeadline() {
+        // The sort is stable, so tasks with the same deadline keep their order
+        Comparator<Integer> byDeadline = Comparator.comparingLong(i -> deadlineSeconds[i]);
+        if (deadlineNanos != null) {
+            byDeadline = byDeadline.thenComparingInt(i -> deadlineNanos[i]);
+        }
+        return IntStream.range(0, size)
+                .filter(i -> deadlineSeconds[i] != NO_DEADLINE)
+                .boxed()
+                .sorted(byDeadline)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private BitSet findOrdinal(byte[] ordinals, int ordinal) {
+        BitSet positions = new BitSet();
+        for (int i = 0; i < size; i++) {
+            if (ordinals[i] == ordinal) {
+                positions.set(i);
+            }
+        }
+        return positions;
+    }
+
+    private int getNanos(int index) {
+        return deadlineNanos == null ? 0 : deadlineNanos[index];
+    }
+
+    private Task readRow(int index) {
+        LocalDateTime deadline = null;
+        if (deadlineSeconds[index] != NO_DEADLINE) {
+            deadline = LocalDateTime.ofEpochSecond(deadlineSeconds[index], getNanos(index),
+                    ZoneOffset.UTC);
+        }
+        return new Task(new UUID(mostSigIds[index], leastSigIds[index]), titles[index], deadline,
+                STATUSES[statuses[index]], PRIORITIES[priorities[index]], readLabelIds(index));
+    }
+
+    private int[] readLabelIds(int index) {
+        long mask = labelMasks[index];
+        int[] others = otherLabelIds == null ? null : otherLabelIds[index];
+        int[] labelIds = new int[Long.bitCount(mask) + (others == null ? 0 : others.length)];
+        int count = 0;
+        for (; mask != 0; mask &= mask - 1) {
+            labelIds[count++] = Long.numberOfTrailingZeros(mask);
+        }
+        if (others != null) {
+            System.arraycopy(others, 0, labelIds, count, others.length);
+        }
+        return labelIds;
+    }
+
+    private void writeRow(int index, Task task) {
+        mostSigIds[index] = task.getId().getMostSignificantBits();
+        leastSigIds[index] = task.getId().getLeastSignificantBits();
+        titles[index] = task.getTitle();
+        LocalDateTime deadline = task.getDeadline();
+        deadlineSeconds[index] =
+                deadline == null ? NO_DEADLINE : deadline.toEpochSecond(ZoneOffset.UTC);
+        int nanos = deadline == null ? 0 : deadline.getNano();
+        if (nanos != 0 && deadlineNanos == null) {
+            deadlineNanos = new int[mostSigIds.length];
+        }
+        if (deadlineNanos != null) {
+            deadlineNanos[index] = nanos;
+        }
+        statuses[index] = (byte) task.getStatus().ordinal();
+        priorities[index] = (byte) task.getPriority().ordinal();
+        long mask = 0;
+        int[] labelIds = task.getLabelIds();
+        int otherCount = 0;
+        for (int labelId : labelIds) {
+            if (labelId < MASK_LABEL_COUNT) {
+                mask |= 1L << labelId;
+            } else {
+                labelIds[otherCount++] = labelId;
+            }
+        }
+        labelMasks[index] = mask;
+        if (otherCount > 0 && otherLabelIds == null) {
+            otherLabelIds = new int[mostSigIds.length][];
+        }
+        if (otherLabelIds != null) {
+            otherLabelIds[index] = otherCount == 0 ? null : Arrays.copyOf(labelIds, otherCount);
+        }
+    }
+
+    /**
+     * Moves the content of {@code length} rows from {@code fromIndex} to {@code toIndex}.
+     */
+    private void moveRows(int fromIndex, int toIndex, int length) {
+        System.arraycopy(mostSigIds, fromIndex, mostSigIds, toIndex, length);
+        System.arraycopy(leastSigIds, fromIndex, leastSigIds, toIndex, length);
+        System.arraycopy(titles, fromIndex, titles, toIndex, length);
+        System.arraycopy(deadlineSeconds, fromIndex, deadlineSeconds, toIndex, length);
+        if (deadlineNanos != null) {
+            System.arraycopy(deadlineNanos, fromIndex, deadlineNanos, toIndex, length);
+        }
+        System.arraycopy(statuses, fromIndex, statuses, toIndex, length);
+        System.arraycopy(priorities, fromIndex, priorities, toIndex, length);
+        System.arraycopy(labelMasks, fromIndex, labelMasks, toIndex, length);
+        if (otherLabelIds != null) {
+            System.arraycopy(otherLabelIds, fromIndex, otherLabelIds, toIndex, length);
+        }
+        if (flyweights != null) {
+            System.arraycopy(flyweights, fromIndex, flyweights, toIndex, length);
+        }
+    }
+
+    /**
+     * Makes sure that the arrays can be modified, and have room for at least the specified number
+     * of rows.
+     */
+    private void ensureCapacity(int capacity) {
+        int length = mostSigIds.length;
+        if (!isShared && capacity <= length) {
+            return;
+        }
+        int newLength = capacity <= length ? length : Math.max(capacity, length + (length >> 1));
+        mostSigIds = Arrays.copyOf(mostSigIds, newLength);
+        leastSigIds = Arrays.copyOf(leastSigIds, newLength);
+        titles = Arrays.copyOf(titles, newLength);
+        deadlineSeconds = Arrays.copyOf(deadlineSeconds, newLength);
+        if (deadlineNanos != null) {
+            deadlineNanos = Arrays.copyOf(deadlineNanos, newLength);
+        }
+        statuses = Arrays.copyOf(statuses, newLength);
+        priorities = Arrays.copyOf(priorities, newLength);
+        labelMasks = Arrays.copyOf(labelMasks, newLength);
+        if (otherLabelIds != null) {
+            otherLabelIds = Arrays.copyOf(otherLabelIds, newLength);
+        }
+        if (flyweights != null) {
+            flyweights = Arrays.copyOf(flyweights, newLength);
+        }
+        isShared = false;
+    }
+
+    private void allocate(int capacity) {
+        mostSigIds = new long[capacity];
+        leastSigIds = new long[capacity];
+        titles = new String[capacity];
+        deadlineSeconds = new long[capacity];
+        statuses = new byte[capacity];
+        priorities = new byte[capacity];
+        labelMasks = new long[capacity];
+    }
+
+    /**
+     * Removes the references to the tasks that are no longer used, so that the references
+     * themselves can be collected. Runs once for a number of created tasks proportional to the
+     * size of this list, so its cost is constant per created task.
+     */
+    private void sweepFlyweights() {
+        for (int i = 0; i < size; i++) {
+            if (flyweights[i] != null && flyweights[i].get() == null) {
+                flyweights[i] = null;
+            }
+        }
+        flyweightsSinceSweep = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WeakReference<Task>[] newFlyweights(int capacity) {
+        return (WeakReference<Task>[]) new WeakReference<?>[capacity];
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int element : values) {
+            if (element == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
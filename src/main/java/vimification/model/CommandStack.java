@@ -65,6 +65,13 @@ public class CommandStack {
         return commands.pollLast();
     }
 
+    /**
+     * Removes all commands from the stack.
+     */
+    public void clear() {
+        commands.clear();
+    }
+
     /**
      * Returns the current size of the stack.
      *
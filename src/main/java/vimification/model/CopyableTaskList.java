@@ -0,0 +1,31 @@
+package vimification.model;
+
+import java.util.List;
+
+import vimification.model.task.Task;
+
+/**
+ * Represents a list of tasks that can be copied without accessing its elements, for example a list
+ * whose tasks are only loaded from the disk when they are accessed.
+ */
+public interface CopyableTaskList extends List<Task> {
+
+    /**
+     * Returns an independent copy of this list. Modifications of either list do not affect the
+     * other one.
+     *
+     * @return a copy of this list
+     */
+    CopyableTaskList copy();
+
+    /**
+     * Returns whether accessing an element several times returns the same {@code Task}, as long as
+     * that task is referenced elsewhere. Otherwise, the tasks of this list cannot be looked up by
+     * identity.
+     *
+     * @return true if the tasks of this list keep their identity, which is the default
+     */
+    default boolean hasStableTasks() {
+        return true;
+    }
+}
@@ -0,0 +1,341 @@
+package vimification.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import vimification.model.task.LabelDictionary;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+/**
+ * An index over the tasks of a {@link TaskList}, which is updated together with the task list
+ * instead of being rebuilt.
+ * <p>
+ * Each posting is a bit set over the positions of the tasks. Adding, replacing or removing the
+ * last task only updates the postings of that task. Inserting or removing a task elsewhere shifts
+ * the positions after it, which costs a pass over the words of each posting, but no access to any
+ * task. Since tasks are never modified while they are in a task list, the postings of a task can
+ * be found from the task itself when it is replaced or removed.
+ * <p>
+ * The tasks with a deadline are kept in a map ordered by deadline, so that a range of deadlines
+ * can be looked up without testing every task. The map holds the tasks themselves, since their
+ * positions may shift, and the positions of the tasks are looked up separately. After a task is
+ * inserted or removed elsewhere than at the end, these positions are only recomputed when the
+ * deadlines are queried again. If the same task is at several positions, which commands never
+ * do, the positions are found by going through the tasks instead.
+ * <p>
+ * The returned bit sets are copies, so they can be modified by the caller.
+ */
+class IncrementalTaskListIndex implements TaskListIndex {
+
+    private final List<Task> tasks;
+    // Indexed by label id, with null for the labels that no task has
+    private final List<BitSet> labelPostings = new ArrayList<>();
+    private final Map<Status, BitSet> statusPostings = new EnumMap<>(Status.class);
+    private final Map<Priority, BitSet> priorityPostings = new EnumMap<>(Priority.class);
+    private final NavigableMap<LocalDateTime, List<Task>> deadlines = new TreeMap<>();
+    // Only contains the tasks with a deadline
+    private final Map<Task, Integer> deadlinePositions = new IdentityHashMap<>();
+    private boolean areDeadlinePositionsStale = false;
+    // Set when the same task is at several positions, which the positions above cannot hold
+    private boolean hasDuplicateTasks = false;
+
+    /**
+     * Creates a new index of the specified tasks. The index must be updated every time the tasks
+     * are modified.
+     *
+     * @param tasks the tasks to index
+     */
+    IncrementalTaskListIndex(List<Task> tasks) {
+        this.tasks = tasks;
+        for (Status status : Status.values()) {
+            statusPostings.put(status, new BitSet());
+        }
+        for (Priority priority : Priority.values()) {
+            priorityPostings.put(priority, new BitSet());
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            index(tasks.get(i), i);
+        }
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public BitSet getTasksWithLabel(String label) {
+        BitSet posting = getLabelPosting(LabelDictionary.findId(label));
+        return posting == null ? new BitSet() : (BitSet) posting.clone();
+    }
+
+    private BitSet getLabelPosting(int labelId) {
+        return labelId >= 0 && labelId < labelPostings.size() ? labelPostings.get(labelId) : null;
+    }
+
+    @Override
+    public BitSet getTasksWithStatus(Status status) {
+        return (BitSet) statusPostings.get(status).clone();
+    }
+
+    @Override
+    public BitSet getTasksWithPriority(Priority priority) {
+        return (BitSet) priorityPostings.get(priority).clone();
+    }
+
+    @Override
+    public BitSet getTasksWithDeadlineBetween(LocalDateTime after, LocalDateTime before) {
+        if (after != null && before != null && !after.isBefore(before)) {
+            return new BitSet();
+        }
+        NavigableMap<LocalDateTime, List<Task>> range = deadlines;
+        if (after != null) {
+            range = range.tailMap(after, false);
+        }
+        if (before != null) {
+            range = range.headMap(before, false);
+        }
+        updateDeadlinePositions();
+        BitSet positions = new BitSet();
+        if (hasDuplicateTasks) {
+            Set<Task> matchingTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+            range.values().forEach(matchingTasks::addAll);
+            for (int i = 0; i < tasks.size(); i++) {
+                if (matchingTasks.contains(tasks.get(i))) {
+                    positions.set(i);
+                }
+            }
+            return positions;
+        }
+        for (List<Task> tasksWithDeadline : range.values()) {
+            for (Task task : tasksWithDeadline) {
+                positions.set(deadlinePositions.get(task));
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public int[] getTasksByDeadline() {
+        updateDeadlinePositions();
+        if (hasDuplicateTasks) {
+            // The sort is stable, so tasks with the same deadline keep their order
+            Comparator<Integer> byDeadline = Comparator.comparing(i -> tasks.get(i).getDeadline());
+            return IntStream.range(0, tasks.size())
+                    .filter(i -> tasks.get(i).getDeadline() != null)
+                    .boxed()
+                    .sorted(byDeadline)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        int[] positions = new int[deadlines.values().stream().mapToInt(List::size).sum()];
+        int count = 0;
+        for (List<Task> tasksWithDeadline : deadlines.values()) {
+            int start = count;
+            for (Task task : tasksWithDeadline) {
+                positions[count++] = deadlinePositions.get(task);
+            }
+            // Tasks with the same deadline are ordered by their positions
+            Arrays.sort(positions, start, count);
+        }
+        return positions;
+    }
+
+    /**
+     * Updates the index after a task has been inserted at the specified position.
+     *
+     * @param position the position of the new task
+     * @param task the new task
+     */
+    void onInserted(int position, Task task) {
+        if (position < tasks.size() - 1) {
+            forEachPosting(posting -> shift(posting, position, 1));
+            areDeadlinePositionsStale = true;
+        }
+        index(task, position);
+    }
+
+    /**
+     * Updates the index after several tasks have been appended.
+     *
+     * @param position the position of the first new task
+     * @param addedTasks the new tasks
+     */
+    void onAppended(int position, Collection<? extends Task> addedTasks) {
+        int i = position;
+        for (Task task : addedTasks) {
+            index(task, i++);
+        }
+    }
+
+    /**
+     * Updates the index after the task at the specified position has been replaced.
+     *
+     * @param position the position of the replaced task
+     * @param oldTask the task that was replaced
+     * @param newTask the task that replaced it
+     */
+    void onReplaced(int position, Task oldTask, Task newTask) {
+        unindex(oldTask, position);
+        index(newTask, position);
+    }
+
+    /**
+     * Updates the index after the task at the specified position has been removed.
+     *
+     * @param position the former position of the removed task
+     * @param task the removed task
+     */
+    void onRemoved(int position, Task task) {
+        unindex(task, position);
+        if (position < tasks.size()) {
+            forEachPosting(posting -> shift(posting, position + 1, -1));
+            areDeadlinePositionsStale = true;
+        }
+    }
+
+    /**
+     * Updates the index after the tasks in the specified range have been removed.
+     *
+     * @param fromIndex the former position of the first removed task, inclusive
+     * @param toIndex the former position of the last removed task, exclusive
+     * @param removedTasks the removed tasks
+     */
+    void onRangeRemoved(int fromIndex, int toIndex, List<Task> removedTasks) {
+        removedTasks.forEach(this::unindexDeadline);
+        areDeadlinePositionsStale = true;
+        forEachPosting(posting -> {
+            posting.clear(fromIndex, toIndex);
+            shift(posting, toIndex, fromIndex - toIndex);
+        });
+        labelPostings.replaceAll(posting -> posting == null || posting.isEmpty() ? null : posting);
+    }
+
+    private void index(Task task, int position) {
+        for (int labelId : task.getLabelIds()) {
+            while (labelPostings.size() <= labelId) {
+                labelPostings.add(null);
+            }
+            if (labelPostings.get(labelId) == null) {
+                labelPostings.set(labelId, new BitSet());
+            }
+            labelPostings.get(labelId).set(position);
+        }
+        statusPostings.get(task.getStatus()).set(position);
+        priorityPostings.get(task.getPriority()).set(position);
+        if (task.getDeadline() != null) {
+            deadlines.computeIfAbsent(task.getDeadline(), ignore -> new ArrayList<>()).add(task);
+            if (!areDeadlinePositionsStale && deadlinePositions.put(task, position) != null) {
+                areDeadlinePositionsStale = true;
+            }
+        }
+    }
+
+    private void unindex(Task task, int position) {
+        for (int labelId : task.getLabelIds()) {
+            BitSet posting = labelPostings.get(labelId);
+            posting.clear(position);
+            if (posting.isEmpty()) {
+                labelPostings.set(labelId, null);
+            }
+        }
+        statusPostings.get(task.getStatus()).clear(position);
+        priorityPostings.get(task.getPriority()).clear(position);
+        unindexDeadline(task);
+    }
+
+    private void unindexDeadline(Task task) {
+        if (task.getDeadline() == null) {
+            return;
+        }
+        List<Task> tasksWithDeadline = deadlines.get(task.getDeadline());
+        boolean isRemoved = false;
+        boolean isStillPresent = false;
+        for (int i = tasksWithDeadline.size() - 1; i >= 0; i--) {
+            if (tasksWithDeadline.get(i) != task) {
+                continue;
+            } else if (isRemoved) {
+                isStillPresent = true;
+            } else {
+                tasksWithDeadline.remove(i);
+                isRemoved = true;
+            }
+        }
+        if (tasksWithDeadline.isEmpty()) {
+            deadlines.remove(task.getDeadline());
+        }
+        if (isStillPresent) {
+            // The same task is also at another position, which is not known
+            areDeadlinePositionsStale = true;
+        } else if (!areDeadlinePositionsStale) {
+            deadlinePositions.remove(task);
+        }
+    }
+
+    /**
+     * Recomputes the positions of the tasks with a deadline, if they have shifted since they were
+     * last computed.
+     */
+    private void updateDeadlinePositions() {
+        if (!areDeadlinePositionsStale) {
+            return;
+        }
+        deadlinePositions.clear();
+        hasDuplicateTasks = false;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getDeadline() != null
+                    && deadlinePositions.put(tasks.get(i), i) != null) {
+                hasDuplicateTasks = true;
+            }
+        }
+        areDeadlinePositionsStale = false;
+    }
+
+    private void forEachPosting(Consumer<BitSet> action) {
+        labelPostings.stream().filter(Objects::nonNull).forEach(action);
+        statusPostings.values().forEach(action);
+        priorityPostings.values().forEach(action);
+    }
+
+    /**
+     * Moves the bits of the posting from {@code fromIndex} onwards by {@code distance} positions,
+     * one word at a time. The bits in between are cleared when moving up, and overwritten when
+     * moving down.
+     */
+    private static void shift(BitSet posting, int fromIndex, int distance) {
+        int length = posting.length();
+        if (fromIndex >= length) {
+            return;
+        }
+        long[] words = posting.get(fromIndex, length).toLongArray();
+        posting.clear(Math.min(fromIndex, fromIndex + distance), length);
+        int offset = fromIndex + distance;
+        int wordOffset = offset >>> 6;
+        int bitOffset = offset & 63;
+        long[] shiftedWords = new long[wordOffset + words.length + 1];
+        for (int i = 0; i < words.length; i++) {
+            shiftedWords[wordOffset + i] |= words[i] << bitOffset;
+            if (bitOffset != 0) {
+                shiftedWords[wordOffset + i + 1] |= words[i] >>> (64 - bitOffset);
+            }
+        }
+        posting.or(BitSet.valueOf(shiftedWords));
+    }
+}
@@ -0,0 +1,266 @@
+package vimification.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.TransformationList;
+
+/**
+ * A filtered view of an {@code ObservableList}, which can be given the positions of the elements
+ * that may match its predicate, instead of testing every element of its source.
+ * <p>
+ * {@link FilteredList} tests every element of its source whenever its predicate is set. This view
+ * only tests the candidates given with the predicate, such as the positions selected by a
+ * {@link TaskListIndex}, so setting a predicate costs time proportional to the number of
+ * candidates. Afterwards, only the elements added to the source are tested, and a modification
+ * only shifts the positions of the matching elements after it. While no predicate is set, the
+ * source is passed through, so that it is only accessed at the indices that are displayed.
+ *
+ * @param <E> type of the elements
+ */
+class IndexedFilteredList<E> extends TransformationList<E, E> {
+
+    private Predicate<? super E> predicate = null;
+    // The positions in the source of the matching elements, in increasing order. Only the first
+    // size positions are used, and only while a predicate is set
+    private int[] positions = new int[0];
+    private int size = 0;
+
+    /**
+     * Creates a new, unfiltered view of the specified list.
+     *
+     * @param source the list to be filtered
+     */
+    IndexedFilteredList(ObservableList<E> source) {
+        super(source);
+    }
+
+    Predicate<? super E> getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Sets the predicate used to filter the source, testing every element of the source.
+     *
+     * @param predicate the new predicate, or null to keep every element
+     */
+    void setPredicate(Predicate<? super E> predicate) {
+        setPredicate(predicate, null);
+    }
+
+    /**
+     * Sets the predicate used to filter the source, only testing the elements at the specified
+     * positions. The elements at the other positions must not match the predicate.
+     *
+     * @param predicate the new predicate, or null to keep every element
+     * @param candidates the positions in the source of the elements that may match the predicate,
+     *         or null to test every element
+     */
+    void setPredicate(Predicate<? super E> predicate, BitSet candidates) {
+        if (predicate == null && this.predicate == null) {
+            return;
+        }
+        List<E> removed = new ArrayList<>(this);
+        this.predicate = predicate;
+        if (predicate == null) {
+            positions = new int[0];
+            size = 0;
+        } else {
+            IntStream candidatePositions = candidates == null
+                    ? IntStream.range(0, getSource().size())
+                    : candidates.stream();
+            positions = candidatePositions
+                    .filter(position -> predicate.test(getSource().get(position)))
+                    .toArray();
+            size = positions.length;
+        }
+        beginChange();
+        if (!removed.isEmpty()) {
+            nextRemove(0, removed);
+        }
+        if (size() > 0) {
+            nextAdd(0, size());
+        }
+        endChange();
+    }
+
+    @Override
+    protected void sourceChanged(ListChangeListener.Change<? extends E> change) {
+        beginChange();
+        while (change.next()) {
+            if (predicate == null) {
+                forwardChange(change);
+            } else if (change.wasPermutated()) {
+                permute(change);
+            } else if (change.wasUpdated()) {
+                update(change);
+            } else {
+                replace(change);
+            }
+        }
+        endChange();
+    }
+
+    /**
+     * Fires the same change as the current step of the specified change, with this list as its
+     * source.
+     */
+    private void forwardChange(ListChangeListener.Change<? extends E> change) {
+        int from = change.getFrom();
+        int to = change.getTo();
+        if (change.wasPermutated()) {
+            int[] permutation = new int[to - from];
+            for (int i = from; i < to; i++) {
+                permutation[i - from] = change.getPermutation(i);
+            }
+            nextPermutation(from, to, permutation);
+        } else if (change.wasUpdated()) {
+            for (int i = from; i < to; i++) {
+                nextUpdate(i);
+            }
+        } else if (change.wasReplaced()) {
+            nextReplace(from, to, change.getRemoved());
+        } else if (change.wasRemoved()) {
+            nextRemove(from, change.getRemoved());
+        } else {
+            nextAdd(from, to);
+        }
+    }
+
+    /**
+     * Reorders the matching elements of the permuted range, which does not change which elements
+     * match.
+     */
+    private void permute(ListChangeListener.Change<? extends E> change) {
+        int start = findViewIndex(change.getFrom());
+        int end = findViewIndex(change.getTo());
+        if (start == end) {
+            return;
+        }
+        int[] movedPositions = new int[end - start];
+        for (int i = start; i < end; i++) {
+            movedPositions[i - start] = change.getPermutation(positions[i]);
+        }
+        int[] sortedPositions = movedPositions.clone();
+        Arrays.sort(sortedPositions);
+        int[] permutation = new int[end - start];
+        for (int i = start; i < end; i++) {
+            permutation[i - start] =
+                    start + Arrays.binarySearch(sortedPositions, movedPositions[i - start]);
+        }
+        System.arraycopy(sortedPositions, 0, positions, start, end - start);
+        nextPermutation(start, end, permutation);
+    }
+
+    /**
+     * Tests the updated elements again, since they may no longer match, or match now.
+     */
+    private void update(ListChangeListener.Change<? extends E> change) {
+        for (int position = change.getFrom(); position < change.getTo(); position++) {
+            E element = getSource().get(position);
+            int index = findViewIndex(position);
+            boolean wasMatching = index < size && positions[index] == position;
+            boolean isMatching = predicate.test(element);
+            if (wasMatching && isMatching) {
+                nextUpdate(index);
+            } else if (wasMatching) {
+                System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+                size--;
+                nextRemove(index, element);
+            } else if (isMatching) {
+                insertPositions(index, new int[] {position});
+                nextAdd(index, index + 1);
+            }
+        }
+    }
+
+    /**
+     * Removes the matching elements among the removed ones, tests the added elements, and shifts
+     * the positions of the matching elements after them.
+     */
+    private void replace(ListChangeListener.Change<? extends E> change) {
+        int from = change.getFrom();
+        int removedSize = change.getRemovedSize();
+        int start = findViewIndex(from);
+        int end = findViewIndex(from + removedSize);
+        List<E> removed = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            removed.add(change.getRemoved().get(positions[i] - from));
+        }
+        int[] addedPositions = IntStream.range(from, from + change.getAddedSize())
+                .filter(position -> predicate.test(getSource().get(position)))
+                .toArray();
+
+        int shift = change.getAddedSize() - removedSize;
+        for (int i = end; i < size; i++) {
+            positions[i] += shift;
+        }
+        System.arraycopy(positions, end, positions, start, size - end);
+        size -= end - start;
+        insertPositions(start, addedPositions);
+        if (!removed.isEmpty()) {
+            nextRemove(start, removed);
+        }
+        if (addedPositions.length > 0) {
+            nextAdd(start, start + addedPositions.length);
+        }
+    }
+
+    /**
+     * Inserts the specified positions at the specified index, growing the array if needed.
+     */
+    private void insertPositions(int index, int[] insertedPositions) {
+        if (insertedPositions.length == 0) {
+            return;
+        }
+        if (size + insertedPositions.length > positions.length) {
+            positions = Arrays.copyOf(positions,
+                    Math.max(size + insertedPositions.length, positions.length * 2));
+        }
+        System.arraycopy(positions, index, positions, index + insertedPositions.length,
+                size - index);
+        System.arraycopy(insertedPositions, 0, positions, index, insertedPositions.length);
+        size += insertedPositions.length;
+    }
+
+    /**
+     * Returns the index in this view of the first matching element at or after the specified
+     * position in the source.
+     */
+    private int findViewIndex(int position) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    @Override
+    public E get(int index) {
+        return getSource().get(getSourceIndex(index));
+    }
+
+    @Override
+    public int size() {
+        return predicate == null ? getSource().size() : size;
+    }
+
+    @Override
+    public int getSourceIndex(int index) {
+        return predicate == null ? index : positions[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public int getViewIndex(int index) {
+        if (predicate == null) {
+            return index;
+        }
+        int viewIndex = Arrays.binarySearch(positions, 0, size, index);
+        return viewIndex >= 0 ? viewIndex : -1;
+    }
+}
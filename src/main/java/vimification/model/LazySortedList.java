@@ -0,0 +1,134 @@
+package vimification.model;
+
+import java.util.Comparator;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.collections.transformation.TransformationList;
+
+/**
+ * A sorted view of an {@code ObservableList}, which does not access the elements of its source
+ * until a comparator is set.
+ * <p>
+ * {@link SortedList} reads every element of its source as soon as it is created, even without a
+ * comparator. This view simply passes the source through while no comparator is set, and only
+ * creates a {@code SortedList} when one is. Hence, a source whose elements are loaded on demand
+ * is only accessed at the indices that are actually displayed.
+ *
+ * @param <E> type of the elements
+ */
+class LazySortedList<E> extends TransformationList<E, E> {
+
+    private final ListChangeListener<E> sortedListListener = this::forwardChange;
+
+    private SortedList<E> sortedList = null;
+
+    /**
+     * Creates a new, unsorted view of the specified list.
+     *
+     * @param source the list to be sorted
+     */
+    LazySortedList(ObservableList<E> source) {
+        super(source);
+    }
+
+    Comparator<? super E> getComparator() {
+        return sortedList == null ? null : sortedList.getComparator();
+    }
+
+    /**
+     * Sets the comparator used to sort the source. A null comparator keeps the order of the
+     * source.
+     *
+     * @param comparator the new comparator, can be null
+     */
+    @SuppressWarnings("unchecked")
+    void setComparator(Comparator<? super E> comparator) {
+        if (sortedList != null && comparator != null) {
+            // The permutation is forwarded by the listener
+            sortedList.setComparator(comparator);
+            return;
+        }
+        if (sortedList == null && comparator == null) {
+            return;
+        }
+        int size = size();
+        int[] permutation = new int[size];
+        if (sortedList == null) {
+            sortedList = new SortedList<>((ObservableList<E>) getSource(), comparator);
+            for (int i = 0; i < size; i++) {
+                permutation[i] = sortedList.getViewIndex(i);
+            }
+            sortedList.addListener(sortedListListener);
+        } else {
+            sortedList.removeListener(sortedListListener);
+            for (int i = 0; i < size; i++) {
+                permutation[i] = sortedList.getSourceIndex(i);
+            }
+            sortedList = null;
+        }
+        if (size > 0) {
+            beginChange();
+            nextPermutation(0, size, permutation);
+            endChange();
+        }
+    }
+
+    @Override
+    protected void sourceChanged(ListChangeListener.Change<? extends E> change) {
+        // While sorted, the changes are forwarded from the sorted list instead
+        if (sortedList == null) {
+            forwardChange(change);
+        }
+    }
+
+    /**
+     * Fires the same change as the specified one, with this list as its source.
+     */
+    private void forwardChange(ListChangeListener.Change<? extends E> change) {
+        beginChange();
+        while (change.next()) {
+            int from = change.getFrom();
+            int to = change.getTo();
+            if (change.wasPermutated()) {
+                int[] permutation = new int[to - from];
+                for (int i = from; i < to; i++) {
+                    permutation[i - from] = change.getPermutation(i);
+                }
+                nextPermutation(from, to, permutation);
+            } else if (change.wasUpdated()) {
+                for (int i = from; i < to; i++) {
+                    nextUpdate(i);
+                }
+            } else if (change.wasReplaced()) {
+                nextReplace(from, to, change.getRemoved());
+            } else if (change.wasRemoved()) {
+                nextRemove(from, change.getRemoved());
+            } else {
+                nextAdd(from, to);
+            }
+        }
+        endChange();
+    }
+
+    @Override
+    public E get(int index) {
+        return sortedList == null ? getSource().get(index) : sortedList.get(index);
+    }
+
+    @Override
+    public int size() {
+        return getSource().size();
+    }
+
+    @Override
+    public int getSourceIndex(int index) {
+        return sortedList == null ? index : sortedList.getSourceIndex(index);
+    }
+
+    @Override
+    public int getViewIndex(int index) {
+        return sortedList == null ? index : sortedList.getViewIndex(index);
+    }
+}
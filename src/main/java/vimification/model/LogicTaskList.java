@@ -1,5 +1,6 @@
 package vimification.model;
 
+import java.util.Collection;
 import java.util.List;
 
 import vimification.model.task.Task;
@@ -66,6 +67,22 @@ public interface LogicTaskList {
      */
     public void add(int index, Task task);
 
+    /**
+     * Adds all of the specified tasks to the end of the task list, as a single modification.
+     *
+     * @param tasks the new tasks to be added
+     */
+    public void addAll(Collection<? extends Task> tasks);
+
+    /**
+     * Removes the tasks between the specified indices from the task list, as a single
+     * modification.
+     *
+     * @param fromIndex index of the first task to be removed
+     * @param toIndex index after the last task to be removed
+     */
+    public void removeRange(int fromIndex, int toIndex);
+
     /**
      * Removes the last task from the task list.
      *
@@ -73,6 +90,26 @@ public interface LogicTaskList {
      */
     public Task removeLast();
 
+    /**
+     * Begins a transaction. The modifications made until the matching call to
+     * {@link #commitTransaction()} are reported to the observers of the task list as a single
+     * change, once the transaction is committed. Transactions can be nested, in which case the
+     * change is reported when the outermost transaction is committed.
+     * <p>
+     * Until then, the indices returned by {@link #getLogicSourceIndex(int)} may be out of date.
+     * The transaction must be committed even if a modification fails, so callers should commit
+     * it in a {@code finally} block.
+     */
+    public void beginTransaction();
+
+    /**
+     * Commits the current transaction, reporting its modifications as a single change if it is
+     * the outermost transaction.
+     *
+     * @throws IllegalStateException if there is no transaction to commit
+     */
+    public void commitTransaction();
+
     /**
      * Returns the actual index of the task at the specified index, in the source task list.
      * <p>
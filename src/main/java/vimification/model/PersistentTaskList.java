@@ -0,0 +1,461 @@
+package vimification.model;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import vimification.model.task.Task;
+
+/**
+ * A list of tasks stored in a tree of small arrays, whose copies share the tree until they are
+ * modified. Copying this list takes constant time, however many tasks it contains, and modifying
+ * either list afterwards only copies the nodes on the path to the modified task.
+ * <p>
+ * The tasks are stored in the leaves of the tree, in order. Each branch records the number of
+ * tasks under each of its children, so that a task can be found from its position in a few steps.
+ * Nodes are split when they are full, and merged with a neighbour when they become small, but,
+ * unlike a B-tree, nodes are not required to be half full. Appending tasks fills each leaf before
+ * starting the next one.
+ * <p>
+ * Each node belongs to the list that created it, and is only modified in place by that list.
+ * Copying the list gives up the ownership of every node, so that both lists copy a node before
+ * modifying it. A copy can therefore be read by another thread while this list is modified, as
+ * long as the copy is made by the thread that modifies this list. A single instance is not
+ * thread-safe.
+ */
+public class PersistentTaskList extends AbstractList<Task>
+        implements CopyableTaskList, RandomAccess {
+
+    private static final int MAX_CHILDREN = 32;
+    private static final int MIN_CHILDREN = MAX_CHILDREN / 4;
+
+    // Identifies the nodes that this list can modify in place
+    private Object owner = new Object();
+    private Node root;
+    private int size = 0;
+    // Changes on every modification, including replacements, unlike modCount
+    private int editCount = 0;
+
+    /**
+     * Creates a new, empty list.
+     */
+    public PersistentTaskList() {
+        root = new Node(owner, true);
+    }
+
+    /**
+     * Creates a new list containing the specified tasks.
+     *
+     * @param tasks the initial content of this list
+     */
+    public PersistentTaskList(Collection<? extends Task> tasks) {
+        root = build(tasks);
+    }
+
+    private PersistentTaskList(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy shares all nodes with this list, so this method takes constant time.
+     */
+    @Override
+    public PersistentTaskList copy() {
+        // Neither list owns the shared nodes anymore
+        owner = new Object();
+        editCount++;
+        return new PersistentTaskList(root, size);
+    }
+
+    /**
+     * Builds a tree containing the specified tasks, with full nodes except at the end.
+     */
+    private Node build(Collection<? extends Task> tasks) {
+        Node[] level = new Node[Math.max((tasks.size() + MAX_CHILDREN - 1) / MAX_CHILDREN, 1)];
+        int nodeCount = 0;
+        Node leaf = new Node(owner, true);
+        level[nodeCount++] = leaf;
+        for (Task task : tasks) {
+            if (leaf.count == MAX_CHILDREN) {
+                leaf = new Node(owner, true);
+                level[nodeCount++] = leaf;
+            }
+            leaf.items[leaf.count++] = Objects.requireNonNull(task);
+            size++;
+        }
+        while (nodeCount > 1) {
+            int parentCount = 0;
+            Node parent = null;
+            // The parents replace the nodes in the same array, behind the node being read
+            for (int i = 0; i < nodeCount; i++) {
+                Node child = level[i];
+                if (parent == null || parent.count == MAX_CHILDREN) {
+                    parent = new Node(owner, false);
+                    level[parentCount++] = parent;
+                }
+                parent.insertChild(parent.count, child);
+            }
+            nodeCount = parentCount;
+        }
+        return level[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        Node node = root;
+        while (!node.isLeaf()) {
+            int i = node.indexOfChild(index);
+            index -= node.getStart(i);
+            node = (Node) node.items[i];
+        }
+        return (Task) node.items[index];
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Objects.checkIndex(index, size);
+        Objects.requireNonNull(task);
+        editCount++;
+        Node node = root = getEditable(root);
+        while (!node.isLeaf()) {
+            int i = node.indexOfChild(index);
+            index -= node.getStart(i);
+            node = getEditableChild(node, i);
+        }
+        Task oldTask = (Task) node.items[index];
+        node.items[index] = task;
+        return oldTask;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Objects.requireNonNull(task);
+        modCount++;
+        editCount++;
+        root = getEditable(root);
+        Node sibling = insert(root, index, task);
+        if (sibling != null) {
+            Node newRoot = new Node(owner, false);
+            newRoot.insertChild(0, root);
+            newRoot.insertChild(1, sibling);
+            root = newRoot;
+        }
+        size++;
+    }
+
+    /**
+     * Inserts a task into the subtree of the specified node, which must be editable.
+     *
+     * @return the node split from the specified node if it was full, to be inserted after it
+     */
+    private Node insert(Node node, int index, Task task) {
+        if (node.isLeaf()) {
+            return node.insertTask(index, task, owner);
+        }
+        int i = node.indexOfChild(index);
+        Node child = getEditableChild(node, i);
+        Node sibling = insert(child, index - node.getStart(i), task);
+        node.updateEnds(i);
+        return sibling == null ? null : node.insertChild(i + 1, sibling, owner);
+    }
+
+    @Override
+    public Task remove(int index) {
+        Objects.checkIndex(index, size);
+        modCount++;
+        editCount++;
+        root = getEditable(root);
+        Task task = remove(root, index);
+        while (!root.isLeaf() && root.count == 1) {
+            root = (Node) root.items[0];
+        }
+        size--;
+        return task;
+    }
+
+    /**
+     * Removes a task from the subtree of the specified node, which must be editable.
+     */
+    private Task remove(Node node, int index) {
+        if (node.isLeaf()) {
+            return (Task) node.removeItem(index);
+        }
+        int i = node.indexOfChild(index);
+        Node child = getEditableChild(node, i);
+        Task task = remove(child, index - node.getStart(i));
+        if (child.count == 0) {
+            node.removeItem(i);
+        } else if (child.count < MIN_CHILDREN && node.count > 1) {
+            mergeWithNeighbour(node, i);
+        } else {
+            node.updateEnds(i);
+        }
+        return task;
+    }
+
+    /**
+     * Merges the specified child with one of its neighbours, if they fit in a single node. The
+     * children are left as they are otherwise.
+     */
+    private void mergeWithNeighbour(Node node, int i) {
+        int left = i + 1 < node.count ? i : i - 1;
+        Node leftChild = (Node) node.items[left];
+        Node rightChild = (Node) node.items[left + 1];
+        if (leftChild.count + rightChild.count > MAX_CHILDREN) {
+            node.updateEnds(i);
+            return;
+        }
+        leftChild = getEditableChild(node, left);
+        for (int j = 0; j < rightChild.count; j++) {
+            leftChild.items[leftChild.count + j] = rightChild.items[j];
+        }
+        leftChild.count += rightChild.count;
+        if (!leftChild.isLeaf()) {
+            leftChild.updateEnds(0);
+        }
+        node.removeItem(left + 1);
+        node.updateEnds(left);
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        editCount++;
+        root = new Node(owner, true);
+        size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The iterator goes through the leaves of the tree, instead of looking up each task.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new LeafIterator();
+    }
+
+    private Node getEditable(Node node) {
+        return node.owner == owner ? node : node.copy(owner);
+    }
+
+    private Node getEditableChild(Node node, int i) {
+        Node child = getEditable((Node) node.items[i]);
+        node.items[i] = child;
+        return child;
+    }
+
+    /**
+     * A node of the tree. Leaves contain tasks, and branches contain other nodes.
+     */
+    private static class Node {
+
+        private final Object owner;
+        private final Object[] items = new Object[MAX_CHILDREN];
+        // The number of tasks under each child and the children before it, null for leaves
+        private final int[] ends;
+        private int count = 0;
+
+        private Node(Object owner, boolean isLeaf) {
+            this.owner = owner;
+            this.ends = isLeaf ? null : new int[MAX_CHILDREN];
+        }
+
+        private boolean isLeaf() {
+            return ends == null;
+        }
+
+        private int getSize() {
+            return isLeaf() ? count : count == 0 ? 0 : ends[count - 1];
+        }
+
+        /**
+         * Returns the child containing the task at the specified position. A position at the end
+         * of a child is in the next child, except after the last child.
+         */
+        private int indexOfChild(int index) {
+            int i = 0;
+            while (i < count - 1 && ends[i] <= index) {
+                i++;
+            }
+            return i;
+        }
+
+        private int getStart(int i) {
+            return i == 0 ? 0 : ends[i - 1];
+        }
+
+        /**
+         * Recomputes the number of tasks under the children from the specified one onwards.
+         */
+        private void updateEnds(int from) {
+            for (int i = from; i < count; i++) {
+                ends[i] = getStart(i) + ((Node) items[i]).getSize();
+            }
+        }
+
+        private Node copy(Object newOwner) {
+            Node node = new Node(newOwner, isLeaf());
+            System.arraycopy(items, 0, node.items, 0, count);
+            if (!isLeaf()) {
+                System.arraycopy(ends, 0, node.ends, 0, count);
+            }
+            node.count = count;
+            return node;
+        }
+
+        /**
+         * Inserts a task into this leaf, splitting it if it is full.
+         *
+         * @return the new leaf holding the second half of the tasks, or null if this leaf was not
+         *         split
+         */
+        private Node insertTask(int index, Task task, Object newOwner) {
+            Node right = split(index, newOwner);
+            if (right != null && index >= count) {
+                right.insertItem(index - count, task);
+            } else {
+                insertItem(index, task);
+            }
+            return right;
+        }
+
+        /**
+         * Inserts a child into this branch, splitting it if it is full.
+         *
+         * @return the new branch holding the second half of the children, or null if this branch
+         *         was not split
+         */
+        private Node insertChild(int i, Node child, Object newOwner) {
+            Node right = split(i, newOwner);
+            if (right != null && i >= count) {
+                right.insertChild(i - count, child);
+            } else {
+                insertChild(i, child);
+            }
+            return right;
+        }
+
+        private void insertChild(int i, Node child) {
+            insertItem(i, child);
+            updateEnds(i);
+        }
+
+        /**
+         * Moves the second half of the items of this node to a new node, if this node is full. If
+         * the new item is inserted at the end, only the new item goes to the new node, so that
+         * appending fills the nodes.
+         */
+        private Node split(int index, Object newOwner) {
+            if (count < MAX_CHILDREN) {
+                return null;
+            }
+            int half = index == MAX_CHILDREN ? MAX_CHILDREN : MAX_CHILDREN / 2;
+            Node right = new Node(newOwner, isLeaf());
+            right.count = count - half;
+            System.arraycopy(items, half, right.items, 0, right.count);
+            for (int i = half; i < count; i++) {
+                items[i] = null;
+            }
+            count = half;
+            if (!isLeaf()) {
+                right.updateEnds(0);
+            }
+            return right;
+        }
+
+        private void insertItem(int i, Object item) {
+            System.arraycopy(items, i, items, i + 1, count - i);
+            items[i] = item;
+            count++;
+        }
+
+        private Object removeItem(int i) {
+            Object item = items[i];
+            System.arraycopy(items, i + 1, items, i, count - i - 1);
+            items[--count] = null;
+            if (!isLeaf()) {
+                updateEnds(i);
+            }
+            return item;
+        }
+    }
+
+    /**
+     * An iterator that keeps the leaf containing the next task, and only goes through the tree
+     * again when it reaches the end of the leaf, or when the list is modified.
+     */
+    private class LeafIterator implements Iterator<Task> {
+
+        private int expectedModCount = modCount;
+        private int next = 0;
+        private boolean canRemove = false;
+        private Node leaf = null;
+        private int leafStart = 0;
+        private int leafEditCount = editCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Task next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (leaf == null || next - leafStart >= leaf.count || leafEditCount != editCount) {
+                findLeaf();
+            }
+            canRemove = true;
+            return (Task) leaf.items[next++ - leafStart];
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            PersistentTaskList.this.remove(--next);
+            expectedModCount = modCount;
+            canRemove = false;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        private void findLeaf() {
+            Node node = root;
+            int index = next;
+            while (!node.isLeaf()) {
+                int i = node.indexOfChild(index);
+                index -= node.getStart(i);
+                node = (Node) node.items[i];
+            }
+            leaf = node;
+            leafStart = next - index;
+            leafEditCount = editCount;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package vimification.model;
 import java.nio.file.Path;
 
 import vimification.common.core.GuiSettings;
+import vimification.common.core.StorageFormat;
 
 /**
  * Unmodifiable view of the user prefs.
@@ -15,4 +16,20 @@ public interface ReadOnlyUserPrefs {
 
     Path getMacroMapFilePath();
 
+    boolean isTaskListJournalEnabled();
+
+    boolean isTaskListLazyLoadingEnabled();
+
+    StorageFormat getTaskListStorageFormat();
+
+    boolean isTaskListSegmentsEnabled();
+
+    boolean isTaskListIndexEnabled();
+
+    boolean isTaskListWatchEnabled();
+
+    boolean isTaskListSharedAccessEnabled();
+
+    boolean isTaskListColumnarEnabled();
+
 }
@@ -1,36 +1,88 @@
 package vimification.model;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 import vimification.model.task.Task;
 
 /**
  * Implementation of both {@link LogicTaskList} and {@link UiTaskList}, used to manage the task list
  * and control which task should be displayed to the user.
+ * <p>
+ * The filtered and sorted views used by the UI are only created when they are first needed, so
+ * instances that are never displayed (for example, snapshots) do not pay for them. Until a
+ * predicate or a comparator is set, the views do not access any task that is not displayed.
+ * <p>
+ * A {@link TaskListIndex} can be attached to a version of the task list. The index is only used
+ * until the task list is modified. Afterwards, the task list indexes its tasks itself, the first
+ * time an index is needed, and keeps that index up to date as it is modified. If the list that
+ * stores the tasks is an index of its own tasks, like {@link ColumnarTaskList}, it is used instead.
+ * The index maintained by this task list finds the tasks with a deadline by identity, so it is not
+ * built if the list that stores the tasks does not keep their identity, see
+ * {@link CopyableTaskList#hasStableTasks()}.
+ * <p>
+ * The filtered view is built from the positions selected by the index, see
+ * {@link #setPredicate(Predicate, Function)}, so that filtering only tests the selected tasks.
+ * <p>
+ * Unless another list is given to {@link #wrap(List)}, the tasks are stored in a
+ * {@link PersistentTaskList}, so that taking a snapshot does not copy the tasks. The observable
+ * list used by the views is a view of the current version of that list.
+ * <p>
+ * Each modification notifies the views separately, unless it is part of a transaction, see
+ * {@link #beginTransaction()}.
+ * <p>
+ * The ids of the tasks modified by the latest modifications are logged, so that the tasks modified
+ * since a version can be found without going through every task, see
+ * {@link #getModifiedTasksSince(long)}.
  */
 public class TaskList implements LogicTaskList, UiTaskList {
 
-    private final ObservableList<Task> allTasks;
-    private final FilteredList<Task> filteredTasks;
-    private final SortedList<Task> sortedTasks;
+    // The number of logged modifications of tasks, beyond which the oldest ones are forgotten
+    private static final int MAX_LOGGED_MODIFICATIONS = 1 << 14;
+
+    private final List<Task> backingTasks;
+    private final BatchingObservableList<Task> allTasks;
+    private IndexedFilteredList<Task> filteredTasks = null;
+    private LazySortedList<Task> sortedTasks = null;
+    private long version = 0;
+    // Written by the thread that builds the index, read by the thread that modifies the list
+    private volatile IndexedVersion indexedVersion = null;
+    // Only created once the attached index is out of date
+    private IncrementalTaskListIndex ownIndex = null;
+    // The latest modifications of tasks, oldest first
+    private final Deque<Modification> modifications = new ArrayDeque<>();
+    // The modifications since this version are all logged
+    private long oldestLoggedVersion = 0;
+
+    private TaskList(List<Task> backingTasks, BatchingObservableList<Task> allTasks) {
+        this.backingTasks = backingTasks;
+        this.allTasks = allTasks;
+    }
 
     /**
-     * Creates a new {@code TaskList} instance, with the specified tasks as its content.
+     * Creates a new {@code TaskList} instance, with the specified tasks as its content, stored in
+     * a {@link PersistentTaskList}.
      *
      * @param tasks the initial content of this instance
      */
     public TaskList(Collection<? extends Task> tasks) {
-        this.allTasks = FXCollections.observableArrayList(tasks);
-        this.filteredTasks = new FilteredList<>(allTasks);
-        this.sortedTasks = new SortedList<>(filteredTasks);
+        this.backingTasks = new PersistentTaskList(tasks);
+        this.allTasks = new BatchingObservableList<>(backingTasks);
     }
 
     /**
@@ -40,6 +92,17 @@ public class TaskList implements LogicTaskList, UiTaskList {
         this(List.of());
     }
 
+    /**
+     * Creates a new {@code TaskList} instance, which uses the specified list to store its content,
+     * without copying it. The list must not be modified by anything else afterwards.
+     *
+     * @param tasks the list used to store the content of the new instance
+     * @return a new {@code TaskList} backed by the specified list
+     */
+    public static TaskList wrap(List<Task> tasks) {
+        return new TaskList(tasks, new BatchingObservableList<>(tasks));
+    }
+
     @Override
     public int size() {
         return allTasks.size();
@@ -57,32 +120,101 @@ public class TaskList implements LogicTaskList, UiTaskList {
 
     @Override
     public void set(int index, Task task) {
-        allTasks.set(index, task);
+        version++;
+        Task oldTask = allTasks.set(index, task);
+        if (!oldTask.getId().equals(task.getId())) {
+            logModification(oldTask.getId(), null);
+        }
+        logModification(task.getId(), task);
+        if (ownIndex != null) {
+            ownIndex.onReplaced(index, oldTask, task);
+        }
     }
 
     @Override
     public Task remove(int index) {
-        return allTasks.remove(index);
+        version++;
+        Task task = allTasks.remove(index);
+        logModification(task.getId(), null);
+        if (ownIndex != null) {
+            ownIndex.onRemoved(index, task);
+        }
+        return task;
     }
 
     @Override
     public void add(Task task) {
-        allTasks.add(task);
+        add(allTasks.size(), task);
     }
 
     @Override
     public void add(int index, Task task) {
+        version++;
         allTasks.add(index, task);
+        logModification(task.getId(), task);
+        if (ownIndex != null) {
+            ownIndex.onInserted(index, task);
+        }
+    }
+
+    @Override
+    public void addAll(Collection<? extends Task> tasks) {
+        version++;
+        int position = allTasks.size();
+        allTasks.addAll(tasks);
+        tasks.forEach(task -> logModification(task.getId(), task));
+        if (ownIndex != null) {
+            ownIndex.onAppended(position, tasks);
+        }
+    }
+
+    @Override
+    public void removeRange(int fromIndex, int toIndex) {
+        version++;
+        List<Task> removedTasks = new ArrayList<>(allTasks.subList(fromIndex, toIndex));
+        allTasks.remove(fromIndex, toIndex);
+        removedTasks.forEach(task -> logModification(task.getId(), null));
+        if (ownIndex != null) {
+            ownIndex.onRangeRemoved(fromIndex, toIndex, removedTasks);
+        }
+    }
+
+    /**
+     * Removes all tasks from this task list.
+     */
+    public void clear() {
+        version++;
+        allTasks.clear();
+        ownIndex = null;
+        // Logging the removal of every task would cost as much as going through the tasks
+        modifications.clear();
+        oldestLoggedVersion = version;
     }
 
     @Override
     public Task removeLast() {
-        return allTasks.remove(allTasks.size() - 1);
+        return remove(allTasks.size() - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The index maintained by this task list is still updated after each modification, but the
+     * filtered and sorted views are only updated when the transaction is committed.
+     */
+    @Override
+    public void beginTransaction() {
+        allTasks.beginBatch();
+    }
+
+    @Override
+    public void commitTransaction() {
+        allTasks.endBatch();
     }
 
     @Override
     public int getLogicSourceIndex(int index) {
-        return sortedTasks.getSourceIndexFor(allTasks, index);
+        return getSortedTasks().getSourceIndexFor(allTasks, index);
     }
 
     @Override
@@ -90,29 +222,188 @@ public class TaskList implements LogicTaskList, UiTaskList {
         return Collections.unmodifiableList(allTasks);
     }
 
+    /**
+     * Returns a copy of this task list, which is not affected by further modifications of this
+     * task list. The tasks themselves are shared. If this task list is backed by a
+     * {@link CopyableTaskList}, which is the case unless another list was given to
+     * {@link #wrap(List)}, its tasks are not accessed.
+     *
+     * @return a copy of this task list
+     */
+    public TaskList snapshot() {
+        if (backingTasks instanceof CopyableTaskList) {
+            return wrap(((CopyableTaskList) backingTasks).copy());
+        }
+        return new TaskList(allTasks);
+    }
+
+    /**
+     * Returns the version of this task list, which changes every time it is modified.
+     *
+     * @return the current version of this task list
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the tasks added, replaced or removed since the specified version of this task list,
+     * by id, in the order of their latest modifications. The value of each id is the task with
+     * that id in the current version, or null if the task has been removed. Tasks that have been
+     * added, then removed again are included as removed.
+     * <p>
+     * Only the latest modifications are logged, so this returns null if the version is too old,
+     * or if the task list has been cleared since then.
+     *
+     * @param version a version of this task list, as returned by {@link #getVersion()}
+     * @return the modified tasks by id, or null if they are no longer known
+     */
+    public Map<UUID, Task> getModifiedTasksSince(long version) {
+        if (version < oldestLoggedVersion) {
+            return null;
+        }
+        List<Modification> latestModifications = new ArrayList<>();
+        Set<UUID> ids = new HashSet<>();
+        Iterator<Modification> iterator = modifications.descendingIterator();
+        while (iterator.hasNext()) {
+            Modification modification = iterator.next();
+            if (modification.version <= version) {
+                break;
+            }
+            // Only the latest modification of each task counts
+            if (ids.add(modification.id)) {
+                latestModifications.add(modification);
+            }
+        }
+        Map<UUID, Task> modifiedTasks = new LinkedHashMap<>();
+        for (int i = latestModifications.size() - 1; i >= 0; i--) {
+            modifiedTasks.put(latestModifications.get(i).id, latestModifications.get(i).task);
+        }
+        return modifiedTasks;
+    }
+
+    private void logModification(UUID id, Task task) {
+        if (modifications.size() == MAX_LOGGED_MODIFICATIONS) {
+            // The modifications of that version may not all be logged anymore
+            oldestLoggedVersion = modifications.removeFirst().version;
+        }
+        modifications.addLast(new Modification(version, id, task));
+    }
+
+    /**
+     * Attaches an index to the specified version of this task list. The index is ignored if this
+     * task list has been modified since then. This method can be called by any thread.
+     *
+     * @param index the index of the tasks at the specified version
+     * @param version the version that was indexed, as returned by {@link #getVersion()}
+     */
+    public void setIndex(TaskListIndex index, long version) {
+        indexedVersion = new IndexedVersion(index, version);
+    }
+
+    /**
+     * Gets the index of the tasks, if there is an up-to-date index.
+     * <p>
+     * The attached index is returned while it is up to date. Otherwise, the list that stores the
+     * tasks is returned if it is an index, or else the index maintained by this task list, which
+     * is built if this is the first time it is needed. No index is built if the list that stores
+     * the tasks does not keep their identity.
+     *
+     * @return the index of the tasks, or null if there is no up-to-date index
+     */
+    public TaskListIndex getIndex() {
+        IndexedVersion current = indexedVersion;
+        if (current != null && current.version == version) {
+            return current.index;
+        }
+        if (backingTasks instanceof TaskListIndex) {
+            return (TaskListIndex) backingTasks;
+        }
+        if (!hasStableTasks()) {
+            return null;
+        }
+        if (ownIndex == null) {
+            ownIndex = new IncrementalTaskListIndex(backingTasks);
+        }
+        return ownIndex;
+    }
+
+    private boolean hasStableTasks() {
+        return !(backingTasks instanceof CopyableTaskList)
+                || ((CopyableTaskList) backingTasks).hasStableTasks();
+    }
+
+    private LazySortedList<Task> getSortedTasks() {
+        if (sortedTasks == null) {
+            filteredTasks = new IndexedFilteredList<>(allTasks);
+            sortedTasks = new LazySortedList<>(filteredTasks);
+        }
+        return sortedTasks;
+    }
+
     @Override
     public Predicate<? super Task> getPredicate() {
-        return filteredTasks.getPredicate();
+        return filteredTasks == null ? null : filteredTasks.getPredicate();
     }
 
     @Override
     public Comparator<? super Task> getComparator() {
-        return sortedTasks.getComparator();
+        return sortedTasks == null ? null : sortedTasks.getComparator();
     }
 
     @Override
     public void setPredicate(Predicate<? super Task> predicate) {
+        getSortedTasks();
         filteredTasks.setPredicate(predicate);
     }
 
+    @Override
+    public void setPredicate(Predicate<? super Task> predicate,
+            Function<? super TaskListIndex, BitSet> query) {
+        TaskListIndex index = predicate == null || query == null ? null : getIndex();
+        getSortedTasks();
+        filteredTasks.setPredicate(predicate, index == null ? null : query.apply(index));
+    }
+
     @Override
     public void setComparator(Comparator<? super Task> comparator) {
-        sortedTasks.setComparator(comparator);
+        getSortedTasks().setComparator(comparator);
     }
 
     @Override
     public ObservableList<Task> getUiSource() {
-        return sortedTasks;
+        return getSortedTasks();
+    }
+
+    /**
+     * An index, together with the version of the task list it was built from.
+     */
+    private static class IndexedVersion {
+
+        private final TaskListIndex index;
+        private final long version;
+
+        private IndexedVersion(TaskListIndex index, long version) {
+            this.index = index;
+            this.version = version;
+        }
+    }
+
+    /**
+     * A logged modification of a task.
+     */
+    private static class Modification {
+
+        private final long version;
+        private final UUID id;
+        // Null if the task has been removed
+        private final Task task;
+
+        private Modification(long version, UUID id, Task task) {
+            this.version = version;
+            this.id = id;
+            this.task = task;
+        }
     }
 
     @Override
@@ -0,0 +1,206 @@
+package vimification.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import vimification.model.task.Task;
+
+/**
+ * Represents the difference between two versions of a task list, as a single contiguous region that
+ * has been replaced.
+ * <p>
+ * The region is found by skipping the longest common prefix and the longest common suffix of the
+ * two versions. Tasks are compared by reference first, which makes the comparison cheap when both
+ * versions share most of their tasks (as it is the case after executing a command).
+ */
+public class TaskListDiff {
+
+    private final int from;
+    private final int removedCount;
+    private final List<Task> addedTasks;
+
+    private TaskListDiff(int from, int removedCount, List<Task> addedTasks) {
+        this.from = from;
+        this.removedCount = removedCount;
+        this.addedTasks = addedTasks;
+    }
+
+    /**
+     * Computes the difference between the old version and the new version of a task list.
+     *
+     * @param oldTasks the old version of the task list
+     * @param newTasks the new version of the task list
+     * @return the difference between the two versions
+     */
+    public static TaskListDiff between(List<Task> oldTasks, List<Task> newTasks) {
+        int oldSize = oldTasks.size();
+        int newSize = newTasks.size();
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize
+                && isSameTask(oldTasks.get(prefix), newTasks.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && isSameTask(oldTasks.get(oldSize - suffix - 1),
+                        newTasks.get(newSize - suffix - 1))) {
+            suffix++;
+        }
+        List<Task> addedTasks = List.copyOf(newTasks.subList(prefix, newSize - suffix));
+        return new TaskListDiff(prefix, oldSize - prefix - suffix, addedTasks);
+    }
+
+    /**
+     * Merges two versions of a task list that were both derived from the same base version.
+     * <p>
+     * If the regions changed by the two versions do not overlap, the result contains both
+     * changes. Otherwise, the result contains the union of the two regions as it is in
+     * {@code ours}, and the rest of the task list as it is in {@code theirs}.
+     *
+     * @param base the version that both versions were derived from
+     * @param ours the version whose changes take precedence
+     * @param theirs the other version
+     * @return a new list containing the merged version
+     */
+    public static List<Task> merge(List<Task> base, List<Task> ours, List<Task> theirs) {
+        TaskListDiff ourDiff = between(base, ours);
+        TaskListDiff theirDiff = between(base, theirs);
+        List<Task> merged = new ArrayList<>(theirs);
+        int ourEnd = ourDiff.from + ourDiff.removedCount;
+        int theirEnd = theirDiff.from + theirDiff.removedCount;
+        if (ourDiff.isEmpty()) {
+            return merged;
+        }
+        if (theirDiff.isEmpty() || ourEnd <= theirDiff.from) {
+            ourDiff.applyTo(merged);
+            return merged;
+        }
+        int theirShift = theirDiff.addedTasks.size() - theirDiff.removedCount;
+        if (theirEnd <= ourDiff.from) {
+            new TaskListDiff(ourDiff.from + theirShift, ourDiff.removedCount, ourDiff.addedTasks)
+                    .applyTo(merged);
+            return merged;
+        }
+        int from = Math.min(ourDiff.from, theirDiff.from);
+        int end = Math.max(ourEnd, theirEnd);
+        int ourShift = ourDiff.addedTasks.size() - ourDiff.removedCount;
+        merged.subList(from, end + theirShift).clear();
+        merged.addAll(from, ours.subList(from, end + ourShift));
+        return merged;
+    }
+
+    /**
+     * Checks whether the tasks are the same task with the same content. Tasks with the same
+     * content but different ids are different tasks, since the ids are used to sync tasks.
+     */
+    private static boolean isSameTask(Task oldTask, Task newTask) {
+        return oldTask == newTask
+                || (oldTask.getId().equals(newTask.getId()) && oldTask.equals(newTask));
+    }
+
+    /**
+     * Returns the index where the replaced region starts.
+     *
+     * @return the index where the replaced region starts
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the number of tasks removed from the old version, starting at {@link #getFrom()}.
+     *
+     * @return the number of removed tasks
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    /**
+     * Returns the tasks inserted into the new version, starting at {@link #getFrom()}.
+     *
+     * @return an unmodifiable list of the inserted tasks
+     */
+    public List<Task> getAddedTasks() {
+        return addedTasks;
+    }
+
+    /**
+     * Checks whether the two versions are identical.
+     *
+     * @return true if there is no difference, otherwise false
+     */
+    public boolean isEmpty() {
+        return removedCount == 0 && addedTasks.isEmpty();
+    }
+
+    /**
+     * Applies this difference to the specified list, turning the old version into the new version.
+     *
+     * @param tasks the old version of the task list, which will be modified
+     */
+    public void applyTo(List<Task> tasks) {
+        tasks.subList(from, from + removedCount).clear();
+        tasks.addAll(from, addedTasks);
+    }
+
+    /**
+     * Applies this difference to the specified task list, turning the old version into the new
+     * version. The tasks of the replaced region are replaced one by one where possible, so that
+     * each task is only modified once, and the tasks that are already equal are not modified. The
+     * modifications are made in a single transaction.
+     *
+     * @param taskList the old version of the task list, which will be modified
+     */
+    public void applyTo(LogicTaskList taskList) {
+        taskList.beginTransaction();
+        try {
+            int replacedCount = Math.min(removedCount, addedTasks.size());
+            for (int i = 0; i < replacedCount; i++) {
+                if (!isSameTask(taskList.get(from + i), addedTasks.get(i))) {
+                    taskList.set(from + i, addedTasks.get(i));
+                }
+            }
+            int end = from + replacedCount;
+            if (removedCount > replacedCount) {
+                taskList.removeRange(end, from + removedCount);
+            }
+            List<Task> insertedTasks = addedTasks.subList(replacedCount, addedTasks.size());
+            if (end == taskList.size()) {
+                taskList.addAll(insertedTasks);
+                return;
+            }
+            for (int i = 0; i < insertedTasks.size(); i++) {
+                taskList.add(end + i, insertedTasks.get(i));
+            }
+        } finally {
+            taskList.commitTransaction();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TaskListDiff)) {
+            return false;
+        }
+        TaskListDiff otherDiff = (TaskListDiff) other;
+        return from == otherDiff.from
+                && removedCount == otherDiff.removedCount
+                && Objects.equals(addedTasks, otherDiff.addedTasks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, removedCount, addedTasks);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskListDiff [from=" + from + ", removedCount=" + removedCount + ", addedTasks="
+                + addedTasks + "]";
+    }
+}
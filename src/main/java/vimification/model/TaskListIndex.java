@@ -0,0 +1,67 @@
+package vimification.model;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+
+/**
+ * Represents secondary indexes over a version of a task list. Tasks are identified by their
+ * positions in that version of the list, so the indexes are no longer valid once the list is
+ * modified.
+ */
+public interface TaskListIndex {
+
+    /**
+     * Returns the number of tasks in the indexed task list.
+     *
+     * @return the number of indexed tasks
+     */
+    int size();
+
+    /**
+     * Returns the positions of the tasks that have the specified label. Labels are compared
+     * case-insensitively, like {@link vimification.model.task.Task#containsLabel(String)}.
+     *
+     * @param label the label to search for
+     * @return the positions of the matching tasks
+     */
+    BitSet getTasksWithLabel(String label);
+
+    /**
+     * Returns the positions of the tasks that have the specified status.
+     *
+     * @param status the status to search for
+     * @return the positions of the matching tasks
+     */
+    BitSet getTasksWithStatus(Status status);
+
+    /**
+     * Returns the positions of the tasks that have the specified priority.
+     *
+     * @param priority the priority to search for
+     * @return the positions of the matching tasks
+     */
+    BitSet getTasksWithPriority(Priority priority);
+
+    /**
+     * Returns the positions of the tasks whose deadline is strictly between the specified dates,
+     * like {@link vimification.model.task.Task#deadlineIsAfter(LocalDateTime)} and
+     * {@link vimification.model.task.Task#deadlineIsBefore(LocalDateTime)}. Tasks without a
+     * deadline are never returned.
+     *
+     * @param after the date the deadlines must be after, or null for no lower bound
+     * @param before the date the deadlines must be before, or null for no upper bound
+     * @return the positions of the matching tasks
+     */
+    BitSet getTasksWithDeadlineBetween(LocalDateTime after, LocalDateTime before);
+
+    /**
+     * Returns the positions of the tasks that have a deadline, ordered by their deadlines. Tasks
+     * with the same deadline are ordered by their positions.
+     *
+     * @return the positions of the tasks with a deadline, in the order of their deadlines
+     */
+    int[] getTasksByDeadline();
+}
@@ -1,6 +1,8 @@
 package vimification.model;
 
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import javafx.collections.ObservableList;
@@ -32,6 +34,19 @@ public interface UiTaskList {
      */
     public void setPredicate(Predicate<? super Task> predicate);
 
+    /**
+     * Sets the predicate used to select tasks to display, together with a query that selects the
+     * positions of the tasks that may match the predicate from the index of the tasks. Only the
+     * selected tasks are tested, so filtering costs time proportional to the number of selected
+     * tasks instead of the number of tasks. If there is no up-to-date index, every task is tested.
+     *
+     * @param predicate the predicate used to select tasks to display
+     * @param query returns the positions of the tasks that may match the predicate, which must
+     *         include every task that matches it, or null to test every task
+     */
+    public void setPredicate(Predicate<? super Task> predicate,
+            Function<? super TaskListIndex, BitSet> query);
+
     /**
      * Gets the comparator used to order the displayed tasks.
      *
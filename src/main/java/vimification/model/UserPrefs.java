@@ -5,6 +5,7 @@ import static java.util.Objects.requireNonNull;
 import java.nio.file.Path;
 
 import vimification.common.core.GuiSettings;
+import vimification.common.core.StorageFormat;
 
 /**
  * Represents the user's preferences.
@@ -16,6 +17,14 @@ public class UserPrefs implements ReadOnlyUserPrefs {
     private GuiSettings guiSettings = new GuiSettings();
     private Path taskListFilePath = Path.of(VIMIFICATION, "tasklist.json");
     private Path macroMapFilePath = Path.of(VIMIFICATION, "macromap.json");
+    private boolean taskListJournalEnabled = false;
+    private boolean taskListLazyLoadingEnabled = false;
+    private StorageFormat taskListStorageFormat = StorageFormat.PRETTY;
+    private boolean taskListSegmentsEnabled = false;
+    private boolean taskListIndexEnabled = false;
+    private boolean taskListWatchEnabled = false;
+    private boolean taskListSharedAccessEnabled = false;
+    private boolean taskListColumnarEnabled = false;
 
     /**
      * Creates a {@code UserPrefs} with default values.
@@ -40,6 +49,14 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         setGuiSettings(newUserPrefs.guiSettings);
         setTaskListFilePath(newUserPrefs.taskListFilePath);
         setMacroMapFilePath(newUserPrefs.macroMapFilePath);
+        setTaskListJournalEnabled(newUserPrefs.taskListJournalEnabled);
+        setTaskListLazyLoadingEnabled(newUserPrefs.taskListLazyLoadingEnabled);
+        setTaskListStorageFormat(newUserPrefs.taskListStorageFormat);
+        setTaskListSegmentsEnabled(newUserPrefs.taskListSegmentsEnabled);
+        setTaskListIndexEnabled(newUserPrefs.taskListIndexEnabled);
+        setTaskListWatchEnabled(newUserPrefs.taskListWatchEnabled);
+        setTaskListSharedAccessEnabled(newUserPrefs.taskListSharedAccessEnabled);
+        setTaskListColumnarEnabled(newUserPrefs.taskListColumnarEnabled);
     }
 
     @Override
@@ -72,6 +89,79 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         this.macroMapFilePath = macroMapFilePath;
     }
 
+    @Override
+    public boolean isTaskListJournalEnabled() {
+        return taskListJournalEnabled;
+    }
+
+    public void setTaskListJournalEnabled(boolean taskListJournalEnabled) {
+        this.taskListJournalEnabled = taskListJournalEnabled;
+    }
+
+    @Override
+    public boolean isTaskListLazyLoadingEnabled() {
+        return taskListLazyLoadingEnabled;
+    }
+
+    public void setTaskListLazyLoadingEnabled(boolean taskListLazyLoadingEnabled) {
+        this.taskListLazyLoadingEnabled = taskListLazyLoadingEnabled;
+    }
+
+    @Override
+    public StorageFormat getTaskListStorageFormat() {
+        return taskListStorageFormat;
+    }
+
+    public void setTaskListStorageFormat(StorageFormat taskListStorageFormat) {
+        requireNonNull(taskListStorageFormat);
+        this.taskListStorageFormat = taskListStorageFormat;
+    }
+
+    @Override
+    public boolean isTaskListSegmentsEnabled() {
+        return taskListSegmentsEnabled;
+    }
+
+    public void setTaskListSegmentsEnabled(boolean taskListSegmentsEnabled) {
+        this.taskListSegmentsEnabled = taskListSegmentsEnabled;
+    }
+
+    @Override
+    public boolean isTaskListIndexEnabled() {
+        return taskListIndexEnabled;
+    }
+
+    public void setTaskListIndexEnabled(boolean taskListIndexEnabled) {
+        this.taskListIndexEnabled = taskListIndexEnabled;
+    }
+
+    @Override
+    public boolean isTaskListWatchEnabled() {
+        return taskListWatchEnabled;
+    }
+
+    public void setTaskListWatchEnabled(boolean taskListWatchEnabled) {
+        this.taskListWatchEnabled = taskListWatchEnabled;
+    }
+
+    @Override
+    public boolean isTaskListSharedAccessEnabled() {
+        return taskListSharedAccessEnabled;
+    }
+
+    public void setTaskListSharedAccessEnabled(boolean taskListSharedAccessEnabled) {
+        this.taskListSharedAccessEnabled = taskListSharedAccessEnabled;
+    }
+
+    @Override
+    public boolean isTaskListColumnarEnabled() {
+        return taskListColumnarEnabled;
+    }
+
+    public void setTaskListColumnarEnabled(boolean taskListColumnarEnabled) {
+        this.taskListColumnarEnabled = taskListColumnarEnabled;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -83,12 +173,27 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         UserPrefs otherUserPrefs = (UserPrefs) other;
         return guiSettings.equals(otherUserPrefs.guiSettings)
                 && taskListFilePath.equals(otherUserPrefs.taskListFilePath)
-                && macroMapFilePath.equals(otherUserPrefs.macroMapFilePath);
+                && macroMapFilePath.equals(otherUserPrefs.macroMapFilePath)
+                && taskListJournalEnabled == otherUserPrefs.taskListJournalEnabled
+                && taskListLazyLoadingEnabled == otherUserPrefs.taskListLazyLoadingEnabled
+                && taskListStorageFormat == otherUserPrefs.taskListStorageFormat
+                && taskListSegmentsEnabled == otherUserPrefs.taskListSegmentsEnabled
+                && taskListIndexEnabled == otherUserPrefs.taskListIndexEnabled
+                && taskListWatchEnabled == otherUserPrefs.taskListWatchEnabled
+                && taskListSharedAccessEnabled == otherUserPrefs.taskListSharedAccessEnabled
+                && taskListColumnarEnabled == otherUserPrefs.taskListColumnarEnabled;
     }
 
     @Override
     public String toString() {
         return "UserPrefs [guiSettings=" + guiSettings + ", taskListFilePath=" + taskListFilePath
-                + ", macroMapFilePath=" + macroMapFilePath + "]";
+                + ", macroMapFilePath=" + macroMapFilePath + ", taskListJournalEnabled="
+                + taskListJournalEnabled + ", taskListLazyLoadingEnabled="
+                + taskListLazyLoadingEnabled + ", taskListStorageFormat=" + taskListStorageFormat
+                + ", taskListSegmentsEnabled=" + taskListSegmentsEnabled
+                + ", taskListIndexEnabled=" + taskListIndexEnabled
+                + ", taskListWatchEnabled=" + taskListWatchEnabled
+                + ", taskListSharedAccessEnabled=" + taskListSharedAccessEnabled
+                + ", taskListColumnarEnabled=" + taskListColumnarEnabled + "]";
     }
 }
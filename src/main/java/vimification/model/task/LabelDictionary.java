@@ -0,0 +1,110 @@
+package vimification.model.task;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The dictionary of all labels used by tasks, which gives each label a small id. Tasks store the
+ * ids of their labels instead of the labels themselves, so that each distinct label is only stored
+ * once, however many tasks use it.
+ * <p>
+ * Labels are case-insensitive, so each label is normalized to lower case before getting an id. The
+ * spellings of the labels that were given ids are remembered, so that getting the id of a known
+ * label again does not allocate a normalized copy of it.
+ * <p>
+ * Ids are never reused, and are only valid during the current run of the application, so they
+ * must not be stored. All methods can be called by any thread.
+ */
+public class LabelDictionary {
+
+    /**
+     * The value returned by {@link #findId(String)} for labels that do not have an id.
+     */
+    public static final int NO_ID = -1;
+
+    private static final Object LOCK = new Object();
+    // Contains each normalized label, and each spelling given to getId
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    // Ids are only published through IDS after their labels are stored here
+    private static volatile String[] labels = new String[16];
+    private static int size = 0;
+
+    private LabelDictionary() {
+    }
+
+    /**
+     * Returns the id of the specified label, giving it a new id if it does not have one yet.
+     *
+     * @param label the label, in any case
+     * @return the id of the label
+     */
+    public static int getId(String label) {
+        Integer id = IDS.get(label);
+        return id != null ? id : addLabel(label);
+    }
+
+    /**
+     * Returns the id of the specified label, if it has one.
+     *
+     * @param label the label, in any case
+     * @return the id of the label, or {@link #NO_ID} if the label has no id, in which case no task
+     *         has that label
+     */
+    public static int findId(String label) {
+        Integer id = IDS.get(label);
+        if (id == null) {
+            // Spellings that are only looked up, for example in searches, are not remembered
+            id = IDS.get(label.toLowerCase());
+        }
+        return id != null ? id : NO_ID;
+    }
+
+    /**
+     * Returns the normalized label with the specified id.
+     *
+     * @param id the id of the label
+     * @return the label, in lower case
+     * @throws IllegalArgumentException if there is no label with the specified id
+     */
+    public static String getLabel(int id) {
+        String[] currentLabels = labels;
+        String label = id >= 0 && id < currentLabels.length ? currentLabels[id] : null;
+        if (label == null) {
+            throw new IllegalArgumentException("Unknown label id: " + id);
+        }
+        return label;
+    }
+
+    /**
+     * Compares the labels with the specified ids, in the natural order of the labels.
+     *
+     * @param id the id of the first label
+     * @param otherId the id of the second label
+     * @return a negative number, zero, or a positive number if the first label is less than, equal
+     *         to, or greater than the second label
+     */
+    public static int compare(int id, int otherId) {
+        return id == otherId ? 0 : getLabel(id).compareTo(getLabel(otherId));
+    }
+
+    private static int addLabel(String label) {
+        String normalizedLabel = label.toLowerCase();
+        synchronized (LOCK) {
+            Integer id = IDS.get(normalizedLabel);
+            if (id == null) {
+                id = size;
+                String[] currentLabels = labels;
+                if (id == currentLabels.length) {
+                    currentLabels = Arrays.copyOf(currentLabels, id * 2);
+                }
+                currentLabels[id] = normalizedLabel;
+                labels = currentLabels;
+                size++;
+                IDS.put(normalizedLabel, id);
+            }
+            IDS.putIfAbsent(label, id);
+            return id;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package vimification.model.task;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 import vimification.common.util.CollectionUtil;
 import vimification.common.util.StringUtil;
@@ -22,18 +29,27 @@ import vimification.common.util.StringUtil;
  * deadline)</li>
  * <li>A status (stored as an enum, cannot be null)</li>
  * <li>A priority (stored as an enum, cannot be null)</li>
- * <li>Multiple labels (stored as a {@code Set<String>})</li>
+ * <li>Multiple labels (stored as the ids given by {@link LabelDictionary}, in the order of the
+ * labels)</li>
  * </ul>
  *
- * Defensive coding is applied for methods that modify the interal state of instances.
+ * Each task also has an id, which identifies it across its copies and edits. The id is not part of
+ * the content of the task, so it is ignored by {@link #equals(Object)}.
+ * <p>
+ * Tasks are immutable. The {@code with} methods return an edited copy of a task, with the same id.
  */
 public class Task {
 
-    private String title;
-    private LocalDateTime deadline;
-    private Status status;
-    private Priority priority;
-    private Set<String> labels;
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final int[] NO_LABELS = new int[0];
+
+    private final UUID id;
+    private final String title;
+    private final LocalDateTime deadline;
+    private final Status status;
+    private final Priority priority;
+    private final int[] labelIds;
 
     private static final DateTimeFormatter DEADLINE_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
@@ -47,22 +63,152 @@ public class Task {
      * @param priority the priority of the task
      */
     public Task(String title, LocalDateTime deadline, Status status, Priority priority) {
-        CollectionUtil.requireAllNonNull(title, status, priority);
+        this(title, deadline, status, priority, List.of());
+    }
+
+    /**
+     * Creates a new instance of {@code Task}, where some fields are set with default values.
+     *
+     * @param title the title of the task, cannot be null
+     */
+    public Task(String title) {
+        this(title, null, Status.NOT_DONE, Priority.UNKNOWN);
+    }
+
+    /**
+     * Creates a new instance of {@code Task}, with the specified labels. The labels are checked
+     * in the same way as {@link #withLabelAdded(String)}.
+     *
+     * @param title the title of the task, cannot be null
+     * @param deadline the deadline of the task, can be null
+     * @param status the status of the task
+     * @param priority the priority of the task
+     * @param labels the labels of the task, cannot be null
+     * @throws IllegalArgumentException if a label is empty, or appears more than once
+     */
+    public Task(String title, LocalDateTime deadline, Status status, Priority priority,
+            Collection<String> labels) {
+        this(newId(), title, deadline, status, priority, labels);
+    }
+
+    /**
+     * Creates a new instance of {@code Task}, with the specified id and labels. The labels are
+     * checked in the same way as {@link #withLabelAdded(String)}.
+     *
+     * @param id the id of the task, or null to generate a new id, for tasks that were stored
+     *         without an id
+     * @param title the title of the task, cannot be null
+     * @param deadline the deadline of the task, can be null
+     * @param status the status of the task
+     * @param priority the priority of the task
+     * @param labels the labels of the task, cannot be null
+     * @throws IllegalArgumentException if a label is empty, or appears more than once
+     */
+    public Task(UUID id, String title, LocalDateTime deadline, Status status, Priority priority,
+            Collection<String> labels) {
+        this(id, title, deadline, status, priority, toLabelIds(labels));
+    }
+
+    /**
+     * Creates a new instance of {@code Task}, with the specified id and the labels with the
+     * specified ids in {@link LabelDictionary}.
+     *
+     * @param id the id of the task, or null to generate a new id, for tasks that were stored
+     *         without an id
+     * @param title the title of the task, cannot be null
+     * @param deadline the deadline of the task, can be null
+     * @param status the status of the task
+     * @param priority the priority of the task
+     * @param labelIds the ids of the labels of the task, cannot be null
+     * @throws IllegalArgumentException if a label id is unknown, or appears more than once
+     */
+    public Task(UUID id, String title, LocalDateTime deadline, Status status, Priority priority,
+            int[] labelIds) {
+        CollectionUtil.requireAllNonNull(title, status, priority, labelIds);
         StringUtil.requireNonEmpty(title);
         this.title = title;
         this.deadline = deadline;
         this.status = status;
         this.priority = priority;
-        this.labels = new HashSet<>();
+        this.labelIds = labelIds.length == 0 ? NO_LABELS : sortLabelIds(labelIds.clone());
+        this.id = id == null ? newId() : id;
     }
 
     /**
-     * Creates a new instance of {@code Task}, where some fields are set with default values.
+     * Creates a copy of the specified task, with the same id and the specified content. The
+     * content is not checked, and the label ids are not copied, so they must already be valid and
+     * sorted, and must not be modified afterwards.
+     */
+    private Task(Task task, String title, LocalDateTime deadline, Status status,
+            Priority priority, int[] labelIds) {
+        this.id = task.id;
+        this.title = title;
+        this.deadline = deadline;
+        this.status = status;
+        this.priority = priority;
+        this.labelIds = labelIds;
+    }
+
+    private static int[] toLabelIds(Collection<String> labels) {
+        Objects.requireNonNull(labels);
+        int[] labelIds = new int[labels.size()];
+        int i = 0;
+        for (String label : labels) {
+            Objects.requireNonNull(label);
+            StringUtil.requireNonEmpty(label);
+            labelIds[i++] = LabelDictionary.getId(label);
+        }
+        return labelIds;
+    }
+
+    /**
+     * Sorts the label ids in the order of their labels, so that the labels are listed in the same
+     * order in every run of the application.
+     */
+    private static int[] sortLabelIds(int[] labelIds) {
+        // Tasks only have a few labels, so an insertion sort is enough
+        for (int i = 0; i < labelIds.length; i++) {
+            int labelId = labelIds[i];
+            LabelDictionary.getLabel(labelId);
+            int j = i;
+            for (; j > 0; j--) {
+                int comparison = LabelDictionary.compare(labelIds[j - 1], labelId);
+                if (comparison == 0) {
+                    throw new IllegalArgumentException("Label already exists");
+                } else if (comparison < 0) {
+                    break;
+                }
+                labelIds[j] = labelIds[j - 1];
+            }
+            labelIds[j] = labelId;
+        }
+        return labelIds;
+    }
+
+    private static UUID newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Sets the version (4, random) and the variant of the UUID
+        long mostSigBits = random.nextLong() & ~0xF000L | 0x4000L;
+        long leastSigBits = random.nextLong() & ~(0x3L << 62) | (0x2L << 62);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    ////////
+    // ID //
+    ////////
+
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Returns a copy of this task with a new id, leaving this task unchanged. The copy is then
+     * another task with the same content, such as an imported copy of an exported task.
      *
-     * @param title the title of the task, cannot be null
+     * @return a copy of this task, with a new id
      */
-    public Task(String title) {
-        this(title, null, Status.NOT_DONE, Priority.UNKNOWN);
+    public Task withNewId() {
+        return new Task(newId(), title, deadline, status, priority, labelIds);
     }
 
     ///////////
@@ -73,10 +219,16 @@ public class Task {
         return title;
     }
 
-    public void setTitle(String title) {
+    /**
+     * Returns a copy of this task with the specified title, leaving this task unchanged.
+     *
+     * @param title the new title, cannot be empty
+     * @return a copy of this task, with the same id
+     */
+    public Task withTitle(String title) {
         Objects.requireNonNull(title);
         StringUtil.requireNonEmpty(title);
-        this.title = title;
+        return new Task(this, title, deadline, status, priority, labelIds);
     }
 
     //////////////
@@ -87,31 +239,65 @@ public class Task {
         return deadline;
     }
 
-    public void setDeadline(LocalDateTime deadline) {
-        this.deadline = deadline;
+    /**
+     * Returns a copy of this task with the specified deadline, leaving this task unchanged.
+     *
+     * @param deadline the new deadline, or null to remove the deadline
+     * @return a copy of this task, with the same id
+     */
+    public Task withDeadline(LocalDateTime deadline) {
+        return new Task(this, title, deadline, status, priority, labelIds);
     }
 
-    public void insertDeadline(LocalDateTime deadline) {
+    /**
+     * Returns a copy of this task with the specified deadline, leaving this task unchanged. Unlike
+     * {@link #withDeadline(LocalDateTime)}, this task must not have a deadline yet.
+     *
+     * @param deadline the deadline to insert, cannot be null
+     * @return a copy of this task, with the same id
+     * @throws IllegalStateException if this task already has a deadline
+     */
+    public Task withDeadlineInserted(LocalDateTime deadline) {
         Objects.requireNonNull(deadline);
-        if (this.deadline != null) {
-            throw new IllegalStateException("The task already has a deadline");
-        }
-        this.deadline = deadline;
+        requireNoDeadline();
+        return withDeadline(deadline);
     }
 
-    public void editDeadline(LocalDateTime deadline) {
+    /**
+     * Returns a copy of this task with the specified deadline, leaving this task unchanged. Unlike
+     * {@link #withDeadline(LocalDateTime)}, this task must already have a deadline.
+     *
+     * @param deadline the new deadline, cannot be null
+     * @return a copy of this task, with the same id
+     * @throws IllegalStateException if this task has no deadline
+     */
+    public Task withDeadlineEdited(LocalDateTime deadline) {
         Objects.requireNonNull(deadline);
-        if (this.deadline == null) {
-            throw new IllegalStateException("The task has no deadline");
+        requireDeadline();
+        return withDeadline(deadline);
+    }
+
+    /**
+     * Returns a copy of this task without a deadline, leaving this task unchanged.
+     *
+     * @return a copy of this task, with the same id
+     * @throws IllegalStateException if this task has no deadline
+     */
+    public Task withDeadlineDeleted() {
+        requireDeadline();
+        return withDeadline(null);
+    }
+
+    private void requireNoDeadline() {
+        if (deadline != null) {
+            throw new IllegalStateException("The task already has a deadline");
         }
-        this.deadline = deadline;
     }
 
-    public void deleteDeadline() {
+    private void requireDeadline() {
         if (deadline == null) {
             throw new IllegalStateException("The task has no deadline");
         }
-        deadline = null;
     }
 
     /**
@@ -132,9 +318,15 @@ public class Task {
         return status;
     }
 
-    public void setStatus(Status status) {
+    /**
+     * Returns a copy of this task with the specified status, leaving this task unchanged.
+     *
+     * @param status the new status
+     * @return a copy of this task, with the same id
+     */
+    public Task withStatus(Status status) {
         Objects.requireNonNull(status);
-        this.status = status;
+        return new Task(this, title, deadline, status, priority, labelIds);
     }
 
     public boolean hasStatus(Status status) {
@@ -149,9 +341,15 @@ public class Task {
         return priority;
     }
 
-    public void setPriority(Priority priority) {
+    /**
+     * Returns a copy of this task with the specified priority, leaving this task unchanged.
+     *
+     * @param priority the new priority
+     * @return a copy of this task, with the same id
+     */
+    public Task withPriority(Priority priority) {
         Objects.requireNonNull(priority);
-        this.priority = priority;
+        return new Task(this, title, deadline, status, priority, labelIds);
     }
 
     public boolean hasPriority(Priority priority) {
@@ -162,38 +360,70 @@ public class Task {
     // LABELS //
     ////////////
 
+    /**
+     * Returns a read-only view of the labels of this task, in lower case.
+     *
+     * @return the labels of this task
+     */
     public Set<String> getLabels() {
-        return Collections.unmodifiableSet(labels);
+        return new LabelSet();
     }
 
     /**
-     * Adds a new label to this task.
+     * Returns the ids of the labels of this task in {@link LabelDictionary}, in the order of the
+     * labels.
+     *
+     * @return a copy of the ids of the labels of this task
+     */
+    public int[] getLabelIds() {
+        return labelIds.clone();
+    }
+
+    /**
+     * Returns a copy of this task with a new label, leaving this task unchanged.
      *
      * @param label the new label to be added
+     * @return a copy of this task, with the same id
      * @throws IllegalArgumentException if the label already exists
      */
-    public void addLabel(String label) {
+    public Task withLabelAdded(String label) {
+        return new Task(this, title, deadline, status, priority, getLabelIdsWith(label));
+    }
+
+    private int[] getLabelIdsWith(String label) {
         Objects.requireNonNull(label);
         StringUtil.requireNonEmpty(label);
-        label = label.toLowerCase();
-        if (!labels.add(label)) {
+        int labelId = LabelDictionary.getId(label);
+        if (containsLabelId(labelId)) {
             throw new IllegalArgumentException("Label already exists");
         }
+        int[] newLabelIds = Arrays.copyOf(labelIds, labelIds.length + 1);
+        newLabelIds[labelIds.length] = labelId;
+        return sortLabelIds(newLabelIds);
     }
 
     /**
-     * Removes a label from this task.
+     * Returns a copy of this task without the specified label, leaving this task unchanged.
      *
      * @param label the label to be removed
+     * @return a copy of this task, with the same id
      * @throws IllegalArgumentException if the label does not exist
      */
-    public void removeLabel(String label) {
+    public Task withLabelRemoved(String label) {
+        return new Task(this, title, deadline, status, priority, getLabelIdsWithout(label));
+    }
+
+    private int[] getLabelIdsWithout(String label) {
         Objects.requireNonNull(label);
         StringUtil.requireNonEmpty(label);
-        label = label.toLowerCase();
-        if (!labels.remove(label)) {
+        int i = indexOfLabelId(LabelDictionary.findId(label));
+        if (i < 0) {
             throw new IllegalArgumentException("Label does not exist");
         }
+        int[] newLabelIds = new int[labelIds.length - 1];
+        System.arraycopy(labelIds, 0, newLabelIds, 0, i);
+        System.arraycopy(labelIds, i + 1, newLabelIds, i, newLabelIds.length - i);
+        return newLabelIds.length == 0 ? NO_LABELS : newLabelIds;
     }
 
     ///////////////
@@ -207,7 +437,27 @@ public class Task {
      * @return true if this task contains the label, otherwise false
      */
     public boolean containsLabel(String label) {
-        return labels.contains(label.toLowerCase());
+        return containsLabelId(LabelDictionary.findId(label));
+    }
+
+    /**
+     * Checks whether this task contains the label with the specified id.
+     *
+     * @param labelId the id of the label in {@link LabelDictionary}
+     * @return true if this task contains the label, otherwise false
+     */
+    public boolean containsLabelId(int labelId) {
+        return indexOfLabelId(labelId) >= 0;
+    }
+
+    private int indexOfLabelId(int labelId) {
+        // Tasks only have a few labels, so a linear search is faster than a binary search
+        for (int i = 0; i < labelIds.length; i++) {
+            if (labelIds[i] == labelId) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -241,14 +491,37 @@ public class Task {
     }
 
     /**
-     * Returns a mutable copy of this task.
+     * Returns a hash of the content of this task, which, unlike {@link #hashCode()}, is the same
+     * across different runs of the application. The id of this task is not part of its content.
      *
-     * @return a mutable copy of this task
+     * @return a hash of the content of this task
      */
-    public Task clone() {
-        Task clonedTask = new Task(title, deadline, status, priority);
-        clonedTask.labels.addAll(labels);
-        return clonedTask;
+    public long getContentHash() {
+        long hash = hashString(FNV_OFFSET_BASIS, title);
+        if (deadline != null) {
+            hash = mix(hash, deadline.toEpochSecond(ZoneOffset.UTC));
+            hash = mix(hash, deadline.getNano());
+        }
+        hash = mix(hash, status.ordinal());
+        hash = mix(hash, priority.ordinal());
+        long labelsHash = 0;
+        for (int labelId : labelIds) {
+            // The order of the labels does not matter
+            labelsHash += hashString(FNV_OFFSET_BASIS, LabelDictionary.getLabel(labelId));
+        }
+        return mix(hash, labelsHash);
+    }
+
+    private static long hashString(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash, value.length());
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * FNV_PRIME;
+        return hash ^ (hash >>> 29);
     }
 
     /**
@@ -279,17 +552,59 @@ public class Task {
                 && Objects.equals(deadline, otherTask.deadline)
                 && Objects.equals(status, otherTask.status)
                 && Objects.equals(priority, otherTask.priority)
-                && Objects.equals(labels, otherTask.labels);
+                && Arrays.equals(labelIds, otherTask.labelIds);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(title, deadline, status, priority, labels);
+        return Objects.hash(title, deadline, status, priority, Arrays.hashCode(labelIds));
     }
 
     @Override
     public String toString() {
         return "Task [title=" + title + ", deadline=" + deadline + ", status=" + status
-                + ", priority=" + priority + ", labels=" + labels + "]";
+                + ", priority=" + priority + ", labels=" + getLabels() + "]";
+    }
+
+    /**
+     * A read-only view of the labels of this task.
+     */
+    private class LabelSet extends AbstractSet<String> {
+
+        @Override
+        public int size() {
+            return labelIds.length;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            if (!(object instanceof String)) {
+                return false;
+            }
+            // Unlike containsLabel, the case of the label matters
+            int i = indexOfLabelId(LabelDictionary.findId((String) object));
+            return i >= 0 && LabelDictionary.getLabel(labelIds[i]).equals(object);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            int[] currentLabelIds = labelIds;
+            return new Iterator<>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < currentLabelIds.length;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return LabelDictionary.getLabel(currentLabelIds[next++]);
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,299 @@
+package vimification.storage;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.model.TaskList;
+import vimification.model.task.LabelDictionary;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+/**
+ * One implementation of {@link TaskListStorage}, using a compact binary format.
+ * <p>
+ * The data file consists of:
+ *
+ * <ul>
+ * <li>A header, made of a magic number and a format version</li>
+ * <li>A dictionary of all labels, each of them stored once</li>
+ * <li>The tasks, each of them stored as a record of its id (as two longs), its title
+ * (length-prefixed UTF-8), its deadline (in minutes since the epoch, or {@link #NO_DEADLINE}), the
+ * ordinals of its status and priority (one byte each), and the indices of its labels in the
+ * dictionary</li>
+ * <li>The position of each record in the file</li>
+ * </ul>
+ *
+ * All numbers are stored in big-endian byte order. Deadlines are stored with a precision of one
+ * minute, which is the precision of the deadlines accepted by the commands. The file is read
+ * through a memory-mapped buffer.
+ * <p>
+ * With lazy loading, reading the task list only decodes the label dictionary. The tasks are
+ * decoded when they are accessed, using the positions at the end of the file, and the mapping is
+ * kept for as long as the task list is used. See {@link MappedTaskList}.
+ */
+public class BinaryTaskListStorage implements TaskListStorage {
+
+    /**
+     * The extension of the data files using this format.
+     */
+    public static final String FILE_EXTENSION = ".bin";
+
+    private static final int MAGIC_NUMBER = 0x56494D54; // "VIMT"
+    private static final byte FORMAT_VERSION = 1;
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private Path filePath;
+    private boolean shouldSync;
+    private boolean isLazy;
+
+    /**
+     * Creates a new instance with the specified path.
+     *
+     * @param filePath the path to the data file
+     * @param shouldSync whether the data file should be forced to the disk on every save
+     * @param isLazy whether the tasks should only be decoded when they are accessed
+     */
+    public BinaryTaskListStorage(Path filePath, boolean shouldSync, boolean isLazy) {
+        this.filePath = filePath;
+        this.shouldSync = shouldSync;
+        this.isLazy = isLazy;
+    }
+
+    /**
+     * Checks whether the specified data file uses this format, according to its extension.
+     *
+     * @param filePath the path to the data file
+     * @return true if the data file uses this format, otherwise false
+     */
+    public static boolean isBinaryFile(Path filePath) {
+        return filePath.getFileName().toString().endsWith(FILE_EXTENSION);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getTaskListFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Checks whether lazy loading is supported on the current platform. On Windows, a file cannot
+     * be replaced while it is mapped, so the mapping cannot be kept.
+     *
+     * @return true if lazy loading is supported, otherwise false
+     */
+    public static boolean isLazyLoadingSupported() {
+        return !System.getProperty("os.name", "").startsWith("Windows");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList readTaskList() throws DataConversionException, IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return readTaskList(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new DataConversionException(ex);
+        }
+    }
+
+    private TaskList readTaskList(ByteBuffer buffer) throws DataConversionException {
+        if (buffer.getInt() != MAGIC_NUMBER) {
+            throw new DataConversionException("Not a task list data file");
+        }
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new DataConversionException("Unsupported format version: " + version);
+        }
+        // The labels of the file are mapped to their ids once, instead of once for each task
+        int[] labelIds = new int[readCount(buffer)];
+        for (int i = 0; i < labelIds.length; i++) {
+            String label = readString(buffer);
+            if (label.isEmpty()) {
+                throw new DataConversionException("Empty label at index " + i);
+            }
+            labelIds[i] = LabelDictionary.getId(label);
+        }
+        int taskCount = readCount(buffer);
+        if (isLazy) {
+            int positionsStart = buffer.limit() - taskCount * Integer.BYTES;
+            if (positionsStart < buffer.position()) {
+                throw new DataConversionException("Missing record positions");
+            }
+            checkPositions(buffer, positionsStart, taskCount, labelIds);
+            return TaskList.wrap(new MappedTaskList(buffer, labelIds, positionsStart, taskCount));
+        }
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(readTask(buffer, labelIds));
+        }
+        if (buffer.remaining() != taskCount * Integer.BYTES) {
+            throw new DataConversionException("Missing record positions");
+        }
+        return new TaskList(tasks);
+    }
+
+    /**
+     * Checks that the table of record positions matches the records, without decoding them,
+     * except for the last one. A truncated file is then rejected when it is read, instead of when
+     * its last tasks are accessed.
+     */
+    private static void checkPositions(ByteBuffer buffer, int positionsStart, int taskCount,
+            int[] labelIds) throws DataConversionException {
+        int previousPosition = buffer.position() - 1;
+        for (int i = 0; i < taskCount; i++) {
+            int position = buffer.getInt(positionsStart + i * Integer.BYTES);
+            boolean isExpected = i == 0
+                    ? position == buffer.position()
+                    : position > previousPosition;
+            if (!isExpected || position >= positionsStart) {
+                throw new DataConversionException("Invalid record position at index " + i);
+            }
+            previousPosition = position;
+        }
+        // The records must end where the table starts
+        ByteBuffer records = buffer.duplicate();
+        records.limit(positionsStart);
+        if (taskCount > 0) {
+            records.position(previousPosition);
+            readTask(records, labelIds);
+        }
+        if (records.hasRemaining()) {
+            throw new DataConversionException("Unexpected data after the last record");
+        }
+    }
+
+    /**
+     * Decodes the task record at the current position of the buffer.
+     *
+     * @param buffer the buffer to read from
+     * @param labelIds the ids of the labels in the label dictionary of the file
+     * @return the decoded task
+     * @throws DataConversionException if the record is invalid
+     * @throws BufferUnderflowException if the record is truncated
+     * @throws IllegalArgumentException if the task is invalid
+     */
+    static Task readTask(ByteBuffer buffer, int[] labelIds) throws DataConversionException {
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        String title = readString(buffer);
+        long deadlineMinutes = buffer.getLong();
+        LocalDateTime deadline = deadlineMinutes == NO_DEADLINE
+                ? null
+                : LocalDateTime.ofEpochSecond(deadlineMinutes * 60, 0, ZoneOffset.UTC);
+        Status status = readOrdinal(buffer, STATUSES);
+        Priority priority = readOrdinal(buffer, PRIORITIES);
+        int[] taskLabelIds = new int[readCount(buffer)];
+        for (int i = 0; i < taskLabelIds.length; i++) {
+            int labelIndex = buffer.getInt();
+            if (labelIndex < 0 || labelIndex >= labelIds.length) {
+                throw new DataConversionException("Invalid label index: " + labelIndex);
+            }
+            taskLabelIds[i] = labelIds[labelIndex];
+        }
+        return new Task(id, title, deadline, status, priority, taskLabelIds);
+    }
+
+    private static int readCount(ByteBuffer buffer) throws DataConversionException {
+        int count = buffer.getInt();
+        // Each element takes at least one byte, which also rejects absurd sizes early
+        if (count < 0 || count > buffer.remaining()) {
+            throw new DataConversionException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer) throws DataConversionException {
+        byte[] bytes = new byte[readCount(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T readOrdinal(ByteBuffer buffer, T[] values) throws DataConversionException {
+        int ordinal = Byte.toUnsignedInt(buffer.get());
+        if (ordinal >= values.length) {
+            throw new DataConversionException("Invalid ordinal: " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveTaskList(TaskList taskList) throws IOException {
+        List<Task> tasks = taskList.getLogicSource();
+        // The index of each label in the label dictionary of the file, by label id
+        Map<Integer, Integer> labelIndices = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            for (int labelId : task.getLabelIds()) {
+                labelIndices.putIfAbsent(labelId, labelIndices.size());
+            }
+        }
+        FileUtil.createParentDirectoriesIfMissing(filePath);
+        FileUtil.writeToFile(filePath, output -> {
+            DataOutputStream data = new DataOutputStream(output);
+            data.writeInt(MAGIC_NUMBER);
+            data.writeByte(FORMAT_VERSION);
+            data.writeInt(labelIndices.size());
+            for (int labelId : labelIndices.keySet()) {
+                writeString(data, LabelDictionary.getLabel(labelId));
+            }
+            data.writeInt(tasks.size());
+            int[] positions = new int[tasks.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = data.size();
+                writeTask(data, tasks.get(i), labelIndices);
+            }
+            for (int position : positions) {
+                data.writeInt(position);
+            }
+            data.flush();
+        }, shouldSync);
+    }
+
+    private void writeTask(DataOutputStream data, Task task, Map<Integer, Integer> labelIndices)
+            throws IOException {
+        data.writeLong(task.getId().getMostSignificantBits());
+        data.writeLong(task.getId().getLeastSignificantBits());
+        writeString(data, task.getTitle());
+        LocalDateTime deadline = task.getDeadline();
+        data.writeLong(deadline == null
+                ? NO_DEADLINE
+                : Math.floorDiv(deadline.toEpochSecond(ZoneOffset.UTC), 60));
+        data.writeByte(task.getStatus().ordinal());
+        data.writeByte(task.getPriority().ordinal());
+        int[] labelIds = task.getLabelIds();
+        data.writeInt(labelIds.length);
+        for (int labelId : labelIds) {
+            data.writeInt(labelIndices.get(labelId));
+        }
+    }
+
+    private void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+}
@@ -0,0 +1,465 @@
+package vimification.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.StringUtil;
+import vimification.model.TaskList;
+import vimification.model.TaskListIndex;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+/**
+ * One implementation of {@link TaskListStorage}, which keeps secondary indexes of the task list in
+ * an index file next to the data file. The task list itself is read and written by another
+ * {@code TaskListStorage}.
+ * <p>
+ * The index file consists of:
+ *
+ * <ul>
+ * <li>A header, made of a magic number, a format version, the checksum of the indexed tasks and
+ * the number of indexed tasks</li>
+ * <li>The postings, each of them stored as the number of tasks, followed by their positions</li>
+ * <li>The deadlines of the tasks with a deadline, in order, each of them stored as seconds since
+ * the epoch and nanoseconds, preceded by their number</li>
+ * <li>A table of the positions of the postings: one for each label, status and priority, and one
+ * for the tasks with a deadline, in the order of their deadlines, followed by the position of the
+ * deadlines</li>
+ * <li>The position of the table</li>
+ * </ul>
+ *
+ * All numbers are stored in big-endian byte order.
+ * <p>
+ * When the task list is read, the index file is only used if its checksum matches the tasks that
+ * were read, in which case it is memory-mapped and attached to the task list right away.
+ * Otherwise, a new index is built and written in the background. Saving the task list does not
+ * touch the index file, since rebuilding it costs a pass over every task. Instead, the index of
+ * the task list that was saved last is written by {@link #flushIndex()}, before the application
+ * exits. Index files are not essential, so failures to read or write them are only logged.
+ */
+public class IndexedTaskListStorage implements TaskListStorage {
+
+    /**
+     * The extension appended to the file name of the data file to get the index file.
+     */
+    public static final String FILE_EXTENSION = ".index";
+
+    private static final Logger LOGGER = LogsCenter.getLogger(IndexedTaskListStorage.class);
+    private static final int MAGIC_NUMBER = 0x56494D58; // "VIMX"
+    private static final byte FORMAT_VERSION = 2;
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final TaskListStorage storage;
+    private final Path indexPath;
+    private final ExecutorService indexer;
+    // Only the latest task list waiting to be indexed is kept
+    private final AtomicReference<Runnable> pendingIndexing = new AtomicReference<>();
+    // A snapshot of the task list that was saved last, if its index has not been written yet
+    private final AtomicReference<TaskList> unindexedTaskList = new AtomicReference<>();
+
+    /**
+     * Creates a new instance, using the specified storage to read and write the task list.
+     *
+     * @param storage the storage used to read and write the task list
+     */
+    public IndexedTaskListStorage(TaskListStorage storage) {
+        this.storage = storage;
+        Path filePath = storage.getTaskListFilePath();
+        this.indexPath = filePath.resolveSibling(filePath.getFileName() + FILE_EXTENSION);
+        this.indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-list-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getTaskListFilePath() {
+        return storage.getTaskListFilePath();
+    }
+
+    /**
+     * Returns the file path of the index file.
+     *
+     * @return the file path of the index file
+     */
+    public Path getIndexFilePath() {
+        return indexPath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList readTaskList() throws DataConversionException, IOException {
+        TaskList taskList = storage.readTaskList();
+        List<Task> tasks = taskList.getLogicSource();
+        String checksum = TaskListChecksum.of(tasks);
+        TaskListIndex index = readIndex(checksum, tasks.size());
+        if (index == null) {
+            scheduleIndexing(taskList, new ArrayList<>(tasks), checksum);
+        } else {
+            taskList.setIndex(index, taskList.getVersion());
+        }
+        return taskList;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tasks are passed as they are read, so no index is attached to them. The index file is
+     * rebuilt in the background if it is not up to date.
+     */
+    @Override
+    public void readTaskList(Consumer<? super List<Task>> consumer)
+            throws DataConversionException, IOException {
+        List<Task> tasks = new ArrayList<>();
+        storage.readTaskList(batch -> {
+            tasks.addAll(batch);
+            consumer.accept(batch);
+        });
+        String checksum = TaskListChecksum.of(tasks);
+        if (readIndex(checksum, tasks.size()) == null) {
+            scheduleIndexing(null, tasks, checksum);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveTaskList(TaskList taskList) throws IOException {
+        storage.saveTaskList(taskList);
+        unindexedTaskList.set(taskList.snapshot());
+    }
+
+    /**
+     * Writes the index of the task list that was saved last, unless it has already been written.
+     * Waits until the index file, and any index being built in the background, is written. This
+     * method should be called before the application exits, once all saves are written.
+     */
+    public void flushIndex() {
+        TaskList taskList = unindexedTaskList.getAndSet(null);
+        if (taskList == null) {
+            return;
+        }
+        try {
+            // Runs after any pending indexing, which would otherwise overwrite this index
+            indexer.submit(() -> writeIndexQuietly(taskList.getLogicSource(), null)).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOGGER.warning("Interrupted while writing the task list index");
+        } catch (ExecutionException ex) {
+            // Already logged by writeIndexQuietly
+        }
+    }
+
+    /**
+     * Builds and writes the index of the tasks read from the storage in the background. Once
+     * written, the index is attached to the task list, unless the task list has been modified in
+     * the meantime.
+     *
+     * @param taskList the task list that was read, to attach the index to, can be null
+     * @param tasks a copy of the tasks of the task list
+     * @param checksum the checksum of the tasks
+     */
+    private void scheduleIndexing(TaskList taskList, List<Task> tasks, String checksum) {
+        long version = taskList == null ? 0 : taskList.getVersion();
+        Runnable indexing = () -> {
+            TaskListIndex index = writeIndexQuietly(tasks, checksum);
+            if (index != null && taskList != null) {
+                taskList.setIndex(index, version);
+            }
+        };
+        if (pendingIndexing.getAndSet(indexing) == null) {
+            indexer.execute(() -> pendingIndexing.getAndSet(null).run());
+        }
+    }
+
+    /**
+     * Builds the index of the tasks and writes it, only logging failures. Only called by the
+     * indexer thread.
+     *
+     * @param checksum the checksum of the tasks, or null if it has not been computed yet
+     * @return the index that was written, or null if it could not be written
+     */
+    private TaskListIndex writeIndexQuietly(List<Task> tasks, String checksum) {
+        long startTime = System.nanoTime();
+        try {
+            TaskListIndex index =
+                    writeIndex(tasks, checksum == null ? TaskListChecksum.of(tasks) : checksum);
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            LOGGER.fine("Indexed " + tasks.size() + " tasks in " + elapsedMillis + " ms");
+            return index;
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warning("Failed to write the task list index: " + StringUtil.getDetails(ex));
+            return null;
+        }
+    }
+
+    /**
+     * Reads the index file, if it matches the specified tasks.
+     *
+     * @return the index, or null if the index file does not exist, does not match the tasks or
+     *         is invalid
+     */
+    private TaskListIndex readIndex(String checksum, int taskCount) {
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!BinaryTaskListStorage.isLazyLoadingSupported()) {
+                // The mapping cannot be kept, since it would prevent the file from being replaced
+                buffer = ByteBuffer.allocate(buffer.capacity()).put(buffer).flip();
+            }
+            return readIndex(buffer, checksum, taskCount);
+        } catch (NoSuchFileException ex) {
+            LOGGER.info("Task list index not found, it will be built in the background");
+        } catch (DataConversionException | BufferUnderflowException | IllegalArgumentException
+                | IndexOutOfBoundsException ex) {
+            LOGGER.warning("Invalid task list index: " + StringUtil.getDetails(ex));
+        } catch (IOException ex) {
+            LOGGER.warning("Failed to read the task list index: " + StringUtil.getDetails(ex));
+        }
+        return null;
+    }
+
+    private TaskListIndex readIndex(ByteBuffer buffer, String checksum, int taskCount)
+            throws DataConversionException {
+        if (buffer.getInt() != MAGIC_NUMBER) {
+            throw new DataConversionException("Not a task list index file");
+        }
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new DataConversionException("Unsupported format version: " + version);
+        }
+        if (!checksum.equals(readString(buffer)) || buffer.getInt() != taskCount) {
+            LOGGER.info("Task list index is out of date, it will be rebuilt in the background");
+            return null;
+        }
+        int postingsStart = buffer.position();
+        int tableStart = buffer.getInt(buffer.limit() - Integer.BYTES);
+        if (tableStart < postingsStart || tableStart > buffer.limit() - Integer.BYTES) {
+            throw new DataConversionException("Invalid table position: " + tableStart);
+        }
+        ByteBuffer postings = buffer.duplicate();
+        postings.limit(tableStart);
+        buffer.limit(buffer.limit() - Integer.BYTES).position(tableStart);
+        int labelCount = readCount(buffer);
+        Map<String, Integer> labelPostings = new HashMap<>();
+        for (int i = 0; i < labelCount; i++) {
+            String label = readString(buffer);
+            labelPostings.put(label, readPosting(buffer, postings, postingsStart, taskCount));
+        }
+        int[] statusPostings = readPostings(buffer, postings, postingsStart, taskCount, STATUSES);
+        int[] priorityPostings =
+                readPostings(buffer, postings, postingsStart, taskCount, PRIORITIES);
+        int deadlinePosting = readPosting(buffer, postings, postingsStart, taskCount);
+        int deadlines = buffer.getInt();
+        int deadlineCount = postings.getInt(deadlinePosting);
+        long deadlinesEnd = deadlines + Integer.BYTES
+                + (long) deadlineCount * MappedTaskListIndex.DEADLINE_BYTES;
+        if (deadlines < postingsStart || deadlinesEnd > postings.limit()
+                || postings.getInt(deadlines) != deadlineCount) {
+            throw new DataConversionException("Invalid deadlines position: " + deadlines);
+        }
+        for (int i = 0; i < deadlineCount; i++) {
+            int position = deadlines + Integer.BYTES + i * MappedTaskListIndex.DEADLINE_BYTES;
+            try {
+                LocalDateTime.ofEpochSecond(postings.getLong(position),
+                        postings.getInt(position + Long.BYTES), ZoneOffset.UTC);
+            } catch (DateTimeException ex) {
+                throw new DataConversionException(ex);
+            }
+        }
+        return new MappedTaskListIndex(postings, taskCount, labelPostings, statusPostings,
+                priorityPostings, deadlinePosting, deadlines);
+    }
+
+    private static int[] readPostings(ByteBuffer table, ByteBuffer postings, int postingsStart,
+            int taskCount, Object[] values) throws DataConversionException {
+        int count = Byte.toUnsignedInt(table.get());
+        if (count != values.length) {
+            throw new DataConversionException("Expected " + values.length + " postings, found "
+                    + count);
+        }
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = readPosting(table, postings, postingsStart, taskCount);
+        }
+        return positions;
+    }
+
+    /**
+     * Reads the position of a posting from the table, and checks that the posting only contains
+     * valid task positions, so that the index can be queried without any further check.
+     */
+    private static int readPosting(ByteBuffer table, ByteBuffer postings, int postingsStart,
+            int taskCount) throws DataConversionException {
+        int position = table.getInt();
+        if (position < postingsStart || position > postings.limit() - Integer.BYTES) {
+            throw new DataConversionException("Invalid posting position: " + position);
+        }
+        int count = postings.getInt(position);
+        if (count < 0 || count > (postings.limit() - position) / Integer.BYTES - 1) {
+            throw new DataConversionException("Invalid posting size: " + count);
+        }
+        for (int i = 1; i <= count; i++) {
+            int taskPosition = postings.getInt(position + i * Integer.BYTES);
+            if (taskPosition < 0 || taskPosition >= taskCount) {
+                throw new DataConversionException("Invalid task position: " + taskPosition);
+            }
+        }
+        return position;
+    }
+
+    private static int readCount(ByteBuffer buffer) throws DataConversionException {
+        int count = buffer.getInt();
+        // Each element takes at least one byte, which also rejects absurd sizes early
+        if (count < 0 || count > buffer.remaining()) {
+            throw new DataConversionException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer) throws DataConversionException {
+        byte[] bytes = new byte[readCount(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds the index of the tasks, and replaces the index file with it.
+     *
+     * @return the index that was written
+     */
+    private TaskListIndex writeIndex(List<Task> tasks, String checksum) throws IOException {
+        Map<String, List<Integer>> labelPostings = new TreeMap<>();
+        List<List<Integer>> statusPostings = createPostings(STATUSES.length);
+        List<List<Integer>> priorityPostings = createPostings(PRIORITIES.length);
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            for (String label : task.getLabels()) {
+                labelPostings.computeIfAbsent(label, ignore -> new ArrayList<>()).add(i);
+            }
+            statusPostings.get(task.getStatus().ordinal()).add(i);
+            priorityPostings.get(task.getPriority().ordinal()).add(i);
+        }
+        // The sort is stable, so tasks with the same deadline keep their order
+        Comparator<Integer> byDeadline = Comparator.comparing(i -> tasks.get(i).getDeadline());
+        List<Integer> deadlinePosting = new ArrayList<>();
+        IntStream.range(0, tasks.size())
+                .filter(i -> tasks.get(i).getDeadline() != null)
+                .boxed()
+                .sorted(byDeadline)
+                .forEach(deadlinePosting::add);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(MAGIC_NUMBER);
+        data.writeByte(FORMAT_VERSION);
+        writeString(data, checksum);
+        data.writeInt(tasks.size());
+        Map<String, Integer> labelPositions = new TreeMap<>();
+        for (Map.Entry<String, List<Integer>> entry : labelPostings.entrySet()) {
+            labelPositions.put(entry.getKey(), writePosting(data, entry.getValue()));
+        }
+        List<Integer> statusPositions = new ArrayList<>();
+        for (List<Integer> posting : statusPostings) {
+            statusPositions.add(writePosting(data, posting));
+        }
+        List<Integer> priorityPositions = new ArrayList<>();
+        for (List<Integer> posting : priorityPostings) {
+            priorityPositions.add(writePosting(data, posting));
+        }
+        int deadlinePosition = writePosting(data, deadlinePosting);
+        int deadlinesPosition = data.size();
+        data.writeInt(deadlinePosting.size());
+        for (int taskPosition : deadlinePosting) {
+            LocalDateTime deadline = tasks.get(taskPosition).getDeadline();
+            data.writeLong(deadline.toEpochSecond(ZoneOffset.UTC));
+            data.writeInt(deadline.getNano());
+        }
+
+        int tableStart = data.size();
+        data.writeInt(labelPositions.size());
+        for (Map.Entry<String, Integer> entry : labelPositions.entrySet()) {
+            writeString(data, entry.getKey());
+            data.writeInt(entry.getValue());
+        }
+        data.writeByte(statusPositions.size());
+        for (int position : statusPositions) {
+            data.writeInt(position);
+        }
+        data.writeByte(priorityPositions.size());
+        for (int position : priorityPositions) {
+            data.writeInt(position);
+        }
+        data.writeInt(deadlinePosition);
+        data.writeInt(deadlinesPosition);
+        data.writeInt(tableStart);
+        data.flush();
+
+        FileUtil.createParentDirectoriesIfMissing(indexPath);
+        FileUtil.writeToFile(indexPath, bytes::writeTo, false);
+        try {
+            return readIndex(ByteBuffer.wrap(bytes.toByteArray()), checksum, tasks.size());
+        } catch (DataConversionException ex) {
+            throw new IllegalStateException("Unreadable index was written", ex);
+        }
+    }
+
+    private static List<List<Integer>> createPostings(int count) {
+        List<List<Integer>> postings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            postings.add(new ArrayList<>());
+        }
+        return postings;
+    }
+
+    private static int writePosting(DataOutputStream data, List<Integer> posting)
+            throws IOException {
+        int position = data.size();
+        data.writeInt(posting.size());
+        for (int taskPosition : posting) {
+            data.writeInt(taskPosition);
+        }
+        return position;
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+}
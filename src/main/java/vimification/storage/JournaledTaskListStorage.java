@@ -0,0 +1,556 @@
+package vimification.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.JsonUtil;
+import vimification.common.util.StringUtil;
+import vimification.model.TaskList;
+import vimification.model.TaskListDiff;
+import vimification.model.task.Task;
+import vimification.storage.JsonAdaptedJournalRecord.Type;
+
+/**
+ * One implementation of {@link TaskListStorage}, which stores the task list as a full snapshot plus
+ * an append-only journal of modifications.
+ * <p>
+ * The snapshot is read and written by another {@code TaskListStorage}. Each time the task list is
+ * saved, only the modifications since the previous save are appended to the journal, so the cost
+ * of a save is proportional to the size of the modifications, and not to the size of the list.
+ * When the task list is read, the journal is replayed over the snapshot.
+ * <p>
+ * The journal starts with a record that identifies the snapshot it applies to, by the fingerprint
+ * of its file and a checksum of its tasks. The checksum is only computed when the fingerprint does
+ * not match, for example after a crash during a checkpoint, so that reading the task list does not
+ * access every task of a lazily loaded snapshot. A journal that does not match the current
+ * snapshot (for example, because the snapshot was modified by another program) is ignored, and a
+ * new snapshot is written on the next save.
+ * <p>
+ * Once the journal holds too many records or bytes, a checkpoint writes a new snapshot in the
+ * background, so that the journal does not grow forever. While the snapshot is written, the new
+ * records are appended both to the journal and to a next journal, which applies to the new
+ * snapshot. The checkpoint thread computes the checksum of the new snapshot, so a save only takes
+ * a copy of the persisted tasks, which costs constant time. The journal is then replaced by the
+ * records appended since the checkpoint started. Whenever the application stops, one of
+ * the two journals matches the snapshot on the disk. Checkpoints can also be written during the
+ * save that triggers them, for example when other processes may access the same files.
+ * <p>
+ * After another process appended records to the journal, {@link #refreshTaskList()} only replays
+ * the records that were appended since the last read or save.
+ */
+public class JournaledTaskListStorage implements TaskListStorage {
+
+    private static final Logger LOGGER = LogsCenter.getLogger(JournaledTaskListStorage.class);
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final String NEXT_JOURNAL_EXTENSION = ".next";
+    private static final String CHECKSUM_PREFIX = "checksum:";
+
+    private final TaskListStorage snapshotStorage;
+    private final Path journalPath;
+    private final Path nextJournalPath;
+    private final boolean shouldSync;
+    private final int checkpointRecords;
+    private final long checkpointBytes;
+    private final boolean isCheckpointInBackground;
+    private final ExecutorService checkpointer;
+    private final Object lock = new Object();
+
+    private TaskList persistedTasks = null;
+    private String persistedSnapshot = null;
+    // The first line of the journal, and the number of records and bytes that follow it
+    private String journalBaseLine = null;
+    private int journalRecords = 0;
+    private long journalBytes = 0;
+
+    // Only used while a checkpoint is in progress
+    private Future<?> checkpoint = null;
+    // The records saved since the checkpoint started, which are only appended to the next journal
+    // once its base has been written
+    private StringBuilder nextJournalRecords = null;
+    private int nextJournalRecordCount = 0;
+    private boolean isNextJournalStarted = false;
+    private boolean isCheckpointAborted = false;
+
+    /**
+     * Creates a new instance, using the specified storage to read and write the snapshots.
+     *
+     * @param snapshotStorage the storage used to read and write the snapshots
+     * @param shouldSync whether the journal should be forced to the disk on every save
+     * @param checkpointRecords the number of records in the journal that triggers a checkpoint
+     * @param checkpointBytes the size of the journal that triggers a checkpoint
+     * @param isCheckpointInBackground whether checkpoints are written in the background, instead
+     *         of during the save that triggers them
+     */
+    public JournaledTaskListStorage(TaskListStorage snapshotStorage, boolean shouldSync,
+            int checkpointRecords, long checkpointBytes, boolean isCheckpointInBackground) {
+        this.snapshotStorage = snapshotStorage;
+        this.shouldSync = shouldSync;
+        this.checkpointRecords = checkpointRecords;
+        this.checkpointBytes = checkpointBytes;
+        this.isCheckpointInBackground = isCheckpointInBackground;
+        Path snapshotPath = snapshotStorage.getTaskListFilePath();
+        this.journalPath =
+                snapshotPath.resolveSibling(snapshotPath.getFileName() + JOURNAL_EXTENSION);
+        this.nextJournalPath =
+                journalPath.resolveSibling(journalPath.getFileName() + NEXT_JOURNAL_EXTENSION);
+        this.checkpointer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getTaskListFilePath() {
+        return snapshotStorage.getTaskListFilePath();
+    }
+
+    /**
+     * Returns the file path of the journal.
+     *
+     * @return the file path of the journal
+     */
+    public Path getJournalFilePath() {
+        return journalPath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList readTaskList() throws DataConversionException, IOException {
+        awaitCheckpoint();
+        synchronized (lock) {
+            persistedTasks = null;
+            persistedSnapshot = null;
+            journalBaseLine = null;
+        }
+        long startTime = System.nanoTime();
+        TaskList taskList = snapshotStorage.readTaskList();
+        String fingerprint = FileUtil.getFingerprint(getTaskListFilePath());
+        Snapshot snapshot = new Snapshot(taskList.getLogicSource(), fingerprint);
+        Replay replay = null;
+        if (FileUtil.isFileExists(journalPath)) {
+            replay = replayJournal(journalPath, taskList, snapshot);
+        }
+        if (replay == null && FileUtil.isFileExists(nextJournalPath)) {
+            // The application stopped during a checkpoint, after the new snapshot was written
+            replay = replayJournal(nextJournalPath, taskList, snapshot);
+            if (replay != null && replay.isComplete) {
+                FileUtil.moveFile(nextJournalPath, journalPath, shouldSync);
+            }
+        } else {
+            Files.deleteIfExists(nextJournalPath);
+        }
+        if (replay == null) {
+            LOGGER.warning("Journal does not match the snapshot, ignoring the journal...");
+        } else {
+            LOGGER.info(String.format("Replayed %d journal records (%d bytes) in %d ms",
+                    replay.records, replay.bytes, (System.nanoTime() - startTime) / 1_000_000));
+        }
+        if (replay != null && replay.isComplete) {
+            synchronized (lock) {
+                persistedTasks = taskList.snapshot();
+                persistedSnapshot = fingerprint;
+                journalBaseLine = replay.baseLine;
+                journalRecords = replay.records;
+                journalBytes = replay.bytes;
+            }
+        }
+        return taskList;
+    }
+
+    /**
+     * Replays a journal over the specified task list.
+     *
+     * @param path path to the journal
+     * @param taskList the task list read from the snapshot, which will be modified
+     * @param snapshot identifies the snapshot, before any record is replayed
+     * @return the result of the replay, or null if the journal does not apply to the snapshot
+     */
+    private Replay replayJournal(Path path, TaskList taskList, Snapshot snapshot)
+            throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            JsonAdaptedJournalRecord base = line == null ? null : getBase(line);
+            if (base == null || !snapshot.matches(base)) {
+                return null;
+            }
+            return replayRecords(reader, taskList, line + "\n", 2);
+        }
+    }
+
+    /**
+     * Replays the records read from {@code reader} over the specified task list.
+     *
+     * @param reader the reader positioned at the first record to replay
+     * @param taskList the task list that the records apply to, which will be modified
+     * @param baseLine the first line of the journal
+     * @param firstLineNumber the line number of the first record, for logging
+     * @return the result of the replay
+     */
+    private Replay replayRecords(BufferedReader reader, TaskList taskList, String baseLine,
+            int firstLineNumber) throws IOException {
+        Replay replay = new Replay(baseLine);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            try {
+                JsonUtil.fromJsonString(line, JsonAdaptedJournalRecord.class).applyTo(taskList);
+            } catch (IOException | DataConversionException ex) {
+                // Usually a partially written record, caused by a crash during a save
+                LOGGER.warning("Invalid journal record at line " + (firstLineNumber + replay.records)
+                        + ", ignoring the rest of the journal...");
+                replay.isComplete = false;
+                return replay;
+            }
+            replay.records++;
+            replay.bytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        return replay;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the snapshot has not been replaced since the last read or save, only the records that
+     * were appended to the journal since then are replayed. Otherwise, the whole task list is
+     * read.
+     */
+    @Override
+    public TaskList refreshTaskList() throws DataConversionException, IOException {
+        awaitCheckpoint();
+        synchronized (lock) {
+            if (persistedTasks != null && journalBaseLine != null && Objects.equals(
+                    persistedSnapshot, FileUtil.getFingerprint(getTaskListFilePath()))) {
+                TaskList taskList = persistedTasks.snapshot();
+                Replay replay = replayJournalTail(taskList);
+                if (replay != null && replay.isComplete) {
+                    persistedTasks = taskList.snapshot();
+                    journalRecords += replay.records;
+                    journalBytes += replay.bytes;
+                    LOGGER.fine("Replayed " + replay.records + " new journal records");
+                    return taskList;
+                }
+            }
+        }
+        return readTaskList();
+    }
+
+    /**
+     * Replays the records that follow the known records of the journal, if the journal still
+     * starts with the known base. Must be called while holding the lock.
+     *
+     * @return the result of the replay, or null if the journal has been replaced
+     */
+    private Replay replayJournalTail(TaskList taskList) throws IOException {
+        byte[] baseLine = journalBaseLine.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+            long knownSize = baseLine.length + journalBytes;
+            if (channel.size() < knownSize) {
+                return null;
+            }
+            ByteBuffer firstLine = ByteBuffer.allocate(baseLine.length);
+            while (firstLine.hasRemaining() && channel.read(firstLine) >= 0) {
+                // Reads until the buffer is full
+            }
+            if (!Arrays.equals(baseLine, firstLine.array())) {
+                return null;
+            }
+            channel.position(knownSize);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            return replayRecords(reader, taskList, journalBaseLine, journalRecords + 2);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the {@code BASE} record on the line, or null if the line is not a {@code BASE} record.
+     */
+    private JsonAdaptedJournalRecord getBase(String line) {
+        try {
+            JsonAdaptedJournalRecord record =
+                    JsonUtil.fromJsonString(line, JsonAdaptedJournalRecord.class);
+            return record.getType() == Type.BASE ? record : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveTaskList(TaskList taskList) throws IOException {
+        List<Task> tasks = taskList.getLogicSource();
+        boolean needsSnapshot;
+        synchronized (lock) {
+            // During a checkpoint, the snapshot is replaced by the checkpoint itself
+            needsSnapshot = persistedTasks == null || checkpoint == null
+                    && !Objects.equals(persistedSnapshot,
+                            FileUtil.getFingerprint(getTaskListFilePath()));
+        }
+        if (needsSnapshot) {
+            awaitCheckpoint();
+            saveSnapshot(taskList);
+            return;
+        }
+        synchronized (lock) {
+            TaskListDiff diff = TaskListDiff.between(persistedTasks.getLogicSource(), tasks);
+            if (diff.isEmpty()) {
+                return;
+            }
+            String records = encode(diff);
+            int recordCount = (int) records.chars().filter(c -> c == '\n').count();
+            long byteCount = records.getBytes(StandardCharsets.UTF_8).length;
+            FileUtil.appendToFile(journalPath, records, shouldSync);
+            diff.applyTo(persistedTasks);
+            journalRecords += recordCount;
+            journalBytes += byteCount;
+            if (checkpoint != null) {
+                appendToNextJournal(records, recordCount);
+            } else if (journalRecords >= checkpointRecords || journalBytes >= checkpointBytes) {
+                startCheckpoint();
+            }
+        }
+    }
+
+    /**
+     * Appends records to the next journal, once its base has been written. If this fails, the
+     * next journal stops receiving records, so that it never skips any record. Must be called
+     * while holding the lock.
+     */
+    private void appendToNextJournal(String records, int recordCount) {
+        nextJournalRecords.append(records);
+        nextJournalRecordCount += recordCount;
+        if (!isNextJournalStarted || isCheckpointAborted) {
+            return;
+        }
+        try {
+            FileUtil.appendToFile(nextJournalPath, records, shouldSync);
+        } catch (IOException ex) {
+            LOGGER.warning("Failed to append to the next journal: " + StringUtil.getDetails(ex));
+            isCheckpointAborted = true;
+        }
+    }
+
+    /**
+     * Starts writing a new snapshot of the persisted tasks in the background. Must be called while
+     * holding the lock.
+     */
+    private void startCheckpoint() {
+        LOGGER.info(String.format("Checkpointing journal with %d records (%d bytes)",
+                journalRecords, journalBytes));
+        TaskList checkpointTasks = persistedTasks.snapshot();
+        nextJournalRecords = new StringBuilder();
+        nextJournalRecordCount = 0;
+        isNextJournalStarted = false;
+        isCheckpointAborted = false;
+        if (isCheckpointInBackground) {
+            checkpoint = checkpointer.submit(() -> runCheckpoint(checkpointTasks));
+        } else {
+            runCheckpoint(checkpointTasks);
+        }
+    }
+
+    /**
+     * Starts the next journal, writes the new snapshot, then replaces the journal with the records
+     * saved since the checkpoint started. Only called by the checkpoint thread, unless checkpoints
+     * are written during the save that triggers them.
+     */
+    private void runCheckpoint(TaskList checkpointTasks) {
+        long startTime = System.nanoTime();
+        String checksum = getChecksum(checkpointTasks.getLogicSource());
+        try {
+            synchronized (lock) {
+                FileUtil.writeToFile(nextJournalPath,
+                        encodeBase(checksum, null) + nextJournalRecords, shouldSync);
+                isNextJournalStarted = true;
+            }
+            snapshotStorage.saveTaskList(checkpointTasks);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warning("Failed to write checkpoint: " + StringUtil.getDetails(ex));
+            synchronized (lock) {
+                deleteQuietly(nextJournalPath);
+                checkpoint = null;
+                nextJournalRecords = null;
+            }
+            return;
+        }
+        synchronized (lock) {
+            try {
+                // The base of the new journal also holds the fingerprint of the new snapshot,
+                // which the base of the next journal could not. The next journal may also lack
+                // some records, if appending to it failed
+                String snapshot = FileUtil.getFingerprint(getTaskListFilePath());
+                String baseLine = encodeBase(checksum, snapshot);
+                String records = nextJournalRecords.toString();
+                FileUtil.writeToFile(journalPath, baseLine + records, shouldSync);
+                deleteQuietly(nextJournalPath);
+                persistedSnapshot = snapshot;
+                journalBaseLine = baseLine;
+                journalRecords = nextJournalRecordCount;
+                journalBytes = records.getBytes(StandardCharsets.UTF_8).length;
+            } catch (IOException ex) {
+                LOGGER.warning("Failed to replace the journal: " + StringUtil.getDetails(ex));
+                persistedTasks = null;
+            } finally {
+                checkpoint = null;
+                nextJournalRecords = null;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        LOGGER.info("Checkpoint written in " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Waits until the checkpoint in progress, if any, is done.
+     */
+    private void awaitCheckpoint() throws IOException {
+        Future<?> currentCheckpoint;
+        synchronized (lock) {
+            currentCheckpoint = checkpoint;
+        }
+        if (currentCheckpoint == null) {
+            return;
+        }
+        try {
+            currentCheckpoint.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the checkpoint", ex);
+        } catch (ExecutionException ex) {
+            // Already handled by the checkpoint itself
+        }
+    }
+
+    /**
+     * Writes a full snapshot of the task list, and starts a new, empty journal.
+     */
+    private void saveSnapshot(TaskList taskList) throws IOException {
+        synchronized (lock) {
+            persistedTasks = null;
+        }
+        TaskList snapshotTasks = taskList.snapshot();
+        snapshotStorage.saveTaskList(snapshotTasks);
+        String snapshot = FileUtil.getFingerprint(getTaskListFilePath());
+        String baseLine = encodeBase(getChecksum(snapshotTasks.getLogicSource()), snapshot);
+        FileUtil.writeToFile(journalPath, baseLine, shouldSync);
+        Files.deleteIfExists(nextJournalPath);
+        synchronized (lock) {
+            persistedTasks = snapshotTasks;
+            persistedSnapshot = snapshot;
+            journalBaseLine = baseLine;
+            journalRecords = 0;
+            journalBytes = 0;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            LOGGER.warning("Failed to delete " + path + ": " + StringUtil.getDetails(ex));
+        }
+    }
+
+    private static String getChecksum(List<Task> tasks) {
+        return CHECKSUM_PREFIX + TaskListChecksum.of(tasks);
+    }
+
+    private String encodeBase(String checksum, String snapshot) throws IOException {
+        return JsonUtil.toCompactJsonString(JsonAdaptedJournalRecord.ofBase(checksum, snapshot))
+                + "\n";
+    }
+
+    /**
+     * Encodes the difference as journal records, one record per line.
+     */
+    private String encode(TaskListDiff diff) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int from = diff.getFrom();
+        int removedCount = diff.getRemovedCount();
+        List<Task> addedTasks = diff.getAddedTasks();
+        int replacedCount = Math.min(removedCount, addedTasks.size());
+        for (int i = 0; i < replacedCount; i++) {
+            appendRecord(sb, Type.SET, from + i, addedTasks.get(i));
+        }
+        for (int i = replacedCount; i < removedCount; i++) {
+            appendRecord(sb, Type.REMOVE, from + replacedCount, null);
+        }
+        for (int i = replacedCount; i < addedTasks.size(); i++) {
+            appendRecord(sb, Type.ADD, from + i, addedTasks.get(i));
+        }
+        return sb.toString();
+    }
+
+    private void appendRecord(StringBuilder sb, Type type, int index, Task task)
+            throws IOException {
+        JsonAdaptedJournalRecord record = JsonAdaptedJournalRecord.ofChange(type, index, task);
+        sb.append(JsonUtil.toCompactJsonString(record));
+        sb.append('\n');
+    }
+
+    /**
+     * Result of the replay of a journal.
+     */
+    private static class Replay {
+        private final String baseLine;
+        private int records = 0;
+        private long bytes = 0;
+        private boolean isComplete = true;
+
+        private Replay(String baseLine) {
+            this.baseLine = baseLine;
+        }
+    }
+
+    /**
+     * The snapshot read from the disk, which a journal applies to if its base has the same
+     * fingerprint or the same checksum. The checksum is only computed if needed.
+     */
+    private static class Snapshot {
+        private final List<Task> tasks;
+        private final String fingerprint;
+        private String checksum = null;
+
+        private Snapshot(List<Task> tasks, String fingerprint) {
+            this.tasks = tasks;
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean matches(JsonAdaptedJournalRecord base) {
+            if (fingerprint != null && fingerprint.equals(base.getSnapshot())) {
+                return true;
+            }
+            if (checksum == null) {
+                checksum = getChecksum(tasks);
+            }
+            return checksum.equals(base.getBase());
+        }
+    }
+}
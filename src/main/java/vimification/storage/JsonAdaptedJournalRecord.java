@@ -0,0 +1,143 @@
+package vimification.storage;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.model.LogicTaskList;
+import vimification.model.task.Task;
+
+/**
+ * Jackson-friendly version of a single record in the journal of {@link JournaledTaskListStorage}.
+ * <p>
+ * The first record of a journal is always a {@code BASE} record, which identifies the snapshot
+ * that the journal applies to, by a checksum of its tasks, and by the fingerprint of its file if
+ * it is known. Other records describe a single modification of the task list, at
+ * a given index of the source list.
+ */
+public class JsonAdaptedJournalRecord {
+
+    /**
+     * Different types of records in the journal.
+     */
+    public enum Type {
+
+        /**
+         * Identifies the snapshot that the journal applies to.
+         */
+        BASE,
+
+        /**
+         * Inserts a task at the specified index.
+         */
+        ADD,
+
+        /**
+         * Replaces the task at the specified index.
+         */
+        SET,
+
+        /**
+         * Removes the task at the specified index.
+         */
+        REMOVE
+    }
+
+    private final Type type;
+    private final int index;
+    private final Task task;
+    private final String base;
+    private final String snapshot;
+
+    /**
+     * The constructor used by Jackson.
+     *
+     * @param type type of the record
+     * @param index index of the modified task
+     * @param task the new task, only used by {@code ADD} and {@code SET} records
+     * @param base checksum of the snapshot, only used by {@code BASE} records
+     * @param snapshot fingerprint of the file of the snapshot, only used by {@code BASE} records
+     */
+    @JsonCreator
+    public JsonAdaptedJournalRecord(
+            @JsonProperty("type") Type type,
+            @JsonProperty("index") int index,
+            @JsonProperty("task") Task task,
+            @JsonProperty("base") String base,
+            @JsonProperty("snapshot") String snapshot) {
+        this.type = type;
+        this.index = index;
+        this.task = task;
+        this.base = base;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Creates a {@code BASE} record for the snapshot with the specified checksum.
+     *
+     * @param base checksum of the snapshot
+     * @param snapshot fingerprint of the file of the snapshot, or null if it is not known yet
+     * @return a new {@code BASE} record
+     */
+    public static JsonAdaptedJournalRecord ofBase(String base, String snapshot) {
+        return new JsonAdaptedJournalRecord(Type.BASE, 0, null, base, snapshot);
+    }
+
+    /**
+     * Creates a record that modifies the task list at the specified index.
+     *
+     * @param type type of the modification
+     * @param index index of the modified task
+     * @param task the new task, can be null for {@code REMOVE} records
+     * @return a new record
+     */
+    public static JsonAdaptedJournalRecord ofChange(Type type, int index, Task task) {
+        return new JsonAdaptedJournalRecord(type, index, task, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Applies the modification described by this record to the specified task list.
+     *
+     * @param tasks the task list to be modified
+     * @throws DataConversionException if this record cannot be applied to the task list
+     */
+    public void applyTo(LogicTaskList tasks) throws DataConversionException {
+        try {
+            switch (type) {
+            case ADD:
+                tasks.add(index, Objects.requireNonNull(task));
+                break;
+            case SET:
+                tasks.set(index, Objects.requireNonNull(task));
+                break;
+            case REMOVE:
+                tasks.remove(index);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected record type: " + type);
+            }
+        } catch (RuntimeException ex) {
+            throw new DataConversionException(ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdaptedJournalRecord [type=" + type + ", index=" + index + ", task=" + task
+                + ", base=" + base + ", snapshot=" + snapshot + "]";
+    }
+}
@@ -0,0 +1,83 @@
+package vimification.storage;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Jackson-friendly version of the manifest of {@link SegmentedTaskListStorage}, which lists the
+ * segments of the task list in order.
+ */
+public class JsonAdaptedSegmentManifest {
+
+    private final long nextSegmentId;
+    private final List<JsonAdaptedSegment> segments;
+
+    /**
+     * The constructor used by Jackson.
+     *
+     * @param nextSegmentId the id of the next segment to be created
+     * @param segments the segments of the task list, in order
+     */
+    @JsonCreator
+    public JsonAdaptedSegmentManifest(
+            @JsonProperty("nextSegmentId") long nextSegmentId,
+            @JsonProperty("segments") List<JsonAdaptedSegment> segments) {
+        if (segments == null) {
+            segments = List.of();
+        }
+        this.nextSegmentId = nextSegmentId;
+        this.segments = segments;
+    }
+
+    public long getNextSegmentId() {
+        return nextSegmentId;
+    }
+
+    public List<JsonAdaptedSegment> getSegments() {
+        return segments;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdaptedSegmentManifest [nextSegmentId=" + nextSegmentId + ", segments="
+                + segments + "]";
+    }
+
+    /**
+     * Jackson-friendly version of a single segment in the manifest.
+     */
+    public static class JsonAdaptedSegment {
+
+        private final long id;
+        private final int size;
+
+        /**
+         * The constructor used by Jackson.
+         *
+         * @param id the id of the segment, which determines its file name
+         * @param size the number of tasks in the segment
+         */
+        @JsonCreator
+        public JsonAdaptedSegment(
+                @JsonProperty("id") long id,
+                @JsonProperty("size") int size) {
+            this.id = id;
+            this.size = size;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return "JsonAdaptedSegment [id=" + id + ", size=" + size + "]";
+        }
+    }
+}
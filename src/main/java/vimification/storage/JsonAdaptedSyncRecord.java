@@ -0,0 +1,98 @@
+package vimification.storage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import vimification.model.task.Task;
+
+/**
+ * Jackson-friendly version of a single record in the change log of a sync directory, see
+ * {@link TaskListSync}.
+ * <p>
+ * The first record of a change log only contains the id of the log. Other records contain the
+ * latest version of a single task, identified by its key, or mark the task as deleted.
+ */
+public class JsonAdaptedSyncRecord {
+
+    private final String log;
+    private final String key;
+    private final String hash;
+    private final Task task;
+
+    /**
+     * The constructor used by Jackson.
+     *
+     * @param log id of the change log, only used by the first record
+     * @param key key of the task
+     * @param hash content hash of the task, in hexadecimal, or null if the task is deleted
+     * @param task the task, or null if the task is deleted
+     */
+    @JsonCreator
+    public JsonAdaptedSyncRecord(
+            @JsonProperty("log") String log,
+            @JsonProperty("key") String key,
+            @JsonProperty("hash") String hash,
+            @JsonProperty("task") Task task) {
+        this.log = log;
+        this.key = key;
+        this.hash = hash;
+        this.task = task;
+    }
+
+    /**
+     * Creates the first record of a change log.
+     *
+     * @param log id of the change log
+     * @return a new record
+     */
+    public static JsonAdaptedSyncRecord ofLog(String log) {
+        return new JsonAdaptedSyncRecord(log, null, null, null);
+    }
+
+    /**
+     * Creates a record containing the latest version of a task.
+     *
+     * @param key key of the task
+     * @param task the task
+     * @return a new record
+     */
+    public static JsonAdaptedSyncRecord ofTask(String key, Task task) {
+        return new JsonAdaptedSyncRecord(null, key, Long.toHexString(task.getContentHash()), task);
+    }
+
+    /**
+     * Creates a record marking a task as deleted.
+     *
+     * @param key key of the task
+     * @return a new record
+     */
+    public static JsonAdaptedSyncRecord ofDeletion(String key) {
+        return new JsonAdaptedSyncRecord(null, key, null, null);
+    }
+
+    public String getLog() {
+        return log;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public boolean isDeletion() {
+        return task == null;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonAdaptedSyncRecord [log=" + log + ", key=" + key + ", hash=" + hash
+                + ", task=" + task + "]";
+    }
+}
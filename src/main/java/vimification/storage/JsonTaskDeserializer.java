@@ -0,0 +1,173 @@
+package vimification.storage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+/**
+ * Reads a {@link Task} from a JSON object written by {@link JsonTaskSerializer}, directly from the
+ * parser.
+ * <p>
+ * Unknown fields are ignored. Tasks written without an id get a new id, and are counted in the
+ * {@link #MISSING_ID_COUNT_ATTRIBUTE} attribute, if it is set.
+ * A task that cannot be created from the fields, for example because its title is missing, is
+ * rejected with a {@link JsonMappingException}.
+ */
+public class JsonTaskDeserializer extends StdDeserializer<Task> {
+
+    /**
+     * The attribute that counts the tasks read without an id, if it is set to an
+     * {@link AtomicInteger}.
+     */
+    public static final String MISSING_ID_COUNT_ATTRIBUTE = "missingIdCount";
+
+    /**
+     * Creates a new instance.
+     */
+    public JsonTaskDeserializer() {
+        super(Task.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task deserialize(JsonParser parser, DeserializationContext context)
+            throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            throw context.wrongTokenException(parser, JsonToken.START_OBJECT, "Expected a task");
+        }
+        UUID id = null;
+        String title = null;
+        Status status = null;
+        Priority priority = null;
+        LocalDateTime deadline = null;
+        List<String> labels = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            switch (fieldName) {
+            case JsonTaskSerializer.ID_FIELD:
+                id = readId(parser, context);
+                break;
+            case JsonTaskSerializer.TITLE_FIELD:
+                title = readString(parser, context);
+                break;
+            case JsonTaskSerializer.STATUS_FIELD:
+                status = readEnum(parser, context, Status.class);
+                break;
+            case JsonTaskSerializer.PRIORITY_FIELD:
+                priority = readEnum(parser, context, Priority.class);
+                break;
+            case JsonTaskSerializer.DEADLINE_FIELD:
+                deadline = readDeadline(parser, context);
+                break;
+            case JsonTaskSerializer.LABELS_FIELD:
+                labels = readLabels(parser, context);
+                break;
+            default:
+                parser.skipChildren();
+                break;
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw context.wrongTokenException(parser, JsonToken.END_OBJECT, "Unterminated task");
+        }
+        Object attribute = context.getAttribute(MISSING_ID_COUNT_ATTRIBUTE);
+        if (id == null && attribute instanceof AtomicInteger) {
+            AtomicInteger missingIdCount = (AtomicInteger) attribute;
+            missingIdCount.incrementAndGet();
+        }
+        try {
+            return new Task(id, title, deadline, status, priority, labels);
+        } catch (RuntimeException ex) {
+            throw JsonMappingException.from(parser, "Invalid task: " + ex.getMessage(), ex);
+        }
+    }
+
+    private String readString(JsonParser parser, DeserializationContext context)
+            throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == null || !token.isScalarValue()) {
+            throw context.wrongTokenException(parser, JsonToken.VALUE_STRING, "Expected a string");
+        }
+        return parser.getText();
+    }
+
+    private UUID readId(JsonParser parser, DeserializationContext context) throws IOException {
+        String text = readString(parser, context);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException ex) {
+            throw context.weirdStringException(text, UUID.class, "not a valid id");
+        }
+    }
+
+    private <E extends Enum<E>> E readEnum(JsonParser parser, DeserializationContext context,
+            Class<E> enumClass) throws IOException {
+        String name = readString(parser, context);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(enumClass, name);
+        } catch (IllegalArgumentException ex) {
+            throw context.weirdStringException(name, enumClass, "not a valid value");
+        }
+    }
+
+    private LocalDateTime readDeadline(JsonParser parser, DeserializationContext context)
+            throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            // Other representations, such as arrays of numbers, are left to Jackson
+            return context.readValue(parser, LocalDateTime.class);
+        }
+        String text = parser.getText();
+        try {
+            return LocalDateTime.parse(text, JsonTaskSerializer.DEADLINE_FORMATTER);
+        } catch (DateTimeParseException ex) {
+            throw context.weirdStringException(text, LocalDateTime.class, ex.getMessage());
+        }
+    }
+
+    private List<String> readLabels(JsonParser parser, DeserializationContext context)
+            throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw context.wrongTokenException(parser, JsonToken.START_ARRAY, "Expected labels");
+        }
+        List<String> labels = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            labels.add(readString(parser, context));
+        }
+        return labels;
+    }
+}
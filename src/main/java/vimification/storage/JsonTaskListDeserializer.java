@@ -0,0 +1,65 @@
+package vimification.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+/**
+ * Reads a {@link TaskList} from a JSON object written by {@link JsonTaskListSerializer}. Other
+ * fields are ignored, and a missing or null {@code tasks} field results in an empty list.
+ */
+public class JsonTaskListDeserializer extends StdDeserializer<TaskList> {
+
+    private final JsonTaskDeserializer taskDeserializer = new JsonTaskDeserializer();
+
+    /**
+     * Creates a new instance.
+     */
+    public JsonTaskListDeserializer() {
+        super(TaskList.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList deserialize(JsonParser parser, DeserializationContext context)
+            throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            throw context.wrongTokenException(parser, JsonToken.START_OBJECT,
+                    "Expected a task list");
+        }
+        List<Task> tasks = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            token = parser.nextToken();
+            if (!JsonTaskListSerializer.TASKS_FIELD.equals(fieldName)
+                    || token == JsonToken.VALUE_NULL) {
+                parser.skipChildren();
+                continue;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw context.wrongTokenException(parser, JsonToken.START_ARRAY,
+                        "Expected an array of tasks");
+            }
+            tasks.clear();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                tasks.add(taskDeserializer.deserialize(parser, context));
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw context.wrongTokenException(parser, JsonToken.END_OBJECT,
+                    "Unterminated task list");
+        }
+        return new TaskList(tasks);
+    }
+}
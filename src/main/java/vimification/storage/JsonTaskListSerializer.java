@@ -0,0 +1,43 @@
+package vimification.storage;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+/**
+ * Writes a {@link TaskList} as a JSON object with a single {@code tasks} field, which contains the
+ * tasks of its source list, in order.
+ */
+public class JsonTaskListSerializer extends StdSerializer<TaskList> {
+
+    static final String TASKS_FIELD = "tasks";
+
+    private final JsonTaskSerializer taskSerializer = new JsonTaskSerializer();
+
+    /**
+     * Creates a new instance.
+     */
+    public JsonTaskListSerializer() {
+        super(TaskList.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(TaskList taskList, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(TASKS_FIELD);
+        for (Task task : taskList.getLogicSource()) {
+            taskSerializer.serialize(task, generator, provider);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
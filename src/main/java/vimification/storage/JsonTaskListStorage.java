@@ -1,26 +1,108 @@
 package vimification.storage;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.core.StorageFormat;
 import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.FileUtil.ContentWriter;
 import vimification.common.util.JsonUtil;
 import vimification.model.TaskList;
+import vimification.model.task.Task;
 
 /**
  * One implementation of {@link TaskListStorage}, using JSON as serialization format.
+ * <p>
+ * The tasks are streamed from and to the data file one at a time, so the whole file is never
+ * held in memory as a string or as a tree of objects. Each task is read and written by
+ * {@link JsonTaskDeserializer} and {@link JsonTaskSerializer}, and the format of the file is the
+ * same as the one of {@link JsonTaskListSerializer}.
+ * <p>
+ * Large task lists are processed in chunks of {@link #CHUNK_SIZE} tasks on the common fork-join
+ * pool. While the file is parsed, the tokens of each chunk after the first one are buffered, and
+ * the chunk is converted into {@code Task} in the background while the next one is parsed. While
+ * the file is written, the next chunks are encoded in parallel, and written in order.
+ * <p>
+ * The file is written in the specified {@link StorageFormat}. When reading, a compressed file is
+ * detected from its content, so a file in any format can be read. Compressed files are streamed
+ * through the compression as well.
+ * <p>
+ * Tasks written without an id get a new id when they are read. Reading never writes the file, so
+ * the new ids are only kept once the task list is saved again.
  */
 public class JsonTaskListStorage implements TaskListStorage {
 
+    private static final Logger LOGGER = LogsCenter.getLogger(JsonTaskListStorage.class);
+    private static final String TASKS_FIELD = "tasks";
+    private static final int CHUNK_SIZE = 4096;
+    private static final int MAX_PENDING_CHUNKS = 2 * ForkJoinPool.getCommonPoolParallelism();
+
+    private static final int GZIP_MAGIC_NUMBER = GZIPInputStream.GZIP_MAGIC;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private Path filePath;
+    private boolean shouldSync;
+    private StorageFormat format;
 
     /**
-     * Creates a new instance with the specified path.
+     * Creates a new instance with the specified path, which does not force the data file to the
+     * disk on save.
      *
      * @param filePath the path to the data file
      */
     public JsonTaskListStorage(Path filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a new instance with the specified path.
+     *
+     * @param filePath the path to the data file
+     * @param shouldSync whether the data file should be forced to the disk on every save
+     */
+    public JsonTaskListStorage(Path filePath, boolean shouldSync) {
+        this(filePath, shouldSync, StorageFormat.PRETTY);
+    }
+
+    /**
+     * Creates a new instance with the specified path.
+     *
+     * @param filePath the path to the data file
+     * @param shouldSync whether the data file should be forced to the disk on every save
+     * @param format the format used to write the data file
+     */
+    public JsonTaskListStorage(Path filePath, boolean shouldSync, StorageFormat format) {
         this.filePath = filePath;
+        this.shouldSync = shouldSync;
+        this.format = format;
     }
 
     /**
@@ -36,9 +118,164 @@ public class JsonTaskListStorage implements TaskListStorage {
      */
     @Override
     public TaskList readTaskList() throws DataConversionException, IOException {
-        return JsonUtil
-                .readJsonFile(filePath, JsonAdaptedTaskList.class)
-                .toModelType();
+        List<Task> tasks = new ArrayList<>();
+        readTaskList(tasks::addAll);
+        return new TaskList(tasks);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each chunk of tasks is passed as soon as it is converted.
+     */
+    @Override
+    public void readTaskList(Consumer<? super List<Task>> consumer)
+            throws DataConversionException, IOException {
+        AtomicInteger missingIdCount = new AtomicInteger();
+        ObjectReader taskReader = JsonUtil.createReader(Task.class)
+                .withAttribute(JsonTaskDeserializer.MISSING_ID_COUNT_ATTRIBUTE, missingIdCount);
+        try (JsonParser parser = JsonUtil.createParser(openDataFile())) {
+            readTasks(parser, taskReader, consumer);
+        }
+        if (missingIdCount.get() > 0) {
+            LOGGER.info("Assigned new ids to " + missingIdCount + " tasks stored without an id, "
+                    + "which are kept once the task list is saved");
+        }
+    }
+
+    /**
+     * Opens the data file for reading, decompressing it if it starts with the GZIP header.
+     */
+    private InputStream openDataFile() throws IOException {
+        InputStream input = new BufferedInputStream(Files.newInputStream(filePath));
+        try {
+            input.mark(2);
+            // The header is stored in little-endian byte order
+            int header = input.read() | (input.read() << 8);
+            input.reset();
+            return header == GZIP_MAGIC_NUMBER
+                    ? new GZIPInputStream(input, GZIP_BUFFER_SIZE)
+                    : input;
+        } catch (IOException ex) {
+            input.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Reads the tasks from a JSON object with a single {@code tasks} field, and passes them to
+     * {@code consumer}. Other fields are ignored, and a missing {@code tasks} field results in an
+     * empty list.
+     */
+    private void readTasks(JsonParser parser, ObjectReader taskReader,
+            Consumer<? super List<Task>> consumer) throws DataConversionException, IOException {
+        expectToken(parser, parser.nextToken(), JsonToken.START_OBJECT);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_OBJECT) {
+            expectToken(parser, token, JsonToken.FIELD_NAME);
+            String fieldName = parser.getCurrentName();
+            token = parser.nextToken();
+            if (!TASKS_FIELD.equals(fieldName) || token == JsonToken.VALUE_NULL) {
+                parser.skipChildren();
+                continue;
+            }
+            expectToken(parser, token, JsonToken.START_ARRAY);
+            readTaskArray(parser, taskReader, consumer);
+        }
+    }
+
+    /**
+     * Reads the elements of a JSON array of tasks, and passes them to {@code consumer} in chunks
+     * of {@link #CHUNK_SIZE} tasks. The first chunk is converted while it is parsed, so small
+     * task lists do not go through the pool. The tokens of the next chunks are buffered, and each
+     * chunk is converted in the background while the next one is parsed.
+     */
+    private void readTaskArray(JsonParser parser, ObjectReader taskReader,
+            Consumer<? super List<Task>> consumer) throws DataConversionException, IOException {
+        List<Task> firstChunk = new ArrayList<>();
+        JsonToken token;
+        while (firstChunk.size() < CHUNK_SIZE
+                && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expectToken(parser, token, JsonToken.START_OBJECT);
+            try {
+                firstChunk.add(taskReader.readValue(parser));
+            } catch (JsonMappingException ex) {
+                throw new DataConversionException(
+                        "Invalid task at position " + firstChunk.size(), ex);
+            }
+        }
+        consumer.accept(firstChunk);
+        if (firstChunk.size() < CHUNK_SIZE) {
+            return;
+        }
+
+        Deque<CompletableFuture<List<Task>>> convertedChunks = new ArrayDeque<>();
+        TokenBuffer chunk = new TokenBuffer(parser);
+        int chunkSize = 0;
+        int chunkStart = CHUNK_SIZE;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expectToken(parser, token, JsonToken.START_OBJECT);
+            chunk.copyCurrentStructure(parser);
+            chunkSize++;
+            if (chunkSize == CHUNK_SIZE) {
+                convertedChunks.add(convertChunkAsync(taskReader, chunk, chunkStart));
+                chunk = new TokenBuffer(parser);
+                chunkStart += chunkSize;
+                chunkSize = 0;
+                // Passes the chunks that are already converted, without waiting for the others
+                while (!convertedChunks.isEmpty() && (convertedChunks.peek().isDone()
+                        || convertedChunks.size() >= MAX_PENDING_CHUNKS)) {
+                    consumer.accept(join(convertedChunks.remove(), DataConversionException.class));
+                }
+            }
+        }
+        if (chunkSize > 0) {
+            convertedChunks.add(convertChunkAsync(taskReader, chunk, chunkStart));
+        }
+        while (!convertedChunks.isEmpty()) {
+            consumer.accept(join(convertedChunks.remove(), DataConversionException.class));
+        }
+    }
+
+    private CompletableFuture<List<Task>> convertChunkAsync(ObjectReader taskReader,
+            TokenBuffer chunk, int chunkStart) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return convertChunk(taskReader, chunk, chunkStart);
+            } catch (DataConversionException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+    }
+
+    /**
+     * Converts the buffered tasks of a chunk, which starts at the specified position of the task
+     * list.
+     */
+    private List<Task> convertChunk(ObjectReader taskReader, TokenBuffer chunk, int chunkStart)
+            throws DataConversionException {
+        List<Task> tasks = new ArrayList<>(CHUNK_SIZE);
+        try (JsonParser chunkParser = chunk.asParser(taskReader)) {
+            while (chunkParser.nextToken() == JsonToken.START_OBJECT) {
+                tasks.add(taskReader.readValue(chunkParser));
+            }
+        } catch (IOException ex) {
+            // The tokens were already checked while parsing, so only the values can be invalid
+            throw new DataConversionException(
+                    "Invalid task at position " + (chunkStart + tasks.size()), ex);
+        }
+        return tasks;
+    }
+
+    /**
+     * Throws if the current token is not the expected one. A truncated file ends with a null
+     * token, and is rejected here as well.
+     */
+    private void expectToken(JsonParser parser, JsonToken token, JsonToken expected)
+            throws JsonParseException {
+        if (token != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + token);
+        }
     }
 
     /**
@@ -46,6 +283,132 @@ public class JsonTaskListStorage implements TaskListStorage {
      */
     @Override
     public void saveTaskList(TaskList taskList) throws IOException {
-        JsonUtil.saveJsonFile(new JsonAdaptedTaskList(taskList), filePath);
+        List<Task> tasks = taskList.getLogicSource();
+        FileUtil.createParentDirectoriesIfMissing(filePath);
+        if (tasks.size() <= CHUNK_SIZE) {
+            writeDataFile(output -> writeTaskList(output, tasks));
+            return;
+        }
+        // The tasks are read by other threads, which must not access the task list itself
+        List<Task> tasksCopy = new ArrayList<>(tasks);
+        writeDataFile(output -> writeTasksInChunks(output, tasksCopy));
+    }
+
+    /**
+     * Writes the data file, compressing the content if needed.
+     */
+    private void writeDataFile(ContentWriter writer) throws IOException {
+        if (format != StorageFormat.COMPRESSED) {
+            FileUtil.writeToFile(filePath, writer, shouldSync);
+            return;
+        }
+        FileUtil.writeToFile(filePath, output -> {
+            GZIPOutputStream compressedOutput = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+            writer.writeTo(compressedOutput);
+            // Writes the trailer without closing the file
+            compressedOutput.finish();
+        }, shouldSync);
+    }
+
+    private void writeTaskList(OutputStream output, List<Task> tasks) throws IOException {
+        try (JsonGenerator generator = JsonUtil.createGenerator(output, isPretty())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(TASKS_FIELD);
+            for (Task task : tasks) {
+                generator.writeObject(task);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the tasks, while a few chunks ahead of the writer are encoded in the background.
+     * <p>
+     * Each chunk is encoded as the elements of the task array, with the same indentation as if the
+     * whole file were written at once. Consecutive chunks are separated by a comma, which is what
+     * the pretty printer would have written between their elements. The result is identical to the
+     * one of {@link #writeTaskList(OutputStream, List)}.
+     */
+    private void writeTasksInChunks(OutputStream output, List<Task> tasks) throws IOException {
+        ByteArrayOutputStream emptyTaskList = new ByteArrayOutputStream();
+        writeTaskList(emptyTaskList, List.of());
+        byte[] frame = emptyTaskList.toByteArray();
+        int arrayStart = new String(frame, StandardCharsets.UTF_8).indexOf('[') + 1;
+        output.write(frame, 0, arrayStart);
+
+        Deque<CompletableFuture<byte[]>> pendingChunks = new ArrayDeque<>();
+        boolean isFirstChunk = true;
+        for (int chunkStart = 0; chunkStart < tasks.size(); chunkStart += CHUNK_SIZE) {
+            List<Task> chunk =
+                    tasks.subList(chunkStart, Math.min(chunkStart + CHUNK_SIZE, tasks.size()));
+            pendingChunks.add(encodeChunkAsync(chunk));
+            if (pendingChunks.size() >= MAX_PENDING_CHUNKS) {
+                writeChunk(output, pendingChunks.remove(), isFirstChunk);
+                isFirstChunk = false;
+            }
+        }
+        while (!pendingChunks.isEmpty()) {
+            writeChunk(output, pendingChunks.remove(), isFirstChunk);
+            isFirstChunk = false;
+        }
+        output.write(frame, arrayStart, frame.length - arrayStart);
+    }
+
+    private CompletableFuture<byte[]> encodeChunkAsync(List<Task> chunk) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return encodeChunk(chunk);
+            } catch (IOException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+    }
+
+    /**
+     * Encodes the tasks as elements of the task array, without the enclosing brackets.
+     */
+    private byte[] encodeChunk(List<Task> chunk) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JsonUtil.createGenerator(output, isPretty())) {
+            // Puts the generator at the nesting level of the elements
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(TASKS_FIELD);
+            generator.flush();
+            output.reset();
+            for (Task task : chunk) {
+                generator.writeObject(task);
+            }
+            generator.flush();
+            return output.toByteArray();
+        }
+    }
+
+    private void writeChunk(OutputStream output, CompletableFuture<byte[]> encodedChunk,
+            boolean isFirstChunk) throws IOException {
+        byte[] bytes = join(encodedChunk, IOException.class);
+        if (!isFirstChunk) {
+            output.write(',');
+        }
+        output.write(bytes);
+    }
+
+    private boolean isPretty() {
+        return format == StorageFormat.PRETTY;
+    }
+
+    /**
+     * Waits for the result of a background task, and rethrows its checked exception.
+     */
+    private static <T, E extends Exception> T join(CompletableFuture<T> future,
+            Class<E> exceptionClass) throws E {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (exceptionClass.isInstance(ex.getCause())) {
+                throw exceptionClass.cast(ex.getCause());
+            }
+            throw ex;
+        }
     }
 }
@@ -0,0 +1,28 @@
+package vimification.storage;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+/**
+ * Jackson module that reads and writes {@link Task} and {@link TaskList} with the serializers of
+ * this package.
+ * <p>
+ * The module is listed in {@code META-INF/services}, so every {@code ObjectMapper} that looks for
+ * modules on the class path, such as the one of {@link vimification.common.util.JsonUtil},
+ * registers it along with the other Jackson modules.
+ */
+public class JsonTaskModule extends SimpleModule {
+
+    /**
+     * Creates a new instance.
+     */
+    public JsonTaskModule() {
+        super("JsonTaskModule");
+        addSerializer(Task.class, new JsonTaskSerializer());
+        addDeserializer(Task.class, new JsonTaskDeserializer());
+        addSerializer(TaskList.class, new JsonTaskListSerializer());
+        addDeserializer(TaskList.class, new JsonTaskListDeserializer());
+    }
+}
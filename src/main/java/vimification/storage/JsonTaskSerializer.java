@@ -0,0 +1,60 @@
+package vimification.storage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import vimification.model.task.Task;
+
+/**
+ * Writes a {@link Task} as a JSON object, directly to the generator.
+ * <p>
+ * The fields are written in the same order and format as the default serialization of Jackson,
+ * with the deadline in ISO-8601 format, so the output does not depend on which one is used.
+ */
+public class JsonTaskSerializer extends StdSerializer<Task> {
+
+    static final String ID_FIELD = "id";
+    static final String TITLE_FIELD = "title";
+    static final String STATUS_FIELD = "status";
+    static final String PRIORITY_FIELD = "priority";
+    static final String DEADLINE_FIELD = "deadline";
+    static final String LABELS_FIELD = "labels";
+    static final DateTimeFormatter DEADLINE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * Creates a new instance.
+     */
+    public JsonTaskSerializer() {
+        super(Task.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(Task task, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(ID_FIELD, task.getId().toString());
+        generator.writeStringField(TITLE_FIELD, task.getTitle());
+        generator.writeStringField(STATUS_FIELD, task.getStatus().name());
+        generator.writeStringField(PRIORITY_FIELD, task.getPriority().name());
+        LocalDateTime deadline = task.getDeadline();
+        if (deadline == null) {
+            generator.writeNullField(DEADLINE_FIELD);
+        } else {
+            generator.writeStringField(DEADLINE_FIELD, DEADLINE_FORMATTER.format(deadline));
+        }
+        generator.writeArrayFieldStart(LABELS_FIELD);
+        for (String label : task.getLabels()) {
+            generator.writeString(label);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,196 @@
+package vimification.storage;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.model.CopyableTaskList;
+import vimification.model.task.Task;
+
+/**
+ * A list of tasks backed by the records of a data file written by {@link BinaryTaskListStorage},
+ * where each task is only decoded when it is accessed.
+ * <p>
+ * Decoded tasks are kept in a bounded cache, so that only the most recently accessed tasks stay in
+ * memory. Until the list is first modified, it only holds the mapped file. After that, it also
+ * holds the record index of each element, together with the tasks that did not come from the file.
+ * <p>
+ * Copies share the mapped file, which is never modified, so a copy can be read by another thread.
+ * A single instance is not thread-safe.
+ */
+class MappedTaskList extends AbstractList<Task> implements CopyableTaskList, RandomAccess {
+
+    private static final int CACHE_CAPACITY = 1024;
+    private static final int NEW_TASK = -1;
+
+    private final ByteBuffer buffer;
+    private final int[] labelIds;
+    private final int positionsStart;
+    private final Map<Integer, Task> cache;
+
+    private int size;
+    // Both are null until this list is first modified, which means that the i-th element is the
+    // i-th record of the file
+    private int[] recordIndices = null;
+    private Task[] newTasks = null;
+
+    /**
+     * Creates a new list containing all records of the file.
+     *
+     * @param buffer the mapped content of the file
+     * @param labelIds the ids of the labels in the label dictionary of the file
+     * @param positionsStart the position of the table of record positions in the file
+     * @param recordCount the number of records in the file
+     */
+    MappedTaskList(ByteBuffer buffer, int[] labelIds, int positionsStart, int recordCount) {
+        this.buffer = buffer;
+        this.labelIds = labelIds;
+        this.positionsStart = positionsStart;
+        this.size = recordCount;
+        this.cache = createCache();
+    }
+
+    private MappedTaskList(MappedTaskList other) {
+        this.buffer = other.buffer;
+        this.labelIds = other.labelIds;
+        this.positionsStart = other.positionsStart;
+        this.size = other.size;
+        this.recordIndices = other.recordIndices == null ? null : other.recordIndices.clone();
+        this.newTasks = other.newTasks == null ? null : other.newTasks.clone();
+        this.cache = createCache();
+    }
+
+    private static Map<Integer, Task> createCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Task> eldest) {
+                return size() > CACHE_CAPACITY;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MappedTaskList copy() {
+        return new MappedTaskList(this);
+    }
+
+    /**
+     * Returns false, since a task evicted from the cache is decoded again as a new {@code Task}.
+     */
+    @Override
+    public boolean hasStableTasks() {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        if (recordIndices == null) {
+            return getRecord(index);
+        }
+        int recordIndex = recordIndices[index];
+        return recordIndex == NEW_TASK ? newTasks[index] : getRecord(recordIndex);
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Objects.requireNonNull(task);
+        Task oldTask = get(index);
+        ensureModifiable(size);
+        recordIndices[index] = NEW_TASK;
+        newTasks[index] = task;
+        return oldTask;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.requireNonNull(task);
+        Objects.checkIndex(index, size + 1);
+        ensureModifiable(size + 1);
+        System.arraycopy(recordIndices, index, recordIndices, index + 1, size - index);
+        System.arraycopy(newTasks, index, newTasks, index + 1, size - index);
+        recordIndices[index] = NEW_TASK;
+        newTasks[index] = task;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task oldTask = get(index);
+        ensureModifiable(size);
+        System.arraycopy(recordIndices, index + 1, recordIndices, index, size - index - 1);
+        System.arraycopy(newTasks, index + 1, newTasks, index, size - index - 1);
+        size--;
+        newTasks[size] = null;
+        modCount++;
+        return oldTask;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        ensureModifiable(size);
+        System.arraycopy(recordIndices, toIndex, recordIndices, fromIndex, size - toIndex);
+        System.arraycopy(newTasks, toIndex, newTasks, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        Arrays.fill(newTasks, newSize, size, null);
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * Allocates the arrays that track the content of this list, with room for at least the
+     * specified number of elements.
+     */
+    private void ensureModifiable(int capacity) {
+        if (recordIndices == null) {
+            recordIndices = new int[Math.max(capacity, 10)];
+            for (int i = 0; i < size; i++) {
+                recordIndices[i] = i;
+            }
+            newTasks = new Task[recordIndices.length];
+        } else if (capacity > recordIndices.length) {
+            int newLength = Math.max(capacity, recordIndices.length + (recordIndices.length >> 1));
+            recordIndices = Arrays.copyOf(recordIndices, newLength);
+            newTasks = Arrays.copyOf(newTasks, newLength);
+        }
+    }
+
+    /**
+     * Returns the task stored in the specified record, decoding it if it is not in the cache.
+     */
+    private Task getRecord(int recordIndex) {
+        Task task = cache.get(recordIndex);
+        if (task == null) {
+            task = decodeRecord(recordIndex);
+            cache.put(recordIndex, task);
+        }
+        return task;
+    }
+
+    private Task decodeRecord(int recordIndex) {
+        try {
+            // Absolute reads only, since the buffer is shared with the copies of this list
+            int position = buffer.getInt(positionsStart + recordIndex * Integer.BYTES);
+            ByteBuffer record = buffer.duplicate();
+            record.limit(positionsStart).position(position);
+            return BinaryTaskListStorage.readTask(record, labelIds);
+        } catch (DataConversionException | BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid task record at index " + recordIndex, ex);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package vimification.storage;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.Map;
+
+import vimification.model.TaskListIndex;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+
+/**
+ * An index backed by the content of an index file written by {@link IndexedTaskListStorage}.
+ * <p>
+ * Only the table of the postings is decoded when the index is created. Each posting is decoded
+ * when it is queried, directly from the buffer, which is never modified. Hence, an instance can be
+ * queried by several threads.
+ */
+class MappedTaskListIndex implements TaskListIndex {
+
+    /**
+     * The number of bytes used to store each deadline.
+     */
+    static final int DEADLINE_BYTES = Long.BYTES + Integer.BYTES;
+
+    private static final int NO_POSTING = -1;
+
+    private final ByteBuffer buffer;
+    private final int taskCount;
+    private final Map<String, Integer> labelPostings;
+    private final int[] statusPostings;
+    private final int[] priorityPostings;
+    private final int deadlinePosting;
+    private final int deadlines;
+
+    /**
+     * Creates a new index over the specified buffer. Each posting is stored at its position as the
+     * number of tasks, followed by the position of each task.
+     *
+     * @param buffer the content of the index file
+     * @param taskCount the number of indexed tasks
+     * @param labelPostings the position of the posting of each label
+     * @param statusPostings the position of the posting of each status, by ordinal
+     * @param priorityPostings the position of the posting of each priority, by ordinal
+     * @param deadlinePosting the position of the deadline order
+     * @param deadlines the position of the deadlines, in the deadline order
+     */
+    MappedTaskListIndex(ByteBuffer buffer, int taskCount, Map<String, Integer> labelPostings,
+            int[] statusPostings, int[] priorityPostings, int deadlinePosting, int deadlines) {
+        this.buffer = buffer;
+        this.taskCount = taskCount;
+        this.labelPostings = labelPostings;
+        this.statusPostings = statusPostings;
+        this.priorityPostings = priorityPostings;
+        this.deadlinePosting = deadlinePosting;
+        this.deadlines = deadlines;
+    }
+
+    @Override
+    public int size() {
+        return taskCount;
+    }
+
+    @Override
+    public BitSet getTasksWithLabel(String label) {
+        return readPostingBits(labelPostings.getOrDefault(label.toLowerCase(), NO_POSTING));
+    }
+
+    @Override
+    public BitSet getTasksWithStatus(Status status) {
+        return readPostingBits(statusPostings[status.ordinal()]);
+    }
+
+    @Override
+    public BitSet getTasksWithPriority(Priority priority) {
+        return readPostingBits(priorityPostings[priority.ordinal()]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The range is found by binary search over the deadlines, so only the matching tasks are read.
+     */
+    @Override
+    public BitSet getTasksWithDeadlineBetween(LocalDateTime after, LocalDateTime before) {
+        int count = buffer.getInt(deadlines);
+        int from = after == null ? 0 : findFirstDeadline(after, false, count);
+        int to = before == null ? count : findFirstDeadline(before, true, count);
+        BitSet bits = new BitSet(taskCount);
+        for (int i = from; i < to; i++) {
+            bits.set(buffer.getInt(deadlinePosting + (i + 1) * Integer.BYTES));
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the position in the deadline order of the first deadline after {@code date}, or
+     * not before {@code date} if {@code isInclusive} is true.
+     */
+    private int findFirstDeadline(LocalDateTime date, boolean isInclusive, int count) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = readDeadline(middle).compareTo(date);
+            if (comparison > 0 || (isInclusive && comparison == 0)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private LocalDateTime readDeadline(int i) {
+        int position = deadlines + Integer.BYTES + i * DEADLINE_BYTES;
+        return LocalDateTime.ofEpochSecond(buffer.getLong(position),
+                buffer.getInt(position + Long.BYTES), ZoneOffset.UTC);
+    }
+
+    @Override
+    public int[] getTasksByDeadline() {
+        return readPosting(deadlinePosting);
+    }
+
+    private BitSet readPostingBits(int position) {
+        BitSet bits = new BitSet(taskCount);
+        for (int taskPosition : readPosting(position)) {
+            bits.set(taskPosition);
+        }
+        return bits;
+    }
+
+    private int[] readPosting(int position) {
+        if (position == NO_POSTING) {
+            return new int[0];
+        }
+        // Absolute reads only, since the buffer is shared between threads
+        int[] taskPositions = new int[buffer.getInt(position)];
+        for (int i = 0; i < taskPositions.length; i++) {
+            taskPositions[i] = buffer.getInt(position + (i + 1) * Integer.BYTES);
+        }
+        return taskPositions;
+    }
+}
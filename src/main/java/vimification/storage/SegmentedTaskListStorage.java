@@ -0,0 +1,336 @@
+package vimification.storage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.core.StorageFormat;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.JsonUtil;
+import vimification.common.util.StringUtil;
+import vimification.model.TaskList;
+import vimification.model.TaskListDiff;
+import vimification.model.task.Task;
+import vimification.storage.JsonAdaptedSegmentManifest.JsonAdaptedSegment;
+
+/**
+ * One implementation of {@link TaskListStorage}, which splits the task list into segments, each of
+ * them stored in its own JSON file, and lists the segments in a manifest.
+ * <p>
+ * Each time the task list is saved, only the segments that contain modified tasks are rewritten,
+ * together with the manifest. The modified segments are found by comparing the task list with the
+ * previously saved one, so the cost of a save is proportional to the size of a segment, and not to
+ * the size of the list. Segments do not have a fixed range of indices, so inserting or deleting a
+ * task only affects the segment that contains it.
+ * <p>
+ * Segment files are never overwritten. Modified segments are written to new files, which replace
+ * the old ones when the manifest is replaced, and the old files are deleted afterwards. Hence, a
+ * crash in the middle of a save leaves either the old or the new version of the task list, plus
+ * some unused segment files that are deleted on the next read.
+ * <p>
+ * When the task list is read again, for example after another program modified it, the segments
+ * that were already read or written are not read again, unless their files have been modified.
+ */
+public class SegmentedTaskListStorage implements TaskListStorage {
+
+    /**
+     * The maximum number of tasks in a segment, unless specified otherwise.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1000;
+
+    private static final Logger LOGGER = LogsCenter.getLogger(SegmentedTaskListStorage.class);
+    private static final String MANIFEST_FILE_NAME = "manifest.json";
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_EXTENSION = ".json";
+
+    private final Path directory;
+    private final Path manifestPath;
+    private final boolean shouldSync;
+    private final StorageFormat format;
+    private final int segmentSize;
+
+    private List<Task> persistedTasks = null;
+    private List<JsonAdaptedSegment> persistedSegments = null;
+    private String persistedManifest = null;
+    private Map<Long, String> segmentFingerprints = new HashMap<>();
+    private long nextSegmentId = 0;
+
+    /**
+     * Creates a new instance, which stores the task list in the specified directory.
+     *
+     * @param directory the directory containing the manifest and the segments
+     * @param shouldSync whether the data files should be forced to the disk on every save
+     * @param format the format used to write the segments
+     * @param segmentSize the maximum number of tasks in a segment
+     */
+    public SegmentedTaskListStorage(Path directory, boolean shouldSync, StorageFormat format,
+            int segmentSize) {
+        this.directory = directory;
+        this.manifestPath = directory.resolve(MANIFEST_FILE_NAME);
+        this.shouldSync = shouldSync;
+        this.format = format;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns the file path of the manifest.
+     *
+     * @return the file path of the manifest
+     */
+    @Override
+    public Path getTaskListFilePath() {
+        return manifestPath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList readTaskList() throws DataConversionException, IOException {
+        Map<Long, List<Task>> knownSegments = getPersistedSegmentTasks();
+        Map<Long, String> knownFingerprints = segmentFingerprints;
+        persistedTasks = null;
+        persistedSegments = null;
+        segmentFingerprints = new HashMap<>();
+        JsonAdaptedSegmentManifest manifest =
+                JsonUtil.readJsonFile(manifestPath, JsonAdaptedSegmentManifest.class);
+        List<Task> tasks = new ArrayList<>();
+        long maxSegmentId = -1;
+        int reusedCount = 0;
+        for (JsonAdaptedSegment segment : manifest.getSegments()) {
+            String fingerprint = FileUtil.getFingerprint(getSegmentPath(segment.getId()));
+            List<Task> segmentTasks = knownSegments.get(segment.getId());
+            if (segmentTasks != null && segmentTasks.size() == segment.getSize()
+                    && Objects.equals(fingerprint, knownFingerprints.get(segment.getId()))) {
+                reusedCount++;
+            } else {
+                segmentTasks = readSegment(segment);
+            }
+            segmentFingerprints.put(segment.getId(), fingerprint);
+            tasks.addAll(segmentTasks);
+            maxSegmentId = Math.max(maxSegmentId, segment.getId());
+        }
+        if (reusedCount > 0) {
+            LOGGER.fine("Read " + (manifest.getSegments().size() - reusedCount)
+                    + " modified segments, reused " + reusedCount + " segments");
+        }
+        nextSegmentId = Math.max(manifest.getNextSegmentId(), maxSegmentId + 1);
+        persistedTasks = new ArrayList<>(tasks);
+        persistedSegments = new ArrayList<>(manifest.getSegments());
+        persistedManifest = FileUtil.getFingerprint(manifestPath);
+        deleteUnusedSegments();
+        return new TaskList(tasks);
+    }
+
+    /**
+     * Returns the tasks of each segment that was last read or written, by segment id.
+     */
+    private Map<Long, List<Task>> getPersistedSegmentTasks() {
+        Map<Long, List<Task>> segmentTasks = new HashMap<>();
+        if (persistedTasks == null) {
+            return segmentTasks;
+        }
+        int start = 0;
+        for (JsonAdaptedSegment segment : persistedSegments) {
+            int end = start + segment.getSize();
+            segmentTasks.put(segment.getId(), persistedTasks.subList(start, end));
+            start = end;
+        }
+        return segmentTasks;
+    }
+
+    private List<Task> readSegment(JsonAdaptedSegment segment)
+            throws DataConversionException, IOException {
+        List<Task> segmentTasks;
+        try {
+            segmentTasks = getSegmentStorage(segment.getId()).readTaskList().getLogicSource();
+        } catch (NoSuchFileException ex) {
+            throw new DataConversionException("Missing segment " + segment.getId(), ex);
+        } catch (DataConversionException ex) {
+            throw new DataConversionException("Invalid segment " + segment.getId(), ex);
+        }
+        if (segmentTasks.size() != segment.getSize()) {
+            throw new DataConversionException("Segment " + segment.getId() + " contains "
+                    + segmentTasks.size() + " tasks instead of " + segment.getSize());
+        }
+        return segmentTasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveTaskList(TaskList taskList) throws IOException {
+        List<Task> tasks = taskList.getLogicSource();
+        if (persistedTasks == null
+                || !Objects.equals(persistedManifest, FileUtil.getFingerprint(manifestPath))) {
+            saveAllSegments(tasks);
+            return;
+        }
+        TaskListDiff diff = TaskListDiff.between(persistedTasks, tasks);
+        if (diff.isEmpty()) {
+            return;
+        }
+        int from = diff.getFrom();
+        int to = from + diff.getRemovedCount();
+        // Finds the segments containing the modified range [from, to), or the last segment if
+        // tasks are appended to the end of the list
+        int firstSegment = 0;
+        int firstSegmentStart = 0;
+        while (firstSegment < persistedSegments.size() - 1
+                && from >= firstSegmentStart + persistedSegments.get(firstSegment).getSize()) {
+            firstSegmentStart += persistedSegments.get(firstSegment).getSize();
+            firstSegment++;
+        }
+        int lastSegment = firstSegment;
+        int lastSegmentEnd = firstSegmentStart;
+        if (!persistedSegments.isEmpty()) {
+            lastSegmentEnd += persistedSegments.get(firstSegment).getSize();
+            while (to > lastSegmentEnd) {
+                lastSegment++;
+                lastSegmentEnd += persistedSegments.get(lastSegment).getSize();
+            }
+        }
+        int newLastSegmentEnd = lastSegmentEnd + diff.getAddedTasks().size() - (to - from);
+        // Merges a segment that became too small with the next one, to avoid fragmentation
+        if (newLastSegmentEnd - firstSegmentStart < segmentSize / 2
+                && lastSegment + 1 < persistedSegments.size()) {
+            lastSegment++;
+            newLastSegmentEnd += persistedSegments.get(lastSegment).getSize();
+        }
+        List<JsonAdaptedSegment> segments = new ArrayList<>(persistedSegments);
+        List<JsonAdaptedSegment> oldSegments =
+                segments.subList(firstSegment, Math.min(lastSegment + 1, segments.size()));
+        List<JsonAdaptedSegment> replacedSegments = new ArrayList<>(oldSegments);
+        oldSegments.clear();
+        oldSegments.addAll(writeSegments(tasks.subList(firstSegmentStart, newLastSegmentEnd)));
+        writeManifest(segments);
+        deleteSegments(replacedSegments);
+        diff.applyTo(persistedTasks);
+        persistedSegments = segments;
+    }
+
+    /**
+     * Writes the whole task list into new segments, which replace all existing segments.
+     */
+    private void saveAllSegments(List<Task> tasks) throws IOException {
+        if (persistedSegments == null) {
+            // Never overwrites the segments of a task list that could not be read
+            nextSegmentId = Math.max(nextSegmentId, findMaxSegmentId() + 1);
+        }
+        List<JsonAdaptedSegment> replacedSegments =
+                persistedSegments == null ? List.of() : persistedSegments;
+        persistedTasks = null;
+        persistedSegments = null;
+        List<JsonAdaptedSegment> segments = writeSegments(tasks);
+        writeManifest(segments);
+        deleteSegments(replacedSegments);
+        persistedTasks = new ArrayList<>(tasks);
+        persistedSegments = segments;
+    }
+
+    /**
+     * Writes the tasks into new segments of at most {@code segmentSize} tasks. The tasks are
+     * spread evenly, so that a segment that has just been split can grow again before it needs to
+     * be split another time.
+     */
+    private List<JsonAdaptedSegment> writeSegments(List<Task> tasks) throws IOException {
+        List<JsonAdaptedSegment> segments = new ArrayList<>();
+        int segmentCount = (tasks.size() + segmentSize - 1) / segmentSize;
+        int start = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            int end = (int) ((long) tasks.size() * (i + 1) / segmentCount);
+            List<Task> segmentTasks = tasks.subList(start, end);
+            start = end;
+            long id = nextSegmentId++;
+            getSegmentStorage(id).saveTaskList(new TaskList(segmentTasks));
+            segmentFingerprints.put(id, FileUtil.getFingerprint(getSegmentPath(id)));
+            segments.add(new JsonAdaptedSegment(id, segmentTasks.size()));
+        }
+        return segments;
+    }
+
+    private void writeManifest(List<JsonAdaptedSegment> segments) throws IOException {
+        JsonUtil.saveJsonFile(new JsonAdaptedSegmentManifest(nextSegmentId, segments),
+                manifestPath, shouldSync);
+        persistedManifest = FileUtil.getFingerprint(manifestPath);
+    }
+
+    private void deleteSegments(List<JsonAdaptedSegment> segments) {
+        for (JsonAdaptedSegment segment : segments) {
+            segmentFingerprints.remove(segment.getId());
+            deleteSegmentFile(getSegmentPath(segment.getId()));
+        }
+    }
+
+    /**
+     * Deletes the segment files that are not listed in the manifest, which are left behind by an
+     * interrupted save.
+     */
+    private void deleteUnusedSegments() throws IOException {
+        Set<Path> usedPaths = new HashSet<>();
+        for (JsonAdaptedSegment segment : persistedSegments) {
+            usedPaths.add(getSegmentPath(segment.getId()));
+        }
+        for (Path path : listSegmentFiles()) {
+            if (!usedPaths.contains(path)) {
+                deleteSegmentFile(path);
+            }
+        }
+    }
+
+    private void deleteSegmentFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            LOGGER.warning("Failed to delete unused segment: " + StringUtil.getDetails(ex));
+        }
+    }
+
+    private long findMaxSegmentId() throws IOException {
+        long maxSegmentId = -1;
+        for (Path path : listSegmentFiles()) {
+            String fileName = path.getFileName().toString();
+            try {
+                maxSegmentId = Math.max(maxSegmentId, Long.parseLong(fileName.substring(
+                        SEGMENT_FILE_PREFIX.length(),
+                        fileName.length() - SEGMENT_FILE_EXTENSION.length())));
+            } catch (NumberFormatException ex) {
+                // Not a segment file
+            }
+        }
+        return maxSegmentId;
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return paths;
+        }
+        String pattern = SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_EXTENSION;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, pattern)) {
+            stream.forEach(paths::add);
+        }
+        return paths;
+    }
+
+    private Path getSegmentPath(long id) {
+        return directory.resolve(SEGMENT_FILE_PREFIX + id + SEGMENT_FILE_EXTENSION);
+    }
+
+    private TaskListStorage getSegmentStorage(long id) {
+        return new JsonTaskListStorage(getSegmentPath(id), shouldSync, format);
+    }
+}
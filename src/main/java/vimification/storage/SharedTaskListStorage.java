@@ -0,0 +1,333 @@
+package vimification.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.StringUtil;
+import vimification.model.TaskList;
+import vimification.model.TaskListDiff;
+import vimification.model.task.Task;
+
+/**
+ * One implementation of {@link TaskListStorage}, which allows several processes to read and write
+ * the same task list safely. The task list is read and written by another {@code TaskListStorage}.
+ * <p>
+ * Access to the task list is coordinated with a lock file next to the data file. The task list is
+ * read while holding a shared lock on the lock file, and written while holding an exclusive lock.
+ * The lock file also stores a change sequence number, which is incremented by each save. The lock
+ * file is memory-mapped, so that the sequence number can be checked cheaply.
+ * <p>
+ * If the sequence number has changed since the last read or save, the task list has been modified
+ * by another process. Before saving, the modifications of the other process are then read again
+ * with {@link TaskListStorage#refreshTaskList()}, and merged with the tasks being saved, see
+ * {@link TaskListDiff#merge(List, List, List)}. Where both modified the same tasks, the tasks
+ * being saved take precedence. If the merged tasks are the ones already stored, nothing is
+ * written. If the merged tasks differ from the tasks being saved, they are passed to the
+ * listener. Other processes can also be polled for modifications in the background.
+ */
+public class SharedTaskListStorage implements TaskListStorage {
+
+    /**
+     * The extension appended to the file name of the data file to get the lock file.
+     */
+    public static final String FILE_EXTENSION = ".lock";
+
+    private static final Logger LOGGER = LogsCenter.getLogger(SharedTaskListStorage.class);
+    private static final int MAGIC_NUMBER = 0x56494D4C; // "VIML"
+    private static final int LOCK_FILE_SIZE = 16;
+    private static final int SEQUENCE_POSITION = 8;
+    private static final long POLL_MILLIS = 250;
+
+    private final TaskListStorage storage;
+    private final Path lockPath;
+    private final boolean shouldSync;
+    private final Object lock = new Object();
+
+    private FileChannel lockChannel = null;
+    private MappedByteBuffer sequenceBuffer = null;
+    // The sequence number and the tasks of the last read or save
+    private long knownSequence = -1;
+    private List<Task> persistedTasks = null;
+    // The sequence number of the last modifications passed to the listener
+    private long deliveredSequence = -1;
+    private Consumer<? super List<Task>> listener = null;
+    private ScheduledExecutorService poller = null;
+
+    /**
+     * Creates a new instance, using the specified storage to read and write the task list.
+     *
+     * @param storage the storage used to read and write the task list
+     * @param shouldSync whether the sequence number should be forced to the disk after each save
+     */
+    public SharedTaskListStorage(TaskListStorage storage, boolean shouldSync) {
+        this.storage = storage;
+        this.shouldSync = shouldSync;
+        Path filePath = storage.getTaskListFilePath();
+        this.lockPath = Paths.get(filePath.toString() + FILE_EXTENSION);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getTaskListFilePath() {
+        return storage.getTaskListFilePath();
+    }
+
+    /**
+     * Returns the path to the lock file.
+     *
+     * @return the path to the lock file
+     */
+    public Path getLockFilePath() {
+        return lockPath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList readTaskList() throws DataConversionException, IOException {
+        synchronized (lock) {
+            FileLock fileLock = acquireLock(true);
+            try {
+                long sequence = getSequence();
+                TaskList taskList = storage.readTaskList();
+                knownSequence = sequence;
+                persistedTasks = new ArrayList<>(taskList.getLogicSource());
+                return taskList;
+            } finally {
+                fileLock.release();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readTaskList(Consumer<? super List<Task>> consumer)
+            throws DataConversionException, IOException {
+        synchronized (lock) {
+            FileLock fileLock = acquireLock(true);
+            try {
+                long sequence = getSequence();
+                List<Task> tasks = new ArrayList<>();
+                storage.readTaskList(batch -> {
+                    tasks.addAll(batch);
+                    consumer.accept(batch);
+                });
+                knownSequence = sequence;
+                persistedTasks = tasks;
+            } finally {
+                fileLock.release();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If another process has modified the task list since the last read or save, its
+     * modifications are merged with the tasks being saved.
+     */
+    @Override
+    public void saveTaskList(TaskList taskList) throws IOException {
+        List<Task> ours = taskList.getLogicSource();
+        List<Task> merged = null;
+        Consumer<? super List<Task>> currentListener;
+        synchronized (lock) {
+            FileLock fileLock = acquireLock(false);
+            try {
+                long sequence = getSequence();
+                List<Task> tasks = ours;
+                boolean isPersisted = false;
+                if (sequence != knownSequence && persistedTasks != null) {
+                    List<Task> theirs = readModifiedTasks();
+                    tasks = TaskListDiff.merge(persistedTasks, ours, theirs);
+                    // For example, when saving the tasks that were just polled
+                    isPersisted = TaskListDiff.between(theirs, tasks).isEmpty();
+                    LOGGER.info("Merged the task list with the modifications of another process");
+                } else if (persistedTasks != null
+                        && TaskListDiff.between(persistedTasks, ours).isEmpty()) {
+                    return;
+                }
+                if (!isPersisted) {
+                    storage.saveTaskList(tasks == ours ? taskList : new TaskList(tasks));
+                    sequence++;
+                    setSequence(sequence);
+                }
+                knownSequence = sequence;
+                deliveredSequence = knownSequence;
+                persistedTasks = new ArrayList<>(tasks);
+                if (!TaskListDiff.between(ours, tasks).isEmpty()) {
+                    merged = tasks;
+                }
+            } finally {
+                fileLock.release();
+            }
+            currentListener = listener;
+        }
+        if (merged != null && currentListener != null) {
+            currentListener.accept(merged);
+        }
+    }
+
+    private List<Task> readModifiedTasks() throws IOException {
+        try {
+            return storage.refreshTaskList().getLogicSource();
+        } catch (DataConversionException ex) {
+            throw new IOException("Cannot read the modifications of another process", ex);
+        }
+    }
+
+    /**
+     * Starts polling the sequence number in the background. Each time another process has saved
+     * the task list, the task list is read again and passed to {@code listener}, on the polling
+     * thread. The listener also receives the merged tasks, whenever a save had to merge the tasks
+     * being saved with the modifications of another process.
+     *
+     * @param listener receives the modified tasks
+     * @throws IOException if the lock file cannot be opened
+     */
+    public void startPolling(Consumer<? super List<Task>> listener) throws IOException {
+        synchronized (lock) {
+            if (poller != null) {
+                throw new IllegalStateException("Already polling " + lockPath);
+            }
+            openLockFile();
+            this.listener = listener;
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "task-list-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::poll, POLL_MILLIS, POLL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+        LOGGER.info("Polling " + lockPath + " for modifications by other processes");
+    }
+
+    /**
+     * Stops polling the sequence number, if it is polled.
+     */
+    public void stopPolling() {
+        synchronized (lock) {
+            if (poller == null) {
+                return;
+            }
+            poller.shutdownNow();
+            poller = null;
+            listener = null;
+        }
+    }
+
+    private void poll() {
+        List<Task> tasks;
+        Consumer<? super List<Task>> currentListener;
+        synchronized (lock) {
+            long sequence = getSequence();
+            if (sequence == knownSequence || sequence == deliveredSequence) {
+                return;
+            }
+            try {
+                FileLock fileLock = acquireLock(true);
+                try {
+                    sequence = getSequence();
+                    // Even if the task list cannot be read, it is not read again until it is saved
+                    deliveredSequence = sequence;
+                    long startTime = System.nanoTime();
+                    tasks = storage.refreshTaskList().getLogicSource();
+                    long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+                    LOGGER.info("Task list modified by another process, read " + tasks.size()
+                            + " tasks in " + elapsedMillis + " ms");
+                } finally {
+                    fileLock.release();
+                }
+            } catch (DataConversionException | IOException | RuntimeException ex) {
+                // Any exception thrown from here would stop the polling for good
+                LOGGER.warning("Ignored modified task list: " + StringUtil.getDetails(ex));
+                return;
+            }
+            // The tasks are not known to be persisted by this instance until they are saved, so
+            // that the next save still merges with the tasks it started from
+            currentListener = listener;
+        }
+        if (currentListener != null) {
+            currentListener.accept(tasks);
+        }
+    }
+
+    /**
+     * Acquires a lock on the lock file, waiting until it is available. Must be called while
+     * holding the lock, since a process cannot hold overlapping locks on the same file.
+     */
+    private FileLock acquireLock(boolean isShared) throws IOException {
+        openLockFile();
+        return lockChannel.lock(0, Long.MAX_VALUE, isShared);
+    }
+
+    /**
+     * Opens and maps the lock file, initializing it if it is new. Must be called while holding
+     * the lock.
+     */
+    private void openLockFile() throws IOException {
+        if (lockChannel != null) {
+            return;
+        }
+        FileUtil.createParentDirectoriesIfMissing(lockPath);
+        FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock fileLock = channel.lock();
+            try {
+                if (channel.size() < LOCK_FILE_SIZE) {
+                    ByteBuffer header = ByteBuffer.allocate(LOCK_FILE_SIZE).putInt(MAGIC_NUMBER);
+                    header.flip();
+                    channel.write(header, 0);
+                    channel.force(true);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        LOCK_FILE_SIZE);
+                if (buffer.getInt(0) != MAGIC_NUMBER) {
+                    throw new IOException(lockPath + " is not a lock file");
+                }
+                lockChannel = channel;
+                sequenceBuffer = buffer;
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            if (lockChannel == null) {
+                channel.close();
+            }
+        }
+    }
+
+    private long getSequence() {
+        return sequenceBuffer.getLong(SEQUENCE_POSITION);
+    }
+
+    private void setSequence(long sequence) {
+        sequenceBuffer.putLong(SEQUENCE_POSITION, sequence);
+        if (shouldSync) {
+            sequenceBuffer.force();
+        }
+    }
+}
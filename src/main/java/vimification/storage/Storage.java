@@ -1,7 +1,29 @@
 package vimification.storage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * API of the {@code Storage} component.
  */
 public interface Storage extends UserPrefsStorage, TaskListStorage, MacroMapStorage {
+
+    /**
+     * Makes sure that all data saved so far has been written to the storage. This method should be
+     * called before the application exits.
+     *
+     * @throws IOException if there was any problem writing to the files.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Returns the {@link TaskListSync} that synchronizes the task list of this storage with the
+     * specified sync directory. Its sync state is kept next to the data file of the task list.
+     * The same instance is returned for the same directory, so that it keeps its sync state in
+     * memory between syncs.
+     *
+     * @param directory the sync directory
+     * @return the {@code TaskListSync} of the directory
+     */
+    TaskListSync getTaskListSync(Path directory);
 }
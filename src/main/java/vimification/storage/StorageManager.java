@@ -2,11 +2,16 @@ package vimification.storage;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import vimification.common.exceptions.DataConversionException;
 import vimification.model.MacroMap;
 import vimification.model.TaskList;
 import vimification.model.UserPrefs;
+import vimification.model.task.Task;
 
 /**
  * Reads and writes data of the application's entities from local storage.
@@ -16,17 +21,24 @@ public class StorageManager implements Storage {
     private TaskListStorage taskListStorage;
     private MacroMapStorage macroMapStorage;
     private UserPrefsStorage userPrefsStorage;
+    private boolean shouldSync;
+    private final Map<Path, TaskListSync> syncs = new HashMap<>();
 
     /**
      * Creates a new {@code StorageManager}.
+     *
+     * @param shouldSync whether the files written next to the data files, such as the sync
+     *         states, should be forced to the disk
      */
     public StorageManager(
             TaskListStorage taskListStorage,
             MacroMapStorage macroMapStorage,
-            UserPrefsStorage userPrefsStorage) {
+            UserPrefsStorage userPrefsStorage,
+            boolean shouldSync) {
         this.taskListStorage = taskListStorage;
         this.macroMapStorage = macroMapStorage;
         this.userPrefsStorage = userPrefsStorage;
+        this.shouldSync = shouldSync;
     }
 
     /**
@@ -69,6 +81,15 @@ public class StorageManager implements Storage {
         return taskListStorage.readTaskList();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readTaskList(Consumer<? super List<Task>> consumer)
+            throws DataConversionException, IOException {
+        taskListStorage.readTaskList(consumer);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -100,4 +121,22 @@ public class StorageManager implements Storage {
     public void saveMacroMap(MacroMap macroMap) throws IOException {
         macroMapStorage.saveMacroMap(macroMap);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException {
+        // All data is written synchronously, nothing to do
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskListSync getTaskListSync(Path directory) {
+        return syncs.computeIfAbsent(directory.toAbsolutePath().normalize(),
+                absoluteDirectory -> new TaskListSync(absoluteDirectory, getTaskListFilePath(),
+                        shouldSync));
+    }
 }
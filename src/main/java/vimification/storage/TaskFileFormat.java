@@ -0,0 +1,49 @@
+package vimification.storage;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Formats of the files used to import and export tasks, which are read by {@link TaskFileReader}
+ * and written by {@link TaskFileWriter}.
+ */
+public enum TaskFileFormat {
+
+    /**
+     * Newline-delimited JSON, where each line is a task in the same format as the data file.
+     */
+    NDJSON(".ndjson", ".jsonl"),
+
+    /**
+     * Comma-separated values, with a header. Labels are separated by {@value #CSV_LABEL_SEPARATOR}.
+     */
+    CSV(".csv");
+
+    static final List<String> CSV_COLUMNS =
+            List.of("title", "status", "priority", "deadline", "labels");
+    static final String CSV_LABEL_SEPARATOR = ";";
+
+    private final List<String> extensions;
+
+    TaskFileFormat(String... extensions) {
+        this.extensions = List.of(extensions);
+    }
+
+    /**
+     * Returns the format of the specified file, according to its extension.
+     *
+     * @param path path to the file
+     * @return the format of the file, or an empty {@code Optional} if the format is not supported
+     */
+    public static Optional<TaskFileFormat> fromPath(Path path) {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (TaskFileFormat format : values()) {
+            if (format.extensions.stream().anyMatch(fileName::endsWith)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,236 @@
+package vimification.storage;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.JsonUtil;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+/**
+ * Reads tasks from a file in one of the {@link TaskFileFormat}, one record at a time.
+ * <p>
+ * An invalid record is reported by {@link #read()}, after which the reader moves on to the next
+ * record. CSV files must have a header with at least a {@code title} column. The other columns of
+ * {@link TaskFileFormat#CSV_COLUMNS} are optional, in any order, and other columns are ignored.
+ */
+public class TaskFileReader implements Closeable {
+
+    private static final int MISSING_COLUMN = -1;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final TaskFileFormat format;
+    private final BufferedReader reader;
+    private final int[] columns = new int[TaskFileFormat.CSV_COLUMNS.size()];
+
+    private int lineNumber = 0;
+    private int recordLineNumber = 0;
+
+    /**
+     * Opens the specified file. If the file is a CSV file, its header is read as well.
+     *
+     * @param path path to the file
+     * @param format format of the file
+     * @throws DataConversionException if the header of a CSV file is invalid
+     * @throws IOException if the file cannot be opened
+     */
+    public TaskFileReader(Path path, TaskFileFormat format)
+            throws DataConversionException, IOException {
+        this.format = format;
+        this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        try {
+            skipByteOrderMark();
+            if (format == TaskFileFormat.CSV) {
+                readCsvHeader();
+            }
+        } catch (DataConversionException | IOException ex) {
+            reader.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the line number where the last record read starts, starting from 1.
+     *
+     * @return the line number of the last record
+     */
+    public int getLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * Reads the next task.
+     *
+     * @return the next task, or null if there is no more task
+     * @throws DataConversionException if the next record is invalid, in which case the next call
+     *         reads the record after it
+     * @throws IOException if the file cannot be read
+     */
+    public Task read() throws DataConversionException, IOException {
+        return format == TaskFileFormat.CSV ? readCsvTask() : readJsonTask();
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        reader.mark(1);
+        if (reader.read() != BYTE_ORDER_MARK) {
+            reader.reset();
+        }
+    }
+
+    private Task readJsonTask() throws DataConversionException, IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        recordLineNumber = lineNumber;
+        try {
+            return JsonUtil.fromJsonString(line, Task.class);
+        } catch (JsonProcessingException ex) {
+            throw new DataConversionException(ex.getOriginalMessage(), ex);
+        }
+    }
+
+    private void readCsvHeader() throws DataConversionException, IOException {
+        List<String> header = readCsvRecord();
+        List<String> names = new ArrayList<>();
+        for (String name : header == null ? List.<String>of() : header) {
+            names.add(name.trim().toLowerCase(Locale.ROOT));
+        }
+        for (int i = 0; i < columns.length; i++) {
+            int column = names.indexOf(TaskFileFormat.CSV_COLUMNS.get(i));
+            columns[i] = column < 0 ? MISSING_COLUMN : column;
+        }
+        if (columns[0] == MISSING_COLUMN) {
+            throw new DataConversionException("The CSV header has no title column");
+        }
+    }
+
+    private Task readCsvTask() throws DataConversionException, IOException {
+        List<String> record;
+        do {
+            record = readCsvRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+        try {
+            String title = getField(record, 0);
+            String status = getField(record, 1);
+            String priority = getField(record, 2);
+            String deadline = getField(record, 3);
+            String labels = getField(record, 4);
+            return new Task(title,
+                    deadline.isBlank() ? null : parseDeadline(deadline.trim()),
+                    status.isBlank() ? Status.NOT_DONE : parseEnum(Status.class, status),
+                    priority.isBlank() ? Priority.UNKNOWN : parseEnum(Priority.class, priority),
+                    parseLabels(labels));
+        } catch (DateTimeParseException ex) {
+            throw new DataConversionException("Invalid deadline: " + ex.getParsedString(), ex);
+        } catch (RuntimeException ex) {
+            throw new DataConversionException(ex.getMessage(), ex);
+        }
+    }
+
+    private String getField(List<String> record, int columnIndex) {
+        int column = columns[columnIndex];
+        return column == MISSING_COLUMN || column >= record.size() ? "" : record.get(column);
+    }
+
+    private static LocalDateTime parseDeadline(String text) {
+        // Also accepts dates without time, which are common in spreadsheets
+        return text.length() == 10
+                ? LocalDate.parse(text).atStartOfDay()
+                : LocalDateTime.parse(text, JsonTaskSerializer.DEADLINE_FORMATTER);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> enumClass, String text) {
+        try {
+            return Enum.valueOf(enumClass, text.trim().toUpperCase(Locale.ROOT).replace(' ', '_'));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid " + enumClass.getSimpleName().toLowerCase(Locale.ROOT) + ": " + text);
+        }
+    }
+
+    private static List<String> parseLabels(String text) {
+        List<String> labels = new ArrayList<>();
+        for (String label : text.split(TaskFileFormat.CSV_LABEL_SEPARATOR)) {
+            if (!label.isBlank()) {
+                labels.add(label.trim());
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Reads the fields of the next CSV record. Quoted fields may contain commas, line breaks, and
+     * quotes written twice.
+     *
+     * @return the fields of the record, or null if there is no more record
+     */
+    private List<String> readCsvRecord() throws DataConversionException, IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        while (true) {
+            if (isQuoted) {
+                if (c == -1) {
+                    throw new DataConversionException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        isQuoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    lineNumber++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
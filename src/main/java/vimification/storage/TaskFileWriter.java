@@ -0,0 +1,85 @@
+package vimification.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import vimification.common.util.JsonUtil;
+import vimification.model.task.Task;
+
+/**
+ * Writes tasks to a stream in one of the {@link TaskFileFormat}, one record at a time. The
+ * records can be read back by {@link TaskFileReader}.
+ */
+public class TaskFileWriter {
+
+    private final TaskFileFormat format;
+    private final Writer writer;
+
+    /**
+     * Creates a new writer. If the format is CSV, the header is written as well.
+     *
+     * @param output the stream to write to, which is not closed by this writer
+     * @param format format of the records
+     * @throws IOException if the header cannot be written
+     */
+    public TaskFileWriter(OutputStream output, TaskFileFormat format) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == TaskFileFormat.CSV) {
+            writer.write(String.join(",", TaskFileFormat.CSV_COLUMNS));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Writes a task as a single record.
+     *
+     * @param task the task to write
+     * @throws IOException if the task cannot be written
+     */
+    public void write(Task task) throws IOException {
+        if (format == TaskFileFormat.NDJSON) {
+            writer.write(JsonUtil.toCompactJsonString(task));
+            writer.write('\n');
+            return;
+        }
+        LocalDateTime deadline = task.getDeadline();
+        writeCsvField(task.getTitle());
+        writer.write(',');
+        writeCsvField(task.getStatus().name());
+        writer.write(',');
+        writeCsvField(task.getPriority().name());
+        writer.write(',');
+        writeCsvField(deadline == null ? "" : JsonTaskSerializer.DEADLINE_FORMATTER.format(deadline));
+        writer.write(',');
+        writeCsvField(String.join(TaskFileFormat.CSV_LABEL_SEPARATOR, task.getLabels()));
+        writer.write('\n');
+    }
+
+    /**
+     * Writes all buffered records to the stream.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsvField(String field) throws IOException {
+        boolean needsQuotes = field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0
+                || !field.equals(field.trim());
+        if (!needsQuotes) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
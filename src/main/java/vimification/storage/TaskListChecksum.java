@@ -0,0 +1,29 @@
+package vimification.storage;
+
+import java.util.List;
+
+import vimification.model.task.Task;
+
+/**
+ * Computes checksums of task lists, which identify a version of a task list by its content.
+ */
+final class TaskListChecksum {
+
+    private TaskListChecksum() {}
+
+    /**
+     * Returns a checksum of the tasks, which only depends on their content and their order. It is
+     * built from {@link Task#getContentHash()}, so it is the same across different runs of the
+     * application.
+     *
+     * @param tasks the tasks
+     * @return the checksum of the tasks
+     */
+    static String of(List<Task> tasks) {
+        long checksum = 1;
+        for (Task task : tasks) {
+            checksum = 1_000_003 * checksum + task.getContentHash();
+        }
+        return tasks.size() + ":" + Long.toHexString(checksum);
+    }
+}
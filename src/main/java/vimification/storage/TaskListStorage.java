@@ -2,9 +2,12 @@ package vimification.storage;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
 
 import vimification.common.exceptions.DataConversionException;
 import vimification.model.TaskList;
+import vimification.model.task.Task;
 
 /**
  * Represents a storage for {@link TaskList}.
@@ -27,6 +30,32 @@ public interface TaskListStorage {
      */
     TaskList readTaskList() throws DataConversionException, IOException;
 
+    /**
+     * Reads the task list in batches, and passes each batch to {@code consumer} as soon as it is
+     * read, in the order of the task list. If an exception is thrown, some batches may already
+     * have been passed. By default, the whole task list is passed as a single batch.
+     *
+     * @param consumer receives the batches of tasks
+     * @throws DataConversionException if the data in storage is not in the expected format.
+     * @throws IOException if there was any problem when reading from the storage.
+     */
+    default void readTaskList(Consumer<? super List<Task>> consumer)
+            throws DataConversionException, IOException {
+        consumer.accept(readTaskList().getLogicSource());
+    }
+
+    /**
+     * Reads the task list again, after it may have been modified by another process. Storages that
+     * can read only the modifications made since the last read or save should override this. By
+     * default, the whole task list is read.
+     *
+     * @throws DataConversionException if the data in storage is not in the expected format.
+     * @throws IOException if there was any problem when reading from the storage.
+     */
+    default TaskList refreshTaskList() throws DataConversionException, IOException {
+        return readTaskList();
+    }
+
     /**
      * Save the given {@link TaskList} to the storage.
      *
@@ -0,0 +1,724 @@
+package vimification.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.JsonUtil;
+import vimification.model.LogicTaskList;
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+/**
+ * Synchronizes a task list with a sync directory, which stands for another replica of the task
+ * list, such as the task list on another computer.
+ * <p>
+ * The sync directory contains a change log, to which each replica appends the latest version of
+ * the tasks that it has modified, and a deletion mark for the tasks that it has deleted. Tasks are
+ * identified by their ids, see {@link Task#getId()}, and their versions by their content hashes,
+ * see {@link Task#getContentHash()}. Each replica keeps its own sync state next to its data file:
+ * the position in the change log up to which it has synced, and the content hash of each task at
+ * that sync point, together with the position of the record of that version.
+ * <p>
+ * A sync only reads the records appended to the change log since the sync point, and only appends
+ * the tasks whose content hash differs from the sync point. The sync state is kept in memory
+ * between syncs, so it is only read again if another program has written it. If the task list is
+ * a {@link TaskList} that has been synced before, only the tasks that it has modified since then
+ * are compared to the sync point, see {@link TaskList#getModifiedTasksSince(long)}. Otherwise,
+ * every task is compared. When a task has been modified on both
+ * sides, each field is merged against the version at the sync point. Fields modified on both
+ * sides keep the value of this replica, and labels are merged as sets. A task modified on one
+ * side and deleted on the other is kept.
+ * <p>
+ * The change log is locked while syncing, so that several replicas can sync with the same
+ * directory at the same time. The sync state is only written by {@link #commit()}, which should
+ * be called once the synced task list has been saved. Otherwise, after a crash, the sync state
+ * could contain tasks that are missing from the task list, which would be taken as deletions.
+ */
+public class TaskListSync {
+
+    /**
+     * The name of the change log in the sync directory.
+     */
+    public static final String LOG_FILE_NAME = "tasks.log";
+
+    /**
+     * The extension appended to the file name of the data file to get the directory of the sync
+     * states, which contains one sync state for each sync directory.
+     */
+    public static final String STATE_DIRECTORY_EXTENSION = ".sync";
+
+    private static final Logger LOGGER = LogsCenter.getLogger(TaskListSync.class);
+    private static final int MIN_COMPACTED_LINES = 1024;
+
+    private final Path logPath;
+    private final Path statePath;
+    private final boolean shouldSync;
+
+    // The sync state at the last sync point, and the size and modification time of its file
+    private SyncState state = null;
+    private long stateFileSize = -1;
+    private FileTime stateModifiedTime = null;
+    // The task list at the last sync point, and its version at that point
+    private TaskList syncedTaskList = null;
+    private long syncedVersion = 0;
+
+    private SyncState pendingState = null;
+    private Map<String, Entry> pendingUpdates = null;
+    private long pendingPosition = 0;
+    private TaskList pendingTaskList = null;
+    private long pendingVersion = 0;
+
+    /**
+     * Creates a new instance, which synchronizes the task list stored in the specified data file
+     * with the specified sync directory.
+     *
+     * @param directory the sync directory
+     * @param dataFilePath the path to the data file of the task list
+     * @param shouldSync whether the written files should be forced to the disk
+     */
+    public TaskListSync(Path directory, Path dataFilePath, boolean shouldSync) {
+        Path absoluteDirectory = directory.toAbsolutePath().normalize();
+        String stateName = UUID.nameUUIDFromBytes(
+                absoluteDirectory.toString().getBytes(StandardCharsets.UTF_8)) + ".state";
+        this.logPath = absoluteDirectory.resolve(LOG_FILE_NAME);
+        this.statePath = Paths.get(dataFilePath.toString() + STATE_DIRECTORY_EXTENSION)
+                .resolve(stateName);
+        this.shouldSync = shouldSync;
+    }
+
+    /**
+     * Synchronizes the task list with the sync directory. The modifications of the other replicas
+     * are applied to the task list, and the modifications of the task list are appended to the
+     * change log. If an exception is thrown, the task list is not modified.
+     *
+     * @param taskList the task list, which will be modified
+     * @return the result of the sync
+     * @throws DataConversionException if the change log or the sync state is invalid
+     * @throws IOException if the change log or the sync state cannot be read or written
+     */
+    public Result sync(LogicTaskList taskList) throws DataConversionException, IOException {
+        long startTime = System.nanoTime();
+        SyncState state = readState();
+        FileUtil.createParentDirectoriesIfMissing(logPath);
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Released when the channel is closed
+            channel.lock();
+            List<Change> header = readChanges(channel, 0, 1);
+            String logId;
+            long headerEnd;
+            if (header.isEmpty()) {
+                logId = UUID.randomUUID().toString();
+                String line = encode(JsonAdaptedSyncRecord.ofLog(logId));
+                write(channel, 0, line);
+                headerEnd = line.getBytes(StandardCharsets.UTF_8).length;
+            } else {
+                logId = header.get(0).record.getLog();
+                headerEnd = header.get(0).end;
+                if (logId == null) {
+                    throw new DataConversionException("Not a change log: " + logPath);
+                }
+            }
+            if (!logId.equals(state.logId)) {
+                // Never synced with this change log, so every task counts as modified
+                state = new SyncState();
+                state.logId = logId;
+                state.position = headerEnd;
+            }
+            Map<String, Change> changes = new LinkedHashMap<>();
+            for (Change change : readChanges(channel, state.position, Integer.MAX_VALUE)) {
+                changes.put(change.record.getKey(), change);
+            }
+            long end = changes.isEmpty()
+                    ? state.position
+                    : getEnd(changes.values());
+            Merge merge = new Merge(channel, state, changes);
+            merge.run(getModifiedTasks(taskList, state));
+
+            // Appends the modifications of the task list, before modifying the task list
+            StringBuilder records = new StringBuilder();
+            long position = end;
+            for (JsonAdaptedSyncRecord record : merge.pushes) {
+                String line = encode(record);
+                merge.updates.put(record.getKey(),
+                        record.isDeletion() ? null : new Entry(record.getTask(), position));
+                records.append(line);
+                position += line.getBytes(StandardCharsets.UTF_8).length;
+            }
+            write(channel, end, records.toString());
+            end = position;
+
+            merge.apply(taskList);
+            pendingState = state;
+            pendingUpdates = merge.updates;
+            pendingPosition = end;
+            pendingTaskList = taskList instanceof TaskList ? (TaskList) taskList : null;
+            pendingVersion = pendingTaskList == null ? 0 : pendingTaskList.getVersion();
+            Result result = new Result(merge.replacements.size() + merge.removals.size()
+                    + merge.additions.size(), merge.pushes.size(), merge.conflictCount);
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            LOGGER.info("Synced with " + logPath + " in " + elapsedMillis + " ms: " + result);
+            return result;
+        }
+    }
+
+    /**
+     * Records the sync point of the last sync. Should be called once the synced task list has been
+     * saved. Does nothing if there is no sync to record.
+     *
+     * @throws IOException if the sync state cannot be written
+     */
+    public void commit() throws IOException {
+        if (pendingState == null) {
+            return;
+        }
+        SyncState committedState = pendingState;
+        pendingState = null;
+        // Forgotten until the write succeeds, since the write modifies the state
+        state = null;
+        committedState.position = pendingPosition;
+        committedState.write(statePath, pendingUpdates, shouldSync);
+        state = committedState;
+        stateFileSize = Files.size(statePath);
+        stateModifiedTime = Files.getLastModifiedTime(statePath);
+        syncedTaskList = pendingTaskList;
+        syncedVersion = pendingVersion;
+        pendingUpdates = null;
+        pendingTaskList = null;
+    }
+
+    /**
+     * Returns the sync state at the last sync point, which is only read from its file if it is
+     * not known yet, or if another program has written it since then.
+     */
+    private SyncState readState() throws DataConversionException, IOException {
+        boolean isUpToDate = state != null && FileUtil.isFileExists(statePath)
+                && Files.size(statePath) == stateFileSize
+                && Files.getLastModifiedTime(statePath).equals(stateModifiedTime);
+        if (!isUpToDate) {
+            state = null;
+            syncedTaskList = null;
+            SyncState readState = SyncState.read(statePath);
+            if (FileUtil.isFileExists(statePath)) {
+                stateFileSize = Files.size(statePath);
+                stateModifiedTime = Files.getLastModifiedTime(statePath);
+                state = readState;
+            }
+            return readState;
+        }
+        return state;
+    }
+
+    /**
+     * Returns the tasks to compare to the sync point, by key, with null for the tasks that have
+     * been removed. These are the tasks modified since the last sync if they are known, or else
+     * every task, together with the tasks of the sync point that are missing from the task list.
+     */
+    private Map<String, Task> getModifiedTasks(LogicTaskList taskList, SyncState state)
+            throws DataConversionException {
+        Map<UUID, Task> modifiedTasks = taskList == syncedTaskList && state == this.state
+                ? syncedTaskList.getModifiedTasksSince(syncedVersion)
+                : null;
+        // In the order of the task list, so that the pushed tasks are added in the same order
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        if (modifiedTasks != null) {
+            modifiedTasks.forEach((id, task) -> {
+                String key = id.toString();
+                // Tasks added and removed again since the last sync are not known to the others
+                if (task != null || state.entries.containsKey(key)) {
+                    tasks.put(key, task);
+                }
+            });
+            return tasks;
+        }
+        for (Task task : taskList.getLogicSource()) {
+            String key = task.getId().toString();
+            if (tasks.put(key, task) != null) {
+                throw new DataConversionException("Several tasks have the id " + key);
+            }
+        }
+        for (String key : state.entries.keySet()) {
+            if (!tasks.containsKey(key)) {
+                tasks.put(key, null);
+            }
+        }
+        return tasks;
+    }
+
+    private void write(FileChannel channel, long position, String content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        // Removes a partially written record, left by a replica that crashed while syncing
+        channel.truncate(position);
+        if (shouldSync) {
+            channel.force(true);
+        }
+    }
+
+    private static String encode(JsonAdaptedSyncRecord record) throws JsonProcessingException {
+        return JsonUtil.toCompactJsonString(record) + "\n";
+    }
+
+    private static long getEnd(Iterable<Change> changes) {
+        long end = 0;
+        for (Change change : changes) {
+            end = Math.max(end, change.end);
+        }
+        return end;
+    }
+
+    /**
+     * Reads up to {@code limit} complete records of the change log, starting at the specified
+     * position. A partially written record at the end of the change log is ignored.
+     */
+    private static List<Change> readChanges(FileChannel channel, long position, int limit)
+            throws DataConversionException, IOException {
+        long size = channel.size();
+        List<Change> changes = new ArrayList<>();
+        // The stream is not closed here, since that would close the channel
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Channels.newInputStream(channel.position(position)), StandardCharsets.UTF_8));
+        String line;
+        while (changes.size() < limit && (line = reader.readLine()) != null) {
+            long end = position + line.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (end > size) {
+                break;
+            }
+            changes.add(new Change(decode(line), position, end));
+            position = end;
+        }
+        return changes;
+    }
+
+    private static JsonAdaptedSyncRecord decode(String line) throws DataConversionException {
+        JsonAdaptedSyncRecord record;
+        try {
+            record = JsonUtil.fromJsonString(line, JsonAdaptedSyncRecord.class);
+        } catch (IOException ex) {
+            throw new DataConversionException("Invalid change log record: " + ex.getMessage(), ex);
+        }
+        Task task = record.getTask();
+        boolean isValid = record.getLog() != null || record.getKey() != null && (task == null
+                || Long.toHexString(task.getContentHash()).equals(record.getHash()));
+        if (!isValid) {
+            throw new DataConversionException("Corrupted change log record: " + line);
+        }
+        return record;
+    }
+
+    /**
+     * Merges the task list with the modifications of the other replicas. The task list itself is
+     * not modified, the modifications are collected instead.
+     */
+    private static class Merge {
+
+        private final FileChannel channel;
+        private final SyncState state;
+        private final Map<String, Change> changes;
+
+        // By key, applied to the task list once the merge is done
+        private final Map<String, Task> replacements = new LinkedHashMap<>();
+        private final Set<String> removals = new HashSet<>();
+        private final List<Task> additions = new ArrayList<>();
+        private final List<JsonAdaptedSyncRecord> pushes = new ArrayList<>();
+        // The new entries of the sync state, null for the removed entries
+        private final Map<String, Entry> updates = new LinkedHashMap<>();
+        private int conflictCount = 0;
+
+        private Merge(FileChannel channel, SyncState state, Map<String, Change> changes) {
+            this.channel = channel;
+            this.state = state;
+            this.changes = changes;
+        }
+
+        /**
+         * Merges the specified tasks, which are the tasks of the task list that may have been
+         * modified since the sync point, with null for the removed tasks. The other tasks of the
+         * sync point must not have been modified.
+         */
+        private void run(Map<String, Task> modifiedTasks)
+                throws DataConversionException, IOException {
+            for (Map.Entry<String, Task> entry : modifiedTasks.entrySet()) {
+                if (entry.getValue() == null) {
+                    mergeRemovedTask(entry.getKey());
+                } else {
+                    mergeTask(entry.getKey(), entry.getValue());
+                }
+            }
+            for (Change change : changes.values()) {
+                String key = change.record.getKey();
+                if (modifiedTasks.containsKey(key)) {
+                    continue;
+                }
+                Entry base = state.entries.get(key);
+                if (base == null) {
+                    if (!change.record.isDeletion()) {
+                        additions.add(change.record.getTask());
+                        updates.put(key, new Entry(change.record.getTask(), change.position));
+                    }
+                } else if (change.record.isDeletion()) {
+                    removals.add(key);
+                    updates.put(key, null);
+                } else {
+                    // Not modified here since the sync point, so their version is kept
+                    Task theirs = change.record.getTask();
+                    if (theirs.getContentHash() != base.hash) {
+                        replacements.put(key, theirs);
+                    }
+                    updates.put(key, new Entry(theirs, change.position));
+                }
+            }
+        }
+
+        private void mergeRemovedTask(String key) {
+            Change change = changes.get(key);
+            if (change == null) {
+                pushes.add(JsonAdaptedSyncRecord.ofDeletion(key));
+            } else if (change.record.isDeletion()) {
+                updates.put(key, null);
+            } else {
+                // Deleted here, but modified by another replica
+                additions.add(change.record.getTask());
+                updates.put(key, new Entry(change.record.getTask(), change.position));
+            }
+        }
+
+        private void mergeTask(String key, Task task)
+                throws DataConversionException, IOException {
+            long hash = task.getContentHash();
+            Entry base = state.entries.get(key);
+            boolean isModified = base == null || base.hash != hash;
+            Change change = changes.get(key);
+            if (change == null) {
+                if (isModified) {
+                    pushes.add(JsonAdaptedSyncRecord.ofTask(key, task));
+                }
+                return;
+            }
+            if (change.record.isDeletion()) {
+                if (isModified) {
+                    // Modified here, but deleted by another replica
+                    pushes.add(JsonAdaptedSyncRecord.ofTask(key, task));
+                } else {
+                    removals.add(key);
+                    updates.put(key, null);
+                }
+                return;
+            }
+            Task theirs = change.record.getTask();
+            long theirHash = theirs.getContentHash();
+            if (theirHash == hash) {
+                updates.put(key, new Entry(theirs, change.position));
+                return;
+            }
+            Task merged = isModified ? mergeFields(readTask(base), task, theirs) : theirs;
+            long mergedHash = merged.getContentHash();
+            if (mergedHash == theirHash) {
+                replacements.put(key, theirs);
+                updates.put(key, new Entry(theirs, change.position));
+                return;
+            }
+            if (mergedHash != hash) {
+                replacements.put(key, merged);
+            }
+            pushes.add(JsonAdaptedSyncRecord.ofTask(key, merged));
+        }
+
+        /**
+         * Applies the merged modifications to the task list. The positions of the replaced and
+         * removed tasks are only looked up if there are any, comparing the ids of the tasks.
+         */
+        private void apply(LogicTaskList taskList) {
+            Map<UUID, Integer> positions = new HashMap<>();
+            if (!replacements.isEmpty() || !removals.isEmpty()) {
+                Set<UUID> ids = new HashSet<>();
+                replacements.keySet().forEach(key -> ids.add(UUID.fromString(key)));
+                removals.forEach(key -> ids.add(UUID.fromString(key)));
+                List<Task> tasks = taskList.getLogicSource();
+                for (int i = 0; i < tasks.size() && positions.size() < ids.size(); i++) {
+                    UUID id = tasks.get(i).getId();
+                    if (ids.contains(id)) {
+                        positions.put(id, i);
+                    }
+                }
+            }
+            List<Integer> removedPositions = new ArrayList<>();
+            removals.forEach(key -> removedPositions.add(positions.get(UUID.fromString(key))));
+            removedPositions.sort(null);
+            taskList.beginTransaction();
+            try {
+                replacements.forEach((key, task) ->
+                        taskList.set(positions.get(UUID.fromString(key)), task));
+                for (int i = removedPositions.size() - 1; i >= 0; i--) {
+                    taskList.remove((int) removedPositions.get(i));
+                }
+                if (!additions.isEmpty()) {
+                    taskList.addAll(additions);
+                }
+            } finally {
+                taskList.commitTransaction();
+            }
+        }
+
+        /**
+         * Reads the version of a task at the sync point, or returns null if it is unknown.
+         */
+        private Task readTask(Entry base) throws DataConversionException, IOException {
+            if (base == null) {
+                return null;
+            }
+            List<Change> records = readChanges(channel, base.position, 1);
+            Task task = records.isEmpty() ? null : records.get(0).record.getTask();
+            return task != null && task.getContentHash() == base.hash ? task : null;
+        }
+
+        /**
+         * Merges the fields of two versions of a task, against their common version. Fields
+         * modified in both versions keep the value of {@code ours}.
+         */
+        private Task mergeFields(Task base, Task ours, Task theirs) {
+            if (base == null) {
+                conflictCount++;
+                return ours;
+            }
+            Task merged = ours;
+            boolean hasConflict = false;
+            if (!Objects.equals(theirs.getTitle(), base.getTitle())) {
+                boolean isConflict = !Objects.equals(ours.getTitle(), base.getTitle());
+                merged = merged.withTitle(isConflict ? ours.getTitle() : theirs.getTitle());
+                hasConflict |= isConflict;
+            }
+            if (!Objects.equals(theirs.getDeadline(), base.getDeadline())) {
+                boolean isConflict = !Objects.equals(ours.getDeadline(), base.getDeadline());
+                merged = merged.withDeadline(
+                        isConflict ? ours.getDeadline() : theirs.getDeadline());
+                hasConflict |= isConflict;
+            }
+            if (theirs.getStatus() != base.getStatus()) {
+                boolean isConflict = ours.getStatus() != base.getStatus();
+                merged = merged.withStatus(isConflict ? ours.getStatus() : theirs.getStatus());
+                hasConflict |= isConflict;
+            }
+            if (theirs.getPriority() != base.getPriority()) {
+                boolean isConflict = ours.getPriority() != base.getPriority();
+                merged = merged.withPriority(
+                        isConflict ? ours.getPriority() : theirs.getPriority());
+                hasConflict |= isConflict;
+            }
+            // A label is kept if it is in both versions, or if it has been added to either
+            for (String label : ours.getLabels()) {
+                if (!theirs.getLabels().contains(label) && base.getLabels().contains(label)) {
+                    merged = merged.withLabelRemoved(label);
+                }
+            }
+            for (String label : theirs.getLabels()) {
+                if (!ours.getLabels().contains(label) && !base.getLabels().contains(label)) {
+                    merged = merged.withLabelAdded(label);
+                }
+            }
+            if (hasConflict) {
+                conflictCount++;
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * A record of the change log, together with its position.
+     */
+    private static class Change {
+
+        private final JsonAdaptedSyncRecord record;
+        private final long position;
+        private final long end;
+
+        private Change(JsonAdaptedSyncRecord record, long position, long end) {
+            this.record = record;
+            this.position = position;
+            this.end = end;
+        }
+    }
+
+    /**
+     * The content hash of a task at the sync point, and the position of the record of that
+     * version in the change log.
+     */
+    private static class Entry {
+
+        private final long hash;
+        private final long position;
+
+        private Entry(long hash, long position) {
+            this.hash = hash;
+            this.position = position;
+        }
+
+        private Entry(Task task, long position) {
+            this(task.getContentHash(), position);
+        }
+    }
+
+    /**
+     * The sync state of a task list with a sync directory.
+     * <p>
+     * The sync state is stored as lines of text. The first line, {@code log <id>}, identifies the
+     * change log. Each entry is stored as {@code <key> <hash> <position>}, or {@code <key> -} once
+     * it is removed, and each sync point as {@code at <position>}. Each sync appends its entries
+     * and its sync point, and the entries after the last sync point are ignored. When most lines
+     * are outdated, the sync state is rewritten with only the current entries.
+     */
+    private static class SyncState {
+
+        private String logId = null;
+        private long position = 0;
+        private final Map<String, Entry> entries = new HashMap<>();
+        private int lineCount = 0;
+
+        private static SyncState read(Path path) throws DataConversionException, IOException {
+            SyncState state = new SyncState();
+            if (!FileUtil.isFileExists(path)) {
+                return state;
+            }
+            String[] lines = FileUtil.readFromFile(path).split("\n", -1);
+            Map<String, Entry> updates = new HashMap<>();
+            // The last element is either empty, or a partially written line
+            for (int i = 0; i < lines.length - 1; i++) {
+                String[] fields = lines[i].split(" ");
+                try {
+                    if (fields[0].equals("log")) {
+                        state.logId = fields[1];
+                    } else if (fields[0].equals("at")) {
+                        state.position = Long.parseLong(fields[1]);
+                        updates.forEach(state::update);
+                        updates.clear();
+                    } else if (fields[1].equals("-")) {
+                        updates.put(fields[0], null);
+                    } else {
+                        updates.put(fields[0], new Entry(Long.parseUnsignedLong(fields[1], 16),
+                                Long.parseLong(fields[2])));
+                    }
+                } catch (IndexOutOfBoundsException | NumberFormatException ex) {
+                    throw new DataConversionException("Invalid sync state at line " + (i + 1));
+                }
+            }
+            state.lineCount = lines.length - 1;
+            return state;
+        }
+
+        private void update(String key, Entry entry) {
+            if (entry == null) {
+                entries.remove(key);
+            } else {
+                entries.put(key, entry);
+            }
+        }
+
+        private void write(Path path, Map<String, Entry> updates, boolean shouldSync)
+                throws IOException {
+            boolean isNew = lineCount == 0;
+            updates.forEach(this::update);
+            int newLineCount = lineCount + updates.size() + 1;
+            FileUtil.createParentDirectoriesIfMissing(path);
+            if (isNew || newLineCount > Math.max(2 * entries.size(), MIN_COMPACTED_LINES)) {
+                StringBuilder content = new StringBuilder("log ").append(logId).append('\n');
+                entries.forEach((key, entry) -> appendEntry(content, key, entry));
+                content.append("at ").append(position).append('\n');
+                FileUtil.writeToFile(path, content.toString(), shouldSync);
+                lineCount = entries.size() + 2;
+            } else {
+                StringBuilder content = new StringBuilder();
+                updates.forEach((key, entry) -> appendEntry(content, key, entry));
+                content.append("at ").append(position).append('\n');
+                FileUtil.appendToFile(path, content.toString(), shouldSync);
+                lineCount = newLineCount;
+            }
+        }
+
+        private static void appendEntry(StringBuilder content, String key, Entry entry) {
+            content.append(key).append(' ');
+            if (entry == null) {
+                content.append('-');
+            } else {
+                content.append(Long.toHexString(entry.hash)).append(' ').append(entry.position);
+            }
+            content.append('\n');
+        }
+    }
+
+    /**
+     * The result of a sync.
+     */
+    public static class Result {
+
+        private final int receivedCount;
+        private final int sentCount;
+        private final int conflictCount;
+
+        private Result(int receivedCount, int sentCount, int conflictCount) {
+            this.receivedCount = receivedCount;
+            this.sentCount = sentCount;
+            this.conflictCount = conflictCount;
+        }
+
+        /**
+         * Returns the number of tasks of the task list that have been added, replaced or removed.
+         *
+         * @return the number of received modifications
+         */
+        public int getReceivedCount() {
+            return receivedCount;
+        }
+
+        /**
+         * Returns the number of records appended to the change log.
+         *
+         * @return the number of sent modifications
+         */
+        public int getSentCount() {
+            return sentCount;
+        }
+
+        /**
+         * Returns the number of tasks with fields modified on both sides, where the fields kept
+         * the values of the task list.
+         *
+         * @return the number of conflicting tasks
+         */
+        public int getConflictCount() {
+            return conflictCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Result [receivedCount=" + receivedCount + ", sentCount=" + sentCount
+                    + ", conflictCount=" + conflictCount + "]";
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package vimification.storage;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.StringUtil;
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+/**
+ * One implementation of {@link TaskListStorage}, which watches the data file for modifications
+ * made by other programs. The task list is read and written by another {@code TaskListStorage}.
+ * <p>
+ * When the data file is modified by another program, the task list is read again and passed to a
+ * listener. The modifications made by this storage itself are recognized by the fingerprint of
+ * the data file, and ignored. Since programs often write a file in several steps, the task list is
+ * only read once the data file has not been modified for a short while. A data file that cannot
+ * be read (for example, because it is only partially written) is ignored until it is modified
+ * again.
+ */
+public class WatchedTaskListStorage implements TaskListStorage {
+
+    /**
+     * The time the data file must not be modified for, before it is read again.
+     */
+    static final long SETTLE_MILLIS = 200;
+
+    private static final Logger LOGGER = LogsCenter.getLogger(WatchedTaskListStorage.class);
+
+    private final TaskListStorage storage;
+    private final Object lock = new Object();
+
+    private String knownFingerprint = null;
+    private WatchService watchService = null;
+
+    /**
+     * Creates a new instance, using the specified storage to read and write the task list.
+     *
+     * @param storage the storage used to read and write the task list
+     */
+    public WatchedTaskListStorage(TaskListStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getTaskListFilePath() {
+        return storage.getTaskListFilePath();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList readTaskList() throws DataConversionException, IOException {
+        synchronized (lock) {
+            String fingerprint = FileUtil.getFingerprint(getTaskListFilePath());
+            TaskList taskList = storage.readTaskList();
+            knownFingerprint = fingerprint;
+            return taskList;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readTaskList(Consumer<? super List<Task>> consumer)
+            throws DataConversionException, IOException {
+        synchronized (lock) {
+            String fingerprint = FileUtil.getFingerprint(getTaskListFilePath());
+            storage.readTaskList(consumer);
+            knownFingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveTaskList(TaskList taskList) throws IOException {
+        synchronized (lock) {
+            storage.saveTaskList(taskList);
+            knownFingerprint = FileUtil.getFingerprint(getTaskListFilePath());
+        }
+    }
+
+    /**
+     * Starts watching the data file in the background. Each time it is modified by another
+     * program, the task list is read again and passed to {@code listener}, on the watching thread.
+     *
+     * @param listener receives the tasks read from the modified data file
+     * @throws IOException if the data file cannot be watched
+     */
+    public void startWatching(Consumer<? super List<Task>> listener) throws IOException {
+        Path filePath = getTaskListFilePath().toAbsolutePath();
+        Path directory = filePath.getParent();
+        FileUtil.createParentDirectoriesIfMissing(filePath);
+        synchronized (lock) {
+            if (watchService != null) {
+                throw new IllegalStateException("Already watching " + filePath);
+            }
+            watchService = directory.getFileSystem().newWatchService();
+            // Files are replaced atomically, which is reported as the creation of a new file
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        }
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> watch(service, filePath, listener), "task-list-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        LOGGER.info("Watching " + filePath + " for modifications");
+    }
+
+    /**
+     * Stops watching the data file, if it is watched.
+     */
+    public void stopWatching() {
+        synchronized (lock) {
+            if (watchService == null) {
+                return;
+            }
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                LOGGER.warning("Failed to stop watching: " + StringUtil.getDetails(ex));
+            }
+            watchService = null;
+        }
+    }
+
+    private void watch(WatchService service, Path filePath,
+            Consumer<? super List<Task>> listener) {
+        Path fileName = filePath.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean isModified = key.pollEvents().stream()
+                        .anyMatch(event -> fileName.equals(event.context()));
+                if (!key.reset()) {
+                    LOGGER.warning("Stopped watching, the directory is no longer accessible");
+                    return;
+                }
+                if (isModified) {
+                    awaitSettled(service, fileName);
+                    reload(filePath, listener);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // Stopped watching
+        }
+    }
+
+    /**
+     * Waits until the data file has not been modified for {@link #SETTLE_MILLIS}.
+     */
+    private void awaitSettled(WatchService service, Path fileName) throws InterruptedException {
+        boolean isModified = true;
+        while (isModified) {
+            Thread.sleep(SETTLE_MILLIS);
+            isModified = false;
+            for (WatchKey key = service.poll(); key != null; key = service.poll()) {
+                isModified |= key.pollEvents().stream()
+                        .anyMatch(event -> fileName.equals(event.context()));
+                key.reset();
+            }
+        }
+    }
+
+    private void reload(Path filePath, Consumer<? super List<Task>> listener) {
+        List<Task> tasks;
+        synchronized (lock) {
+            try {
+                String fingerprint = FileUtil.getFingerprint(filePath);
+                if (fingerprint == null || fingerprint.equals(knownFingerprint)) {
+                    return;
+                }
+                // Even if the file cannot be read, it is not read again until it is modified
+                knownFingerprint = fingerprint;
+                long startTime = System.nanoTime();
+                tasks = storage.readTaskList().getLogicSource();
+                long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+                LOGGER.info("Data file modified externally, read " + tasks.size()
+                        + " tasks in " + elapsedMillis + " ms");
+            } catch (DataConversionException | IOException ex) {
+                LOGGER.warning("Ignored modified data file: " + StringUtil.getDetails(ex));
+                return;
+            }
+        }
+        listener.accept(tasks);
+    }
+}
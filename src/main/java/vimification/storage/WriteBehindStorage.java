@@ -0,0 +1,244 @@
+package vimification.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import vimification.common.core.LogsCenter;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.StringUtil;
+import vimification.model.MacroMap;
+import vimification.model.TaskList;
+import vimification.model.UserPrefs;
+import vimification.model.task.Task;
+
+/**
+ * One implementation of {@link Storage}, which writes the task list and the macro map in the
+ * background.
+ * <p>
+ * Each save takes a snapshot of the data and hands it to a single writer thread. The writer waits
+ * for a short delay before writing, and only writes the latest snapshot, so a burst of saves is
+ * merged into a single write. A failed write is logged as soon as it happens, then reported by the
+ * next call to a save method, or to {@link #flush()}, and is retried by the next write. This
+ * includes unexpected runtime exceptions, which would otherwise be swallowed by the writer.
+ */
+public class WriteBehindStorage implements Storage {
+
+    private static final Logger LOGGER = LogsCenter.getLogger(WriteBehindStorage.class);
+    private static final long WRITE_DELAY_MILLIS = 100;
+
+    private final Storage storage;
+    private final ScheduledExecutorService writer;
+    private final Object lock = new Object();
+
+    private TaskList pendingTaskList = null;
+    private MacroMap pendingMacroMap = null;
+    private boolean isWriteScheduled = false;
+    private IOException writeFailure = null;
+
+    /**
+     * Creates a new {@code WriteBehindStorage}, which writes to the specified storage.
+     *
+     * @param storage the storage that actually writes the data
+     */
+    public WriteBehindStorage(Storage storage) {
+        this.storage = storage;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "storage-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getUserPrefsFilePath() {
+        return storage.getUserPrefsFilePath();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UserPrefs readUserPrefs() throws IOException {
+        return storage.readUserPrefs();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveUserPrefs(UserPrefs userPrefs) throws IOException {
+        storage.saveUserPrefs(userPrefs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getTaskListFilePath() {
+        return storage.getTaskListFilePath();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskList readTaskList() throws DataConversionException, IOException {
+        flush();
+        return storage.readTaskList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readTaskList(Consumer<? super List<Task>> consumer)
+            throws DataConversionException, IOException {
+        flush();
+        storage.readTaskList(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveTaskList(TaskList taskList) throws IOException {
+        TaskList snapshot = taskList.snapshot();
+        synchronized (lock) {
+            pendingTaskList = snapshot;
+            scheduleWrite();
+        }
+        throwIfWriteFailed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getMacroMapFilePath() {
+        return storage.getMacroMapFilePath();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MacroMap readMacroMap() throws IOException {
+        flush();
+        return storage.readMacroMap();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveMacroMap(MacroMap macroMap) throws IOException {
+        MacroMap snapshot = new MacroMap(macroMap.getMapping());
+        synchronized (lock) {
+            pendingMacroMap = snapshot;
+            scheduleWrite();
+        }
+        throwIfWriteFailed();
+    }
+
+    /**
+     * Writes all pending data immediately, and waits until the write is done.
+     *
+     * @throws IOException if there was any problem writing to the files, now or in a previous
+     *         background write
+     */
+    @Override
+    public void flush() throws IOException {
+        try {
+            writer.submit(this::writePendingData).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for pending writes", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Failed to write pending data", ex.getCause());
+        }
+        throwIfWriteFailed();
+        storage.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskListSync getTaskListSync(Path directory) {
+        return storage.getTaskListSync(directory);
+    }
+
+    /**
+     * Schedules a background write, unless one has already been scheduled. Must be called while
+     * holding the lock.
+     */
+    private void scheduleWrite() {
+        if (isWriteScheduled) {
+            return;
+        }
+        isWriteScheduled = true;
+        writer.schedule(this::writePendingData, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the latest snapshots. Only called by the writer thread.
+     */
+    private void writePendingData() {
+        TaskList taskList;
+        MacroMap macroMap;
+        synchronized (lock) {
+            taskList = pendingTaskList;
+            macroMap = pendingMacroMap;
+            pendingTaskList = null;
+            pendingMacroMap = null;
+            isWriteScheduled = false;
+        }
+        try {
+            if (taskList != null) {
+                storage.saveTaskList(taskList);
+            }
+            if (macroMap != null) {
+                storage.saveMacroMap(macroMap);
+            }
+            synchronized (lock) {
+                // The data of any previous failed write has been written as well
+                writeFailure = null;
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warning("Failed to write data in the background: " + StringUtil.getDetails(ex));
+            synchronized (lock) {
+                // Keeps the unsaved data, so that the next flush retries the write
+                if (pendingTaskList == null) {
+                    pendingTaskList = taskList;
+                }
+                if (pendingMacroMap == null) {
+                    pendingMacroMap = macroMap;
+                }
+                writeFailure = ex instanceof IOException
+                        ? (IOException) ex
+                        : new IOException("Unexpected error while writing data", ex);
+            }
+        }
+    }
+
+    private void throwIfWriteFailed() throws IOException {
+        IOException failure;
+        synchronized (lock) {
+            failure = writeFailure;
+            writeFailure = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package vimification.ui;
 
+import java.util.BitSet;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import javafx.application.Platform;
@@ -7,6 +9,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.ListView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.VBox;
+import vimification.model.TaskListIndex;
 import vimification.model.UiTaskList;
 import vimification.model.task.Task;
 
@@ -153,6 +156,15 @@ public class TaskListPanel extends UiPart<VBox> {
         taskList.setPredicate(predicate);
     }
 
+    /**
+     * Displays the tasks that match the predicate, only testing the tasks selected by the query
+     * from the index of the tasks, see {@link UiTaskList#setPredicate(Predicate, Function)}.
+     */
+    public void searchForTask(Predicate<? super Task> predicate,
+            Function<? super TaskListIndex, BitSet> query) {
+        taskList.setPredicate(predicate, query);
+    }
+
     /**
      * Loads the TaskDetailPanel.
      */
@@ -1,11 +1,19 @@
 package vimification;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 
 import vimification.model.CommandStack;
 import vimification.model.LogicTaskList;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
 import vimification.model.task.Task;
 
 /**
@@ -56,6 +64,16 @@ public class TestUtil {
                 return tasks.remove(index);
             }
 
+            @Override
+            public void addAll(Collection<? extends Task> newTasks) {
+                tasks.addAll(newTasks);
+            }
+
+            @Override
+            public void removeRange(int fromIndex, int toIndex) {
+                tasks.subList(fromIndex, toIndex).clear();
+            }
+
             @Override
             public Task removeLast() {
                 return tasks.remove(tasks.size() - 1);
@@ -66,6 +84,12 @@ public class TestUtil {
                 return tasks.get(index);
             }
 
+            @Override
+            public void beginTransaction() {}
+
+            @Override
+            public void commitTransaction() {}
+
             @Override
             public List<Task> getLogicSource() {
                 return tasks;
@@ -83,4 +107,56 @@ public class TestUtil {
     public static CommandStack newCommandStack() {
         return new CommandStack();
     }
+
+    /**
+     * Returns {@code count} tasks that only have a title.
+     */
+    public static List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task("Task " + i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns {@code count} tasks with every field set, including titles and labels that need to
+     * be escaped. Every third task has no deadline, and the labels are "even" or "odd".
+     */
+    public static List<Task> createVariedTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime deadline = i % 3 == 0 ? null
+                    : LocalDateTime.of(2023, 1, 1, 0, 0).plusHours(i);
+            List<String> labels = i % 2 == 0 ? List.of("even") : List.of("odd", "ôn tập");
+            tasks.add(new Task("Task \"" + i + "\" 📚", deadline,
+                    Status.values()[i % Status.values().length],
+                    Priority.values()[i % Priority.values().length], labels));
+        }
+        return tasks;
+    }
+
+    /**
+     * Asserts that both lists contain equal tasks, with the same ids and labels.
+     */
+    public static void assertSameTasks(List<Task> expectedTasks, List<Task> tasks) {
+        assertEquals(expectedTasks, tasks);
+        for (int i = 0; i < expectedTasks.size(); i++) {
+            assertEquals(expectedTasks.get(i).getId(), tasks.get(i).getId());
+            assertEquals(expectedTasks.get(i).getLabels(), tasks.get(i).getLabels());
+        }
+    }
+
+    /**
+     * Returns the positions of the tasks accepted by the predicate, as a task list index would.
+     */
+    public static BitSet getExpectedPositions(List<Task> tasks, Predicate<Task> predicate) {
+        BitSet positions = new BitSet();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (predicate.test(tasks.get(i))) {
+                positions.set(i);
+            }
+        }
+        return positions;
+    }
 }
@@ -0,0 +1,62 @@
+package vimification.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileUtilTest {
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void writeToFile_shouldReplaceTarget() throws IOException {
+        Path path = tempDir.resolve("tasks.json");
+        FileUtil.writeToFile(path, "old content");
+        FileUtil.writeToFile(path, "new content", true);
+
+        assertEquals("new content", FileUtil.readFromFile(path));
+        assertFalse(FileUtil.isFileExists(tempDir.resolve("tasks.json.tmp")));
+    }
+
+    @Test
+    public void writeToFile_writerThrows_shouldKeepOldContent() throws IOException {
+        Path path = tempDir.resolve("tasks.json");
+        FileUtil.writeToFile(path, "old content");
+
+        assertThrows(IOException.class, () -> FileUtil.writeToFile(path, output -> {
+            output.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Disk full");
+        }, false));
+        assertEquals("old content", FileUtil.readFromFile(path));
+        assertFalse(FileUtil.isFileExists(tempDir.resolve("tasks.json.tmp")));
+    }
+
+    @Test
+    public void appendToFile_shouldKeepExistingContent() throws IOException {
+        Path path = tempDir.resolve("tasks.journal");
+        FileUtil.appendToFile(path, "first\n", false);
+        FileUtil.appendToFile(path, "second\n", true);
+
+        assertEquals("first\nsecond\n", FileUtil.readFromFile(path));
+    }
+
+    @Test
+    public void moveFile_shouldReplaceTarget() throws IOException {
+        Path source = tempDir.resolve("tasks.journal.next");
+        Path target = tempDir.resolve("tasks.journal");
+        FileUtil.writeToFile(source, "new journal");
+        FileUtil.writeToFile(target, "old journal");
+        FileUtil.moveFile(source, target, true);
+
+        assertEquals("new journal", FileUtil.readFromFile(target));
+        assertFalse(FileUtil.isFileExists(source));
+    }
+}
@@ -23,10 +23,10 @@ public class DeleteFieldsCommandTest {
         DeleteFieldsRequest request = new DeleteFieldsRequest();
         request.setDeleteDeadline(true);
 
-        Task task = TestUtil.newTask();
-        task.setDeadline(LocalDateTime.now());
-        task.addLabel("EoSD");
-        task.addLabel("LoLK");
+        Task task = TestUtil.newTask()
+                .withDeadline(LocalDateTime.now())
+                .withLabelAdded("EoSD")
+                .withLabelAdded("LoLK");
         int numOfLabels = task.getLabels().size();
 
         LogicTaskList taskList = TestUtil.newLogicTaskListStub(task);
@@ -58,10 +58,10 @@ public class DeleteFieldsCommandTest {
         LocalDateTime deadline = LocalDateTime.now();
         request.getDeletedLabels().add(label);
 
-        Task task = TestUtil.newTask();
-        task.setDeadline(deadline);
-        task.addLabel(label);
-        task.addLabel("LoLK");
+        Task task = TestUtil.newTask()
+                .withDeadline(deadline)
+                .withLabelAdded(label)
+                .withLabelAdded("LoLK");
         int numOfLabels = task.getLabels().size();
 
         LogicTaskList taskList = TestUtil.newLogicTaskListStub(task);
@@ -25,10 +25,10 @@ public class EditCommandTest {
         LocalDateTime newDeadline = LocalDateTime.now();
         request.setEditedDeadline(newDeadline);
 
-        Task task = TestUtil.newTask();
-        task.setDeadline(LocalDateTime.now());
-        task.addLabel("EoSD");
-        task.addLabel("LoLK");
+        Task task = TestUtil.newTask()
+                .withDeadline(LocalDateTime.now())
+                .withLabelAdded("EoSD")
+                .withLabelAdded("LoLK");
         int numOfLabels = task.getLabels().size();
 
         LogicTaskList taskList = TestUtil.newLogicTaskListStub(task);
@@ -61,10 +61,10 @@ public class EditCommandTest {
         request.getEditedLabels().add(labels1);
         request.getEditedLabels().add(labels2);
 
-        Task task = TestUtil.newTask();
-        task.setDeadline(deadline);
-        task.addLabel(labels1.getFirst());
-        task.addLabel(labels2.getFirst());
+        Task task = TestUtil.newTask()
+                .withDeadline(deadline)
+                .withLabelAdded(labels1.getFirst())
+                .withLabelAdded(labels2.getFirst());
         int numOfLabels = task.getLabels().size();
 
         LogicTaskList taskList = TestUtil.newLogicTaskListStub(task);
@@ -95,9 +95,9 @@ public class EditCommandTest {
         LocalDateTime deadline = LocalDateTime.now();
         String title = "Touhou Project";
 
-        Task task = TestUtil.newTask();
-        task.setDeadline(deadline);
-        task.setTitle(title);
+        Task task = TestUtil.newTask()
+                .withDeadline(deadline)
+                .withTitle(title);
 
         LogicTaskList taskList = TestUtil.newLogicTaskListStub(task);
         CommandStack commandStack = TestUtil.newCommandStack();
@@ -123,10 +123,10 @@ public class EditCommandTest {
         LocalDateTime deadline = LocalDateTime.now();
         String title = "Rest In Peace, Saith The Lord";
 
-        Task task = TestUtil.newTask();
-        task.setDeadline(deadline);
-        task.setTitle(title);
-        task.setStatus(Status.NOT_DONE);
+        Task task = TestUtil.newTask()
+                .withDeadline(deadline)
+                .withTitle(title)
+                .withStatus(Status.NOT_DONE);
 
         LogicTaskList taskList = TestUtil.newLogicTaskListStub(task);
         CommandStack commandStack = TestUtil.newCommandStack();
@@ -0,0 +1,68 @@
+package vimification.internal.command.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.TestUtil;
+import vimification.internal.command.CommandResult;
+import vimification.model.CommandStack;
+import vimification.model.LogicTaskList;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+public class ImportCommandTest {
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void csvWithInvalidRecord_shouldSkipRecord() throws IOException {
+        Path filePath = tempDir.resolve("tasks.csv");
+        Files.writeString(filePath, "Title,Labels,Deadline\n"
+                + "\"Buy milk, eggs\",home;errand,2023-04-01\n"
+                + ",empty title,\n"
+                + "Do essay,,\n");
+        LogicTaskList taskList = TestUtil.newLogicTaskListStub(TestUtil.newTask());
+        CommandStack commandStack = TestUtil.newCommandStack();
+
+        ImportCommand command = new ImportCommand(filePath);
+        CommandResult result = command.execute(taskList, commandStack);
+
+        Task expectedTask = new Task("Buy milk, eggs", LocalDateTime.of(2023, 4, 1, 0, 0),
+                Status.NOT_DONE, Priority.UNKNOWN, List.of("home", "errand"));
+        assertEquals(3, taskList.size());
+        assertEquals(expectedTask, taskList.get(1));
+        assertEquals(new Task("Do essay"), taskList.get(2));
+        assertTrue(result.getFeedbackToUser().contains("line 3"));
+        assertEquals(command, commandStack.pop());
+
+        command.undo(taskList);
+        assertEquals(List.of(TestUtil.newTask()), taskList.getLogicSource());
+    }
+
+    @Test
+    public void exportedFile_shouldBeImportedBack() {
+        Task task = new Task("Read \"SICP\"", LocalDateTime.of(2023, 4, 1, 12, 30),
+                Status.IN_PROGRESS, Priority.URGENT, List.of("book"));
+        for (String fileName : List.of("tasks.csv", "tasks.ndjson")) {
+            Path filePath = tempDir.resolve(fileName);
+            new ExportCommand(filePath).execute(
+                    TestUtil.newLogicTaskListStub(task, TestUtil.newTask()),
+                    TestUtil.newCommandStack());
+
+            LogicTaskList taskList = TestUtil.newLogicTaskListStub();
+            new ImportCommand(filePath).execute(taskList, TestUtil.newCommandStack());
+            assertEquals(List.of(task, TestUtil.newTask()), taskList.getLogicSource());
+        }
+    }
+}
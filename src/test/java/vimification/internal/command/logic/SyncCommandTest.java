@@ -0,0 +1,143 @@
+package vimification.internal.command.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.TestUtil;
+import vimification.internal.command.CommandResult;
+import vimification.model.LogicTaskList;
+import vimification.model.TaskList;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+import vimification.storage.JsonMacroMapStorage;
+import vimification.storage.JsonTaskListStorage;
+import vimification.storage.JsonUserPrefsStorage;
+import vimification.storage.Storage;
+import vimification.storage.StorageManager;
+
+public class SyncCommandTest {
+
+    @TempDir
+    public Path tempDir;
+
+    // Kept for each replica, like the storage of a running application
+    private final Map<String, Storage> storages = new HashMap<>();
+
+    private CommandResult sync(LogicTaskList taskList, String replica) throws IOException {
+        Path replicaDir = tempDir.resolve(replica);
+        Storage storage = storages.computeIfAbsent(replica, ignore -> new StorageManager(
+                new JsonTaskListStorage(replicaDir.resolve("tasks.json")),
+                new JsonMacroMapStorage(replicaDir.resolve("macros.json")),
+                new JsonUserPrefsStorage(replicaDir.resolve("preferences.json")),
+                false));
+        SyncCommand command = new SyncCommand(tempDir.resolve("shared"));
+        command.setSync(storage.getTaskListSync(command.getDirectory()));
+        CommandResult result = command.execute(taskList, TestUtil.newCommandStack());
+        command.commit();
+        return result;
+    }
+
+    private static void edit(LogicTaskList taskList, int index, String title, Status status,
+            String label) {
+        Task task = taskList.get(index);
+        if (title != null) {
+            task = task.withTitle(title);
+        }
+        if (status != null) {
+            task = task.withStatus(status);
+        }
+        if (label != null) {
+            task = task.withLabelAdded(label);
+        }
+        taskList.set(index, task);
+    }
+
+    @Test
+    public void separateEdits_shouldBeMerged() throws IOException {
+        LogicTaskList laptop = TestUtil.newLogicTaskListStub(new Task("Buy milk"),
+                new Task("Do essay"));
+        LogicTaskList desktop = TestUtil.newLogicTaskListStub();
+        sync(laptop, "laptop");
+        CommandResult result = sync(desktop, "desktop");
+        assertEquals(String.format(SyncCommand.SUCCESS_MESSAGE_FORMAT, tempDir.resolve("shared"),
+                2, 0), result.getFeedbackToUser());
+        assertEquals(laptop.getLogicSource(), desktop.getLogicSource());
+
+        edit(laptop, 0, "Buy oat milk", null, null);
+        edit(desktop, 0, null, Status.COMPLETED, "groceries");
+        edit(desktop, 1, null, null, "school");
+        desktop.add(new Task("Touhou Project"));
+        sync(laptop, "laptop");
+        sync(desktop, "desktop");
+        result = sync(laptop, "laptop");
+
+        Task expectedMilk = new Task("Buy oat milk", null, Status.COMPLETED,
+                desktop.get(0).getPriority(), List.of("groceries"));
+        assertEquals(expectedMilk, laptop.get(0));
+        assertEquals(String.format(SyncCommand.SUCCESS_MESSAGE_FORMAT, tempDir.resolve("shared"),
+                3, 0), result.getFeedbackToUser());
+        assertEquals(laptop.getLogicSource(), desktop.getLogicSource());
+        assertEquals(laptop.get(2).getId(), desktop.get(2).getId());
+    }
+
+    @Test
+    public void conflictingEdits_shouldKeepLocalValues() throws IOException {
+        LogicTaskList laptop = TestUtil.newLogicTaskListStub(new Task("Buy milk"),
+                new Task("Do essay"));
+        LogicTaskList desktop = TestUtil.newLogicTaskListStub();
+        sync(laptop, "laptop");
+        sync(desktop, "desktop");
+
+        edit(laptop, 0, "Buy oat milk", null, null);
+        laptop.remove(1);
+        edit(desktop, 0, "Buy soy milk", null, null);
+        edit(desktop, 1, null, Status.IN_PROGRESS, null);
+        sync(laptop, "laptop");
+        CommandResult result = sync(desktop, "desktop");
+        sync(laptop, "laptop");
+
+        assertTrue(result.getFeedbackToUser().endsWith(
+                String.format(SyncCommand.CONFLICT_MESSAGE_FORMAT, 1)));
+        assertEquals("Buy soy milk", desktop.get(0).getTitle());
+        // Modified on the desktop, so it is kept even though the laptop deleted it
+        assertEquals(Status.IN_PROGRESS, desktop.get(1).getStatus());
+        assertEquals(desktop.getLogicSource(), laptop.getLogicSource());
+    }
+
+    @Test
+    public void taskListsSyncedBefore_shouldOnlyExchangeModifiedTasks() throws IOException {
+        TaskList laptop = new TaskList(List.of(new Task("Buy milk"), new Task("Do essay"),
+                new Task("Call mom")));
+        TaskList desktop = new TaskList();
+        sync(laptop, "laptop");
+        sync(desktop, "desktop");
+
+        edit(laptop, 1, null, Status.COMPLETED, null);
+        laptop.remove(2);
+        laptop.add(new Task("Touhou Project"));
+        edit(desktop, 0, "Buy oat milk", null, null);
+        CommandResult result = sync(laptop, "laptop");
+        assertEquals(String.format(SyncCommand.SUCCESS_MESSAGE_FORMAT, tempDir.resolve("shared"),
+                0, 3), result.getFeedbackToUser());
+        result = sync(desktop, "desktop");
+        assertEquals(String.format(SyncCommand.SUCCESS_MESSAGE_FORMAT, tempDir.resolve("shared"),
+                3, 1), result.getFeedbackToUser());
+        result = sync(laptop, "laptop");
+        assertEquals(String.format(SyncCommand.SUCCESS_MESSAGE_FORMAT, tempDir.resolve("shared"),
+                1, 0), result.getFeedbackToUser());
+
+        assertEquals(laptop.getLogicSource(), desktop.getLogicSource());
+        assertEquals("Buy oat milk", laptop.get(0).getTitle());
+        assertEquals(Status.COMPLETED, desktop.get(1).getStatus());
+        assertEquals("Touhou Project", desktop.get(2).getTitle());
+    }
+}
@@ -0,0 +1,35 @@
+package vimification.internal.parser.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import vimification.internal.command.logic.ImportCommand;
+import vimification.internal.parser.ParserException;
+
+public class ImportCommandParserTest {
+
+    private static final Class<ParserException> EXPECTED_EXCEPTION_CLASS = ParserException.class;
+    private static final ImportCommandParser INSTANCE = ImportCommandParser.getInstance();
+
+    @Test
+    public void withPath_shouldSuccess() {
+        String input = "import tasks.csv";
+        assertEquals(new ImportCommand(Path.of("tasks.csv")), INSTANCE.parse(input));
+
+        String input1 = "import 'my tasks.ndjson'";
+        assertEquals(new ImportCommand(Path.of("my tasks.ndjson")), INSTANCE.parse(input1));
+    }
+
+    @Test
+    public void invalidArgs_shouldThrow() {
+        String input = "import";
+        assertThrows(EXPECTED_EXCEPTION_CLASS, () -> INSTANCE.parse(input));
+
+        String input1 = "import tasks.csv other.csv";
+        assertThrows(EXPECTED_EXCEPTION_CLASS, () -> INSTANCE.parse(input1));
+    }
+}
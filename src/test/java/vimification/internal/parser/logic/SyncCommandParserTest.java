@@ -0,0 +1,35 @@
+package vimification.internal.parser.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import vimification.internal.command.logic.SyncCommand;
+import vimification.internal.parser.ParserException;
+
+public class SyncCommandParserTest {
+
+    private static final Class<ParserException> EXPECTED_EXCEPTION_CLASS = ParserException.class;
+    private static final SyncCommandParser INSTANCE = SyncCommandParser.getInstance();
+
+    @Test
+    public void withPath_shouldSuccess() {
+        String input = "sync /mnt/usb/vimification";
+        assertEquals(new SyncCommand(Path.of("/mnt/usb/vimification")), INSTANCE.parse(input));
+
+        String input1 = "sync 'My Drive/tasks'";
+        assertEquals(new SyncCommand(Path.of("My Drive/tasks")), INSTANCE.parse(input1));
+    }
+
+    @Test
+    public void invalidArgs_shouldThrow() {
+        String input = "sync";
+        assertThrows(EXPECTED_EXCEPTION_CLASS, () -> INSTANCE.parse(input));
+
+        String input1 = "sync shared other";
+        assertThrows(EXPECTED_EXCEPTION_CLASS, () -> INSTANCE.parse(input1));
+    }
+}
@@ -0,0 +1,65 @@
+package vimification.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static vimification.TestUtil.createVariedTasks;
+import static vimification.TestUtil.getExpectedPositions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+public class ColumnarTaskListTest {
+
+    @Test
+    public void get_shouldReturnEqualTasks() {
+        List<Task> tasks = createVariedTasks(100);
+        ColumnarTaskList columnarTasks = new ColumnarTaskList(tasks);
+        assertEquals(tasks, columnarTasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getId(), columnarTasks.get(i).getId());
+        }
+        Task task = columnarTasks.get(3);
+        assertSame(task, columnarTasks.get(3));
+    }
+
+    @Test
+    public void modifications_shouldMatchArrayList() {
+        List<Task> expectedTasks = createVariedTasks(50);
+        ColumnarTaskList columnarTasks = new ColumnarTaskList(expectedTasks);
+        ColumnarTaskList copy = columnarTasks.copy();
+        List<Task> newTasks = createVariedTasks(4);
+        for (List<Task> tasks : List.of(expectedTasks, columnarTasks)) {
+            tasks.add(0, newTasks.get(0));
+            tasks.add(20, newTasks.get(1));
+            tasks.set(10, newTasks.get(2));
+            tasks.remove(30);
+            tasks.subList(5, 15).clear();
+            tasks.add(newTasks.get(3));
+        }
+        assertEquals(expectedTasks, columnarTasks);
+        assertEquals(createVariedTasks(50), copy);
+    }
+
+    @Test
+    public void getTasks_shouldMatchTasks() {
+        ColumnarTaskList columnarTasks = new ColumnarTaskList(createVariedTasks(200));
+        assertEquals(getExpectedPositions(columnarTasks, task -> task.containsLabel("even")),
+                columnarTasks.getTasksWithLabel("EVEN"));
+        assertEquals(getExpectedPositions(columnarTasks, task -> task.hasStatus(Status.COMPLETED)),
+                columnarTasks.getTasksWithStatus(Status.COMPLETED));
+        assertEquals(getExpectedPositions(columnarTasks, task -> task.hasPriority(Priority.URGENT)),
+                columnarTasks.getTasksWithPriority(Priority.URGENT));
+        LocalDateTime after = LocalDateTime.of(2023, 1, 5, 0, 0);
+        LocalDateTime before = LocalDateTime.of(2023, 1, 20, 0, 0);
+        assertEquals(getExpectedPositions(columnarTasks, task -> task.deadlineIsAfter(after)
+                && task.deadlineIsBefore(before)),
+                columnarTasks.getTasksWithDeadlineBetween(after, before));
+        assertSame(columnarTasks, TaskList.wrap(columnarTasks).getIndex());
+    }
+}
@@ -60,6 +60,19 @@ public class CommandStackTest {
         assertEquals(stack.size(), n);
     }
 
+    @Test
+    public void testClear() {
+        List<UndoableLogicCommand> commands = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            commands.add(new DeleteTaskCommand(Index.fromZeroBased(i)));
+        }
+
+        CommandStack stack = new CommandStack(commands);
+        stack.clear();
+        assertTrue(stack.isEmpty());
+        assertEquals(null, stack.pop());
+    }
+
     @Test
     public void testPush() {
         CommandStack stack = new CommandStack();
@@ -0,0 +1,105 @@
+package vimification.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+public class IndexedFilteredListTest {
+
+    @Test
+    public void setPredicate_withCandidates_shouldOnlyTestCandidates() {
+        CountingList source = new CountingList(List.of(1, 2, 3, 4, 5, 6));
+        IndexedFilteredList<Integer> filteredList =
+                new IndexedFilteredList<>(FXCollections.observableList(source));
+        BitSet candidates = new BitSet();
+        candidates.set(1);
+        candidates.set(4);
+
+        filteredList.setPredicate(element -> element % 2 == 0, candidates);
+        assertEquals(2, source.accessCount);
+        assertEquals(List.of(2), filteredList);
+        assertEquals(1, filteredList.getSourceIndex(0));
+        assertEquals(-1, filteredList.getViewIndex(4));
+    }
+
+    @Test
+    public void sourceChanged_shouldOnlyKeepMatchingElements() {
+        ObservableList<Integer> source = FXCollections.observableArrayList(1, 2, 3, 4, 5, 6);
+        IndexedFilteredList<Integer> filteredList = new IndexedFilteredList<>(source);
+        List<Integer> mirror = new ArrayList<>(filteredList);
+        filteredList.addListener((ListChangeListener<Integer>) change -> applyChange(mirror, change));
+
+        filteredList.setPredicate(element -> element % 2 == 0);
+        assertEquals(List.of(2, 4, 6), filteredList);
+        assertEquals(List.of(2, 4, 6), mirror);
+
+        source.add(0, 8);
+        source.remove(Integer.valueOf(4));
+        source.set(0, 7);
+        assertEquals(List.of(2, 6), filteredList);
+        assertEquals(List.of(2, 6), mirror);
+        assertEquals(4, filteredList.getSourceIndex(1));
+
+        source.addAll(1, List.of(10, 11));
+        FXCollections.sort(source, Comparator.reverseOrder());
+        assertEquals(List.of(10, 6, 2), filteredList);
+        assertEquals(List.of(10, 6, 2), mirror);
+
+        filteredList.setPredicate(null);
+        assertEquals(source, filteredList);
+        assertEquals(source, mirror);
+    }
+
+    /**
+     * Applies the change to the mirror, in the same way as a listening UI control would.
+     */
+    private static <E> void applyChange(List<E> mirror,
+            ListChangeListener.Change<? extends E> change) {
+        while (change.next()) {
+            int from = change.getFrom();
+            if (change.wasPermutated()) {
+                List<E> oldElements = new ArrayList<>(mirror.subList(from, change.getTo()));
+                for (int i = from; i < change.getTo(); i++) {
+                    mirror.set(change.getPermutation(i), oldElements.get(i - from));
+                }
+            } else {
+                mirror.subList(from, from + change.getRemovedSize()).clear();
+                mirror.addAll(from, change.getAddedSubList());
+            }
+        }
+    }
+
+    /**
+     * A list that counts how many times its elements are accessed.
+     */
+    private static class CountingList extends AbstractList<Integer> {
+
+        private final List<Integer> elements;
+        private int accessCount = 0;
+
+        CountingList(List<Integer> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Integer get(int index) {
+            accessCount++;
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+    }
+}
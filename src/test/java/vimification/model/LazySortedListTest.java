@@ -0,0 +1,92 @@
+package vimification.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+public class LazySortedListTest {
+
+    @Test
+    public void get_withoutComparator_shouldOnlyAccessRequestedElement() {
+        CountingList source = new CountingList(List.of(3, 1, 2));
+        LazySortedList<Integer> sortedList =
+                new LazySortedList<>(FXCollections.observableList(source));
+
+        assertEquals(2, sortedList.get(2));
+        assertEquals(1, source.accessCount);
+    }
+
+    @Test
+    public void setComparator_shouldSortAndRestoreSourceOrder() {
+        ObservableList<Integer> source = FXCollections.observableArrayList(3, 1, 2);
+        LazySortedList<Integer> sortedList = new LazySortedList<>(source);
+        List<Integer> mirror = new ArrayList<>(sortedList);
+        sortedList.addListener((ListChangeListener<Integer>) change -> applyChange(mirror, change));
+
+        sortedList.setComparator(Comparator.naturalOrder());
+        assertEquals(List.of(1, 2, 3), sortedList);
+        assertEquals(List.of(1, 2, 3), mirror);
+        assertEquals(1, sortedList.getSourceIndex(0));
+
+        source.add(0);
+        assertEquals(List.of(0, 1, 2, 3), sortedList);
+        assertEquals(List.of(0, 1, 2, 3), mirror);
+
+        sortedList.setComparator(null);
+        assertEquals(List.of(3, 1, 2, 0), sortedList);
+        assertEquals(List.of(3, 1, 2, 0), mirror);
+        assertEquals(0, sortedList.getSourceIndex(0));
+    }
+
+    /**
+     * Applies the change to the mirror, in the same way as a listening UI control would.
+     */
+    private static <E> void applyChange(List<E> mirror,
+            ListChangeListener.Change<? extends E> change) {
+        while (change.next()) {
+            int from = change.getFrom();
+            if (change.wasPermutated()) {
+                List<E> oldElements = new ArrayList<>(mirror.subList(from, change.getTo()));
+                for (int i = from; i < change.getTo(); i++) {
+                    mirror.set(change.getPermutation(i), oldElements.get(i - from));
+                }
+            } else {
+                mirror.subList(from, from + change.getRemovedSize()).clear();
+                mirror.addAll(from, change.getAddedSubList());
+            }
+        }
+    }
+
+    /**
+     * A list that counts how many times its elements are accessed.
+     */
+    private static class CountingList extends AbstractList<Integer> {
+
+        private final List<Integer> elements;
+        private int accessCount = 0;
+
+        CountingList(List<Integer> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Integer get(int index) {
+            accessCount++;
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package vimification.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static vimification.TestUtil.createTasks;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import vimification.model.task.Task;
+
+public class PersistentTaskListTest {
+
+    @Test
+    public void modifications_shouldMatchArrayList() {
+        // Enough tasks for the tree to have several levels
+        List<Task> expectedTasks = createTasks(2000);
+        PersistentTaskList persistentTasks = new PersistentTaskList(expectedTasks);
+        assertEquals(expectedTasks, persistentTasks);
+        Random random = new Random(0);
+        for (int i = 0; i < 5000; i++) {
+            int index = random.nextInt(expectedTasks.size());
+            Task task = new Task("New task " + i);
+            switch (random.nextInt(4)) {
+            case 0:
+                expectedTasks.add(index, task);
+                persistentTasks.add(index, task);
+                break;
+            case 1:
+                expectedTasks.add(task);
+                persistentTasks.add(task);
+                break;
+            case 2:
+                assertEquals(expectedTasks.set(index, task), persistentTasks.set(index, task));
+                break;
+            default:
+                assertEquals(expectedTasks.remove(index), persistentTasks.remove(index));
+                break;
+            }
+        }
+        assertEquals(expectedTasks, persistentTasks);
+        expectedTasks.subList(100, 1500).clear();
+        persistentTasks.subList(100, 1500).clear();
+        assertEquals(expectedTasks, persistentTasks);
+    }
+
+    @Test
+    public void copy_shouldNotBeAffectedByModifications() {
+        PersistentTaskList persistentTasks = new PersistentTaskList(createTasks(1000));
+        PersistentTaskList copy = persistentTasks.copy();
+        persistentTasks.set(0, new Task("Replaced task"));
+        persistentTasks.add(500, new Task("Inserted task"));
+        persistentTasks.remove(999);
+        PersistentTaskList secondCopy = persistentTasks.copy();
+        copy.clear();
+        persistentTasks.subList(0, 100).clear();
+
+        assertEquals(0, copy.size());
+        assertEquals(1000, secondCopy.size());
+        assertEquals(new Task("Replaced task"), secondCopy.get(0));
+        assertEquals(new Task("Inserted task"), secondCopy.get(500));
+        assertEquals(createTasks(1000).get(999), secondCopy.get(999));
+        assertEquals(secondCopy.subList(100, 1000), persistentTasks);
+    }
+}
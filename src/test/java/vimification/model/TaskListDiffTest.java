@@ -0,0 +1,110 @@
+package vimification.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import vimification.model.task.Task;
+
+public class TaskListDiffTest {
+
+    private static final Task MILK = new Task("Buy milk");
+    private static final Task ESSAY = new Task("Do essay");
+    private static final Task TOUHOU = new Task("Touhou Project");
+
+    @Test
+    public void between_sameTasks_shouldBeEmpty() {
+        List<Task> tasks = List.of(MILK, ESSAY);
+        TaskListDiff diff = TaskListDiff.between(tasks, new ArrayList<>(tasks));
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    public void between_addedTask_shouldOnlyContainAddedTask() {
+        TaskListDiff diff = TaskListDiff.between(List.of(MILK, ESSAY), List.of(MILK, TOUHOU, ESSAY));
+        assertEquals(1, diff.getFrom());
+        assertEquals(0, diff.getRemovedCount());
+        assertEquals(List.of(TOUHOU), diff.getAddedTasks());
+    }
+
+    @Test
+    public void between_removedTask_shouldOnlyContainRemovedRange() {
+        TaskListDiff diff = TaskListDiff.between(List.of(MILK, ESSAY, TOUHOU), List.of(MILK, TOUHOU));
+        assertEquals(1, diff.getFrom());
+        assertEquals(1, diff.getRemovedCount());
+        assertTrue(diff.getAddedTasks().isEmpty());
+    }
+
+    @Test
+    public void applyTo_shouldTransformOldVersionIntoNewVersion() {
+        Task editedMilk = MILK.withLabelAdded("groceries");
+        List<Task> oldTasks = new ArrayList<>(List.of(MILK, ESSAY, TOUHOU));
+        List<Task> newTasks = List.of(editedMilk, TOUHOU);
+        TaskListDiff diff = TaskListDiff.between(oldTasks, newTasks);
+        diff.applyTo(oldTasks);
+        assertEquals(newTasks, oldTasks);
+    }
+
+    @Test
+    public void applyTo_taskList_shouldOnlyReplaceDifferentTasks() {
+        Task editedEssay = ESSAY.withLabelAdded("school");
+        // A distinct instance with the same id and content
+        Task firstTouhou = TOUHOU.withTitle(TOUHOU.getTitle());
+        TaskList taskList = new TaskList(List.of(MILK, ESSAY, firstTouhou, MILK, TOUHOU));
+        List<Task> newTasks = List.of(MILK, editedEssay, TOUHOU, ESSAY);
+        TaskListDiff diff = TaskListDiff.between(taskList.getLogicSource(), newTasks);
+        diff.applyTo(taskList);
+
+        assertEquals(newTasks, taskList.getLogicSource());
+        // Equal tasks are kept as they are
+        assertSame(firstTouhou, taskList.get(2));
+    }
+
+    @Test
+    public void applyTo_tasksWithSameContent_shouldReplaceTasksWithOtherIds() {
+        Task otherMilk = new Task("Buy milk");
+        TaskList taskList = new TaskList(List.of(MILK, ESSAY));
+        List<Task> newTasks = List.of(otherMilk, ESSAY);
+        TaskListDiff diff = TaskListDiff.between(taskList.getLogicSource(), newTasks);
+        assertEquals(0, diff.getFrom());
+        assertEquals(1, diff.getRemovedCount());
+        diff.applyTo(taskList);
+
+        assertSame(otherMilk, taskList.get(0));
+        assertEquals(otherMilk.getId(), taskList.get(0).getId());
+    }
+
+    @Test
+    public void applyTo_taskList_shouldInsertTasksInTheMiddle() {
+        TaskList taskList = new TaskList(List.of(MILK, TOUHOU));
+        List<Task> newTasks = List.of(MILK, ESSAY, new Task("Call mom"), TOUHOU);
+        TaskListDiff.between(taskList.getLogicSource(), newTasks).applyTo(taskList);
+        assertEquals(newTasks, taskList.getLogicSource());
+    }
+
+    @Test
+    public void merge_separateChanges_shouldContainBothChanges() {
+        Task editedMilk = MILK.withLabelAdded("groceries");
+        Task game = new Task("Play game");
+        List<Task> base = List.of(MILK, ESSAY, TOUHOU);
+        List<Task> ours = List.of(MILK, ESSAY, TOUHOU, game);
+        List<Task> theirs = List.of(editedMilk, TOUHOU);
+        assertEquals(List.of(editedMilk, TOUHOU, game), TaskListDiff.merge(base, ours, theirs));
+        assertEquals(List.of(editedMilk, TOUHOU, game), TaskListDiff.merge(base, theirs, ours));
+    }
+
+    @Test
+    public void merge_overlappingChanges_shouldPreferOurs() {
+        Task ourEssay = ESSAY.withLabelAdded("school");
+        Task theirEssay = ESSAY.withLabelAdded("homework");
+        List<Task> base = List.of(MILK, ESSAY, TOUHOU);
+        List<Task> ours = List.of(MILK, ourEssay, TOUHOU);
+        List<Task> theirs = List.of(theirEssay);
+        assertEquals(List.of(MILK, ourEssay, TOUHOU), TaskListDiff.merge(base, ours, theirs));
+    }
+}
@@ -2,12 +2,19 @@ package vimification.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 
+import javafx.collections.ListChangeListener;
 import vimification.model.task.Task;
 
 public class TaskListTest {
@@ -29,4 +36,88 @@ public class TaskListTest {
             assertEquals(taskList.get(i), tasks.get(i));
         }
     }
+
+    @Test
+    public void addAll_shouldAppendTasksInOrder() {
+        TaskList taskList = new TaskList(List.of(new Task("Buy milk")));
+        taskList.addAll(List.of(new Task("Do essay"), new Task("Call mom")));
+
+        assertEquals(List.of(new Task("Buy milk"), new Task("Do essay"), new Task("Call mom")),
+                taskList.getLogicSource());
+        taskList.clear();
+        assertTrue(taskList.isEmpty());
+    }
+
+    @Test
+    public void snapshot_shouldNotBeAffectedByModifications() {
+        TaskList taskList = new TaskList(List.of(new Task("Buy milk")));
+        TaskList snapshot = taskList.snapshot();
+        taskList.add(new Task("Do essay"));
+        taskList.set(0, new Task("Buy groceries"));
+
+        assertEquals(1, snapshot.size());
+        assertEquals(new Task("Buy milk"), snapshot.get(0));
+    }
+
+    @Test
+    public void getModifiedTasksSince_shouldReturnLatestVersionOfModifiedTasks() {
+        Task milk = new Task("Buy milk");
+        Task essay = new Task("Do essay");
+        Task mom = new Task("Call mom");
+        TaskList taskList = new TaskList(List.of(milk, essay, mom));
+        long version = taskList.getVersion();
+        Task groceries = milk.withTitle("Buy groceries");
+        taskList.set(0, groceries);
+        taskList.removeRange(1, 3);
+        Task game = new Task("Play game");
+        taskList.add(game);
+        taskList.add(essay);
+
+        Map<UUID, Task> expectedTasks = new LinkedHashMap<>();
+        expectedTasks.put(milk.getId(), groceries);
+        expectedTasks.put(mom.getId(), null);
+        expectedTasks.put(game.getId(), game);
+        expectedTasks.put(essay.getId(), essay);
+        assertEquals(expectedTasks, taskList.getModifiedTasksSince(version));
+        assertEquals(List.of(essay.getId()),
+                List.copyOf(taskList.getModifiedTasksSince(taskList.getVersion() - 1).keySet()));
+        assertTrue(taskList.getModifiedTasksSince(taskList.getVersion()).isEmpty());
+
+        taskList.clear();
+        assertNull(taskList.getModifiedTasksSince(version));
+        assertTrue(taskList.getModifiedTasksSince(taskList.getVersion()).isEmpty());
+    }
+
+    @Test
+    public void transaction_shouldFireSingleChange() {
+        TaskList taskList = new TaskList(List.of(new Task("Buy milk"), new Task("Do essay")));
+        List<Task> displayedTasks = new ArrayList<>(taskList.getUiSource());
+        List<Integer> changeCounts = new ArrayList<>();
+        taskList.getUiSource().addListener((ListChangeListener<Task>) change -> {
+            changeCounts.add(1);
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    displayedTasks.subList(change.getFrom(),
+                            change.getFrom() + change.getRemovedSize()).clear();
+                }
+                if (change.wasAdded()) {
+                    displayedTasks.addAll(change.getFrom(), change.getAddedSubList());
+                }
+            }
+        });
+
+        taskList.beginTransaction();
+        taskList.set(0, new Task("Buy groceries"));
+        taskList.add(new Task("Call mom"));
+        taskList.beginTransaction();
+        taskList.remove(1);
+        taskList.add(0, new Task("Pay rent"));
+        taskList.commitTransaction();
+        assertTrue(changeCounts.isEmpty());
+        taskList.commitTransaction();
+
+        assertEquals(1, changeCounts.size());
+        assertEquals(taskList.getLogicSource(), displayedTasks);
+        assertThrows(IllegalStateException.class, taskList::commitTransaction);
+    }
 }
@@ -1,12 +1,22 @@
 package vimification.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
 import vimification.model.task.Task;
 
 public class UiTaskListTest {
@@ -37,4 +47,203 @@ public class UiTaskListTest {
         Task task2 = new Task("Do essay");
         assertEquals(expectedCmp.compare(task1, task2), actualCmp.compare(task1, task2));
     }
+
+    @Test
+    public void getIndex_afterModification_shouldNotReturnAttachedIndex() {
+        TaskList taskList = new TaskList(List.of(new Task("Buy milk")));
+        TaskListIndex index = new LabelIndex(1);
+        taskList.setIndex(index, taskList.getVersion());
+        assertSame(index, taskList.getIndex());
+
+        taskList.add(new Task("Do essay"));
+        assertNotSame(index, taskList.getIndex());
+        assertEquals(2, taskList.getIndex().size());
+    }
+
+    @Test
+    public void getIndex_afterModifications_shouldMatchTasks() {
+        TaskList taskList = new TaskList();
+        taskList.getIndex();
+        for (int i = 0; i < 200; i++) {
+            taskList.add(createTask(i));
+        }
+        taskList.add(0, createTask(200));
+        taskList.add(100, createTask(201));
+        taskList.set(50, createTask(202));
+        taskList.remove(0);
+        taskList.remove(70);
+        taskList.removeRange(10, 80);
+        taskList.removeLast();
+        taskList.addAll(List.of(createTask(203), createTask(204)));
+
+        TaskListIndex index = taskList.getIndex();
+        assertEquals(taskList.size(), index.size());
+        for (String label : List.of("even", "ODD", "tens", "missing")) {
+            assertEquals(getExpectedPositions(taskList, task -> task.containsLabel(label)),
+                    index.getTasksWithLabel(label));
+        }
+        for (Status status : Status.values()) {
+            assertEquals(getExpectedPositions(taskList, task -> task.hasStatus(status)),
+                    index.getTasksWithStatus(status));
+        }
+        for (Priority priority : Priority.values()) {
+            assertEquals(getExpectedPositions(taskList, task -> task.hasPriority(priority)),
+                    index.getTasksWithPriority(priority));
+        }
+        LocalDateTime after = LocalDateTime.of(2023, 1, 5, 0, 0);
+        LocalDateTime before = LocalDateTime.of(2023, 1, 20, 0, 0);
+        assertEquals(getExpectedPositions(taskList, task -> task.deadlineIsAfter(after)
+                && task.deadlineIsBefore(before)), index.getTasksWithDeadlineBetween(after, before));
+        assertEquals(getExpectedPositions(taskList, task -> task.deadlineIsBefore(before)),
+                index.getTasksWithDeadlineBetween(null, before));
+        int[] byDeadline = index.getTasksByDeadline();
+        assertEquals(getExpectedPositions(taskList, task -> task.getDeadline() != null)
+                .cardinality(), byDeadline.length);
+        for (int i = 1; i < byDeadline.length; i++) {
+            Task previous = taskList.get(byDeadline[i - 1]);
+            Task current = taskList.get(byDeadline[i]);
+            assertTrue(previous.getDeadline().isBefore(current.getDeadline())
+                    || byDeadline[i - 1] < byDeadline[i]
+                    && previous.getDeadline().equals(current.getDeadline()));
+        }
+    }
+
+    private static Task createTask(int i) {
+        List<String> labels = new ArrayList<>();
+        labels.add(i % 2 == 0 ? "even" : "odd");
+        if (i % 10 == 0) {
+            labels.add("tens");
+        }
+        LocalDateTime deadline = i % 3 == 0 ? null : LocalDateTime.of(2023, 1, 1 + i % 28, 0, 0);
+        return new Task("Task " + i, deadline, Status.values()[i % Status.values().length],
+                Priority.values()[i % Priority.values().length], labels);
+    }
+
+    private static BitSet getExpectedPositions(TaskList taskList, Predicate<Task> predicate) {
+        BitSet positions = new BitSet();
+        for (int i = 0; i < taskList.size(); i++) {
+            if (predicate.test(taskList.get(i))) {
+                positions.set(i);
+            }
+        }
+        return positions;
+    }
+
+    @Test
+    public void setPredicateWithQuery_shouldOnlyTestSelectedAndAddedTasks() {
+        Task milk = new Task("Buy milk");
+        Task bread = new Task("Buy bread");
+        TaskList taskList = new TaskList(List.of(milk, bread));
+        // The index deliberately disagrees with the predicate, to show which tasks are tested
+        taskList.setIndex(new LabelIndex(2, 1), taskList.getVersion());
+        taskList.setPredicate(task -> task.getTitle().startsWith("Buy"),
+                index -> index.getTasksWithLabel("any"));
+        assertEquals(List.of(bread), taskList.getUiSource());
+
+        Task eggs = new Task("Buy eggs");
+        taskList.add(eggs);
+        assertEquals(List.of(bread, eggs), taskList.getUiSource());
+        Task cheese = new Task("Buy cheese");
+        taskList.set(0, cheese);
+        assertEquals(List.of(cheese, bread, eggs), taskList.getUiSource());
+        taskList.add(new Task("Do essay"));
+        assertEquals(List.of(cheese, bread, eggs), taskList.getUiSource());
+    }
+
+    @Test
+    public void setPredicateWithQuery_tasksRemovedBefore_shouldKeepMatchingTasks() {
+        List<Task> tasks = List.of(new Task("Buy milk"), new Task("Buy bread"),
+                new Task("Buy eggs"), new Task("Buy cheese"));
+        TaskList taskList = new TaskList(tasks);
+        taskList.setIndex(new LabelIndex(4, 1, 3), taskList.getVersion());
+        taskList.setPredicate(task -> task.getTitle().startsWith("Buy"),
+                index -> index.getTasksWithLabel("any"));
+        assertEquals(List.of(tasks.get(1), tasks.get(3)), taskList.getUiSource());
+
+        taskList.remove(0);
+        assertEquals(List.of(tasks.get(1), tasks.get(3)), taskList.getUiSource());
+        taskList.removeRange(0, 2);
+        assertEquals(List.of(tasks.get(3)), taskList.getUiSource());
+        taskList.clear();
+        assertEquals(List.of(), taskList.getUiSource());
+    }
+
+    @Test
+    public void setPredicateWithQuery_deadlineRange_shouldShowTasksBetweenDeadlines() {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 100; i++) {
+            taskList.add(createTask(i));
+        }
+        taskList.add(0, createTask(100));
+        taskList.remove(50);
+        LocalDateTime after = LocalDateTime.of(2023, 1, 5, 0, 0);
+        LocalDateTime before = LocalDateTime.of(2023, 1, 20, 0, 0);
+        Predicate<Task> isBetween = task -> task.deadlineIsAfter(after)
+                && task.deadlineIsBefore(before);
+        List<Task> expectedTasks = taskList.getLogicSource().stream()
+                .filter(isBetween)
+                .collect(Collectors.toList());
+
+        taskList.setPredicate(isBetween,
+                index -> index.getTasksWithDeadlineBetween(after, before));
+        assertEquals(expectedTasks, taskList.getUiSource());
+    }
+
+    @Test
+    public void setPredicateWithQuery_nullPredicate_shouldShowAllTasks() {
+        List<Task> tasks = List.of(new Task("Buy milk"), new Task("Do essay"));
+        TaskList taskList = new TaskList(tasks);
+        taskList.setIndex(new LabelIndex(2), taskList.getVersion());
+        taskList.setPredicate(task -> true, index -> index.getTasksWithLabel("any"));
+        assertEquals(List.of(), taskList.getUiSource());
+
+        taskList.setPredicate(null, index -> index.getTasksWithLabel("any"));
+        assertEquals(tasks, taskList.getUiSource());
+    }
+
+    /**
+     * An index where every label is on the same tasks.
+     */
+    private static class LabelIndex implements TaskListIndex {
+
+        private final int size;
+        private final BitSet labelledTasks = new BitSet();
+
+        private LabelIndex(int size, int... labelledPositions) {
+            this.size = size;
+            for (int position : labelledPositions) {
+                labelledTasks.set(position);
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public BitSet getTasksWithLabel(String label) {
+            return (BitSet) labelledTasks.clone();
+        }
+
+        @Override
+        public BitSet getTasksWithStatus(Status status) {
+            return new BitSet();
+        }
+
+        @Override
+        public BitSet getTasksWithPriority(Priority priority) {
+            return new BitSet();
+        }
+
+        @Override
+        public BitSet getTasksWithDeadlineBetween(LocalDateTime after, LocalDateTime before) {
+            return new BitSet();
+        }
+
+        @Override
+        public int[] getTasksByDeadline() {
+            return new int[0];
+        }
+    }
 }
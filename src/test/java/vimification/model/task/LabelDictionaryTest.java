@@ -0,0 +1,35 @@
+package vimification.model.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LabelDictionaryTest {
+
+    @Test
+    public void getId_differentCases_shouldReturnSameId() {
+        int id = LabelDictionary.getId("Dictionary-Test");
+        assertEquals(id, LabelDictionary.getId("dictionary-test"));
+        assertEquals(id, LabelDictionary.findId("DICTIONARY-TEST"));
+        assertEquals("dictionary-test", LabelDictionary.getLabel(id));
+        assertNotEquals(id, LabelDictionary.getId("dictionary-test-2"));
+    }
+
+    @Test
+    public void findId_unknownLabel_shouldReturnNoId() {
+        assertEquals(LabelDictionary.NO_ID, LabelDictionary.findId("Dictionary-Unknown"));
+        assertThrows(IllegalArgumentException.class, () -> LabelDictionary.getLabel(-1));
+    }
+
+    @Test
+    public void compare_shouldFollowLabelOrder() {
+        int apple = LabelDictionary.getId("dictionary-apple");
+        int banana = LabelDictionary.getId("Dictionary-Banana");
+        assertTrue(LabelDictionary.compare(apple, banana) < 0);
+        assertTrue(LabelDictionary.compare(banana, apple) > 0);
+        assertEquals(0, LabelDictionary.compare(apple, apple));
+    }
+}
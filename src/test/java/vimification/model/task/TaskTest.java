@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,27 @@ public class TaskTest {
         assertTrue(task.getLabels().isEmpty());
     }
 
+    @Test
+    public void testConstructorWithLabels() {
+        Task task = new Task("GEX Essay", null, Status.NOT_DONE, Priority.NOT_URGENT,
+                List.of("School", "essay"));
+        assertEquals(task.getLabels(), Set.of("school", "essay"));
+        assertThrows(IllegalArgumentException.class, () -> new Task("GEX Essay", null,
+                Status.NOT_DONE, Priority.NOT_URGENT, List.of("essay", "Essay")));
+    }
+
+    @Test
+    public void testLabelOrder() {
+        Task task = new Task("GEX Essay", null, Status.NOT_DONE, Priority.NOT_URGENT,
+                List.of("school", "Essay", "GEX1001")).withLabelAdded("draft");
+        assertEquals(List.of("draft", "essay", "gex1001", "school"),
+                List.copyOf(task.getLabels()));
+        Task otherTask = new Task("GEX Essay", null, Status.NOT_DONE, Priority.NOT_URGENT,
+                List.of("draft", "gex1001", "essay", "school"));
+        assertEquals(task, otherTask);
+        assertEquals(task.hashCode(), otherTask.hashCode());
+    }
+
     @Test
     public void testSimpleConstructor() {
         Task task = new Task("GEX Essay");
@@ -36,20 +58,17 @@ public class TaskTest {
     }
 
     @Test
-    public void testSetDeadline() {
+    public void testWithDeadline() {
         Task task = new Task("GEX Essay");
         LocalDateTime ldt = LocalDateTime.of(2023, 04, 11, 00, 00);
-        task.setDeadline(ldt);
-        assertEquals(task.getDeadline(), ldt);
+        assertEquals(task.withDeadline(ldt).getDeadline(), ldt);
     }
 
     @Test
-    public void testDeleteDeadline() {
-        Task task = new Task("Eat Vitamin C");
-        task.setDeadline(LocalDateTime.of(2023, 04, 11, 00, 00));
+    public void testWithDeadlineDeleted() {
+        Task task = new Task("Eat Vitamin C").withDeadline(LocalDateTime.of(2023, 04, 11, 00, 00));
         assertNotNull(task.getDeadline());
-        task.deleteDeadline();
-        assertNull(task.getDeadline());
+        assertNull(task.withDeadlineDeleted().getDeadline());
     }
 
     @Test
@@ -57,16 +76,14 @@ public class TaskTest {
         Task task = new Task("GEX Essay");
         assertEquals(task.getDeadlineAsString(), "-");
         LocalDateTime ldt = LocalDateTime.of(2023, 04, 15, 12, 34);
-        task.setDeadline(ldt);
-        assertEquals(task.getDeadlineAsString(), "2023-04-15 12:34");
+        assertEquals(task.withDeadline(ldt).getDeadlineAsString(), "2023-04-15 12:34");
     }
 
     @Test
-    public void testSetStatus() {
+    public void testWithStatus() {
         Task task = new Task("GEX Essay");
         assertEquals(task.getStatus(), Status.NOT_DONE);
-        task.setStatus(Status.IN_PROGRESS);
-        assertEquals(task.getStatus(), Status.IN_PROGRESS);
+        assertEquals(task.withStatus(Status.IN_PROGRESS).getStatus(), Status.IN_PROGRESS);
     }
 
     @Test
@@ -74,17 +91,16 @@ public class TaskTest {
         Task task = new Task("Buy milk");
         assertEquals(task.getStatus(), Status.NOT_DONE);
         assertTrue(task.hasStatus(Status.NOT_DONE));
-        task.setStatus(Status.IN_PROGRESS);
-        assertEquals(task.getStatus(), Status.IN_PROGRESS);
-        assertTrue(task.hasStatus(Status.IN_PROGRESS));
+        Task taskInProgress = task.withStatus(Status.IN_PROGRESS);
+        assertTrue(taskInProgress.hasStatus(Status.IN_PROGRESS));
+        assertFalse(taskInProgress.hasStatus(Status.NOT_DONE));
     }
 
     @Test
-    public void testSetPriority() {
+    public void testWithPriority() {
         Task task = new Task("GEX Essay");
         assertEquals(task.getPriority(), Priority.UNKNOWN);
-        task.setPriority(Priority.NOT_URGENT);
-        assertEquals(task.getPriority(), Priority.NOT_URGENT);
+        assertEquals(task.withPriority(Priority.NOT_URGENT).getPriority(), Priority.NOT_URGENT);
     }
 
     @Test
@@ -92,9 +108,9 @@ public class TaskTest {
         Task task = new Task("Feed my cat");
         assertEquals(task.getPriority(), Priority.UNKNOWN);
         assertTrue(task.hasPriority(Priority.UNKNOWN));
-        task.setPriority(Priority.NOT_URGENT);
-        assertEquals(task.getPriority(), Priority.NOT_URGENT);
-        assertTrue(task.hasPriority(Priority.NOT_URGENT));
+        Task notUrgentTask = task.withPriority(Priority.NOT_URGENT);
+        assertTrue(notUrgentTask.hasPriority(Priority.NOT_URGENT));
+        assertFalse(notUrgentTask.hasPriority(Priority.UNKNOWN));
     }
 
     @Test
@@ -103,18 +119,16 @@ public class TaskTest {
         assertFalse(task.containsLabel("food"));
         assertFalse(task.containsLabel("errands"));
 
-        task.addLabel("food");
-        task.addLabel("errands");
-        task.removeLabel("food");
-        assertFalse(task.containsLabel("food"));
-        assertTrue(task.containsLabel("errands"));
+        Task labelledTask = task.withLabelAdded("food")
+                .withLabelAdded("errands")
+                .withLabelRemoved("food");
+        assertFalse(labelledTask.containsLabel("food"));
+        assertTrue(labelledTask.containsLabel("errands"));
     }
 
     @Test
-    public void testAddLabel() {
-        Task task = new Task("ES2660 Essay");
-        task.addLabel("academic");
-        task.addLabel("ES2660");
+    public void testWithLabelAdded() {
+        Task task = new Task("ES2660 Essay").withLabelAdded("academic").withLabelAdded("ES2660");
         assertTrue(task.containsLabel("academic"));
         assertTrue(task.containsLabel("ES2660"));
 
@@ -127,39 +141,32 @@ public class TaskTest {
     }
 
     @Test
-    public void testAddLabel_throwsException() {
-        Exception ex = assertThrows(IllegalArgumentException.class, () -> {
-            Task task = new Task("GEX Essay");
-            task.addLabel("academic");
-            task.addLabel("academic");
-        });
+    public void testWithLabelAdded_throwsException() {
+        Task task = new Task("GEX Essay").withLabelAdded("academic");
+        Exception ex = assertThrows(IllegalArgumentException.class, () ->
+                task.withLabelAdded("academic"));
         assertEquals("Label already exists", ex.getMessage());
     }
 
     @Test
-    public void testRemoveLabel() {
-        Task task = new Task("GEX Essay");
-        task.addLabel("academic");
-        task.addLabel("GEX1001");
+    public void testWithLabelRemoved() {
+        Task task = new Task("GEX Essay").withLabelAdded("academic").withLabelAdded("GEX1001");
         assertTrue(task.containsLabel("academic"));
         assertTrue(task.containsLabel("GEX1001"));
 
-        task.removeLabel("academic");
+        task = task.withLabelRemoved("academic");
         assertFalse(task.containsLabel("academic"));
         assertTrue(task.containsLabel("GEX1001"));
 
-        task.removeLabel("GEX1001");
+        task = task.withLabelRemoved("GEX1001");
         assertFalse(task.containsLabel("GEX1001"));
     }
 
     @Test
-    public void testRemoveLabel_throwsException() {
-        Exception ex = assertThrows(IllegalArgumentException.class, () -> {
-            Task task = new Task("GEX Essay");
-            task.addLabel("academic");
-            task.removeLabel("academic");
-            task.removeLabel("academic");
-        });
+    public void testWithLabelRemoved_throwsException() {
+        Task task = new Task("GEX Essay").withLabelAdded("academic").withLabelRemoved("academic");
+        Exception ex = assertThrows(IllegalArgumentException.class, () ->
+                task.withLabelRemoved("academic"));
         assertEquals("Label does not exist", ex.getMessage());
     }
 
@@ -168,36 +175,54 @@ public class TaskTest {
         Task task = new Task("GEX Essay");
         assertEquals(task.display(), "GEX Essay");
 
-        task.setDeadline(LocalDateTime.of(2023, 04, 11, 23, 45));
-        assertEquals(task.display(), "GEX Essay; by: 2023-04-11 23:45");
+        assertEquals(task.withDeadline(LocalDateTime.of(2023, 04, 11, 23, 45)).display(),
+                "GEX Essay; by: 2023-04-11 23:45");
     }
 
     @Test
-    public void testClone() {
+    public void testWithMethods() {
         LocalDateTime ldt = LocalDateTime.of(2023, 04, 11, 00, 00);
-        Task task =
-                new Task("Do Pitch presentation slides", ldt, Status.IN_PROGRESS, Priority.URGENT);
-        task.addLabel("academic");
-        task.addLabel("CS2101");
-
-        Task clonedTask = task.clone();
-        assertEquals(clonedTask.getTitle(), task.getTitle());
-        assertEquals(clonedTask.getDeadline(), task.getDeadline());
-        assertEquals(clonedTask.getStatus(), task.getStatus());
-        assertEquals(clonedTask.getPriority(), task.getPriority());
-        assertEquals(clonedTask.getLabels(), task.getLabels());
-
-        clonedTask.setTitle("Do Demo presentation slides");
-        clonedTask.setDeadline(LocalDateTime.of(2023, 04, 12, 00, 00));
-        clonedTask.setStatus(Status.COMPLETED);
-        clonedTask.setPriority(Priority.NOT_URGENT);
-        clonedTask.addLabel("CS2103T");
-        assertNotEquals(clonedTask.getTitle(), task.getTitle());
-        assertNotEquals(clonedTask.getDeadline(), task.getDeadline());
-        assertNotEquals(clonedTask.getStatus(), task.getStatus());
-        assertNotEquals(clonedTask.getPriority(), task.getPriority());
-        assertNotEquals(clonedTask.getLabels(), task.getLabels());
-        assertTrue(clonedTask != task);
+        Task task = new Task("Do Pitch presentation slides", ldt, Status.IN_PROGRESS,
+                Priority.URGENT, List.of("academic", "CS2101"));
+        // Tasks are compared by content, so this is only equal to an unmodified task
+        Task oldTask = new Task("Do Pitch presentation slides", ldt, Status.IN_PROGRESS,
+                Priority.URGENT, List.of("academic", "CS2101"));
+
+        Task newTask = task.withTitle("Do Demo presentation slides")
+                .withDeadline(null)
+                .withStatus(Status.COMPLETED)
+                .withPriority(Priority.NOT_URGENT)
+                .withLabelRemoved("academic")
+                .withLabelAdded("CS2103T");
+        assertEquals(newTask.getTitle(), "Do Demo presentation slides");
+        assertNull(newTask.getDeadline());
+        assertEquals(newTask.getStatus(), Status.COMPLETED);
+        assertEquals(newTask.getPriority(), Priority.NOT_URGENT);
+        assertEquals(newTask.getLabels(), Set.of("cs2101", "cs2103t"));
+        assertEquals(newTask.getId(), task.getId());
+        assertEquals(task, oldTask);
+
+        assertThrows(IllegalArgumentException.class, () -> task.withLabelAdded("Academic"));
+        assertThrows(IllegalArgumentException.class, () -> task.withLabelRemoved("CS2103T"));
+        assertEquals(task, oldTask);
+    }
+
+    @Test
+    public void testWithDeadlineMethods() {
+        LocalDateTime ldt = LocalDateTime.of(2023, 04, 11, 00, 00);
+        Task task = new Task("Submit Demo video");
+
+        assertThrows(IllegalStateException.class, () -> task.withDeadlineEdited(ldt));
+        assertThrows(IllegalStateException.class, () -> task.withDeadlineDeleted());
+        Task taskWithDeadline = task.withDeadlineInserted(ldt);
+        assertEquals(taskWithDeadline.getDeadline(), ldt);
+        assertNull(task.getDeadline());
+
+        assertThrows(IllegalStateException.class, () -> taskWithDeadline.withDeadlineInserted(ldt));
+        assertEquals(taskWithDeadline.withDeadlineEdited(ldt.plusDays(1)).getDeadline(),
+                ldt.plusDays(1));
+        assertNull(taskWithDeadline.withDeadlineDeleted().getDeadline());
+        assertEquals(taskWithDeadline.getDeadline(), ldt);
     }
 
     @Test
@@ -214,7 +239,7 @@ public class TaskTest {
         Task task = new Task("Rehearse for concert");
         assertNull(task.getDeadline());
         assert !task.deadlineIsAfter(LocalDateTime.now());
-        task.setDeadline(LocalDateTime.of(2023, 04, 11, 00, 00));
+        task = task.withDeadline(LocalDateTime.of(2023, 04, 11, 00, 00));
         assertNotNull(task.getDeadline());
         assert task.deadlineIsAfter(LocalDateTime.of(2023, 04, 10, 00, 00));
         assert !task.deadlineIsAfter(LocalDateTime.of(2023, 04, 12, 00, 00));
@@ -225,9 +250,35 @@ public class TaskTest {
         Task task = new Task("CS2102 project meeting");
         assertNull(task.getDeadline());
         assert !task.deadlineIsBefore(LocalDateTime.now());
-        task.setDeadline(LocalDateTime.of(2023, 04, 11, 00, 00));
+        task = task.withDeadline(LocalDateTime.of(2023, 04, 11, 00, 00));
         assertNotNull(task.getDeadline());
         assert task.deadlineIsBefore(LocalDateTime.of(2023, 04, 12, 00, 00));
         assert !task.deadlineIsBefore(LocalDateTime.of(2023, 04, 10, 00, 00));
     }
+
+    @Test
+    public void testId() {
+        Task task = new Task("GEX Essay");
+        assertEquals(task.getId(), task.withTitle("GEX Essay").getId());
+        assertNotEquals(task.getId(), new Task("GEX Essay").getId());
+        // Tasks stored without an id get a new id, which is saved with them
+        Task storedTask = new Task(null, "GEX Essay", null, Status.NOT_DONE, Priority.UNKNOWN,
+                List.of());
+        assertNotEquals(storedTask.getId(), new Task(null, "GEX Essay", null, Status.NOT_DONE,
+                Priority.UNKNOWN, List.of()).getId());
+        Task copy = task.withNewId();
+        assertEquals(task, copy);
+        assertNotEquals(task.getId(), copy.getId());
+    }
+
+    @Test
+    public void testContentHash() {
+        Task task = new Task("GEX Essay", null, Status.NOT_DONE, Priority.NOT_URGENT,
+                List.of("school", "essay"));
+        Task sameTask = new Task("GEX Essay", null, Status.NOT_DONE, Priority.NOT_URGENT,
+                List.of("essay", "school"));
+        assertEquals(task.getContentHash(), sameTask.getContentHash());
+        assertNotEquals(task.getContentHash(),
+                sameTask.withStatus(Status.COMPLETED).getContentHash());
+    }
 }
@@ -0,0 +1,112 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static vimification.TestUtil.assertSameTasks;
+import static vimification.TestUtil.createVariedTasks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.model.TaskList;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+public class BinaryTaskListStorageTest {
+
+    @TempDir
+    public Path tempDir;
+
+    private static List<Task> createTasks() {
+        // Deadlines are stored to the minute
+        return List.of(
+                new Task("Buy milk"),
+                new Task("Ôn tập CS2103T 📚", LocalDateTime.of(2023, 4, 11, 23, 45),
+                        Status.IN_PROGRESS, Priority.URGENT, List.of("school", "exam")),
+                new Task("Call mom", null, Status.COMPLETED, Priority.NOT_URGENT,
+                        List.of("family")),
+                new Task("Pay rent", LocalDateTime.of(2023, 5, 1, 0, 0), Status.NOT_DONE,
+                        Priority.VERY_URGENT, List.of("school")));
+    }
+
+    private static void save(Path path, List<Task> tasks) throws IOException {
+        new BinaryTaskListStorage(path, false, false).saveTaskList(new TaskList(tasks));
+    }
+
+    @Test
+    public void readTaskList_eager_shouldMatchSavedTasks() throws Exception {
+        Path path = tempDir.resolve("tasks.bin");
+        List<Task> expectedTasks = createTasks();
+        save(path, expectedTasks);
+        TaskList taskList = new BinaryTaskListStorage(path, false, false).readTaskList();
+        assertSameTasks(expectedTasks, taskList.getLogicSource());
+    }
+
+    @Test
+    public void readTaskList_lazy_shouldMatchSavedTasks() throws Exception {
+        Path path = tempDir.resolve("tasks.bin");
+        List<Task> expectedTasks = createTasks();
+        save(path, expectedTasks);
+        TaskList taskList = new BinaryTaskListStorage(path, false, true).readTaskList();
+        assertSameTasks(expectedTasks, taskList.getLogicSource());
+
+        // Modifications of a lazily loaded list are kept in memory, and saved with the rest
+        taskList.set(1, new Task("Buy groceries"));
+        taskList.remove(0);
+        new BinaryTaskListStorage(path, false, false).saveTaskList(taskList);
+        List<Task> tasks = new BinaryTaskListStorage(path, false, false).readTaskList()
+                .getLogicSource();
+        assertEquals(List.of(new Task("Buy groceries"), expectedTasks.get(2),
+                expectedTasks.get(3)), tasks);
+    }
+
+    @Test
+    public void setPredicateWithQuery_lazyLargeList_shouldSelectAllMatchingTasks() throws Exception {
+        Path path = tempDir.resolve("tasks.bin");
+        // More tasks than the decoded tasks that are cached, so that tasks are decoded again
+        List<Task> expectedTasks = createVariedTasks(3000);
+        save(path, expectedTasks);
+        TaskList taskList = new BinaryTaskListStorage(path, false, true).readTaskList();
+        Predicate<Task> isEven = task -> task.containsLabel("even");
+
+        taskList.setPredicate(isEven, index -> index.getTasksWithLabel("even"));
+        assertEquals(expectedTasks.stream().filter(isEven).collect(Collectors.toList()),
+                taskList.getUiSource());
+
+        taskList.remove(0);
+        List<Task> remainingTasks = expectedTasks.subList(1, expectedTasks.size());
+        assertEquals(remainingTasks.stream().filter(isEven).collect(Collectors.toList()),
+                taskList.getUiSource());
+        taskList.setPredicate(isEven, index -> index.getTasksWithLabel("even"));
+        assertEquals(remainingTasks.stream().filter(isEven).collect(Collectors.toList()),
+                taskList.getUiSource());
+    }
+
+    @Test
+    public void readTaskList_truncatedFile_throwsDataConversionException() throws Exception {
+        Path path = tempDir.resolve("tasks.bin");
+        save(path, createTasks());
+        byte[] content = Files.readAllBytes(path);
+        Path truncatedPath = tempDir.resolve("truncated.bin");
+        for (int length = 0; length < content.length; length++) {
+            Files.write(truncatedPath, Arrays.copyOf(content, length));
+            for (boolean isLazy : new boolean[] {false, true}) {
+                BinaryTaskListStorage storage =
+                        new BinaryTaskListStorage(truncatedPath, false, isLazy);
+                assertThrows(DataConversionException.class, storage::readTaskList,
+                        "Truncated to " + length + " bytes, lazy: " + isLazy);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static vimification.TestUtil.createVariedTasks;
+import static vimification.TestUtil.getExpectedPositions;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.common.core.StorageFormat;
+import vimification.model.TaskList;
+import vimification.model.TaskListIndex;
+import vimification.model.task.Priority;
+import vimification.model.task.Status;
+import vimification.model.task.Task;
+
+public class IndexedTaskListStorageTest {
+
+    @TempDir
+    public Path tempDir;
+
+    private IndexedTaskListStorage createStorage() {
+        return new IndexedTaskListStorage(new JsonTaskListStorage(tempDir.resolve("tasks.json"),
+                false, StorageFormat.COMPACT));
+    }
+
+    private static void assertIndexMatches(List<Task> tasks, TaskListIndex index) {
+        assertEquals(tasks.size(), index.size());
+        for (String label : List.of("even", "ODD", "ôn tập", "missing")) {
+            assertEquals(getExpectedPositions(tasks, task -> task.containsLabel(label)),
+                    index.getTasksWithLabel(label));
+        }
+        for (Status status : Status.values()) {
+            assertEquals(getExpectedPositions(tasks, task -> task.hasStatus(status)),
+                    index.getTasksWithStatus(status));
+        }
+        for (Priority priority : Priority.values()) {
+            assertEquals(getExpectedPositions(tasks, task -> task.hasPriority(priority)),
+                    index.getTasksWithPriority(priority));
+        }
+        LocalDateTime after = LocalDateTime.of(2023, 1, 2, 0, 0);
+        LocalDateTime before = LocalDateTime.of(2023, 1, 4, 0, 0);
+        assertEquals(getExpectedPositions(tasks, task -> task.deadlineIsAfter(after)
+                && task.deadlineIsBefore(before)),
+                index.getTasksWithDeadlineBetween(after, before));
+        assertEquals(getExpectedPositions(tasks, task -> task.deadlineIsBefore(before)),
+                index.getTasksWithDeadlineBetween(null, before));
+        // The sort is stable, so tasks with the same deadline keep their order
+        int[] byDeadline = IntStream.range(0, tasks.size())
+                .filter(i -> tasks.get(i).getDeadline() != null)
+                .boxed()
+                .sorted(Comparator.comparing(i -> tasks.get(i).getDeadline()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertArrayEquals(byDeadline, index.getTasksByDeadline());
+    }
+
+    @Test
+    public void flushIndex_shouldWriteIndexReadBack() throws Exception {
+        IndexedTaskListStorage storage = createStorage();
+        List<Task> tasks = createVariedTasks(200);
+        storage.saveTaskList(new TaskList(tasks));
+        // Saves do not write the index
+        assertFalse(Files.exists(storage.getIndexFilePath()));
+        storage.flushIndex();
+        assertTrue(Files.exists(storage.getIndexFilePath()));
+
+        TaskList taskList = createStorage().readTaskList();
+        TaskListIndex index = taskList.getIndex();
+        assertTrue(index instanceof MappedTaskListIndex);
+        assertIndexMatches(tasks, index);
+    }
+
+    @Test
+    public void readTaskList_outdatedIndex_shouldNotBeUsed() throws Exception {
+        IndexedTaskListStorage storage = createStorage();
+        List<Task> tasks = createVariedTasks(200);
+        storage.saveTaskList(new TaskList(tasks));
+        storage.flushIndex();
+
+        // Saved without writing the index, so that the index file no longer matches the tasks
+        List<Task> modifiedTasks = createVariedTasks(201).subList(1, 201);
+        new JsonTaskListStorage(storage.getTaskListFilePath(), false, StorageFormat.COMPACT)
+                .saveTaskList(new TaskList(modifiedTasks));
+        IndexedTaskListStorage newStorage = createStorage();
+        TaskList taskList = newStorage.readTaskList();
+        assertIndexMatches(modifiedTasks, taskList.getIndex());
+
+        // The index is rebuilt from the tasks that were read
+        newStorage.saveTaskList(taskList);
+        newStorage.flushIndex();
+        TaskListIndex index = createStorage().readTaskList().getIndex();
+        assertTrue(index instanceof MappedTaskListIndex);
+        assertIndexMatches(modifiedTasks, index);
+    }
+}
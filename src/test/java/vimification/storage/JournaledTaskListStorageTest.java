@@ -0,0 +1,283 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static vimification.TestUtil.assertSameTasks;
+import static vimification.TestUtil.createTasks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+public class JournaledTaskListStorageTest {
+
+    private static final int CHECKPOINT_RECORDS = 5;
+
+    @TempDir
+    public Path tempDir;
+
+    private JournaledTaskListStorage createStorage(TaskListStorage snapshotStorage,
+            boolean isCheckpointInBackground) {
+        return new JournaledTaskListStorage(snapshotStorage, false, CHECKPOINT_RECORDS,
+                Long.MAX_VALUE, isCheckpointInBackground);
+    }
+
+    private JournaledTaskListStorage createStorage(boolean isCheckpointInBackground) {
+        return createStorage(new JsonTaskListStorage(tempDir.resolve("tasks.json"), false),
+                isCheckpointInBackground);
+    }
+
+    private static long countLines(Path path) throws IOException {
+        return Files.readAllLines(path).size();
+    }
+
+    private void assertCheckpoint(boolean isCheckpointInBackground) throws Exception {
+        JournaledTaskListStorage storage = createStorage(isCheckpointInBackground);
+        TaskList taskList = new TaskList(createTasks(10));
+        storage.saveTaskList(taskList);
+        for (int i = 0; i < CHECKPOINT_RECORDS + 2; i++) {
+            taskList.set(i, new Task("Modified task " + i));
+            storage.saveTaskList(taskList);
+        }
+        // Waits for the checkpoint, if it runs in the background
+        assertSameTasks(taskList.getLogicSource(), storage.refreshTaskList().getLogicSource());
+
+        // The journal only holds the base and the records saved after the checkpoint, and its
+        // base identifies the file of the new snapshot
+        assertEquals(3, countLines(storage.getJournalFilePath()));
+        assertTrue(Files.readAllLines(storage.getJournalFilePath()).get(0)
+                .contains(FileUtil.getFingerprint(tempDir.resolve("tasks.json"))));
+        assertFalse(Files.exists(tempDir.resolve("tasks.json.journal.next")));
+        List<Task> snapshotTasks = new JsonTaskListStorage(tempDir.resolve("tasks.json"), false)
+                .readTaskList().getLogicSource();
+        assertEquals(taskList.getLogicSource().subList(0, CHECKPOINT_RECORDS),
+                snapshotTasks.subList(0, CHECKPOINT_RECORDS));
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+    }
+
+    @Test
+    public void saveTaskList_pastCheckpointRecords_shouldWriteSnapshot() throws Exception {
+        assertCheckpoint(false);
+    }
+
+    @Test
+    public void saveTaskList_pastCheckpointRecordsInBackground_shouldWriteSnapshot()
+            throws Exception {
+        assertCheckpoint(true);
+    }
+
+    @Test
+    public void readTaskList_crashAfterCheckpointSnapshot_shouldReplayNextJournal()
+            throws Exception {
+        JournaledTaskListStorage storage = createStorage(false);
+        storage.saveTaskList(new TaskList(createTasks(10)));
+
+        // Writes the state left by a crash after the checkpoint wrote the new snapshot, but
+        // before the next journal replaced the journal
+        Path otherDir = Files.createDirectory(tempDir.resolve("other"));
+        JsonTaskListStorage otherSnapshotStorage =
+                new JsonTaskListStorage(otherDir.resolve("tasks.json"), false);
+        JournaledTaskListStorage otherStorage = createStorage(otherSnapshotStorage, false);
+        TaskList taskList = new TaskList(createTasks(20));
+        otherStorage.saveTaskList(taskList);
+        taskList.remove(0);
+        taskList.add(new Task("Added task"));
+        otherStorage.saveTaskList(taskList);
+        Files.copy(otherSnapshotStorage.getTaskListFilePath(), tempDir.resolve("tasks.json"),
+                StandardCopyOption.REPLACE_EXISTING);
+        Path nextJournalPath = tempDir.resolve("tasks.json.journal.next");
+        Files.copy(otherStorage.getJournalFilePath(), nextJournalPath);
+
+        JournaledTaskListStorage newStorage = createStorage(false);
+        assertSameTasks(taskList.getLogicSource(), newStorage.readTaskList().getLogicSource());
+        assertFalse(Files.exists(nextJournalPath));
+        assertEquals(Files.readAllLines(otherStorage.getJournalFilePath()),
+                Files.readAllLines(newStorage.getJournalFilePath()));
+    }
+
+    @Test
+    public void readTaskList_crashBeforeCheckpointSnapshot_shouldDeleteNextJournal()
+            throws Exception {
+        JournaledTaskListStorage storage = createStorage(false);
+        TaskList taskList = new TaskList(createTasks(10));
+        storage.saveTaskList(taskList);
+        taskList.remove(0);
+        storage.saveTaskList(taskList);
+        // The snapshot of the next journal was never written
+        Path nextJournalPath = tempDir.resolve("tasks.json.journal.next");
+        Files.writeString(nextJournalPath, "{\"type\":\"BASE\",\"base\":\"checksum:0\"}\n");
+
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+        assertFalse(Files.exists(nextJournalPath));
+    }
+
+    @Test
+    public void readTaskList_journalWithSnapshotFingerprint_shouldNotCheckChecksum()
+            throws Exception {
+        JournaledTaskListStorage storage = createStorage(false);
+        TaskList taskList = new TaskList(createTasks(10));
+        storage.saveTaskList(taskList);
+        taskList.remove(0);
+        storage.saveTaskList(taskList);
+        // The journal still applies to the unmodified file of the snapshot, whatever its checksum
+        Path journalPath = storage.getJournalFilePath();
+        List<String> lines = Files.readAllLines(journalPath);
+        lines.set(0, lines.get(0).replaceFirst("checksum:[^\"]*", "checksum:0"));
+        Files.write(journalPath, lines);
+
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+    }
+
+    @Test
+    public void saveTaskList_failedSnapshot_nextSaveShouldWriteSnapshot() throws Exception {
+        FailingStorage snapshotStorage = new FailingStorage(tempDir.resolve("tasks.json"));
+        JournaledTaskListStorage storage = createStorage(snapshotStorage, false);
+        TaskList taskList = new TaskList(createTasks(10));
+        storage.saveTaskList(taskList);
+        // Another program replaces the snapshot, so that the journal no longer applies to it
+        new JsonTaskListStorage(tempDir.resolve("tasks.json"), false)
+                .saveTaskList(new TaskList(createTasks(3)));
+
+        snapshotStorage.shouldFail = true;
+        taskList.set(0, new Task("Modified task"));
+        assertThrows(IOException.class, () -> storage.saveTaskList(taskList));
+        snapshotStorage.shouldFail = false;
+        snapshotStorage.saveCount = 0;
+
+        // Nothing is known to be persisted, so the whole task list is written again
+        taskList.remove(1);
+        storage.saveTaskList(taskList);
+        assertEquals(1, snapshotStorage.saveCount);
+        assertEquals(1, countLines(storage.getJournalFilePath()));
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+    }
+
+    @Test
+    public void saveTaskList_failedCheckpoint_shouldKeepJournal() throws Exception {
+        FailingStorage snapshotStorage = new FailingStorage(tempDir.resolve("tasks.json"));
+        JournaledTaskListStorage storage = createStorage(snapshotStorage, false);
+        TaskList taskList = new TaskList(createTasks(10));
+        storage.saveTaskList(taskList);
+
+        snapshotStorage.shouldFail = true;
+        for (int i = 0; i < CHECKPOINT_RECORDS; i++) {
+            taskList.set(i, new Task("Modified task " + i));
+            storage.saveTaskList(taskList);
+        }
+        assertFalse(Files.exists(tempDir.resolve("tasks.json.journal.next")));
+        assertEquals(CHECKPOINT_RECORDS + 1, countLines(storage.getJournalFilePath()));
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+
+        // The checkpoint is attempted again on the next save
+        snapshotStorage.shouldFail = false;
+        snapshotStorage.saveCount = 0;
+        taskList.remove(0);
+        storage.saveTaskList(taskList);
+        assertEquals(1, snapshotStorage.saveCount);
+        assertEquals(1, countLines(storage.getJournalFilePath()));
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+    }
+
+    @Test
+    public void saveTaskList_abortedCheckpoint_shouldRebuildJournal() throws Exception {
+        FailingStorage snapshotStorage = new FailingStorage(tempDir.resolve("tasks.json"));
+        JournaledTaskListStorage storage = createStorage(snapshotStorage, true);
+        TaskList taskList = new TaskList(createTasks(10));
+        storage.saveTaskList(taskList);
+
+        snapshotStorage.blocker = new CountDownLatch(1);
+        snapshotStorage.started = new CountDownLatch(1);
+        for (int i = 0; i < CHECKPOINT_RECORDS; i++) {
+            taskList.set(i, new Task("Modified task " + i));
+            storage.saveTaskList(taskList);
+        }
+        // The next journal is started before the snapshot is written
+        snapshotStorage.started.await();
+        // Makes appending to the next journal fail while the checkpoint is in progress
+        Path nextJournalPath = tempDir.resolve("tasks.json.journal.next");
+        Files.delete(nextJournalPath);
+        Files.createDirectory(nextJournalPath);
+        taskList.remove(0);
+        storage.saveTaskList(taskList);
+        snapshotStorage.blocker.countDown();
+
+        // Waits for the checkpoint, after which the journal applies to the new snapshot
+        assertSameTasks(taskList.getLogicSource(), storage.refreshTaskList().getLogicSource());
+        assertFalse(Files.exists(nextJournalPath));
+        assertEquals(2, countLines(storage.getJournalFilePath()));
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+
+        taskList.add(new Task("Added task"));
+        snapshotStorage.saveCount = 0;
+        storage.saveTaskList(taskList);
+        assertEquals(0, snapshotStorage.saveCount);
+        assertEquals(3, countLines(storage.getJournalFilePath()));
+        assertSameTasks(taskList.getLogicSource(),
+                createStorage(false).readTaskList().getLogicSource());
+    }
+
+    /**
+     * A snapshot storage whose saves can be made to fail or to wait.
+     */
+    private static class FailingStorage implements TaskListStorage {
+        private final JsonTaskListStorage storage;
+        private volatile boolean shouldFail = false;
+        private volatile CountDownLatch blocker = null;
+        private volatile CountDownLatch started = null;
+        private volatile int saveCount = 0;
+
+        private FailingStorage(Path path) {
+            storage = new JsonTaskListStorage(path, false);
+        }
+
+        @Override
+        public Path getTaskListFilePath() {
+            return storage.getTaskListFilePath();
+        }
+
+        @Override
+        public TaskList readTaskList() throws DataConversionException, IOException {
+            return storage.readTaskList();
+        }
+
+        @Override
+        public void saveTaskList(TaskList taskList) throws IOException {
+            if (started != null) {
+                started.countDown();
+            }
+            if (blocker != null) {
+                try {
+                    blocker.await();
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+                blocker = null;
+            }
+            if (shouldFail) {
+                throw new IOException("Disk full");
+            }
+            saveCount++;
+            storage.saveTaskList(taskList);
+        }
+    }
+}
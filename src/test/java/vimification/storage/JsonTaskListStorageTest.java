@@ -0,0 +1,122 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static vimification.TestUtil.assertSameTasks;
+import static vimification.TestUtil.createVariedTasks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.common.core.StorageFormat;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.FileUtil;
+import vimification.common.util.JsonUtil;
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+public class JsonTaskListStorageTest {
+
+    // More than one chunk, so that the tasks are encoded in parallel
+    private static final int LARGE_TASK_COUNT = 10000;
+
+    @TempDir
+    public Path tempDir;
+
+    private void assertRoundTrip(StorageFormat format, int taskCount) throws Exception {
+        Path path = tempDir.resolve(format + "-" + taskCount + ".json");
+        List<Task> expectedTasks = createVariedTasks(taskCount);
+        new JsonTaskListStorage(path, false, format).saveTaskList(new TaskList(expectedTasks));
+
+        // Files in any format can be read, whatever the format of the storage
+        TaskList taskList = new JsonTaskListStorage(path, false).readTaskList();
+        assertSameTasks(expectedTasks, taskList.getLogicSource());
+
+        List<Task> streamedTasks = new ArrayList<>();
+        new JsonTaskListStorage(path, false, format).readTaskList(streamedTasks::addAll);
+        assertSameTasks(expectedTasks, streamedTasks);
+    }
+
+    @Test
+    public void saveTaskList_pretty_shouldRoundTrip() throws Exception {
+        assertRoundTrip(StorageFormat.PRETTY, 10);
+        assertRoundTrip(StorageFormat.PRETTY, LARGE_TASK_COUNT);
+    }
+
+    @Test
+    public void saveTaskList_compact_shouldRoundTrip() throws Exception {
+        assertRoundTrip(StorageFormat.COMPACT, 10);
+        assertRoundTrip(StorageFormat.COMPACT, LARGE_TASK_COUNT);
+        String content = FileUtil.readFromFile(tempDir.resolve("COMPACT-10.json"));
+        assertFalse(content.contains("\n"));
+    }
+
+    @Test
+    public void saveTaskList_compressed_shouldRoundTrip() throws Exception {
+        assertRoundTrip(StorageFormat.COMPRESSED, 10);
+        assertRoundTrip(StorageFormat.COMPRESSED, LARGE_TASK_COUNT);
+        byte[] content = Files.readAllBytes(tempDir.resolve("COMPRESSED-10.json"));
+        assertEquals((byte) 0x1f, content[0]);
+        assertEquals((byte) 0x8b, content[1]);
+    }
+
+    @Test
+    public void saveTaskList_inChunks_shouldMatchSingleDocument() throws Exception {
+        Path path = tempDir.resolve("tasks.json");
+        // Characters outside the BMP are escaped when writing to a stream, but not to a string
+        List<Task> expectedTasks = new ArrayList<>();
+        for (Task task : createVariedTasks(LARGE_TASK_COUNT)) {
+            expectedTasks.add(task.withTitle(task.getTitle().replace(" 📚", "")));
+        }
+        new JsonTaskListStorage(path, false).saveTaskList(new TaskList(expectedTasks));
+
+        String content = FileUtil.readFromFile(path);
+        assertTrue(content.startsWith("{"));
+        assertEquals(JsonUtil.toJsonString(new TaskList(expectedTasks)).strip(), content.strip());
+    }
+
+    @Test
+    public void readTaskList_tasksWithoutIds_shouldNotWriteFile() throws Exception {
+        Path path = tempDir.resolve("tasks.json");
+        List<Task> expectedTasks = createVariedTasks(10);
+        JsonTaskListStorage storage = new JsonTaskListStorage(path, false);
+        storage.saveTaskList(new TaskList(expectedTasks));
+        String content = FileUtil.readFromFile(path).replaceAll("\"id\" : \"[^\"]*\",", "");
+        assertFalse(content.contains("\"id\""));
+        FileUtil.writeToFile(path, content);
+
+        TaskList taskList = storage.readTaskList();
+        assertEquals(expectedTasks, taskList.getLogicSource());
+        assertEquals(content, FileUtil.readFromFile(path));
+        // The new ids are kept once the task list is saved
+        storage.saveTaskList(taskList);
+        assertSameTasks(taskList.getLogicSource(), storage.readTaskList().getLogicSource());
+    }
+
+    @Test
+    public void readTaskList_invalidTaskInLaterChunk_shouldReportPosition() throws Exception {
+        Path path = tempDir.resolve("tasks.json");
+        new JsonTaskListStorage(path, false, StorageFormat.COMPACT)
+                .saveTaskList(new TaskList(createVariedTasks(LARGE_TASK_COUNT)));
+        String content = FileUtil.readFromFile(path);
+        int invalidPosition = LARGE_TASK_COUNT - 10;
+        int statusStart = -1;
+        for (int i = 0; i <= invalidPosition; i++) {
+            statusStart = content.indexOf("\"status\"", statusStart + 1);
+        }
+        String invalidContent = content.substring(0, statusStart) + content.substring(statusStart)
+                .replaceFirst("\"status\":\"[A-Z_]+\"", "\"status\":\"INVALID\"");
+        FileUtil.writeToFile(path, invalidContent);
+
+        DataConversionException ex = assertThrows(DataConversionException.class, () ->
+                new JsonTaskListStorage(path, false).readTaskList());
+        assertTrue(ex.getMessage().contains("position " + invalidPosition), ex.getMessage());
+    }
+}
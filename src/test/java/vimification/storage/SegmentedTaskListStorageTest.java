@@ -0,0 +1,127 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static vimification.TestUtil.createTasks;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.common.core.StorageFormat;
+import vimification.common.exceptions.DataConversionException;
+import vimification.common.util.JsonUtil;
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+import vimification.storage.JsonAdaptedSegmentManifest.JsonAdaptedSegment;
+
+public class SegmentedTaskListStorageTest {
+
+    private static final int SEGMENT_SIZE = 10;
+
+    @TempDir
+    public Path tempDir;
+
+    private SegmentedTaskListStorage createStorage() {
+        return new SegmentedTaskListStorage(tempDir, false, StorageFormat.COMPACT, SEGMENT_SIZE);
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tempDir, "segment-*.json")) {
+            stream.forEach(paths::add);
+        }
+        return paths;
+    }
+
+    /**
+     * Reads the task list with a new instance, so that nothing is reused from previous saves.
+     */
+    private void assertPersisted(List<Task> expectedTasks) throws Exception {
+        List<Task> tasks = createStorage().readTaskList().getLogicSource();
+        assertEquals(expectedTasks, tasks);
+        for (int i = 0; i < expectedTasks.size(); i++) {
+            assertEquals(expectedTasks.get(i).getId(), tasks.get(i).getId());
+        }
+    }
+
+    @Test
+    public void saveTaskList_acrossSegmentBoundary_shouldRoundTrip() throws Exception {
+        SegmentedTaskListStorage storage = createStorage();
+        // 25 tasks are spread into segments of 8, 8 and 9 tasks
+        TaskList taskList = new TaskList(createTasks(25));
+        storage.saveTaskList(taskList);
+        assertEquals(3, listSegmentFiles().size());
+        assertPersisted(taskList.getLogicSource());
+
+        taskList.add(8, new Task("Inserted at the start of the second segment"));
+        storage.saveTaskList(taskList);
+        assertPersisted(taskList.getLogicSource());
+
+        // Removes the last task of the first segment and the first task of the second one
+        taskList.removeRange(7, 9);
+        storage.saveTaskList(taskList);
+        assertPersisted(taskList.getLogicSource());
+        assertEquals(3, listSegmentFiles().size());
+    }
+
+    @Test
+    public void saveTaskList_segmentBelowHalfSize_shouldMergeWithNextSegment() throws Exception {
+        SegmentedTaskListStorage storage = createStorage();
+        // 15 tasks are spread into segments of 7 and 8 tasks
+        TaskList taskList = new TaskList(createTasks(15));
+        storage.saveTaskList(taskList);
+        assertEquals(2, listSegmentFiles().size());
+
+        // The first segment is left with 2 tasks, which fit together with the second one
+        taskList.removeRange(0, 5);
+        storage.saveTaskList(taskList);
+        assertEquals(1, listSegmentFiles().size());
+        assertPersisted(taskList.getLogicSource());
+    }
+
+    @Test
+    public void saveTaskList_emptyList_shouldDeleteAllSegments() throws Exception {
+        SegmentedTaskListStorage storage = createStorage();
+        TaskList taskList = new TaskList(createTasks(25));
+        storage.saveTaskList(taskList);
+
+        taskList.clear();
+        storage.saveTaskList(taskList);
+        assertEquals(0, listSegmentFiles().size());
+        assertPersisted(List.of());
+
+        taskList.add(new Task("Task after clear"));
+        storage.saveTaskList(taskList);
+        assertEquals(1, listSegmentFiles().size());
+        assertPersisted(taskList.getLogicSource());
+    }
+
+    @Test
+    public void readTaskList_missingSegment_throwsDataConversionException() throws Exception {
+        JsonUtil.saveJsonFile(new JsonAdaptedSegmentManifest(1, List.of(
+                new JsonAdaptedSegment(0, 1))), tempDir.resolve("manifest.json"));
+        assertThrows(DataConversionException.class, createStorage()::readTaskList);
+    }
+
+    @Test
+    public void readTaskList_unusedSegmentFiles_shouldBeDeleted() throws Exception {
+        List<Task> tasks = createTasks(15);
+        createStorage().saveTaskList(new TaskList(tasks));
+        List<Path> segmentPaths = listSegmentFiles();
+        // Left behind by a save that was interrupted before the manifest was replaced
+        Path unusedPath = tempDir.resolve("segment-100.json");
+        Files.copy(segmentPaths.get(0), unusedPath);
+
+        assertPersisted(tasks);
+        assertFalse(Files.exists(unusedPath));
+        assertEquals(segmentPaths.size(), listSegmentFiles().size());
+    }
+}
@@ -0,0 +1,85 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static vimification.TestUtil.assertSameTasks;
+import static vimification.TestUtil.createTasks;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.common.util.FileUtil;
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+public class SharedTaskListStorageTest {
+
+    private static final long POLL_TIMEOUT_SECONDS = 10;
+
+    @TempDir
+    public Path tempDir;
+
+    private SharedTaskListStorage createStorage() {
+        return new SharedTaskListStorage(
+                new JsonTaskListStorage(tempDir.resolve("tasks.json"), false), false);
+    }
+
+    private static void edit(TaskList taskList, int index, String title) {
+        taskList.set(index, taskList.get(index).withTitle(title));
+    }
+
+    @Test
+    public void saveTaskList_separateEdits_shouldBothBeKept() throws Exception {
+        SharedTaskListStorage laptop = createStorage();
+        SharedTaskListStorage desktop = createStorage();
+        TaskList laptopTasks = new TaskList(createTasks(3));
+        laptop.saveTaskList(laptopTasks);
+        TaskList desktopTasks = desktop.readTaskList();
+
+        edit(laptopTasks, 0, "Edited on the laptop");
+        laptop.saveTaskList(laptopTasks);
+        edit(desktopTasks, 2, "Edited on the desktop");
+        desktop.saveTaskList(desktopTasks);
+        // The laptop has not seen the edit of the desktop, which must not be overwritten
+        edit(laptopTasks, 1, "Edited on the laptop again");
+        laptop.saveTaskList(laptopTasks);
+
+        List<Task> tasks = createStorage().readTaskList().getLogicSource();
+        assertEquals("Edited on the laptop", tasks.get(0).getTitle());
+        assertEquals("Edited on the laptop again", tasks.get(1).getTitle());
+        assertEquals("Edited on the desktop", tasks.get(2).getTitle());
+        assertEquals(laptopTasks.get(0).getId(), tasks.get(0).getId());
+    }
+
+    @Test
+    public void startPolling_shouldReceiveEditsWithoutRewritingThem() throws Exception {
+        SharedTaskListStorage laptop = createStorage();
+        SharedTaskListStorage desktop = createStorage();
+        TaskList laptopTasks = new TaskList(createTasks(2));
+        laptop.saveTaskList(laptopTasks);
+        desktop.readTaskList();
+        BlockingQueue<List<Task>> polledTasks = new LinkedBlockingQueue<>();
+        desktop.startPolling(polledTasks::add);
+        try {
+            edit(laptopTasks, 1, "Edited on the laptop");
+            laptop.saveTaskList(laptopTasks);
+            List<Task> tasks = polledTasks.poll(POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(tasks);
+            assertSameTasks(laptopTasks.getLogicSource(), tasks);
+
+            // Saving the polled tasks, as the application does after a reload, writes nothing
+            Path filePath = desktop.getTaskListFilePath();
+            String fingerprint = FileUtil.getFingerprint(filePath);
+            desktop.saveTaskList(new TaskList(tasks));
+            assertEquals(fingerprint, FileUtil.getFingerprint(filePath));
+        } finally {
+            desktop.stopPolling();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static vimification.TestUtil.createTasks;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+public class WatchedTaskListStorageTest {
+
+    // Some file systems are only polled every few seconds
+    private static final long RELOAD_TIMEOUT_MILLIS = 15_000;
+    private static final long QUIET_MILLIS = 3 * WatchedTaskListStorage.SETTLE_MILLIS;
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void startWatching_shouldOnlyReloadExternalModifications() throws Exception {
+        Path path = tempDir.resolve("tasks.json");
+        WatchedTaskListStorage storage =
+                new WatchedTaskListStorage(new JsonTaskListStorage(path, false));
+        BlockingQueue<List<Task>> reloads = new LinkedBlockingQueue<>();
+        storage.saveTaskList(new TaskList(createTasks(2)));
+        storage.startWatching(reloads::add);
+        try {
+            // Saves of the storage itself are recognized by the fingerprint of the data file
+            storage.saveTaskList(new TaskList(createTasks(3)));
+            assertNull(reloads.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS));
+
+            List<Task> externalTasks = createTasks(5);
+            long writeTime = System.nanoTime();
+            new JsonTaskListStorage(path, false).saveTaskList(new TaskList(externalTasks));
+            List<Task> reloadedTasks = reloads.poll(RELOAD_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            long elapsedMillis = (System.nanoTime() - writeTime) / 1_000_000;
+            assertEquals(externalTasks, reloadedTasks);
+            assertTrue(elapsedMillis >= WatchedTaskListStorage.SETTLE_MILLIS);
+            // The events of a single write only cause a single reload
+            assertNull(reloads.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS));
+        } finally {
+            storage.stopWatching();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package vimification.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static vimification.TestUtil.createTasks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import vimification.model.MacroMap;
+import vimification.model.TaskList;
+import vimification.model.task.Task;
+
+public class WriteBehindStorageTest {
+
+    @TempDir
+    public Path tempDir;
+
+    private final RecordingTaskListStorage taskListStorage = new RecordingTaskListStorage();
+
+    private WriteBehindStorage createStorage() {
+        return new WriteBehindStorage(new StorageManager(taskListStorage,
+                new JsonMacroMapStorage(tempDir.resolve("macros.json")),
+                new JsonUserPrefsStorage(tempDir.resolve("preferences.json")),
+                false));
+    }
+
+    @Test
+    public void saveTaskList_rapidSaves_shouldBeWrittenOnce() throws Exception {
+        WriteBehindStorage storage = createStorage();
+        TaskList taskList = new TaskList();
+        for (Task task : createTasks(5)) {
+            taskList.add(task);
+            storage.saveTaskList(taskList);
+        }
+        storage.flush();
+        assertEquals(1, taskListStorage.savedTaskLists.size());
+        assertEquals(taskList.getLogicSource(), taskListStorage.getLastSavedTasks());
+    }
+
+    @Test
+    public void flush_shouldWriteLatestSnapshot() throws Exception {
+        WriteBehindStorage storage = createStorage();
+        TaskList taskList = new TaskList(createTasks(2));
+        storage.saveTaskList(taskList);
+        List<Task> savedTasks = new ArrayList<>(taskList.getLogicSource());
+        // Modifications after the save are not written
+        taskList.add(new Task("Not saved"));
+        MacroMap macroMap = new MacroMap(Map.of("d1", "d 1"));
+        storage.saveMacroMap(macroMap);
+        macroMap.put("d2", "d 2");
+
+        storage.flush();
+        assertEquals(savedTasks, taskListStorage.getLastSavedTasks());
+        assertEquals(new MacroMap(Map.of("d1", "d 1")), storage.readMacroMap());
+        storage.flush();
+        assertEquals(1, taskListStorage.savedTaskLists.size());
+    }
+
+    @Test
+    public void flush_failedWrite_shouldBeReportedAndRetried() throws Exception {
+        WriteBehindStorage storage = createStorage();
+        TaskList taskList = new TaskList(createTasks(3));
+        IOException failure = new IOException("Disk full");
+        taskListStorage.failure = failure;
+        storage.saveTaskList(taskList);
+        assertSame(failure, assertThrows(IOException.class, storage::flush));
+        assertEquals(0, taskListStorage.savedTaskLists.size());
+
+        // The failure is only reported once, and the unsaved snapshot is kept for the next write
+        taskListStorage.failure = null;
+        storage.flush();
+        assertEquals(taskList.getLogicSource(), taskListStorage.getLastSavedTasks());
+    }
+
+    @Test
+    public void flush_unexpectedErrorDuringWrite_shouldBeReportedAndRetried() throws Exception {
+        WriteBehindStorage storage = createStorage();
+        TaskList taskList = new TaskList(createTasks(3));
+        IllegalStateException failure = new IllegalStateException("Invalid task");
+        taskListStorage.failure = failure;
+        storage.saveTaskList(taskList);
+        assertSame(failure, assertThrows(IOException.class, storage::flush).getCause());
+
+        taskListStorage.failure = null;
+        storage.flush();
+        assertEquals(taskList.getLogicSource(), taskListStorage.getLastSavedTasks());
+    }
+
+    /**
+     * Records the task lists saved to it, or fails while {@code failure} is set.
+     */
+    private static class RecordingTaskListStorage implements TaskListStorage {
+
+        private final List<TaskList> savedTaskLists = new ArrayList<>();
+        private volatile Exception failure = null;
+
+        @Override
+        public Path getTaskListFilePath() {
+            return Path.of("tasks.json");
+        }
+
+        @Override
+        public TaskList readTaskList() {
+            return savedTaskLists.isEmpty() ? new TaskList() : getLastSaved();
+        }
+
+        @Override
+        public synchronized void saveTaskList(TaskList taskList) throws IOException {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            savedTaskLists.add(taskList);
+        }
+
+        private synchronized TaskList getLastSaved() {
+            return savedTaskLists.get(savedTaskLists.size() - 1);
+        }
+
+        private List<Task> getLastSavedTasks() {
+            return getLastSaved().getLogicSource();
+        }
+    }
+}